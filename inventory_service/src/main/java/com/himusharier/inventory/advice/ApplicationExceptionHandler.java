@@ -1,13 +1,22 @@
 package com.himusharier.inventory.advice;
 
+import com.himusharier.inventory.dto.response.StockReservationResponseDto;
+import com.himusharier.inventory.exception.FlashSaleUnavailableException;
+import com.himusharier.inventory.exception.InsufficientStockException;
 import com.himusharier.inventory.exception.ProductSubmissionException;
+import com.himusharier.inventory.exception.ProductVersionConflictException;
 import com.himusharier.inventory.exception.ResourceNotFoundException;
+import com.himusharier.inventory.exception.StockReservationException;
 import com.himusharier.inventory.util.ApiResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 @RestControllerAdvice
 public class ApplicationExceptionHandler {
@@ -33,6 +42,26 @@ public class ApplicationExceptionHandler {
         return ResponseEntity.badRequest().body(response);
     }
 
+    @ExceptionHandler({MissingServletRequestParameterException.class, MethodArgumentTypeMismatchException.class})
+    public ResponseEntity<ApiResponse<String>> handleInvalidRequestParameter(Exception exception) {
+        ApiResponse<String> response = new ApiResponse<>(
+                false,
+                exception.getMessage()
+        );
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    // E.g. Protobuf requested from an endpoint without a Protobuf schema; the error itself is still written.
+    @ExceptionHandler(HttpMediaTypeNotAcceptableException.class)
+    public ResponseEntity<ApiResponse<String>> handleNotAcceptable(HttpMediaTypeNotAcceptableException exception) {
+        ApiResponse<String> response = new ApiResponse<>(
+                false,
+                "Can not encode this response as the requested media type. Supported: "
+                        + exception.getSupportedMediaTypes() + "."
+        );
+        return ResponseEntity.status(406).body(response);
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ApiResponse<String>> handleNotFound(ResourceNotFoundException exception) {
         ApiResponse<String> response = new ApiResponse<>(
@@ -51,4 +80,50 @@ public class ApplicationExceptionHandler {
         return ResponseEntity.status(400).body(response);
     }
 
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<ApiResponse<String>> handleInsufficientStock(InsufficientStockException exception) {
+        ApiResponse<String> response = new ApiResponse<>(
+                false,
+                exception.getMessage()
+        );
+        return ResponseEntity.status(409).body(response);
+    }
+
+    @ExceptionHandler(ProductVersionConflictException.class)
+    public ResponseEntity<ApiResponse<String>> handleVersionConflict(ProductVersionConflictException exception) {
+        ApiResponse<String> response = new ApiResponse<>(
+                false,
+                exception.getMessage()
+        );
+        return ResponseEntity.status(412).body(response);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<String>> handleOptimisticLockingFailure(OptimisticLockingFailureException exception) {
+        ApiResponse<String> response = new ApiResponse<>(
+                false,
+                "Product was modified concurrently, please retry."
+        );
+        return ResponseEntity.status(409).body(response);
+    }
+
+    @ExceptionHandler(StockReservationException.class)
+    public ResponseEntity<ApiResponse<StockReservationResponseDto>> handleStockReservationError(StockReservationException exception) {
+        ApiResponse<StockReservationResponseDto> response = new ApiResponse<>(
+                false,
+                exception.getMessage(),
+                exception.getResult()
+        );
+        return ResponseEntity.status(409).body(response);
+    }
+
+    @ExceptionHandler(FlashSaleUnavailableException.class)
+    public ResponseEntity<ApiResponse<String>> handleFlashSaleUnavailable(FlashSaleUnavailableException exception) {
+        ApiResponse<String> response = new ApiResponse<>(
+                false,
+                exception.getMessage()
+        );
+        return ResponseEntity.status(503).body(response);
+    }
+
 }
@@ -0,0 +1,17 @@
+package com.himusharier.inventory.alert;
+
+import com.himusharier.inventory.event.StockThresholdEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+// In-process sink, always on.
+@Slf4j
+@Component
+public class LoggingStockAlertSink implements StockAlertSink {
+
+    @Override
+    public void publish(StockThresholdEvent event) {
+        log.warn("Stock alert {}: product {} has {} in stock (reorder threshold {})",
+                event.getType(), event.getProductId(), event.getQuantity(), event.getReorderThreshold());
+    }
+}
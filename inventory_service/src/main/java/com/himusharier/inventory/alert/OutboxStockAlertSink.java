@@ -0,0 +1,41 @@
+package com.himusharier.inventory.alert;
+
+import com.himusharier.inventory.event.StockThresholdEvent;
+import com.himusharier.inventory.model.StockAlertOutboxEntry;
+import com.himusharier.inventory.repository.StockAlertOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes alerts to {@code em_stock_alert_outbox} in the same transaction as the stock change,
+ * so an alert exists if and only if the change committed. Rows are left for a downstream
+ * relay to pick up ({@code published_at} is null until then).
+ */
+@Component
+@ConditionalOnProperty(name = "app.stock.alerts.outbox.enabled", havingValue = "true")
+public class OutboxStockAlertSink implements StockAlertSink {
+
+    private final StockAlertOutboxRepository stockAlertOutboxRepository;
+
+    @Autowired
+    public OutboxStockAlertSink(StockAlertOutboxRepository stockAlertOutboxRepository) {
+        this.stockAlertOutboxRepository = stockAlertOutboxRepository;
+    }
+
+    @Override
+    public void publish(StockThresholdEvent event) {
+        stockAlertOutboxRepository.save(StockAlertOutboxEntry.builder()
+                .productId(event.getProductId())
+                .alertType(event.getType())
+                .quantity(event.getQuantity())
+                .reorderThreshold(event.getReorderThreshold())
+                .occurredAt(event.getOccurredAt())
+                .build());
+    }
+
+    @Override
+    public boolean isTransactional() {
+        return true;
+    }
+}
@@ -0,0 +1,41 @@
+package com.himusharier.inventory.alert;
+
+import com.himusharier.inventory.event.StockThresholdEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+@Slf4j
+@Component
+public class StockAlertDispatcher {
+
+    private final List<StockAlertSink> transactionalSinks;
+    private final List<StockAlertSink> sinks;
+
+    @Autowired
+    public StockAlertDispatcher(List<StockAlertSink> allSinks) {
+        this.transactionalSinks = allSinks.stream().filter(StockAlertSink::isTransactional).toList();
+        this.sinks = allSinks.stream().filter(sink -> !sink.isTransactional()).toList();
+    }
+
+    // A failure here rolls the product change back with it, like any other write of the transaction.
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void beforeCommit(StockThresholdEvent event) {
+        transactionalSinks.forEach(sink -> sink.publish(event));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void afterCommit(StockThresholdEvent event) {
+        for (StockAlertSink sink : sinks) {
+            try {
+                sink.publish(event);
+            } catch (RuntimeException e) {
+                log.error("Stock alert sink {} failed for {}", sink.getClass().getSimpleName(), event, e);
+            }
+        }
+    }
+}
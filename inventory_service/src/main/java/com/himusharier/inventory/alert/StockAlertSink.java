@@ -0,0 +1,17 @@
+package com.himusharier.inventory.alert;
+
+import com.himusharier.inventory.event.StockThresholdEvent;
+
+/**
+ * Destination for low-stock alerts. Every sink bean receives every alert once the change that
+ * raised it has committed; a sink that writes to the database instead returns {@code true}
+ * from {@link #isTransactional()} and is called just before the commit, inside the transaction.
+ */
+public interface StockAlertSink {
+
+    void publish(StockThresholdEvent event);
+
+    default boolean isTransactional() {
+        return false;
+    }
+}
@@ -0,0 +1,61 @@
+package com.himusharier.inventory.alert;
+
+import com.himusharier.inventory.event.StockThresholdEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * POSTs each alert as JSON to {@code app.stock.alerts.webhook-url}. Calls run on one background
+ * thread so a slow receiver never holds up the write that raised the alert; if the receiver
+ * falls more than {@code QUEUE_CAPACITY} alerts behind, new alerts are dropped and logged.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("!'${app.stock.alerts.webhook-url:}'.isBlank()")
+public class WebhookStockAlertSink implements StockAlertSink {
+
+    private static final int QUEUE_CAPACITY = 1000;
+
+    private final RestClient restClient;
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            runnable -> new Thread(runnable, "stock-alert-webhook"),
+            (runnable, pool) -> log.error("Stock alert webhook queue is full, dropping an alert"));
+
+    @Autowired
+    public WebhookStockAlertSink(RestClient.Builder restClientBuilder,
+                                 @Value("${app.stock.alerts.webhook-url}") String webhookUrl) {
+        this.restClient = restClientBuilder.baseUrl(webhookUrl).build();
+    }
+
+    @Override
+    public void publish(StockThresholdEvent event) {
+        executor.execute(() -> {
+            try {
+                restClient.post()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(event)
+                        .retrieve()
+                        .toBodilessEntity();
+            } catch (RuntimeException e) {
+                log.error("Stock alert webhook failed for {}", event, e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,384 @@
+package com.himusharier.inventory.catalog;
+
+import com.himusharier.inventory.changefeed.ProductChangeRelay;
+import com.himusharier.inventory.changefeed.ProductChangeSink;
+import com.himusharier.inventory.datasource.ReadRouting;
+import com.himusharier.inventory.dto.request.ProductQuerySpec;
+import com.himusharier.inventory.dto.response.ProductChangeDto;
+import com.himusharier.inventory.dto.response.ProductResponseDto;
+import com.himusharier.inventory.event.ProductChangedEvent;
+import com.himusharier.inventory.model.ProductOutboxEntry;
+import com.himusharier.inventory.repository.ProductOutboxRepository;
+import com.himusharier.inventory.repository.ProductRepository;
+import com.himusharier.inventory.repository.ProductSnapshotView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static com.himusharier.inventory.catalog.ProductColumns.CHUNK_BITS;
+import static com.himusharier.inventory.catalog.ProductColumns.CHUNK_MASK;
+
+/**
+ * In-memory columnar copy of the catalog for the listing endpoints. It is loaded at startup
+ * and kept current from committed product changes: the changed products of a transaction on
+ * this node are re-read in one query right after its commit, before the listing ETag moves on,
+ * and changes committed on any node reach it through the {@link ProductChangeRelay}, which
+ * follows the shared outbox. Readers get the latest published {@link ProductColumns} epoch
+ * without taking a lock or a connection.
+ *
+ * <p>Re-reads run concurrently, outside every lock; only applying the rows takes the writer
+ * lock. Each re-read draws a ticket before it queries, and a product's row is only replaced
+ * by a re-read with a higher ticket than the one that last wrote it. A re-read started later
+ * sees every commit an earlier one saw, so a slow, older read never undoes a newer one, for
+ * deletions (which leave no version behind) as well as updates.
+ *
+ * <p>Reads return an empty {@code Optional} while the snapshot is disabled or still loading;
+ * callers then ask the database.
+ */
+@Slf4j
+@Component
+public class ProductCatalogSnapshot implements ProductChangeSink {
+
+    private static final int REFRESH_BATCH_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final ProductOutboxRepository productOutboxRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+
+    private final ProductColumnsWriter writer = new ProductColumnsWriter();
+    // Serializes the load with advancing the outbox offset.
+    private final Object refreshLock = new Object();
+    private final Set<UUID> pending = ConcurrentHashMap.newKeySet();
+    // Guarded by the writer: the last ticket drawn, the tickets of the re-reads not applied yet,
+    // and the ticket of the re-read that last wrote each product while an older one is in flight.
+    private long lastTicket;
+    private final TreeSet<Long> readsInFlight = new TreeSet<>();
+    private final Map<UUID, Long> appliedTickets = new HashMap<>();
+    private volatile boolean loaded;
+    // Outbox offset whose change is known to be in the snapshot; -1 until the load has begun.
+    private volatile long offset = -1;
+
+    @Autowired
+    public ProductCatalogSnapshot(ProductRepository productRepository,
+                                  ProductOutboxRepository productOutboxRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.catalog.snapshot.enabled:true}") boolean enabled) {
+        this.productRepository = productRepository;
+        this.productOutboxRepository = productOutboxRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        synchronized (refreshLock) {
+            ReadRouting.onPrimary(() -> readOnlyTransaction.executeWithoutResult(status -> {
+                // Read first: a change sequenced up to here committed before the rows below are read.
+                offset = productOutboxRepository.findLatestOffset();
+                try (Stream<ProductSnapshotView> rows = productRepository.streamSnapshotViews()) {
+                    synchronized (writer) {
+                        rows.forEach(writer::upsert);
+                        writer.publish();
+                    }
+                }
+            }));
+            loaded = true;
+        }
+        // Changes committed while loading may have been read before they happened.
+        refreshPending();
+        log.info("Loaded the catalog snapshot: {} products in {} ms", writer.published().size(),
+                Duration.ofNanos(System.nanoTime() - started).toMillis());
+    }
+
+    /**
+     * Collects the changed products of the current transaction; they are re-read together once
+     * it commits, ahead of the other after-commit listeners (the listing ETag among them).
+     */
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh(Set.of(event.getProductId()));
+            return;
+        }
+        changedProducts().add(event.getProductId());
+    }
+
+    /**
+     * Changes committed on every node, this one included, in outbox offset order. The relay
+     * starts at the latest offset whenever its first run happens, so changes sequenced between
+     * the load and that first offset are read back from the outbox; offsets are consecutive.
+     */
+    @Override
+    public void publish(List<ProductChangeDto> changes) {
+        if (!enabled || changes.isEmpty()) {
+            return;
+        }
+        Set<UUID> productIds = new LinkedHashSet<>();
+        long first = changes.get(0).getOffset();
+        long missedFrom = offset;
+        while (missedFrom >= 0 && missedFrom < first - 1) {
+            List<ProductOutboxEntry> missed = productOutboxRepository
+                    .findByFeedOffsetGreaterThanOrderByFeedOffset(missedFrom, Limit.of(REFRESH_BATCH_SIZE));
+            if (missed.isEmpty()) {
+                break;
+            }
+            missed.stream()
+                    .filter(entry -> entry.getFeedOffset() < first)
+                    .forEach(entry -> productIds.add(entry.getProductId()));
+            missedFrom = missed.get(missed.size() - 1).getFeedOffset();
+        }
+        changes.forEach(change -> productIds.add(change.getProductId()));
+        refresh(productIds);
+        synchronized (refreshLock) {
+            if (offset >= 0) {
+                offset = Math.max(offset, changes.get(changes.size() - 1).getOffset());
+            }
+        }
+    }
+
+    /**
+     * Outbox offset up to which every change is in the snapshot, whichever node made it; changes
+     * made on this node may already be in ahead of their offset. -1 while not loaded.
+     */
+    public long offset() {
+        return loaded ? offset : -1;
+    }
+
+    /**
+     * Striped stock changes do not publish events; the stored quantity of striped products is
+     * refreshed by the stripe rebalancer, so their rows are re-read on the same interval, along
+     * with any products whose after-commit re-read failed.
+     */
+    @Scheduled(fixedDelayString = "${app.stock.stripes.rebalance-interval:PT1S}")
+    public void refreshStripedProducts() {
+        if (!loaded) {
+            return;
+        }
+        ProductColumns columns = columns();
+        List<UUID> striped = new ArrayList<>();
+        for (int row = 0; row < columns.size; row++) {
+            int chunk = row >>> CHUNK_BITS;
+            int slot = row & CHUNK_MASK;
+            if (columns.stockStripes[chunk][slot] > 0) {
+                striped.add(new UUID(columns.idHigh[chunk][slot], columns.idLow[chunk][slot]));
+            }
+        }
+        refresh(striped);
+    }
+
+    // Unordered, like the unfiltered database listing.
+    public Optional<List<ProductResponseDto>> findAll() {
+        if (!loaded) {
+            return Optional.empty();
+        }
+        ProductColumns columns = columns();
+        List<ProductResponseDto> products = new ArrayList<>(columns.size);
+        for (int row = 0; row < columns.size; row++) {
+            products.add(columns.toDto(row));
+        }
+        return Optional.of(products);
+    }
+
+    /**
+     * Same filters and order as {@code ProductSpecifications} for {@code pageable}'s sort,
+     * limited to its page when paged.
+     */
+    public Optional<List<ProductResponseDto>> find(ProductQuerySpec querySpec, Pageable pageable) {
+        if (!loaded) {
+            return Optional.empty();
+        }
+        ProductColumns columns = columns();
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        long limit = pageable.isPaged() ? offset + pageable.getPageSize() : columns.size;
+        if (offset >= columns.size) {
+            return Optional.of(List.of());
+        }
+        int[] rows = ProductColumnsScan.select(columns, ProductColumnsScan.Filter.of(querySpec),
+                ProductColumnsScan.RowOrder.of(columns, pageable.getSort()), (int) Math.min(limit, columns.size));
+        List<ProductResponseDto> products = new ArrayList<>(Math.max(0, rows.length - (int) offset));
+        for (int i = (int) offset; i < rows.length; i++) {
+            products.add(columns.toDto(rows[i]));
+        }
+        return Optional.of(products);
+    }
+
+    private ProductColumns columns() {
+        if (writer.isDirty()) {
+            synchronized (writer) {
+                return writer.publish();
+            }
+        }
+        return writer.published();
+    }
+
+    // Re-reads the products itself, so they are in the snapshot when it returns.
+    private void refresh(Iterable<UUID> productIds) {
+        if (!loaded) {
+            productIds.forEach(pending::add);
+            // Before the load completes, the load itself picks these up.
+            if (!loaded) {
+                return;
+            }
+        }
+        Set<UUID> batch = new HashSet<>();
+        for (UUID productId : productIds) {
+            batch.add(productId);
+            if (batch.size() == REFRESH_BATCH_SIZE) {
+                reread(batch);
+                batch = new HashSet<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            reread(batch);
+        }
+        refreshPending();
+    }
+
+    // Products changed while loading, or whose re-read failed.
+    private void refreshPending() {
+        while (!pending.isEmpty()) {
+            Set<UUID> batch = new HashSet<>();
+            for (Iterator<UUID> it = pending.iterator(); it.hasNext() && batch.size() < REFRESH_BATCH_SIZE; ) {
+                UUID productId = it.next();
+                if (pending.remove(productId)) {
+                    batch.add(productId);
+                }
+            }
+            if (!batch.isEmpty()) {
+                reread(batch);
+            }
+        }
+    }
+
+    private void reread(Set<UUID> batch) {
+        long ticket;
+        synchronized (writer) {
+            ticket = ++lastTicket;
+            readsInFlight.add(ticket);
+        }
+        List<ProductSnapshotView> rows;
+        try {
+            // Never from a replica: a lagging row read here would stay in the snapshot.
+            rows = ReadRouting.onPrimary(() -> productRepository.findSnapshotViewsByProductIdIn(batch));
+        } catch (RuntimeException e) {
+            synchronized (writer) {
+                readsInFlight.remove(ticket);
+                forgetAppliedTickets();
+            }
+            pending.addAll(batch);
+            throw e;
+        }
+        synchronized (writer) {
+            readsInFlight.remove(ticket);
+            for (ProductSnapshotView row : rows) {
+                if (claim(row.getProductId(), ticket)) {
+                    writer.upsert(row);
+                }
+                batch.remove(row.getProductId());
+            }
+            // Whatever is left no longer exists.
+            for (UUID productId : batch) {
+                if (claim(productId, ticket)) {
+                    writer.remove(productId);
+                }
+            }
+            forgetAppliedTickets();
+        }
+    }
+
+    // Under the writer lock: whether the re-read with this ticket may write the product's row.
+    private boolean claim(UUID productId, long ticket) {
+        Long applied = appliedTickets.get(productId);
+        if (applied != null && applied > ticket) {
+            return false;
+        }
+        appliedTickets.put(productId, ticket);
+        return true;
+    }
+
+    // Under the writer lock: a ticket below every read still in flight can not stop any of them.
+    private void forgetAppliedTickets() {
+        if (readsInFlight.isEmpty()) {
+            appliedTickets.clear();
+        } else {
+            long oldest = readsInFlight.first();
+            appliedTickets.values().removeIf(applied -> applied < oldest);
+        }
+    }
+
+    // Looked up among the current transaction's synchronizations, so a suspended outer transaction keeps its own.
+    private Set<UUID> changedProducts() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof ChangedProducts changed && changed.owner() == this) {
+                return changed.productIds;
+            }
+        }
+        ChangedProducts changed = new ChangedProducts();
+        TransactionSynchronizationManager.registerSynchronization(changed);
+        return changed.productIds;
+    }
+
+    private final class ChangedProducts implements TransactionSynchronization {
+
+        private final Set<UUID> productIds = new LinkedHashSet<>();
+
+        private ProductCatalogSnapshot owner() {
+            return ProductCatalogSnapshot.this;
+        }
+
+        // Ahead of @TransactionalEventListener methods, so a new listing ETag never tags old snapshot data.
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        // The change is committed whatever happens here; a failed re-read is retried by the scheduled refresh.
+        @Override
+        public void afterCommit() {
+            try {
+                refresh(productIds);
+            } catch (RuntimeException e) {
+                log.warn("Could not refresh {} products in the catalog snapshot", productIds.size(), e);
+            }
+        }
+    }
+}
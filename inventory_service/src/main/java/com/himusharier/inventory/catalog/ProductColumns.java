@@ -0,0 +1,95 @@
+package com.himusharier.inventory.catalog;
+
+import com.himusharier.inventory.dto.response.ProductResponseDto;
+
+import java.util.UUID;
+
+/**
+ * One immutable epoch of the columnar catalog snapshot: a column of primitives per product
+ * field, split into chunks of {@link #CHUNK_SIZE} rows, with names and descriptions as codes
+ * into a shared dictionary. About 70 bytes per product plus its distinct strings.
+ *
+ * <p>Epochs share every chunk that did not change between them (see
+ * {@link ProductColumnsWriter}), so a reader holding an epoch sees a consistent catalog
+ * without locks while newer epochs are published.
+ */
+public final class ProductColumns {
+
+    static final int CHUNK_BITS = 10;
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    static final int NULL_INT = Integer.MIN_VALUE;
+    static final int NULL_CODE = -1;
+    // Absent timestamps sort after every present one, like SQL's NULLS LAST for ascending order.
+    static final long NULL_TIME = Long.MAX_VALUE;
+
+    static final ProductColumns EMPTY = new ProductColumns(0, 0, new long[0][], new long[0][], new double[0][],
+            new int[0][], new int[0][], new int[0][], new long[0][], new long[0][], new long[0][], new int[0][],
+            new int[0][], new String[0]);
+
+    final long epoch;
+    final int size;
+    final long[][] idHigh;
+    final long[][] idLow;
+    // NaN: no price.
+    final double[][] price;
+    final int[][] quantity;
+    final int[][] reorderThreshold;
+    final int[][] stockStripes;
+    final long[][] version;
+    // Microseconds since the epoch (UTC wall clock of the stored LocalDateTime).
+    final long[][] createdAt;
+    final long[][] updatedAt;
+    final int[][] name;
+    final int[][] description;
+    final String[] dictionary;
+
+    ProductColumns(long epoch, int size, long[][] idHigh, long[][] idLow, double[][] price, int[][] quantity,
+                   int[][] reorderThreshold, int[][] stockStripes, long[][] version, long[][] createdAt,
+                   long[][] updatedAt, int[][] name, int[][] description, String[] dictionary) {
+        this.epoch = epoch;
+        this.size = size;
+        this.idHigh = idHigh;
+        this.idLow = idLow;
+        this.price = price;
+        this.quantity = quantity;
+        this.reorderThreshold = reorderThreshold;
+        this.stockStripes = stockStripes;
+        this.version = version;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.name = name;
+        this.description = description;
+        this.dictionary = dictionary;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public ProductResponseDto toDto(int row) {
+        int chunk = row >>> CHUNK_BITS;
+        int slot = row & CHUNK_MASK;
+        double rowPrice = price[chunk][slot];
+        int rowThreshold = reorderThreshold[chunk][slot];
+        return ProductResponseDto.builder()
+                .productId(new UUID(idHigh[chunk][slot], idLow[chunk][slot]))
+                .name(string(name[chunk][slot]))
+                .description(string(description[chunk][slot]))
+                .price(Double.isNaN(rowPrice) ? null : rowPrice)
+                .quantity(quantity[chunk][slot])
+                .reorderThreshold(rowThreshold == NULL_INT ? null : rowThreshold)
+                .stockStripes(stockStripes[chunk][slot])
+                .version(version[chunk][slot])
+                .build();
+    }
+
+    String string(int code) {
+        return code == NULL_CODE ? null : dictionary[code];
+    }
+}
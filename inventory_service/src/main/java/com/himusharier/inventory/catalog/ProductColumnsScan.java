@@ -0,0 +1,317 @@
+package com.himusharier.inventory.catalog;
+
+import com.himusharier.inventory.dto.request.ProductQuerySpec;
+import com.himusharier.inventory.repository.ProductSpecifications;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+import static com.himusharier.inventory.catalog.ProductColumns.CHUNK_BITS;
+import static com.himusharier.inventory.catalog.ProductColumns.CHUNK_MASK;
+import static com.himusharier.inventory.catalog.ProductColumns.CHUNK_SIZE;
+import static com.himusharier.inventory.catalog.ProductColumns.NULL_CODE;
+
+/**
+ * Filter, sort and limit over one {@link ProductColumns} epoch. Chunks are scanned in parallel,
+ * each keeping only its best {@code limit} rows, so a page costs one pass over the columns plus
+ * a sort of at most {@code chunks * limit} row numbers. Rows are handled as {@code int} row
+ * numbers throughout; objects are only created for the rows returned.
+ */
+final class ProductColumnsScan {
+
+    private static final int[] NO_ROWS = new int[0];
+    private static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+    private static final ThreadLocal<int[]> SCRATCH = ThreadLocal.withInitial(() -> new int[CHUNK_SIZE]);
+
+    private ProductColumnsScan() {
+    }
+
+    /**
+     * @return the first {@code limit} matching rows in {@code order}
+     */
+    static int[] select(ProductColumns columns, Filter filter, RowOrder order, int limit) {
+        int chunks = ProductColumnsWriter.chunkCount(columns.size);
+        if (limit <= 0 || chunks == 0) {
+            return NO_ROWS;
+        }
+        int[][] selected = new int[chunks][];
+        IntStream.range(0, chunks).parallel()
+                .forEach(chunk -> selected[chunk] = scanChunk(columns, chunk, filter, order, limit));
+
+        int total = 0;
+        for (int[] rows : selected) {
+            total += rows.length;
+        }
+        int[] rows = new int[total];
+        int position = 0;
+        for (int[] chunkRows : selected) {
+            System.arraycopy(chunkRows, 0, rows, position, chunkRows.length);
+            position += chunkRows.length;
+        }
+        int count = selectFirst(rows, total, order, limit);
+        if (count < rows.length) {
+            rows = Arrays.copyOf(rows, count);
+        }
+        sort(rows, order);
+        return rows;
+    }
+
+    private static int[] scanChunk(ProductColumns columns, int chunk, Filter filter, RowOrder order, int limit) {
+        int[] scratch = SCRATCH.get();
+        int rows = Math.min(CHUNK_SIZE, columns.size - (chunk << CHUNK_BITS));
+        double[] price = columns.price[chunk];
+        int[] quantity = columns.quantity[chunk];
+        int[] name = columns.name[chunk];
+        int base = chunk << CHUNK_BITS;
+        int count = 0;
+        for (int slot = 0; slot < rows; slot++) {
+            if (filter.filtersPrice && !(price[slot] >= filter.minPrice && price[slot] <= filter.maxPrice)) {
+                continue;
+            }
+            if (quantity[slot] < filter.minQuantity || quantity[slot] > filter.maxQuantity) {
+                continue;
+            }
+            if (filter.namePrefix != null
+                    && (name[slot] == NULL_CODE || !columns.dictionary[name[slot]].startsWith(filter.namePrefix))) {
+                continue;
+            }
+            scratch[count++] = base + slot;
+        }
+        if (count == 0) {
+            return NO_ROWS;
+        }
+        return Arrays.copyOf(scratch, selectFirst(scratch, count, order, limit));
+    }
+
+    /**
+     * Moves the first {@code limit} of {@code rows[0, count)} in {@code order} to the front,
+     * unordered, with a bounded max-heap.
+     *
+     * @return the number of rows kept
+     */
+    private static int selectFirst(int[] rows, int count, RowOrder order, int limit) {
+        if (count <= limit) {
+            return count;
+        }
+        for (int i = limit / 2 - 1; i >= 0; i--) {
+            siftDown(rows, i, limit, order);
+        }
+        for (int i = limit; i < count; i++) {
+            if (order.compare(rows[i], rows[0]) < 0) {
+                rows[0] = rows[i];
+                siftDown(rows, 0, limit, order);
+            }
+        }
+        return limit;
+    }
+
+    private static void siftDown(int[] heap, int index, int size, RowOrder order) {
+        int row = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && order.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (order.compare(row, heap[child]) >= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = row;
+    }
+
+    private static void sort(int[] rows, RowOrder order) {
+        int[] buffer = new int[rows.length];
+        if (rows.length < PARALLEL_SORT_THRESHOLD) {
+            mergeSort(rows, buffer, 0, rows.length, order);
+        } else {
+            ForkJoinPool.commonPool().invoke(new SortTask(rows, buffer, 0, rows.length, order));
+        }
+    }
+
+    private static void mergeSort(int[] rows, int[] buffer, int from, int to, RowOrder order) {
+        if (to - from <= 32) {
+            insertionSort(rows, from, to, order);
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(rows, buffer, from, middle, order);
+        mergeSort(rows, buffer, middle, to, order);
+        merge(rows, buffer, from, middle, to, order);
+    }
+
+    private static void insertionSort(int[] rows, int from, int to, RowOrder order) {
+        for (int i = from + 1; i < to; i++) {
+            int row = rows[i];
+            int j = i - 1;
+            while (j >= from && order.compare(rows[j], row) > 0) {
+                rows[j + 1] = rows[j];
+                j--;
+            }
+            rows[j + 1] = row;
+        }
+    }
+
+    private static void merge(int[] rows, int[] buffer, int from, int middle, int to, RowOrder order) {
+        if (order.compare(rows[middle - 1], rows[middle]) <= 0) {
+            return;
+        }
+        System.arraycopy(rows, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && order.compare(buffer[left], buffer[right]) <= 0)) {
+                rows[i] = buffer[left++];
+            } else {
+                rows[i] = buffer[right++];
+            }
+        }
+    }
+
+    private static final class SortTask extends RecursiveAction {
+
+        private final int[] rows;
+        private final int[] buffer;
+        private final int from;
+        private final int to;
+        private final RowOrder order;
+
+        private SortTask(int[] rows, int[] buffer, int from, int to, RowOrder order) {
+            this.rows = rows;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.order = order;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from < PARALLEL_SORT_THRESHOLD) {
+                mergeSort(rows, buffer, from, to, order);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SortTask(rows, buffer, from, middle, order), new SortTask(rows, buffer, middle, to, order));
+            merge(rows, buffer, from, middle, to, order);
+        }
+    }
+
+    /**
+     * Primitive bounds compiled from {@link ProductSpecifications#filter}: a missing price never
+     * matches a price bound, like the SQL comparison.
+     */
+    static final class Filter {
+
+        private final boolean filtersPrice;
+        private final double minPrice;
+        private final double maxPrice;
+        private final int minQuantity;
+        private final int maxQuantity;
+        private final String namePrefix;
+
+        private Filter(boolean filtersPrice, double minPrice, double maxPrice, int minQuantity, int maxQuantity,
+                       String namePrefix) {
+            this.filtersPrice = filtersPrice;
+            this.minPrice = minPrice;
+            this.maxPrice = maxPrice;
+            this.minQuantity = minQuantity;
+            this.maxQuantity = maxQuantity;
+            this.namePrefix = namePrefix;
+        }
+
+        static Filter of(ProductQuerySpec querySpec) {
+            ProductSpecifications.Filter filter = ProductSpecifications.filter(querySpec);
+            return new Filter(filter.minPrice() != null || filter.maxPrice() != null,
+                    filter.minPrice() != null ? filter.minPrice() : Double.NEGATIVE_INFINITY,
+                    filter.maxPrice() != null ? filter.maxPrice() : Double.POSITIVE_INFINITY,
+                    filter.minQuantity() != null ? filter.minQuantity() : Integer.MIN_VALUE,
+                    filter.maxQuantity() != null ? filter.maxQuantity() : Integer.MAX_VALUE,
+                    filter.namePrefix());
+        }
+    }
+
+    /**
+     * Row comparator for a listing {@link Sort}, always ending with the product id (unsigned,
+     * like a UUID column) so the order is total. Missing values sort as the largest, which is
+     * PostgreSQL's default; names compare by UTF-16 code unit, like a binary collation.
+     */
+    static final class RowOrder {
+
+        private static final int NAME = 0;
+        private static final int PRICE = 1;
+        private static final int QUANTITY = 2;
+        private static final int CREATED_AT = 3;
+        private static final int UPDATED_AT = 4;
+
+        private final ProductColumns columns;
+        private final int[] keys;
+        private final boolean[] descending;
+
+        private RowOrder(ProductColumns columns, int[] keys, boolean[] descending) {
+            this.columns = columns;
+            this.keys = keys;
+            this.descending = descending;
+        }
+
+        static RowOrder of(ProductColumns columns, Sort sort) {
+            int[] keys = new int[(int) sort.stream().count()];
+            boolean[] descending = new boolean[keys.length];
+            int count = 0;
+            for (Sort.Order order : sort) {
+                int key = switch (order.getProperty()) {
+                    case "name" -> NAME;
+                    case "price" -> PRICE;
+                    case "quantity" -> QUANTITY;
+                    case "createdAt" -> CREATED_AT;
+                    case "updatedAt" -> UPDATED_AT;
+                    // The id tie-break is always last, ascending.
+                    case "productId" -> -1;
+                    default -> throw new IllegalArgumentException("Not a snapshot sort field: " + order.getProperty());
+                };
+                if (key >= 0) {
+                    keys[count] = key;
+                    descending[count++] = order.isDescending();
+                }
+            }
+            return new RowOrder(columns, Arrays.copyOf(keys, count), Arrays.copyOf(descending, count));
+        }
+
+        int compare(int a, int b) {
+            int aChunk = a >>> CHUNK_BITS;
+            int aSlot = a & CHUNK_MASK;
+            int bChunk = b >>> CHUNK_BITS;
+            int bSlot = b & CHUNK_MASK;
+            for (int i = 0; i < keys.length; i++) {
+                int result = switch (keys[i]) {
+                    case NAME -> compareStrings(columns.name[aChunk][aSlot], columns.name[bChunk][bSlot]);
+                    case PRICE -> Double.compare(columns.price[aChunk][aSlot], columns.price[bChunk][bSlot]);
+                    case QUANTITY -> Integer.compare(columns.quantity[aChunk][aSlot], columns.quantity[bChunk][bSlot]);
+                    case CREATED_AT -> Long.compare(columns.createdAt[aChunk][aSlot], columns.createdAt[bChunk][bSlot]);
+                    default -> Long.compare(columns.updatedAt[aChunk][aSlot], columns.updatedAt[bChunk][bSlot]);
+                };
+                if (result != 0) {
+                    return descending[i] ? -result : result;
+                }
+            }
+            int result = Long.compareUnsigned(columns.idHigh[aChunk][aSlot], columns.idHigh[bChunk][bSlot]);
+            return result != 0 ? result : Long.compareUnsigned(columns.idLow[aChunk][aSlot], columns.idLow[bChunk][bSlot]);
+        }
+
+        private int compareStrings(int a, int b) {
+            if (a == b) {
+                return 0;
+            }
+            if (a == NULL_CODE || b == NULL_CODE) {
+                return a == NULL_CODE ? 1 : -1;
+            }
+            return columns.dictionary[a].compareTo(columns.dictionary[b]);
+        }
+    }
+}
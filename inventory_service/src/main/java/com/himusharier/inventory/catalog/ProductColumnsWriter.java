@@ -0,0 +1,337 @@
+package com.himusharier.inventory.catalog;
+
+import com.himusharier.inventory.repository.ProductSnapshotView;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.himusharier.inventory.catalog.ProductColumns.CHUNK_BITS;
+import static com.himusharier.inventory.catalog.ProductColumns.CHUNK_MASK;
+import static com.himusharier.inventory.catalog.ProductColumns.CHUNK_SIZE;
+import static com.himusharier.inventory.catalog.ProductColumns.NULL_CODE;
+import static com.himusharier.inventory.catalog.ProductColumns.NULL_INT;
+import static com.himusharier.inventory.catalog.ProductColumns.NULL_TIME;
+
+/**
+ * Single writer of the columnar snapshot. Changes go into copies of the chunks they touch;
+ * {@link #publish()} freezes the current state as a new {@link ProductColumns} epoch (with its
+ * own outer arrays), after which the next change to a chunk copies it again. Untouched chunks
+ * are shared by all epochs.
+ *
+ * <p>Not thread-safe: callers serialize every method except {@link #published()} and
+ * {@link #isDirty()}. Rows are dense: a removal moves the last row into the hole.
+ */
+final class ProductColumnsWriter {
+
+    private final RowIndex index = new RowIndex();
+    private final Map<String, Integer> codes = new HashMap<>();
+
+    private volatile ProductColumns published = ProductColumns.EMPTY;
+    private volatile boolean dirty;
+    private long epoch;
+
+    private int size;
+    private long[][] idHigh = new long[0][];
+    private long[][] idLow = new long[0][];
+    private double[][] price = new double[0][];
+    private int[][] quantity = new int[0][];
+    private int[][] reorderThreshold = new int[0][];
+    private int[][] stockStripes = new int[0][];
+    private long[][] version = new long[0][];
+    private long[][] createdAt = new long[0][];
+    private long[][] updatedAt = new long[0][];
+    private int[][] name = new int[0][];
+    private int[][] description = new int[0][];
+    private String[] dictionary = new String[CHUNK_SIZE];
+    private int dictionarySize;
+
+    // Chunk arrays copied (or created) since the last publish; only these may be written in place.
+    private boolean[] owned = new boolean[0];
+
+    ProductColumns published() {
+        return published;
+    }
+
+    boolean isDirty() {
+        return dirty;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Inserts or replaces the product's row. A view older than the stored version is ignored.
+     *
+     * @return whether the row changed
+     */
+    boolean upsert(ProductSnapshotView view) {
+        UUID productId = view.getProductId();
+        int row = index.get(productId.getMostSignificantBits(), productId.getLeastSignificantBits());
+        if (row >= 0 && version[row >>> CHUNK_BITS][row & CHUNK_MASK] > view.getVersion()) {
+            return false;
+        }
+        if (row < 0) {
+            row = size++;
+            index.put(productId.getMostSignificantBits(), productId.getLeastSignificantBits(), row);
+        }
+        int chunk = writableChunk(row >>> CHUNK_BITS);
+        int slot = row & CHUNK_MASK;
+        idHigh[chunk][slot] = productId.getMostSignificantBits();
+        idLow[chunk][slot] = productId.getLeastSignificantBits();
+        price[chunk][slot] = view.getPrice() != null ? view.getPrice() : Double.NaN;
+        quantity[chunk][slot] = view.getQuantity();
+        reorderThreshold[chunk][slot] = view.getReorderThreshold() != null ? view.getReorderThreshold() : NULL_INT;
+        stockStripes[chunk][slot] = view.getStockStripes();
+        version[chunk][slot] = view.getVersion();
+        createdAt[chunk][slot] = micros(view.getCreatedAt());
+        updatedAt[chunk][slot] = micros(view.getUpdatedAt());
+        name[chunk][slot] = encode(view.getName());
+        description[chunk][slot] = encode(view.getDescription());
+        dirty = true;
+        return true;
+    }
+
+    /**
+     * @return whether the product had a row
+     */
+    boolean remove(UUID productId) {
+        int row = index.remove(productId.getMostSignificantBits(), productId.getLeastSignificantBits());
+        if (row < 0) {
+            return false;
+        }
+        int last = --size;
+        if (row != last) {
+            int to = writableChunk(row >>> CHUNK_BITS);
+            int toSlot = row & CHUNK_MASK;
+            int from = last >>> CHUNK_BITS;
+            int fromSlot = last & CHUNK_MASK;
+            idHigh[to][toSlot] = idHigh[from][fromSlot];
+            idLow[to][toSlot] = idLow[from][fromSlot];
+            price[to][toSlot] = price[from][fromSlot];
+            quantity[to][toSlot] = quantity[from][fromSlot];
+            reorderThreshold[to][toSlot] = reorderThreshold[from][fromSlot];
+            stockStripes[to][toSlot] = stockStripes[from][fromSlot];
+            version[to][toSlot] = version[from][fromSlot];
+            createdAt[to][toSlot] = createdAt[from][fromSlot];
+            updatedAt[to][toSlot] = updatedAt[from][fromSlot];
+            name[to][toSlot] = name[from][fromSlot];
+            description[to][toSlot] = description[from][fromSlot];
+            index.put(idHigh[to][toSlot], idLow[to][toSlot], row);
+        }
+        dirty = true;
+        return true;
+    }
+
+    /**
+     * Freezes the pending changes as a new epoch and makes it the published one.
+     */
+    ProductColumns publish() {
+        if (!dirty) {
+            return published;
+        }
+        // Replaced strings stay in the dictionary until it is rebuilt from the live rows.
+        if (dictionarySize > 4 * size + CHUNK_SIZE) {
+            compactDictionary();
+        }
+        int chunks = chunkCount(size);
+        ProductColumns columns = new ProductColumns(++epoch, size,
+                Arrays.copyOf(idHigh, chunks), Arrays.copyOf(idLow, chunks), Arrays.copyOf(price, chunks),
+                Arrays.copyOf(quantity, chunks), Arrays.copyOf(reorderThreshold, chunks),
+                Arrays.copyOf(stockStripes, chunks), Arrays.copyOf(version, chunks), Arrays.copyOf(createdAt, chunks),
+                Arrays.copyOf(updatedAt, chunks), Arrays.copyOf(name, chunks), Arrays.copyOf(description, chunks),
+                dictionary);
+        Arrays.fill(owned, false);
+        dirty = false;
+        published = columns;
+        return columns;
+    }
+
+    static int chunkCount(int rows) {
+        return (rows + CHUNK_MASK) >>> CHUNK_BITS;
+    }
+
+    static long micros(LocalDateTime time) {
+        if (time == null) {
+            return NULL_TIME;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private int writableChunk(int chunk) {
+        if (chunk >= idHigh.length) {
+            growOuterArrays(Math.max(idHigh.length * 2, chunk + 1));
+        }
+        if (owned[chunk]) {
+            return chunk;
+        }
+        if (idHigh[chunk] == null) {
+            idHigh[chunk] = new long[CHUNK_SIZE];
+            idLow[chunk] = new long[CHUNK_SIZE];
+            price[chunk] = new double[CHUNK_SIZE];
+            quantity[chunk] = new int[CHUNK_SIZE];
+            reorderThreshold[chunk] = new int[CHUNK_SIZE];
+            stockStripes[chunk] = new int[CHUNK_SIZE];
+            version[chunk] = new long[CHUNK_SIZE];
+            createdAt[chunk] = new long[CHUNK_SIZE];
+            updatedAt[chunk] = new long[CHUNK_SIZE];
+            name[chunk] = new int[CHUNK_SIZE];
+            description[chunk] = new int[CHUNK_SIZE];
+        } else {
+            idHigh[chunk] = idHigh[chunk].clone();
+            idLow[chunk] = idLow[chunk].clone();
+            price[chunk] = price[chunk].clone();
+            quantity[chunk] = quantity[chunk].clone();
+            reorderThreshold[chunk] = reorderThreshold[chunk].clone();
+            stockStripes[chunk] = stockStripes[chunk].clone();
+            version[chunk] = version[chunk].clone();
+            createdAt[chunk] = createdAt[chunk].clone();
+            updatedAt[chunk] = updatedAt[chunk].clone();
+            name[chunk] = name[chunk].clone();
+            description[chunk] = description[chunk].clone();
+        }
+        owned[chunk] = true;
+        return chunk;
+    }
+
+    private void growOuterArrays(int chunks) {
+        idHigh = Arrays.copyOf(idHigh, chunks);
+        idLow = Arrays.copyOf(idLow, chunks);
+        price = Arrays.copyOf(price, chunks);
+        quantity = Arrays.copyOf(quantity, chunks);
+        reorderThreshold = Arrays.copyOf(reorderThreshold, chunks);
+        stockStripes = Arrays.copyOf(stockStripes, chunks);
+        version = Arrays.copyOf(version, chunks);
+        createdAt = Arrays.copyOf(createdAt, chunks);
+        updatedAt = Arrays.copyOf(updatedAt, chunks);
+        name = Arrays.copyOf(name, chunks);
+        description = Arrays.copyOf(description, chunks);
+        owned = Arrays.copyOf(owned, chunks);
+    }
+
+    // Appends only: slots below a published epoch's dictionary size are never rewritten.
+    private int encode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        if (dictionarySize == dictionary.length) {
+            dictionary = Arrays.copyOf(dictionary, dictionary.length * 2);
+        }
+        dictionary[dictionarySize] = value;
+        codes.put(value, dictionarySize);
+        return dictionarySize++;
+    }
+
+    private void compactDictionary() {
+        String[] previous = dictionary;
+        dictionary = new String[Math.max(CHUNK_SIZE, Integer.highestOneBit(Math.max(1, 2 * size)) * 2)];
+        dictionarySize = 0;
+        codes.clear();
+        for (int row = 0; row < size; row++) {
+            int chunk = writableChunk(row >>> CHUNK_BITS);
+            int slot = row & CHUNK_MASK;
+            name[chunk][slot] = recode(previous, name[chunk][slot]);
+            description[chunk][slot] = recode(previous, description[chunk][slot]);
+        }
+    }
+
+    private int recode(String[] previous, int code) {
+        return code == NULL_CODE ? NULL_CODE : encode(previous[code]);
+    }
+
+    /**
+     * Open-addressing map from product id to row, with ids as two primitive longs: no entry
+     * objects and no boxing, about 20 bytes per product at the maximum load factor.
+     */
+    static final class RowIndex {
+
+        private long[] high = new long[16];
+        private long[] low = new long[16];
+        // row + 1; 0 marks a free slot.
+        private int[] rows = new int[16];
+        private int count;
+
+        int get(long idHigh, long idLow) {
+            int mask = rows.length - 1;
+            for (int slot = hash(idHigh, idLow) & mask; rows[slot] != 0; slot = (slot + 1) & mask) {
+                if (high[slot] == idHigh && low[slot] == idLow) {
+                    return rows[slot] - 1;
+                }
+            }
+            return -1;
+        }
+
+        void put(long idHigh, long idLow, int row) {
+            if (2 * (count + 1) > rows.length) {
+                resize(rows.length * 2);
+            }
+            int mask = rows.length - 1;
+            int slot = hash(idHigh, idLow) & mask;
+            while (rows[slot] != 0) {
+                if (high[slot] == idHigh && low[slot] == idLow) {
+                    rows[slot] = row + 1;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            high[slot] = idHigh;
+            low[slot] = idLow;
+            rows[slot] = row + 1;
+            count++;
+        }
+
+        int remove(long idHigh, long idLow) {
+            int mask = rows.length - 1;
+            int slot = hash(idHigh, idLow) & mask;
+            while (rows[slot] != 0 && (high[slot] != idHigh || low[slot] != idLow)) {
+                slot = (slot + 1) & mask;
+            }
+            if (rows[slot] == 0) {
+                return -1;
+            }
+            int row = rows[slot] - 1;
+            // Backward-shift deletion: no tombstones, so lookups never slow down with churn.
+            int hole = slot;
+            for (int next = (hole + 1) & mask; rows[next] != 0; next = (next + 1) & mask) {
+                int home = hash(high[next], low[next]) & mask;
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    high[hole] = high[next];
+                    low[hole] = low[next];
+                    rows[hole] = rows[next];
+                    hole = next;
+                }
+            }
+            rows[hole] = 0;
+            count--;
+            return row;
+        }
+
+        private void resize(int capacity) {
+            long[] oldHigh = high;
+            long[] oldLow = low;
+            int[] oldRows = rows;
+            high = new long[capacity];
+            low = new long[capacity];
+            rows = new int[capacity];
+            count = 0;
+            for (int slot = 0; slot < oldRows.length; slot++) {
+                if (oldRows[slot] != 0) {
+                    put(oldHigh[slot], oldLow[slot], oldRows[slot] - 1);
+                }
+            }
+        }
+
+        private static int hash(long idHigh, long idLow) {
+            long h = (idHigh ^ idLow) * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.himusharier.inventory.changefeed;
+
+import com.himusharier.inventory.dto.response.ProductChangeDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * In-process sink keeping the most recent changes in memory, for tests and for consumers
+ * running in the same JVM. Redelivered offsets are ignored.
+ */
+@Component
+@ConditionalOnProperty(name = "app.products.changes.in-memory-sink.enabled", havingValue = "true")
+public class InMemoryProductChangeSink implements ProductChangeSink {
+
+    private static final int CAPACITY = 10_000;
+
+    private final Deque<ProductChangeDto> changes = new ArrayDeque<>();
+    private long lastOffset;
+
+    @Override
+    public synchronized void publish(List<ProductChangeDto> batch) {
+        for (ProductChangeDto change : batch) {
+            if (change.getOffset() <= lastOffset) {
+                continue;
+            }
+            changes.addLast(change);
+            lastOffset = change.getOffset();
+            if (changes.size() > CAPACITY) {
+                changes.removeFirst();
+            }
+        }
+    }
+
+    public synchronized List<ProductChangeDto> getChanges() {
+        return List.copyOf(changes);
+    }
+}
@@ -0,0 +1,136 @@
+package com.himusharier.inventory.changefeed;
+
+import com.himusharier.inventory.dto.response.ProductChangeDto;
+import com.himusharier.inventory.model.ProductOutboxEntry;
+import com.himusharier.inventory.repository.ProductOutboxRepository;
+import com.himusharier.inventory.service.ProductChangeFeedService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves committed outbox rows to the sinks. Each run first gives rows without a feed offset the
+ * next consecutive offsets (the order the relay sees them committed, which keeps every
+ * product's changes in commit order), then hands each sink the changes after the last offset
+ * it accepted, in batches.
+ *
+ * <p>Offsets live in the table, so sinks on every node see the same sequence whichever node
+ * assigned it. A sink's position is kept in memory and starts at the latest offset when the
+ * application starts; consumers that must resume across restarts read
+ * {@code GET /products/changes} with their own stored offset instead.
+ */
+@Slf4j
+@Component
+public class ProductChangeRelay {
+
+    private final ProductOutboxRepository productOutboxRepository;
+    private final List<ProductChangeSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    // Last offset each sink accepted; empty until the first run.
+    private final Map<ProductChangeSink, Long> positions = new IdentityHashMap<>();
+    private volatile long latestOffset;
+
+    @Value("${app.products.changes.relay-batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${app.products.changes.retention:P7D}")
+    private Duration retention = Duration.ofDays(7);
+
+    @Autowired
+    public ProductChangeRelay(ProductOutboxRepository productOutboxRepository,
+                              List<ProductChangeSink> sinks,
+                              PlatformTransactionManager transactionManager) {
+        this.productOutboxRepository = productOutboxRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${app.products.changes.relay-interval:PT0.2S}")
+    public synchronized void relay() {
+        if (positions.isEmpty() && !sinks.isEmpty()) {
+            long latestOffset = productOutboxRepository.findLatestOffset();
+            sinks.forEach(sink -> positions.put(sink, latestOffset));
+        }
+        while (sequence() == batchSize) {
+            // More rows were waiting; keep going before delivering.
+        }
+        latestOffset = productOutboxRepository.findLatestOffset();
+        deliver();
+    }
+
+    /**
+     * Latest offset seen by the last run, after its own sequencing; every change up to it is
+     * committed on the primary. 0 before the first run.
+     */
+    public long latestOffset() {
+        return latestOffset;
+    }
+
+    // Keeps the newest row: the feed needs it to tell a consumer that is up to date from one that fell behind.
+    @Scheduled(fixedDelayString = "${app.products.changes.prune-interval:PT1H}")
+    public void prune() {
+        Integer pruned = transactionTemplate.execute(status -> productOutboxRepository.deleteSequencedBefore(
+                Instant.now().minus(retention), productOutboxRepository.findLatestOffset()));
+        if (pruned != null && pruned > 0) {
+            log.info("Pruned {} product change record(s) older than {}", pruned, retention);
+        }
+    }
+
+    private int sequence() {
+        Integer sequenced = transactionTemplate.execute(status -> {
+            List<ProductOutboxEntry> entries = productOutboxRepository.lockUnsequenced(Limit.of(batchSize));
+            if (entries.isEmpty()) {
+                return 0;
+            }
+            // Read after taking the row locks, so it includes whatever a competing relay committed.
+            long offset = productOutboxRepository.findLatestOffset();
+            for (ProductOutboxEntry entry : entries) {
+                entry.setFeedOffset(++offset);
+            }
+            return entries.size();
+        });
+        return sequenced != null ? sequenced : 0;
+    }
+
+    private void deliver() {
+        while (!positions.isEmpty()) {
+            long from = positions.values().stream().mapToLong(Long::longValue).min().orElseThrow();
+            List<ProductChangeDto> changes = productOutboxRepository
+                    .findByFeedOffsetGreaterThanOrderByFeedOffset(from, Limit.of(batchSize)).stream()
+                    .map(ProductChangeFeedService::toChangeDto)
+                    .toList();
+            if (changes.isEmpty()) {
+                return;
+            }
+            for (ProductChangeSink sink : sinks) {
+                long position = positions.get(sink);
+                List<ProductChangeDto> pending = changes.stream().filter(change -> change.getOffset() > position).toList();
+                if (pending.isEmpty()) {
+                    continue;
+                }
+                try {
+                    sink.publish(pending);
+                    positions.put(sink, pending.get(pending.size() - 1).getOffset());
+                } catch (RuntimeException e) {
+                    // This sink retries from the same offset next run; the others carry on.
+                    log.error("Product change sink {} failed at offset {}", sink.getClass().getSimpleName(), position + 1, e);
+                }
+            }
+            long reached = positions.values().stream().mapToLong(Long::longValue).min().orElseThrow();
+            if (changes.size() < batchSize || reached == from) {
+                return;
+            }
+        }
+    }
+}
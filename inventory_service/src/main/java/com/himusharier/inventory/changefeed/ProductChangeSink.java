@@ -0,0 +1,16 @@
+package com.himusharier.inventory.changefeed;
+
+import com.himusharier.inventory.dto.response.ProductChangeDto;
+
+import java.util.List;
+
+/**
+ * Destination for committed product changes. Every sink bean receives every change from the
+ * {@link ProductChangeRelay}, in offset order and in batches of consecutive offsets. Delivery
+ * is at least once: a batch that threw is offered again on the next run, so sinks should skip
+ * offsets they have already seen.
+ */
+public interface ProductChangeSink {
+
+    void publish(List<ProductChangeDto> changes);
+}
@@ -0,0 +1,85 @@
+package com.himusharier.inventory.changefeed;
+
+import com.himusharier.inventory.constants.ProductChangeType;
+import com.himusharier.inventory.constants.ProductPatchField;
+import com.himusharier.inventory.event.ProductChangedEvent;
+import com.himusharier.inventory.repository.ProductOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Records every {@link ProductChangedEvent} in em_product_outbox in the same transaction as the
+ * change, so a change record exists if and only if the change committed. Changes are collected
+ * per transaction and appended in one batch just before the commit; several changes to one
+ * product within a transaction become a single record of its final state.
+ */
+@Component
+public class ProductOutboxWriter {
+
+    private final ProductOutboxRepository productOutboxRepository;
+
+    @Autowired
+    public ProductOutboxWriter(ProductOutboxRepository productOutboxRepository) {
+        this.productOutboxRepository = productOutboxRepository;
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Product changes must be published inside a transaction: " + event);
+        }
+        pendingChanges().add(event);
+    }
+
+    // Looked up among the current transaction's synchronizations, so a suspended outer transaction keeps its own.
+    private PendingChanges pendingChanges() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges pending && pending.owner() == this) {
+                return pending;
+            }
+        }
+        PendingChanges pending = new PendingChanges();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    private static ProductChangedEvent merge(ProductChangedEvent earlier, ProductChangedEvent later) {
+        if (later.getChangeType() == ProductChangeType.DELETED) {
+            return later;
+        }
+        if (earlier.getChangeType() != ProductChangeType.UPDATED) {
+            // A creation already covers every later update.
+            return earlier;
+        }
+        EnumSet<ProductPatchField> fields = EnumSet.noneOf(ProductPatchField.class);
+        fields.addAll(earlier.getChangedFields());
+        fields.addAll(later.getChangedFields());
+        return new ProductChangedEvent(later.getProductId(), ProductChangeType.UPDATED, fields);
+    }
+
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final Map<UUID, ProductChangedEvent> changes = new LinkedHashMap<>();
+
+        private ProductOutboxWriter owner() {
+            return ProductOutboxWriter.this;
+        }
+
+        private void add(ProductChangedEvent event) {
+            changes.merge(event.getProductId(), event, ProductOutboxWriter::merge);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            productOutboxRepository.appendChanges(changes.values());
+        }
+    }
+}
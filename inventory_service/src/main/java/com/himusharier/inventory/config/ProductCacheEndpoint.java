@@ -0,0 +1,43 @@
+package com.himusharier.inventory.config;
+
+import com.himusharier.inventory.service.ProductCacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/productcache} reports hit rate and load latency;
+ * {@code POST /actuator/productcache} with {@code maximumSize} and/or
+ * {@code expireAfterWriteSeconds} retunes the live cache without a redeploy.
+ */
+@Component
+@Endpoint(id = "productcache")
+public class ProductCacheEndpoint {
+
+    private final ProductCacheService productCacheService;
+
+    @Autowired
+    public ProductCacheEndpoint(ProductCacheService productCacheService) {
+        this.productCacheService = productCacheService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return productCacheService.describe();
+    }
+
+    @WriteOperation
+    public Map<String, Object> tune(@Nullable Long maximumSize, @Nullable Long expireAfterWriteSeconds) {
+        productCacheService.resize(
+                maximumSize,
+                expireAfterWriteSeconds != null ? Duration.ofSeconds(expireAfterWriteSeconds) : null
+        );
+        return productCacheService.describe();
+    }
+}
@@ -0,0 +1,179 @@
+package com.himusharier.inventory.config;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.himusharier.inventory.dto.response.ProductResponseDto;
+import com.himusharier.inventory.util.ApiResponse;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes product responses as Protocol Buffers, following {@code proto/product.proto}
+ * ({@code ProductResponse}). Fields are encoded straight into the response stream through a
+ * small buffer, one product at a time, so listings are never materialized as a whole message.
+ * Only {@code ApiResponse} envelopes holding a product, a product list or nothing are
+ * supported; everything else stays JSON/CBOR/Smile only.
+ */
+public class ProductProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType APPLICATION_PROTOBUF = MediaType.parseMediaType("application/x-protobuf");
+
+    private static final int RESPONSE_SUCCESS = 1;
+    private static final int RESPONSE_MESSAGE = 2;
+    private static final int RESPONSE_PRODUCT = 3;
+    private static final int RESPONSE_PRODUCTS = 4;
+
+    private static final int PRODUCT_ID = 1;
+    private static final int PRODUCT_NAME = 2;
+    private static final int PRODUCT_DESCRIPTION = 3;
+    private static final int PRODUCT_PRICE = 4;
+    private static final int PRODUCT_QUANTITY = 5;
+    private static final int PRODUCT_REORDER_THRESHOLD = 6;
+    private static final int PRODUCT_STOCK_STRIPES = 7;
+    private static final int PRODUCT_VERSION = 8;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    public ProductProtobufHttpMessageConverter() {
+        super(APPLICATION_PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ApiResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        ResolvableType responseType = type != null ? ResolvableType.forType(type) : ResolvableType.forClass(clazz);
+        if (!ApiResponse.class.isAssignableFrom(responseType.toClass())) {
+            return false;
+        }
+        ResolvableType data = responseType.as(ApiResponse.class).getGeneric(0);
+        Class<?> dataClass = data.resolve();
+        if (dataClass == ProductResponseDto.class || dataClass == String.class) {
+            return true;
+        }
+        return dataClass != null && List.class.isAssignableFrom(dataClass)
+                && data.asCollection().getGeneric(0).resolve() == ProductResponseDto.class;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        ApiResponse<?> response = (ApiResponse<?>) object;
+        CodedOutputStream output = CodedOutputStream.newInstance(outputMessage.getBody(), BUFFER_SIZE);
+        if (response.isSuccess()) {
+            output.writeBool(RESPONSE_SUCCESS, true);
+        }
+        if (response.getMessage() != null) {
+            output.writeString(RESPONSE_MESSAGE, response.getMessage());
+        }
+        Object data = response.getData();
+        if (data instanceof ProductResponseDto product) {
+            writeProduct(output, RESPONSE_PRODUCT, product);
+        } else if (data instanceof List<?> products) {
+            for (Object product : products) {
+                writeProduct(output, RESPONSE_PRODUCTS, (ProductResponseDto) product);
+            }
+        } else if (data != null) {
+            throw new HttpMessageNotWritableException("No Protobuf field for response data of type " + data.getClass().getName());
+        }
+        output.flush();
+    }
+
+    private static void writeProduct(CodedOutputStream output, int field, ProductResponseDto product) throws IOException {
+        output.writeTag(field, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(productSize(product));
+        UUID productId = product.getProductId();
+        if (productId != null) {
+            output.writeTag(PRODUCT_ID, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(16);
+            writeLongBigEndian(output, productId.getMostSignificantBits());
+            writeLongBigEndian(output, productId.getLeastSignificantBits());
+        }
+        if (product.getName() != null) {
+            output.writeString(PRODUCT_NAME, product.getName());
+        }
+        if (product.getDescription() != null) {
+            output.writeString(PRODUCT_DESCRIPTION, product.getDescription());
+        }
+        if (product.getPrice() != null) {
+            output.writeDouble(PRODUCT_PRICE, product.getPrice());
+        }
+        if (product.getQuantity() != 0) {
+            output.writeInt32(PRODUCT_QUANTITY, product.getQuantity());
+        }
+        if (product.getReorderThreshold() != null) {
+            output.writeInt32(PRODUCT_REORDER_THRESHOLD, product.getReorderThreshold());
+        }
+        if (product.getStockStripes() != 0) {
+            output.writeInt32(PRODUCT_STOCK_STRIPES, product.getStockStripes());
+        }
+        if (product.getVersion() != 0) {
+            output.writeInt64(PRODUCT_VERSION, product.getVersion());
+        }
+    }
+
+    private static int productSize(ProductResponseDto product) {
+        int size = 0;
+        if (product.getProductId() != null) {
+            size += CodedOutputStream.computeTagSize(PRODUCT_ID) + 1 + 16;
+        }
+        if (product.getName() != null) {
+            size += CodedOutputStream.computeStringSize(PRODUCT_NAME, product.getName());
+        }
+        if (product.getDescription() != null) {
+            size += CodedOutputStream.computeStringSize(PRODUCT_DESCRIPTION, product.getDescription());
+        }
+        if (product.getPrice() != null) {
+            size += CodedOutputStream.computeDoubleSize(PRODUCT_PRICE, product.getPrice());
+        }
+        if (product.getQuantity() != 0) {
+            size += CodedOutputStream.computeInt32Size(PRODUCT_QUANTITY, product.getQuantity());
+        }
+        if (product.getReorderThreshold() != null) {
+            size += CodedOutputStream.computeInt32Size(PRODUCT_REORDER_THRESHOLD, product.getReorderThreshold());
+        }
+        if (product.getStockStripes() != 0) {
+            size += CodedOutputStream.computeInt32Size(PRODUCT_STOCK_STRIPES, product.getStockStripes());
+        }
+        if (product.getVersion() != 0) {
+            size += CodedOutputStream.computeInt64Size(PRODUCT_VERSION, product.getVersion());
+        }
+        return size;
+    }
+
+    private static void writeLongBigEndian(CodedOutputStream output, long value) throws IOException {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            output.write((byte) (value >>> shift));
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported.", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported.", inputMessage);
+    }
+}
@@ -0,0 +1,90 @@
+package com.himusharier.inventory.config;
+
+import com.himusharier.inventory.constants.ReplicaSelection;
+import com.himusharier.inventory.datasource.ReadYourWritesFilter;
+import com.himusharier.inventory.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read replicas, enabled by listing their JDBC URLs in {@code app.datasource.replicas.urls}.
+ * Replaces Boot's single pool with a primary pool plus one pool per replica, all configured by
+ * {@code spring.datasource.hikari.*}, behind {@link ReplicaRoutingDataSource}.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.datasource.replicas.urls:}'.isBlank()")
+public class ReplicaRoutingConfig {
+
+    private static final String HIKARI_PROPERTIES = "spring.datasource.hikari";
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties dataSourceProperties,
+            Environment environment,
+            @Value("${app.datasource.replicas.urls}") List<String> urls,
+            @Value("${app.datasource.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${app.datasource.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${app.datasource.replicas.selection:ROUND_ROBIN}") ReplicaSelection selection,
+            @Value("${app.datasource.replicas.pin-after-write:PT2S}") Duration pinAfterWrite,
+            @Value("${app.datasource.replicas.connection-timeout:PT1S}") Duration connectionTimeout) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind(HIKARI_PROPERTIES, Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(urls.get(i).strip())
+                    .username(username)
+                    .password(password)
+                    .build();
+            binder.bind(HIKARI_PROPERTIES, Bindable.ofInstance(replica));
+            String name = "replica-" + (i + 1);
+            replica.setPoolName(name);
+            replica.setReadOnly(true);
+            // A read waits this long for a replica that is down before failing over.
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replicas.put(name, replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, selection, pinAfterWrite);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(
+            @Value("${app.datasource.replicas.pin-after-write:PT2S}") Duration pinAfterWrite) {
+        return new ReadYourWritesFilter(pinAfterWrite);
+    }
+
+    // Reported as "replicas" under /actuator/health; a replica that is down only moves its reads elsewhere.
+    @Bean
+    public HealthIndicator replicasHealthIndicator(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return () -> Health.up().withDetails(replicaRoutingDataSource.describe()).build();
+    }
+}
@@ -0,0 +1,8 @@
+package com.himusharier.inventory.constants;
+
+public enum FlashSaleReservationStatus {
+    APPLIED,
+    INSUFFICIENT_STOCK,
+    // The product is not (or no longer) in flash-sale mode; the regular stock path applies.
+    NOT_ACTIVE
+}
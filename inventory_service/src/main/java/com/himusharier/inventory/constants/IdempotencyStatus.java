@@ -0,0 +1,8 @@
+package com.himusharier.inventory.constants;
+
+public enum IdempotencyStatus {
+    // Claimed by a request that is still executing.
+    IN_PROGRESS,
+    // Finished; the stored response is replayed for the same key.
+    COMPLETED
+}
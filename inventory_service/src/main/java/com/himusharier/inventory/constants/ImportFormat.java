@@ -0,0 +1,6 @@
+package com.himusharier.inventory.constants;
+
+public enum ImportFormat {
+    CSV,
+    NDJSON
+}
@@ -0,0 +1,7 @@
+package com.himusharier.inventory.constants;
+
+public enum ProductChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
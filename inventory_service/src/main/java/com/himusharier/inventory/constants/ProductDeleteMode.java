@@ -0,0 +1,8 @@
+package com.himusharier.inventory.constants;
+
+public enum ProductDeleteMode {
+    // Rows are removed.
+    DELETE,
+    // Rows are moved to em_products_archive, then removed.
+    ARCHIVE
+}
@@ -0,0 +1,32 @@
+package com.himusharier.inventory.constants;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Product fields that may be changed by a partial update, with the column each one maps to.
+ * Only these names are accepted in a patch document, so the column list of the generated
+ * UPDATE never comes from client input.
+ */
+@Getter
+@AllArgsConstructor
+public enum ProductPatchField {
+    NAME("name", "name", false),
+    DESCRIPTION("description", "description", true),
+    PRICE("price", "price", false),
+    QUANTITY("quantity", "quantity", false),
+    REORDER_THRESHOLD("reorderThreshold", "reorder_threshold", true);
+
+    private final String fieldName;
+    private final String column;
+    private final boolean nullable;
+
+    public static Optional<ProductPatchField> fromFieldName(String fieldName) {
+        return Arrays.stream(values())
+                .filter(field -> field.fieldName.equals(fieldName))
+                .findFirst();
+    }
+}
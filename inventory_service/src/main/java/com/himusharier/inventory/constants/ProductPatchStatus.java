@@ -0,0 +1,10 @@
+package com.himusharier.inventory.constants;
+
+public enum ProductPatchStatus {
+    PATCHED,
+    NOT_FOUND,
+    // The product exists but its version no longer matches the one sent with the patch.
+    VERSION_CONFLICT,
+    // The patch document itself was rejected; nothing was written.
+    INVALID
+}
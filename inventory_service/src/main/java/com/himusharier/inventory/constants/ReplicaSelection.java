@@ -0,0 +1,7 @@
+package com.himusharier.inventory.constants;
+
+public enum ReplicaSelection {
+    ROUND_ROBIN,
+    // Fewest connections in use; replicas whose pool is not a HikariDataSource count as idle.
+    LEAST_LOADED
+}
@@ -0,0 +1,9 @@
+package com.himusharier.inventory.constants;
+
+public enum StockHoldStatus {
+    HELD,
+    // Paid: the held stock stays sold.
+    CONFIRMED,
+    // Cancelled by the caller or expired: the held stock went back to the product.
+    RELEASED
+}
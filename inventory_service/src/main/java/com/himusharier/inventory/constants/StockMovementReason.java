@@ -0,0 +1,17 @@
+package com.himusharier.inventory.constants;
+
+public enum StockMovementReason {
+    // Stock a product already had when the ledger first saw it.
+    OPENING,
+    CREATED,
+    IMPORTED,
+    ADJUSTED,
+    DECREMENTED,
+    INCREMENTED,
+    RESERVED,
+    // Stock of a cancelled or expired hold going back to the product.
+    RELEASED,
+    // Net flash-sale reservations and restocks, written in batches by the flash-sale flusher.
+    FLASH_SALE,
+    DELETED
+}
@@ -0,0 +1,9 @@
+package com.himusharier.inventory.constants;
+
+public enum StockReservationStatus {
+    RESERVED,
+    INSUFFICIENT_STOCK,
+    NOT_FOUND,
+    // Line could have been reserved, but another line failed and the whole reservation was rolled back.
+    ROLLED_BACK
+}
@@ -0,0 +1,8 @@
+package com.himusharier.inventory.constants;
+
+public enum StockThresholdEventType {
+    // Quantity dropped below the reorder threshold.
+    LOW,
+    // Quantity is back at or above the threshold (plus the restore margin) after a LOW alert.
+    RESTORED
+}
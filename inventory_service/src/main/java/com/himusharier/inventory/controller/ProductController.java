@@ -1,46 +1,242 @@
 package com.himusharier.inventory.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.himusharier.inventory.constants.ImportFormat;
+import com.himusharier.inventory.dto.request.ProductBulkDeleteRequestDto;
+import com.himusharier.inventory.dto.request.ProductBulkPatchRequestDto;
+import com.himusharier.inventory.dto.request.ProductLookupRequestDto;
+import com.himusharier.inventory.dto.request.ProductQuerySpec;
 import com.himusharier.inventory.dto.request.ProductRequestDto;
+import com.himusharier.inventory.dto.request.StockAdjustmentRequestDto;
+import com.himusharier.inventory.dto.request.StockHoldRequestDto;
+import com.himusharier.inventory.dto.request.StockReservationRequestDto;
+import com.himusharier.inventory.dto.request.StockStripesRequestDto;
+import com.himusharier.inventory.dto.request.StockReservationLineDto;
+import com.himusharier.inventory.dto.response.FlashSaleStatusDto;
+import com.himusharier.inventory.dto.response.HeldStockDto;
+import com.himusharier.inventory.dto.response.ProductChangeFeedDto;
+import com.himusharier.inventory.dto.response.ProductBulkDeleteResponseDto;
+import com.himusharier.inventory.dto.response.ProductBulkPatchResponseDto;
+import com.himusharier.inventory.dto.response.ProductImportResponseDto;
+import com.himusharier.inventory.dto.response.ProductLookupResponseDto;
 import com.himusharier.inventory.dto.response.ProductResponseDto;
+import com.himusharier.inventory.dto.response.ProductSearchResponseDto;
+import com.himusharier.inventory.dto.response.ProductSuggestionDto;
+import com.himusharier.inventory.dto.response.StockAdjustmentResponseDto;
+import com.himusharier.inventory.dto.response.StockHoldResponseDto;
+import com.himusharier.inventory.dto.response.StockLevelResponseDto;
+import com.himusharier.inventory.dto.response.StockMovementDto;
+import com.himusharier.inventory.dto.response.StockReconciliationDto;
+import com.himusharier.inventory.dto.response.StockReservationResponseDto;
+import com.himusharier.inventory.dto.response.StockStripesResponseDto;
 import com.himusharier.inventory.exception.ProductSubmissionException;
+import com.himusharier.inventory.exception.ProductVersionConflictException;
 import com.himusharier.inventory.exception.ResourceNotFoundException;
 import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.service.CatalogVersionService;
+import com.himusharier.inventory.service.FlashSaleService;
+import com.himusharier.inventory.service.ProductChangeFeedService;
+import com.himusharier.inventory.service.ProductExportService;
+import com.himusharier.inventory.service.ProductBulkDeleteService;
+import com.himusharier.inventory.service.ProductImportService;
+import com.himusharier.inventory.service.ProductSearchService;
+import com.himusharier.inventory.service.ProductSuggestService;
 import com.himusharier.inventory.service.ProductService;
+import com.himusharier.inventory.service.StockHoldService;
+import com.himusharier.inventory.service.StockLedgerService;
+import com.himusharier.inventory.service.StockService;
+import com.himusharier.inventory.service.StockStripeService;
 import com.himusharier.inventory.util.ApiResponse;
+import com.himusharier.inventory.util.ETagUtils;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/v1")
 public class ProductController {
 
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     private final ProductService productService;
+    private final ProductExportService productExportService;
+    private final ProductImportService productImportService;
+    private final ProductBulkDeleteService productBulkDeleteService;
+    private final ProductSearchService productSearchService;
+    private final ProductSuggestService productSuggestService;
+    private final CatalogVersionService catalogVersionService;
+    private final StockService stockService;
+    private final StockLedgerService stockLedgerService;
+    private final StockStripeService stockStripeService;
+    private final FlashSaleService flashSaleService;
+    private final StockHoldService stockHoldService;
+    private final ProductChangeFeedService productChangeFeedService;
 
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService,
+                             ProductExportService productExportService,
+                             ProductImportService productImportService,
+                             ProductBulkDeleteService productBulkDeleteService,
+                             ProductSearchService productSearchService,
+                             ProductSuggestService productSuggestService,
+                             CatalogVersionService catalogVersionService,
+                             StockService stockService,
+                             StockLedgerService stockLedgerService,
+                             StockStripeService stockStripeService,
+                             FlashSaleService flashSaleService,
+                             StockHoldService stockHoldService,
+                             ProductChangeFeedService productChangeFeedService) {
         this.productService = productService;
+        this.productExportService = productExportService;
+        this.productImportService = productImportService;
+        this.productBulkDeleteService = productBulkDeleteService;
+        this.productSearchService = productSearchService;
+        this.productSuggestService = productSuggestService;
+        this.catalogVersionService = catalogVersionService;
+        this.stockService = stockService;
+        this.stockLedgerService = stockLedgerService;
+        this.stockStripeService = stockStripeService;
+        this.flashSaleService = flashSaleService;
+        this.stockHoldService = stockHoldService;
+        this.productChangeFeedService = productChangeFeedService;
     }
 
     @GetMapping("/products")
-    public ResponseEntity<ApiResponse<List<ProductResponseDto>>> getAllProducts() {
-        List<ProductResponseDto> products = productService.getAllProducts();
+    public ResponseEntity<ApiResponse<List<ProductResponseDto>>> getAllProducts(
+            @Valid ProductQuerySpec querySpec,
+            WebRequest webRequest
+    ) {
+        // The catalog tag covers every filtered view too: any product change invalidates all of them.
+        String eTag = catalogVersionService.currentETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null; // 304 already written, nothing loaded or serialized
+        }
+
+        List<ProductResponseDto> products = querySpec.isEmpty()
+                ? productService.getAllProducts()
+                : productService.findProducts(querySpec);
 
         ApiResponse<List<ProductResponseDto>> response = new ApiResponse<>(
                 true,
                 "Products retrieved successfully.",
                 products
         );
+        return ResponseEntity.ok().eTag(eTag).body(response);
+    }
+
+    @GetMapping("/products/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestHeader HttpHeaders headers,
+            WebRequest webRequest
+    ) {
+        boolean gzip = acceptsGzip(headers);
+        setAsyncTimeout(webRequest, productExportService.getTimeout());
+
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, 8192, true);
+                productExportService.exportProducts(gzipOutputStream);
+                gzipOutputStream.finish();
+            } else {
+                productExportService.exportProducts(outputStream);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Committed product changes after {@code after}, oldest first. With {@code waitSeconds} an
+     * up-to-date consumer's request is held open until the next change (or the timeout) instead
+     * of returning empty straight away.
+     */
+    @GetMapping("/products/changes")
+    public CompletableFuture<ResponseEntity<ApiResponse<ProductChangeFeedDto>>> getProductChanges(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "0") int waitSeconds,
+            WebRequest webRequest
+    ) {
+        // Past the longest wait, so the wait ends with an empty page rather than a timeout error.
+        setAsyncTimeout(webRequest, productChangeFeedService.getMaxWait().plusSeconds(5));
+        return productChangeFeedService.poll(after, limit, Duration.ofSeconds(waitSeconds))
+                .thenApply(feed -> ResponseEntity.ok(new ApiResponse<>(
+                        true,
+                        "Product changes retrieved successfully.",
+                        feed
+                )));
+    }
+
+    @GetMapping("/products/search")
+    public ResponseEntity<ApiResponse<ProductSearchResponseDto>> searchProducts(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        ProductSearchResponseDto result = productSearchService.search(query, page, size);
+
+        ApiResponse<ProductSearchResponseDto> response = new ApiResponse<>(
+                true,
+                "Products found: " + result.getTotalHits() + ".",
+                result
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/products/suggest")
+    public ResponseEntity<ApiResponse<List<ProductSuggestionDto>>> suggestProducts(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        List<ProductSuggestionDto> suggestions = productSuggestService.suggest(prefix, limit);
+
+        ApiResponse<List<ProductSuggestionDto>> response = new ApiResponse<>(
+                true,
+                "Suggestions retrieved successfully.",
+                suggestions
+        );
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/products/{id}")
-    public ResponseEntity<ApiResponse<ProductResponseDto>> getProductById(@PathVariable UUID id) {
+    public ResponseEntity<ApiResponse<ProductResponseDto>> getProductById(@PathVariable UUID id, WebRequest webRequest) {
         try {
+            if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+                Optional<Long> version = productService.findCurrentVersion(id);
+                if (version.isPresent() && webRequest.checkNotModified(ETagUtils.productETag(version.get()))) {
+                    return null;
+                }
+            }
+
             ProductResponseDto product = productService.getProductById(id);
 
             ApiResponse<ProductResponseDto> response = new ApiResponse<>(
@@ -48,12 +244,29 @@ public class ProductController {
                     "Product retrieved successfully.",
                     product
             );
-            return ResponseEntity.ok(response);
+            if (product.getStockStripes() > 0) {
+                return ResponseEntity.ok(response);
+            }
+            return ResponseEntity.ok().eTag(ETagUtils.productETag(product.getVersion())).body(response);
         } catch (Exception e) {
             throw new ResourceNotFoundException(e.getMessage());
         }
     }
 
+    @PostMapping("/products/lookup")
+    public ResponseEntity<ApiResponse<ProductLookupResponseDto>> lookupProducts(
+            @Valid @RequestBody ProductLookupRequestDto productLookupRequestDto
+    ) {
+        ProductLookupResponseDto result = productService.lookupProducts(productLookupRequestDto.getProductIds());
+
+        ApiResponse<ProductLookupResponseDto> response = new ApiResponse<>(
+                true,
+                "Products found: " + result.getFound() + ", missing: " + result.getMissing() + ".",
+                result
+        );
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/products")
     public ResponseEntity<ApiResponse<ProductResponseDto>> createProduct(@Valid @RequestBody ProductRequestDto productRequestDto) {
         try {
@@ -62,6 +275,7 @@ public class ProductController {
                     .description(productRequestDto.getDescription())
                     .price(productRequestDto.getPrice())
                     .quantity(productRequestDto.getQuantity())
+                    .reorderThreshold(productRequestDto.getReorderThreshold())
                     .build();
 
             ProductResponseDto saveProduct = productService.createProduct(product);
@@ -78,33 +292,323 @@ public class ProductController {
         }
     }
 
+    @PostMapping(value = "/products/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ApiResponse<ProductImportResponseDto>> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body
+    ) throws IOException {
+        ImportFormat format = TEXT_CSV.isCompatibleWith(MediaType.parseMediaType(contentType))
+                ? ImportFormat.CSV
+                : ImportFormat.NDJSON;
+
+        ProductImportResponseDto result = productImportService.importProducts(body, format);
+
+        ApiResponse<ProductImportResponseDto> response = new ApiResponse<>(
+                true,
+                "Products imported: " + result.getImported() + ", failed: " + result.getFailed() + ".",
+                result
+        );
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/products/{id}")
     public ResponseEntity<ApiResponse<ProductResponseDto>> updateProduct(
             @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody ProductRequestDto productRequestDto
     ) {
         try {
+            Long expectedVersion = ETagUtils.parseProductVersion(ifMatch);
+
             Product product = Product.builder()
                     .name(productRequestDto.getName())
                     .description(productRequestDto.getDescription())
                     .price(productRequestDto.getPrice())
                     .quantity(productRequestDto.getQuantity())
+                    .reorderThreshold(productRequestDto.getReorderThreshold())
                     .build();
 
-            ProductResponseDto updateProduct = productService.updateProduct(id, product);
+            ProductResponseDto updateProduct = productService.updateProduct(id, product, expectedVersion);
 
             ApiResponse<ProductResponseDto> response = new ApiResponse<>(
                     true,
                     "Product updated successfully.",
                     updateProduct
             );
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(ETagUtils.productETag(updateProduct.getVersion())).body(response);
 
+        } catch (ProductVersionConflictException | OptimisticLockingFailureException e) {
+            throw e;
         } catch (Exception e) {
             throw new ProductSubmissionException(e.getMessage());
         }
     }
 
+    @PatchMapping(value = "/products/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ApiResponse<ProductResponseDto>> patchProduct(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody JsonNode patch
+    ) {
+        Long expectedVersion;
+        try {
+            expectedVersion = ETagUtils.parseProductVersion(ifMatch);
+        } catch (IllegalArgumentException e) {
+            throw new ProductSubmissionException(e.getMessage());
+        }
+
+        ProductResponseDto patchProduct = productService.patchProduct(id, patch, expectedVersion);
+
+        ApiResponse<ProductResponseDto> response = new ApiResponse<>(
+                true,
+                "Product patched successfully.",
+                patchProduct
+        );
+        return ResponseEntity.ok().eTag(ETagUtils.productETag(patchProduct.getVersion())).body(response);
+    }
+
+    @PatchMapping(value = "/products", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<ProductBulkPatchResponseDto>> patchProducts(
+            @Valid @RequestBody ProductBulkPatchRequestDto productBulkPatchRequestDto
+    ) {
+        ProductBulkPatchResponseDto result = productService.patchProducts(productBulkPatchRequestDto.getItems());
+
+        ApiResponse<ProductBulkPatchResponseDto> response = new ApiResponse<>(
+                true,
+                "Products patched: " + result.getPatched() + ", failed: " + result.getFailed() + ".",
+                result
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/products/bulk-delete")
+    public ResponseEntity<ApiResponse<ProductBulkDeleteResponseDto>> bulkDeleteProducts(
+            @Valid @RequestBody ProductBulkDeleteRequestDto productBulkDeleteRequestDto
+    ) {
+        ProductBulkDeleteResponseDto result = productBulkDeleteService.deleteProducts(productBulkDeleteRequestDto);
+
+        ApiResponse<ProductBulkDeleteResponseDto> response = new ApiResponse<>(
+                true,
+                "Products deleted: " + result.getDeleted() + ", archived: " + result.getArchived()
+                        + ", skipped: " + result.getSkipped() + ", not found: " + result.getNotFound() + ".",
+                result
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/products/{id}/stock/decrement")
+    public ResponseEntity<ApiResponse<StockAdjustmentResponseDto>> decrementStock(
+            @PathVariable UUID id,
+            @Valid @RequestBody StockAdjustmentRequestDto stockAdjustmentRequestDto
+    ) {
+        // Flash-sale products are served by the in-memory engine, without a database transaction.
+        StockAdjustmentResponseDto adjustment = flashSaleService.decrement(id,
+                        stockAdjustmentRequestDto.getQuantity(), stockAdjustmentRequestDto.getReference())
+                .orElseGet(() -> stockService.decrementStock(id,
+                        stockAdjustmentRequestDto.getQuantity(), stockAdjustmentRequestDto.getReference()));
+
+        ApiResponse<StockAdjustmentResponseDto> response = new ApiResponse<>(
+                true,
+                "Stock decremented successfully.",
+                adjustment
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/products/stock/reservations")
+    public ResponseEntity<ApiResponse<StockReservationResponseDto>> reserveStock(
+            @Valid @RequestBody StockReservationRequestDto stockReservationRequestDto
+    ) {
+        flashSaleService.rejectActive(stockReservationRequestDto.getLines().stream()
+                .map(StockReservationLineDto::getProductId)
+                .toList());
+        StockReservationResponseDto reservation = stockService.reserveStock(
+                stockReservationRequestDto.getLines(), stockReservationRequestDto.getReference());
+
+        ApiResponse<StockReservationResponseDto> response = new ApiResponse<>(
+                true,
+                "Stock reserved successfully.",
+                reservation
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    // Holds stock while the customer pays; released automatically unless confirmed before it expires.
+    @PostMapping("/products/stock/holds")
+    public ResponseEntity<ApiResponse<StockHoldResponseDto>> createStockHold(
+            @Valid @RequestBody StockHoldRequestDto stockHoldRequestDto
+    ) {
+        StockHoldResponseDto hold = stockHoldService.createHold(
+                stockHoldRequestDto.getLines(),
+                stockHoldRequestDto.getReference(),
+                stockHoldRequestDto.getTtlSeconds() != null ? Duration.ofSeconds(stockHoldRequestDto.getTtlSeconds()) : null);
+
+        ApiResponse<StockHoldResponseDto> response = new ApiResponse<>(
+                true,
+                "Stock held successfully.",
+                hold
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/products/stock/holds/{holdId}")
+    public ResponseEntity<ApiResponse<StockHoldResponseDto>> getStockHold(@PathVariable UUID holdId) {
+        ApiResponse<StockHoldResponseDto> response = new ApiResponse<>(
+                true,
+                "Stock hold retrieved successfully.",
+                stockHoldService.getHold(holdId)
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/products/stock/holds/{holdId}/confirm")
+    public ResponseEntity<ApiResponse<StockHoldResponseDto>> confirmStockHold(@PathVariable UUID holdId) {
+        ApiResponse<StockHoldResponseDto> response = new ApiResponse<>(
+                true,
+                "Stock hold confirmed successfully.",
+                stockHoldService.confirmHold(holdId)
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/products/stock/holds/{holdId}")
+    public ResponseEntity<ApiResponse<StockHoldResponseDto>> cancelStockHold(@PathVariable UUID holdId) {
+        ApiResponse<StockHoldResponseDto> response = new ApiResponse<>(
+                true,
+                "Stock hold cancelled successfully.",
+                stockHoldService.cancelHold(holdId)
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/products/{id}/stock/holds")
+    public ResponseEntity<ApiResponse<HeldStockDto>> getHeldStock(@PathVariable UUID id) {
+        ApiResponse<HeldStockDto> response = new ApiResponse<>(
+                true,
+                "Held stock retrieved successfully.",
+                stockHoldService.getHeldStock(id)
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/products/{id}/stock/increment")
+    public ResponseEntity<ApiResponse<StockAdjustmentResponseDto>> incrementStock(
+            @PathVariable UUID id,
+            @Valid @RequestBody StockAdjustmentRequestDto stockAdjustmentRequestDto
+    ) {
+        StockAdjustmentResponseDto adjustment = flashSaleService.increment(id,
+                        stockAdjustmentRequestDto.getQuantity(), stockAdjustmentRequestDto.getReference())
+                .orElseGet(() -> stockService.incrementStock(id,
+                        stockAdjustmentRequestDto.getQuantity(), stockAdjustmentRequestDto.getReference()));
+
+        ApiResponse<StockAdjustmentResponseDto> response = new ApiResponse<>(
+                true,
+                "Stock incremented successfully.",
+                adjustment
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    // Stock from the ledger as of any moment (default: now).
+    @GetMapping("/products/{id}/stock")
+    public ResponseEntity<ApiResponse<StockLevelResponseDto>> getStockLevel(
+            @PathVariable UUID id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf
+    ) {
+        StockLevelResponseDto stockLevel = stockLedgerService.getStockLevel(id, asOf != null ? asOf : LocalDateTime.now());
+
+        ApiResponse<StockLevelResponseDto> response = new ApiResponse<>(
+                true,
+                "Stock level retrieved successfully.",
+                stockLevel
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/products/{id}/stock/movements")
+    public ResponseEntity<ApiResponse<List<StockMovementDto>>> getStockMovements(
+            @PathVariable UUID id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        List<StockMovementDto> movements = stockLedgerService.getMovements(id, from, to, limit);
+
+        ApiResponse<List<StockMovementDto>> response = new ApiResponse<>(
+                true,
+                "Stock movements retrieved successfully.",
+                movements
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/products/{id}/stock/reconciliation")
+    public ResponseEntity<ApiResponse<StockReconciliationDto>> reconcileStock(@PathVariable UUID id) {
+        StockReconciliationDto reconciliation = stockLedgerService.reconcile(id);
+
+        ApiResponse<StockReconciliationDto> response = new ApiResponse<>(
+                true,
+                reconciliation.isConsistent() ? "Stock is consistent with the ledger." : "Stock differs from the ledger.",
+                reconciliation
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/products/{id}/stock/stripes")
+    public ResponseEntity<ApiResponse<StockStripesResponseDto>> getStockStripes(@PathVariable UUID id) {
+        ApiResponse<StockStripesResponseDto> response = new ApiResponse<>(
+                true,
+                "Stock stripes retrieved successfully.",
+                stockStripeService.getStripes(id)
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    // Opt a hot product in to striped stock (or back out with 0 stripes).
+    @PutMapping("/products/{id}/stock/stripes")
+    public ResponseEntity<ApiResponse<StockStripesResponseDto>> configureStockStripes(
+            @PathVariable UUID id,
+            @Valid @RequestBody StockStripesRequestDto stockStripesRequestDto
+    ) {
+        ApiResponse<StockStripesResponseDto> response = new ApiResponse<>(
+                true,
+                "Stock stripes updated successfully.",
+                stockStripeService.configure(id, stockStripesRequestDto.getStripes())
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/products/{id}/flash-sale")
+    public ResponseEntity<ApiResponse<FlashSaleStatusDto>> getFlashSale(@PathVariable UUID id) {
+        ApiResponse<FlashSaleStatusDto> response = new ApiResponse<>(
+                true,
+                "Flash-sale status retrieved successfully.",
+                flashSaleService.getStatus(id)
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    // Hands the product's stock to the in-memory flash-sale engine until the sale is stopped.
+    @PostMapping("/products/{id}/flash-sale")
+    public ResponseEntity<ApiResponse<FlashSaleStatusDto>> startFlashSale(@PathVariable UUID id) {
+        ApiResponse<FlashSaleStatusDto> response = new ApiResponse<>(
+                true,
+                "Flash sale started successfully.",
+                flashSaleService.start(id)
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/products/{id}/flash-sale")
+    public ResponseEntity<ApiResponse<FlashSaleStatusDto>> stopFlashSale(@PathVariable UUID id) {
+        ApiResponse<FlashSaleStatusDto> response = new ApiResponse<>(
+                true,
+                "Flash sale stopped successfully.",
+                flashSaleService.stop(id)
+        );
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping("/products/{id}")
     public ResponseEntity<ApiResponse<String>> deleteProduct(@PathVariable UUID id) {
         try {
@@ -121,4 +625,31 @@ public class ProductController {
         }
     }
 
+    // Overrides the async timeout for this request only; others keep the container's default.
+    private static void setAsyncTimeout(WebRequest webRequest, Duration timeout) {
+        WebAsyncUtils.getAsyncManager(webRequest).getAsyncWebRequest().setTimeout(timeout.toMillis());
+    }
+
+    /**
+     * Whether the Accept-Encoding header allows gzip: listed with a non-zero q-value, or not
+     * listed but covered by a {@code *} with a non-zero q-value. {@link HttpHeaders#getValuesAsList}
+     * splits the header into codings, across repeated header lines too.
+     */
+    private static boolean acceptsGzip(HttpHeaders headers) {
+        Map<String, Double> qualities = new HashMap<>();
+        for (String coding : headers.getValuesAsList(HttpHeaders.ACCEPT_ENCODING)) {
+            String[] parts = StringUtils.tokenizeToStringArray(coding, ";");
+            double quality = 1;
+            if (parts.length > 1 && parts[1].regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    quality = Double.parseDouble(parts[1].substring(2));
+                } catch (NumberFormatException e) {
+                    quality = 0;
+                }
+            }
+            qualities.putIfAbsent(parts[0].toLowerCase(Locale.ROOT), quality);
+        }
+        Double gzip = qualities.getOrDefault("gzip", qualities.getOrDefault("x-gzip", qualities.get("*")));
+        return gzip != null && gzip > 0;
+    }
 }
@@ -0,0 +1,85 @@
+package com.himusharier.inventory.datasource;
+
+import java.time.Duration;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Per-thread hints for {@link ReplicaRoutingDataSource}. Read-only transactions go to a replica
+ * unless the current thread is pinned to the primary: inside {@link #onPrimary}, or for a short
+ * while after it committed a write, so it reads its own writes.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> primaryOnly = new ThreadLocal<>();
+    private static final ThreadLocal<Long> primaryUntil = new ThreadLocal<>();
+    private static final ThreadLocal<LongConsumer> writeListener = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    /**
+     * Runs {@code reads} against the primary, read-only transactions included. For state that is
+     * kept after reading it (caches, indexes, snapshots), where replica lag would otherwise stick.
+     */
+    public static <T> T onPrimary(Supplier<T> reads) {
+        Boolean previous = primaryOnly.get();
+        primaryOnly.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            if (previous == null) {
+                primaryOnly.remove();
+            }
+        }
+    }
+
+    public static void onPrimary(Runnable reads) {
+        onPrimary(() -> {
+            reads.run();
+            return null;
+        });
+    }
+
+    /**
+     * Pins this thread's reads to the primary until {@code epochMillis}, e.g. for a client that
+     * wrote in an earlier request.
+     */
+    public static void pinToPrimaryUntil(long epochMillis) {
+        Long current = primaryUntil.get();
+        if (current == null || current < epochMillis) {
+            primaryUntil.set(epochMillis);
+        }
+    }
+
+    public static boolean isPinnedToPrimary() {
+        if (primaryOnly.get() != null) {
+            return true;
+        }
+        Long until = primaryUntil.get();
+        return until != null && until > System.currentTimeMillis();
+    }
+
+    /**
+     * Called once this thread committed a write; {@code listener} is told how long the writer's
+     * reads stay on the primary, so the pin can outlive the request.
+     */
+    public static void setWriteListener(LongConsumer listener) {
+        writeListener.set(listener);
+    }
+
+    public static void clear() {
+        primaryOnly.remove();
+        primaryUntil.remove();
+        writeListener.remove();
+    }
+
+    static void writeCommitted(Duration pin) {
+        long until = System.currentTimeMillis() + pin.toMillis();
+        pinToPrimaryUntil(until);
+        LongConsumer listener = writeListener.get();
+        if (listener != null) {
+            listener.accept(until);
+        }
+    }
+}
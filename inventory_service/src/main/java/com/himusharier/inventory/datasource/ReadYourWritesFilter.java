@@ -0,0 +1,66 @@
+package com.himusharier.inventory.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Read-your-writes across requests. A response whose request committed a write carries a cookie
+ * with the time until which that client's reads stay on the primary; requests that send it back
+ * are pinned until then. The time is capped at one pin interval from now, so a client can not
+ * pin itself to the primary for longer.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE_NAME = "inventory-read-primary-until";
+
+    private final Duration pinAfterWrite;
+
+    public ReadYourWritesFilter(Duration pinAfterWrite) {
+        this.pinAfterWrite = pinAfterWrite;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        long pinnedUntil = Math.min(pinnedUntil(request), now + pinAfterWrite.toMillis());
+        if (pinnedUntil > now) {
+            ReadRouting.pinToPrimaryUntil(pinnedUntil);
+        }
+        ReadRouting.setWriteListener(until -> {
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(until));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, Duration.ofMillis(until - System.currentTimeMillis()).toSeconds() + 1));
+            response.addCookie(cookie);
+        });
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadRouting.clear();
+        }
+    }
+
+    private static long pinnedUntil(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return 0;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
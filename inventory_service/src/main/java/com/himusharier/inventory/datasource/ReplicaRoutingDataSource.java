@@ -0,0 +1,218 @@
+package com.himusharier.inventory.datasource;
+
+import com.himusharier.inventory.constants.ReplicaSelection;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a replica and everything else (read-write transactions,
+ * non-transactional work, threads pinned by {@link ReadRouting}) to the primary. Must sit behind
+ * a {@code LazyConnectionDataSourceProxy}: the transaction's read-only flag is only known once it
+ * has begun, so the physical connection has to be chosen at the first statement.
+ *
+ * Replicas that fail to hand out a connection are taken out of rotation, and the read moves on to
+ * the next replica, or to the primary once none is left. {@link #checkReplicas()} brings them back.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final String PRIMARY = "primary";
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Map<String, Replica> replicasByName = new HashMap<>();
+    private final ReplicaSelection selection;
+    private final Duration pinAfterWrite;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    Map<String, DataSource> replicas,
+                                    ReplicaSelection selection,
+                                    Duration pinAfterWrite) {
+        this.primary = primary;
+        this.selection = selection;
+        this.pinAfterWrite = pinAfterWrite;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            this.replicas.add(replica);
+            this.replicasByName.put(name, replica);
+            targets.put(name, dataSource);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                pinReadsAfterCommit();
+            }
+            return PRIMARY;
+        }
+        if (ReadRouting.isPinnedToPrimary()) {
+            return PRIMARY;
+        }
+        Replica replica = selectReplica();
+        return replica != null ? replica.name : PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        while (true) {
+            Replica replica = replicasByName.get(key);
+            if (replica == null) {
+                return primary.getConnection();
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                replica.markDown(e);
+                Replica next = selectReplica();
+                key = next != null ? next.name : PRIMARY;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.health-check-interval:PT5S}",
+            initialDelayString = "${app.datasource.replicas.health-check-interval:PT5S}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    replica.markUp();
+                } else {
+                    replica.markDown(null);
+                }
+            } catch (SQLException e) {
+                replica.markDown(e);
+            }
+        }
+    }
+
+    public Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("selection", selection);
+        description.put("pinAfterWrite", pinAfterWrite.toString());
+        for (Replica replica : replicas) {
+            description.put(replica.name, replica.healthy ? "UP" : "DOWN");
+        }
+        return description;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (Replica replica : replicas) {
+            close(replica.dataSource);
+        }
+        close(primary);
+    }
+
+    private Replica selectReplica() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        Replica selected = null;
+        int selectedLoad = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.healthy) {
+                continue;
+            }
+            if (selection == ReplicaSelection.ROUND_ROBIN) {
+                return replica;
+            }
+            int load = replica.activeConnections();
+            if (load < selectedLoad) {
+                selected = replica;
+                selectedLoad = load;
+            }
+        }
+        return selected;
+    }
+
+    private void pinReadsAfterCommit() {
+        if (pinAfterWrite.isZero() || pinAfterWrite.isNegative()) {
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PinAfterCommit) {
+                return;
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new PinAfterCommit());
+    }
+
+    private static void close(DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private class PinAfterCommit implements TransactionSynchronization {
+        @Override
+        public void afterCommit() {
+            ReadRouting.writeCommitted(pinAfterWrite);
+        }
+    }
+
+    private static class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private int activeConnections() {
+            if (dataSource instanceof HikariDataSource hikari) {
+                HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+                return pool != null ? pool.getActiveConnections() : 0;
+            }
+            return 0;
+        }
+
+        private void markDown(SQLException cause) {
+            if (healthy) {
+                healthy = false;
+                log.warn("Read replica {} is down, its reads fail over: {}", name,
+                        cause != null ? cause.getMessage() : "connection is not valid");
+            }
+        }
+
+        private void markUp() {
+            if (!healthy) {
+                healthy = true;
+                log.info("Read replica {} is back in rotation", name);
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.himusharier.inventory.dto.request;
+
+import com.himusharier.inventory.constants.ProductDeleteMode;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Either {@code productIds} or a {@code filter} (the filters of {@code GET /products}, without
+ * sort or paging), not both.
+ */
+@Getter
+@Setter
+public class ProductBulkDeleteRequestDto {
+    @Size(max = 10000, message = "A bulk delete can contain at most 10000 product ids.")
+    private List<@NotNull(message = "Product id can not be blank.") UUID> productIds;
+
+    @Valid
+    private ProductQuerySpec filter;
+
+    private ProductDeleteMode mode = ProductDeleteMode.DELETE;
+}
@@ -0,0 +1,17 @@
+package com.himusharier.inventory.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class ProductBulkPatchRequestDto {
+    @NotEmpty(message = "At least one item is required.")
+    @Size(max = 1000, message = "A bulk patch can contain at most 1000 items.")
+    private List<@Valid ProductPatchItemDto> items;
+}
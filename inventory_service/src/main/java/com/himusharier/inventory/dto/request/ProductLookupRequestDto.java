@@ -0,0 +1,18 @@
+package com.himusharier.inventory.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+public class ProductLookupRequestDto {
+    @NotEmpty(message = "At least one product id is required.")
+    @Size(max = 500, message = "A lookup can contain at most 500 product ids.")
+    private List<@NotNull(message = "Product id can not be blank.") UUID> productIds;
+}
@@ -0,0 +1,24 @@
+package com.himusharier.inventory.dto.request;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProductPatchItemDto {
+    @NotNull(message = "Product id can not be blank.")
+    private UUID productId;
+
+    // Optional expected version, same meaning as If-Match on PATCH /products/{id}.
+    private Long version;
+
+    // JSON Merge Patch (RFC 7396) document for this product.
+    @NotNull(message = "Patch can not be blank.")
+    private JsonNode patch;
+}
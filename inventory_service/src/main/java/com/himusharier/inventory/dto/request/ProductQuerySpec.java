@@ -0,0 +1,64 @@
+package com.himusharier.inventory.dto.request;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Filters, sort keys and paging for {@code GET /products}, bound from query parameters,
+ * e.g. {@code ?minPrice=10&maxPrice=50&inStock=true&sort=price,-name&page=0&size=20}.
+ * All filters are optional and combined with AND.
+ */
+@Getter
+@Setter
+public class ProductQuerySpec {
+    @PositiveOrZero(message = "minPrice can not be negative.")
+    private Double minPrice;
+
+    @PositiveOrZero(message = "maxPrice can not be negative.")
+    private Double maxPrice;
+
+    private Integer minQuantity;
+
+    private Integer maxQuantity;
+
+    // Shorthand for minQuantity=1.
+    private Boolean inStock;
+
+    // Case-sensitive name prefix, so it can be answered from the name index.
+    @Size(max = 255, message = "name can be at most 255 characters.")
+    private String name;
+
+    // "field" ascending or "-field" descending; comma separated or repeated for more keys.
+    @Size(max = 5, message = "At most 5 sort keys are allowed.")
+    private List<String> sort;
+
+    @Min(value = 0, message = "page can not be negative.")
+    private Integer page;
+
+    @Min(value = 1, message = "size must be at least 1.")
+    @Max(value = 1000, message = "size can be at most 1000.")
+    private Integer size;
+
+    @AssertTrue(message = "minPrice can not be greater than maxPrice.")
+    public boolean isPriceRangeValid() {
+        return minPrice == null || maxPrice == null || minPrice <= maxPrice;
+    }
+
+    @AssertTrue(message = "minQuantity can not be greater than maxQuantity.")
+    public boolean isQuantityRangeValid() {
+        return minQuantity == null || maxQuantity == null || minQuantity <= maxQuantity;
+    }
+
+    public boolean isEmpty() {
+        return minPrice == null && maxPrice == null && minQuantity == null && maxQuantity == null
+                && inStock == null && name == null && (sort == null || sort.isEmpty())
+                && page == null && size == null;
+    }
+}
@@ -2,6 +2,7 @@ package com.himusharier.inventory.dto.request;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -17,5 +18,9 @@ public class ProductRequestDto {
     private Double price;
 
     @NotNull(message = "Product quantity can not be blank.")
-    private int quantity;
+    private Integer quantity;
+
+    // Optional; a low-stock alert is raised when quantity drops below it.
+    @PositiveOrZero(message = "Reorder threshold can not be negative.")
+    private Integer reorderThreshold;
 }
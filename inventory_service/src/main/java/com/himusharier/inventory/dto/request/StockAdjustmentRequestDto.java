@@ -0,0 +1,19 @@
+package com.himusharier.inventory.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class StockAdjustmentRequestDto {
+    @NotNull(message = "Stock quantity can not be blank.")
+    @Positive(message = "Stock quantity must be greater than zero.")
+    private Integer quantity;
+
+    // Optional, recorded on the stock ledger entries (e.g. an order number).
+    @Size(max = 100, message = "Reference can not be longer than 100 characters.")
+    private String reference;
+}
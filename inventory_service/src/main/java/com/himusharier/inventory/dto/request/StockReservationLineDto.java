@@ -0,0 +1,26 @@
+package com.himusharier.inventory.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class StockReservationLineDto {
+    @NotNull(message = "Product id can not be blank.")
+    private UUID productId;
+
+    @NotNull(message = "Stock quantity can not be blank.")
+    @Positive(message = "Stock quantity must be greater than zero.")
+    private Integer quantity;
+
+    public StockReservationLineDto(UUID productId, Integer quantity) {
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+}
@@ -0,0 +1,21 @@
+package com.himusharier.inventory.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class StockReservationRequestDto {
+    @NotEmpty(message = "Reservation lines can not be empty.")
+    @Size(max = 500, message = "A reservation can not contain more than 500 lines.")
+    private List<@Valid StockReservationLineDto> lines;
+
+    // Optional, recorded on the stock ledger entries (e.g. an order number).
+    @Size(max = 100, message = "Reference can not be longer than 100 characters.")
+    private String reference;
+}
@@ -0,0 +1,18 @@
+package com.himusharier.inventory.dto.request;
+
+import com.himusharier.inventory.service.StockStripeService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class StockStripesRequestDto {
+    // 0 turns striping off.
+    @NotNull(message = "Stripe count can not be blank.")
+    @Min(value = 0, message = "Stripe count can not be negative.")
+    @Max(value = StockStripeService.MAX_STRIPES, message = "Stripe count can not exceed " + StockStripeService.MAX_STRIPES + ".")
+    private Integer stripes;
+}
@@ -0,0 +1,17 @@
+package com.himusharier.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class FlashSaleStatusDto {
+    private final UUID productId;
+    private final boolean active;
+    // Live engine stock while active, the stored quantity otherwise.
+    private final int available;
+}
@@ -0,0 +1,17 @@
+package com.himusharier.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class HeldStockDto {
+    private final UUID productId;
+    // Outstanding holds on the product and the stock they have taken out of its quantity.
+    private final long holds;
+    private final long heldQuantity;
+}
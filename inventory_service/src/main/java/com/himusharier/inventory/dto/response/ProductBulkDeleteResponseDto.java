@@ -0,0 +1,25 @@
+package com.himusharier.inventory.dto.response;
+
+import com.himusharier.inventory.constants.ProductDeleteMode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class ProductBulkDeleteResponseDto {
+    private final ProductDeleteMode mode;
+    // Products found for the request: deleted plus skipped.
+    private final int matched;
+    // Rows removed from em_products.
+    private final int deleted;
+    // Rows written to em_products_archive (ARCHIVE only).
+    private final int archived;
+    // In flash-sale mode: left in place.
+    private final int skipped;
+    // Requested ids without a product (id lists only).
+    private final int notFound;
+    // Transactions the work was split into.
+    private final int chunks;
+}
@@ -0,0 +1,15 @@
+package com.himusharier.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ProductBulkPatchResponseDto {
+    private final int patched;
+    private final int failed;
+    // One result per request item, in request order.
+    private final List<ProductPatchResultDto> items;
+}
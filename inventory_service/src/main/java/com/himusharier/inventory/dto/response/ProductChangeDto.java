@@ -0,0 +1,30 @@
+package com.himusharier.inventory.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.himusharier.inventory.constants.ProductChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+// The product fields are its state as committed by the change; absent for deletes.
+@Getter
+@Builder
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductChangeDto {
+    private final long offset;
+    private final UUID productId;
+    private final ProductChangeType changeType;
+    private final List<String> changedFields;
+    private final Long version;
+    private final String name;
+    private final String description;
+    private final Double price;
+    private final Integer quantity;
+    private final Integer reorderThreshold;
+    private final Instant changedAt;
+}
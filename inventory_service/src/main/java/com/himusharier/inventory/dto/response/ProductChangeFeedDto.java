@@ -0,0 +1,16 @@
+package com.himusharier.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ProductChangeFeedDto {
+    private final List<ProductChangeDto> changes;
+    // Pass as "after" on the next call.
+    private final long nextOffset;
+    // True when changes right after the requested offset were already pruned: reload the catalog first.
+    private final boolean truncated;
+}
@@ -0,0 +1,12 @@
+package com.himusharier.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ProductImportErrorDto {
+    // 1-based line number in the uploaded file.
+    private final long line;
+    private final String message;
+}
@@ -0,0 +1,17 @@
+package com.himusharier.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ProductImportResponseDto {
+    private final long processed;
+    private final long imported;
+    private final long failed;
+    private final List<ProductImportErrorDto> errors;
+    // True when more rows failed than are listed in errors.
+    private final boolean errorsTruncated;
+}
@@ -0,0 +1,15 @@
+package com.himusharier.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ProductLookupResponseDto {
+    private final int found;
+    private final int missing;
+    // One result per requested id, in request order (repeated ids are repeated).
+    private final List<ProductLookupResultDto> items;
+}
@@ -0,0 +1,17 @@
+package com.himusharier.inventory.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductLookupResultDto {
+    private final UUID productId;
+    private final boolean found;
+    // Only present when found.
+    private final ProductResponseDto product;
+}
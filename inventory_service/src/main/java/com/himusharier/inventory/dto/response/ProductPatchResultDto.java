@@ -0,0 +1,18 @@
+package com.himusharier.inventory.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.himusharier.inventory.constants.ProductPatchStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductPatchResultDto {
+    private final UUID productId;
+    private final ProductPatchStatus status;
+    // Only reported for INVALID items.
+    private final String message;
+}
@@ -1,18 +1,23 @@
 package com.himusharier.inventory.dto.response;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
-import lombok.Setter;
 
 import java.util.UUID;
 
+// Immutable: also used as the JPQL constructor-expression projection in ProductRepository.
 @Getter
-@Setter
 @Builder
+@AllArgsConstructor
 public class ProductResponseDto {
-    private UUID productId;
-    private String name;
-    private String description;
-    private Double price;
-    private int quantity;
+    private final UUID productId;
+    private final String name;
+    private final String description;
+    private final Double price;
+    private final int quantity;
+    private final Integer reorderThreshold;
+    // > 0 when stock is striped; quantity is then the sum of the stripes.
+    private final int stockStripes;
+    private final long version;
 }
@@ -0,0 +1,19 @@
+package com.himusharier.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class ProductSearchHitDto {
+    private final UUID productId;
+    private final String name;
+    private final String description;
+    private final Double price;
+    // Relevance score; only comparable within the same query.
+    private final float score;
+}
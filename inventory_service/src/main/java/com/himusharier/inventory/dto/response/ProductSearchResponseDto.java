@@ -0,0 +1,18 @@
+package com.himusharier.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ProductSearchResponseDto {
+    private final String query;
+    private final int page;
+    private final int size;
+    private final long totalHits;
+    // False when totalHits is a lower bound (counting stops early on very broad queries).
+    private final boolean totalHitsExact;
+    private final List<ProductSearchHitDto> items;
+}
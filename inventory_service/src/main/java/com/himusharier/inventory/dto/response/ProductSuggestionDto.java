@@ -0,0 +1,13 @@
+package com.himusharier.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class ProductSuggestionDto {
+    private final UUID productId;
+    private final String name;
+}
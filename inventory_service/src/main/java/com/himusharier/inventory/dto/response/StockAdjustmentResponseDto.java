@@ -0,0 +1,16 @@
+package com.himusharier.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class StockAdjustmentResponseDto {
+    private final UUID productId;
+    // Signed: negative for decrements.
+    private final int adjustment;
+}
@@ -0,0 +1,21 @@
+package com.himusharier.inventory.dto.response;
+
+import com.himusharier.inventory.constants.StockHoldStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class StockHoldResponseDto {
+    private final UUID holdId;
+    private final StockHoldStatus status;
+    private final String reference;
+    private final LocalDateTime expiresAt;
+    private final List<StockHoldLineDto> lines;
+}
@@ -0,0 +1,22 @@
+package com.himusharier.inventory.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StockLevelResponseDto {
+    private final UUID productId;
+    private final LocalDateTime asOf;
+    private final long quantity;
+    // Snapshot the answer started from; null when the product has none yet.
+    private final LocalDateTime snapshotCoveredUntil;
+    private final long movementsAfterSnapshot;
+}
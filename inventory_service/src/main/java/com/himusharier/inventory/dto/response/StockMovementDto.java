@@ -0,0 +1,23 @@
+package com.himusharier.inventory.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.himusharier.inventory.constants.StockMovementReason;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StockMovementDto {
+    private final UUID movementId;
+    private final UUID productId;
+    private final int delta;
+    private final StockMovementReason reason;
+    private final String reference;
+    private final LocalDateTime occurredAt;
+}
@@ -0,0 +1,19 @@
+package com.himusharier.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class StockReconciliationDto {
+    private final UUID productId;
+    private final int productQuantity;
+    private final long ledgerQuantity;
+    // productQuantity - ledgerQuantity
+    private final long difference;
+    private final boolean consistent;
+}
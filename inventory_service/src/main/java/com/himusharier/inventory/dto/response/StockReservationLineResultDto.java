@@ -0,0 +1,21 @@
+package com.himusharier.inventory.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.himusharier.inventory.constants.StockReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StockReservationLineResultDto {
+    private final UUID productId;
+    private final int quantity;
+    private final StockReservationStatus status;
+    // Only reported for INSUFFICIENT_STOCK lines.
+    private final Integer availableQuantity;
+}
@@ -0,0 +1,14 @@
+package com.himusharier.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class StockReservationResponseDto {
+    private final boolean reserved;
+    // Same order as the request lines.
+    private final List<StockReservationLineResultDto> lines;
+}
@@ -0,0 +1,19 @@
+package com.himusharier.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class StockStripesResponseDto {
+    private final UUID productId;
+    private final int stripes;
+    private final long quantity;
+    // Per stripe, in stripe order; empty when not striped.
+    private final List<Integer> stripeQuantities;
+}
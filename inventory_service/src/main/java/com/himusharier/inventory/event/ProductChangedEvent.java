@@ -0,0 +1,29 @@
+package com.himusharier.inventory.event;
+
+import com.himusharier.inventory.constants.ProductChangeType;
+import com.himusharier.inventory.constants.ProductPatchField;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published by write paths inside their transaction. Listeners that maintain derived
+ * state (caches, indexes, ...) should use {@code @TransactionalEventListener} so they
+ * only observe committed changes.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ProductChangedEvent {
+    private final UUID productId;
+    private final ProductChangeType changeType;
+    // Fields whose values changed; empty for deletes and for changes of internal state only.
+    private final Set<ProductPatchField> changedFields;
+
+    public ProductChangedEvent(UUID productId, ProductChangeType changeType) {
+        this(productId, changeType, Set.of());
+    }
+}
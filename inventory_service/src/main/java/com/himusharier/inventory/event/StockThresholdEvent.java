@@ -0,0 +1,20 @@
+package com.himusharier.inventory.event;
+
+import com.himusharier.inventory.constants.StockThresholdEventType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class StockThresholdEvent {
+    private final UUID productId;
+    private final StockThresholdEventType type;
+    private final int quantity;
+    private final int reorderThreshold;
+    private final Instant occurredAt;
+}
@@ -0,0 +1,12 @@
+package com.himusharier.inventory.exception;
+
+// The flash-sale engine can not take the request right now (queue full, log failure, timeout).
+public class FlashSaleUnavailableException extends RuntimeException {
+    public FlashSaleUnavailableException(String message) {
+        super(message);
+    }
+
+    public FlashSaleUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
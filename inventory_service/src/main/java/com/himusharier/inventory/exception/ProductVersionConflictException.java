@@ -0,0 +1,7 @@
+package com.himusharier.inventory.exception;
+
+public class ProductVersionConflictException extends RuntimeException {
+    public ProductVersionConflictException(String message) {
+        super(message);
+    }
+}
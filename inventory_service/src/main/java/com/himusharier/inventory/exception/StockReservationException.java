@@ -0,0 +1,15 @@
+package com.himusharier.inventory.exception;
+
+import com.himusharier.inventory.dto.response.StockReservationResponseDto;
+import lombok.Getter;
+
+// Thrown (and therefore rolling back every line) when any line of a reservation can not be applied.
+@Getter
+public class StockReservationException extends RuntimeException {
+    private final StockReservationResponseDto result;
+
+    public StockReservationException(String message, StockReservationResponseDto result) {
+        super(message);
+        this.result = result;
+    }
+}
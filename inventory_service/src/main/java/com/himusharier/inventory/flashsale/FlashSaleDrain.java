@@ -0,0 +1,17 @@
+package com.himusharier.inventory.flashsale;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.UUID;
+
+// Net change per product of every record up to throughSeq that no earlier drain returned.
+@Getter
+@AllArgsConstructor
+public class FlashSaleDrain {
+    private final Map<UUID, Integer> deltas;
+    // The part of each product's net change that came with a reference, per reference.
+    private final Map<UUID, Map<String, Integer>> referencedDeltas;
+    private final long throughSeq;
+}
@@ -0,0 +1,268 @@
+package com.himusharier.inventory.flashsale;
+
+import com.himusharier.inventory.constants.FlashSaleReservationStatus;
+import com.himusharier.inventory.exception.FlashSaleUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-writer stock engine for products in flash-sale mode. Every change goes through one
+ * bounded queue and one thread, so stock checks need no locks at all. The thread takes the queue
+ * in batches: it applies each request to the in-memory stock, appends one WAL record per
+ * accepted change, syncs the WAL once for the whole batch (group commit) and only then completes
+ * the callers' futures, so nothing is acknowledged before it is durable.
+ *
+ * <p>The net changes are handed to the database in batches through {@link #drain()}.
+ */
+@Slf4j
+public class FlashSaleEngine implements Closeable {
+
+    private static final int MAX_BATCH = 4096;
+
+    private enum CommandType { RESERVE, RESTOCK, OPEN, CLOSE, DRAIN }
+
+    private static final class Command {
+        private final CommandType type;
+        private final UUID productId;
+        private final int quantity;
+        private final String reference;
+        private final byte[] referenceBytes;
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        private Object result;
+
+        private Command(CommandType type, UUID productId, int quantity, String reference) {
+            this.type = type;
+            this.productId = productId;
+            this.quantity = quantity;
+            this.reference = reference;
+            this.referenceBytes = reference != null ? reference.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        }
+    }
+
+    private final FlashSaleWal wal;
+    private final BlockingQueue<Command> queue;
+    private final Thread writer;
+    // Live stock per product; written by the writer thread only, read by anyone.
+    private final Map<UUID, Integer> stock = new ConcurrentHashMap<>();
+    // Writer thread only: net change per product since the previous drain.
+    private Map<UUID, Integer> pending = new HashMap<>();
+    // Writer thread only: the referenced part of pending, per reference.
+    private Map<UUID, Map<String, Integer>> pendingReferenced = new HashMap<>();
+    // Written by the writer thread only.
+    private volatile long lastSeq;
+    private volatile boolean running = true;
+    private volatile Throwable failure;
+
+    /**
+     * @param nextSeq first sequence number to write; above everything already in the log
+     * @param stock   products already in flash-sale mode and their current stock
+     */
+    public FlashSaleEngine(FlashSaleWal wal, long nextSeq, int queueCapacity, Map<UUID, Integer> stock) throws IOException {
+        this.wal = wal;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.lastSeq = nextSeq - 1;
+        this.stock.putAll(stock);
+        wal.open(nextSeq);
+        this.writer = new Thread(this::run, "flash-sale-writer");
+        this.writer.start();
+    }
+
+    public boolean isActive(UUID productId) {
+        return stock.containsKey(productId);
+    }
+
+    // Highest sequence number written so far.
+    public long getLastSeq() {
+        return lastSeq;
+    }
+
+    public OptionalInt available(UUID productId) {
+        Integer available = stock.get(productId);
+        return available != null ? OptionalInt.of(available) : OptionalInt.empty();
+    }
+
+    /**
+     * @param reference the caller's reference (e.g. an order number), kept in the WAL and handed
+     *                  out by {@link #drain()}; null for none
+     */
+    public CompletableFuture<FlashSaleReservation> reserve(UUID productId, int quantity, String reference) {
+        return submit(CommandType.RESERVE, productId, quantity, reference);
+    }
+
+    public CompletableFuture<FlashSaleReservation> restock(UUID productId, int quantity, String reference) {
+        return submit(CommandType.RESTOCK, productId, quantity, reference);
+    }
+
+    /**
+     * Puts a product in flash-sale mode with {@code quantity} in stock.
+     *
+     * @return the sequence number of its START record, or {@code null} when it already was
+     */
+    public CompletableFuture<Long> open(UUID productId, int quantity) {
+        return submit(CommandType.OPEN, productId, quantity, null);
+    }
+
+    /**
+     * Takes a product out of flash-sale mode. Its changes not drained yet stay pending for the
+     * next {@link #drain()}.
+     *
+     * @return the stock it had, or {@code null} when it was not in flash-sale mode
+     */
+    public CompletableFuture<Integer> close(UUID productId) {
+        return submit(CommandType.CLOSE, productId, 0, null);
+    }
+
+    public CompletableFuture<FlashSaleDrain> drain() {
+        return submit(CommandType.DRAIN, null, 0, null);
+    }
+
+    // Removes WAL segments the database has caught up with.
+    public void truncateThrough(long seq) throws IOException {
+        wal.deleteSegmentsThrough(seq);
+    }
+
+    /**
+     * Stops taking requests, finishes the queued ones and closes the log.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        wal.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> submit(CommandType type, UUID productId, int quantity, String reference) {
+        Command command = new Command(type, productId, quantity, reference);
+        if (command.referenceBytes.length > FlashSaleWal.MAX_REFERENCE_SIZE) {
+            // Checked here: a record the WAL refuses would stop the whole engine.
+            command.future.completeExceptionally(new IllegalArgumentException(
+                    "Reference can not be longer than " + FlashSaleWal.MAX_REFERENCE_SIZE + " bytes."));
+        } else if (failure != null) {
+            command.future.completeExceptionally(new FlashSaleUnavailableException("Flash-sale engine has failed.", failure));
+        } else if (!running) {
+            command.future.completeExceptionally(new FlashSaleUnavailableException("Flash-sale engine is shutting down."));
+        } else if (!queue.offer(command)) {
+            command.future.completeExceptionally(new FlashSaleUnavailableException("Flash-sale engine is overloaded, please retry."));
+        }
+        return (CompletableFuture<T>) command.future;
+    }
+
+    private void run() {
+        List<Command> batch = new ArrayList<>(MAX_BATCH);
+        while (running || !queue.isEmpty()) {
+            try {
+                Command first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                processBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void processBatch(List<Command> batch) {
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            for (Command command : batch) {
+                command.result = apply(command);
+            }
+            wal.sync();
+        } catch (Throwable e) {
+            // In-memory stock may now be ahead of the log: refuse everything until a restart replays it.
+            if (failure == null) {
+                log.error("Flash-sale WAL write failed, the engine stops taking requests", e);
+                failure = e;
+            }
+            FlashSaleUnavailableException unavailable = new FlashSaleUnavailableException("Flash-sale engine has failed.", failure);
+            batch.forEach(command -> command.future.completeExceptionally(unavailable));
+            return;
+        }
+        batch.forEach(command -> command.future.complete(command.result));
+    }
+
+    private Object apply(Command command) throws IOException {
+        UUID productId = command.productId;
+        Integer available = productId != null ? stock.get(productId) : null;
+        switch (command.type) {
+            case RESERVE:
+                if (available == null) {
+                    return new FlashSaleReservation(FlashSaleReservationStatus.NOT_ACTIVE, 0);
+                }
+                if (available < command.quantity) {
+                    return new FlashSaleReservation(FlashSaleReservationStatus.INSUFFICIENT_STOCK, available);
+                }
+                append(FlashSaleWalRecord.RESERVE, productId, command.quantity, command.referenceBytes);
+                stock.put(productId, available - command.quantity);
+                addPending(productId, -command.quantity, command.reference);
+                return new FlashSaleReservation(FlashSaleReservationStatus.APPLIED, available - command.quantity);
+            case RESTOCK:
+                if (available == null) {
+                    return new FlashSaleReservation(FlashSaleReservationStatus.NOT_ACTIVE, 0);
+                }
+                append(FlashSaleWalRecord.RESTOCK, productId, command.quantity, command.referenceBytes);
+                stock.put(productId, available + command.quantity);
+                addPending(productId, command.quantity, command.reference);
+                return new FlashSaleReservation(FlashSaleReservationStatus.APPLIED, available + command.quantity);
+            case OPEN:
+                if (available != null) {
+                    return null;
+                }
+                long seq = append(FlashSaleWalRecord.START, productId, command.quantity, command.referenceBytes);
+                stock.put(productId, command.quantity);
+                return seq;
+            case CLOSE:
+                if (available != null) {
+                    append(FlashSaleWalRecord.STOP, productId, 0, command.referenceBytes);
+                    stock.remove(productId);
+                }
+                return available;
+            case DRAIN:
+                FlashSaleDrain drain = new FlashSaleDrain(pending, pendingReferenced, lastSeq);
+                pending = new HashMap<>();
+                pendingReferenced = new HashMap<>();
+                return drain;
+            default:
+                throw new IllegalStateException("Unknown command " + command.type);
+        }
+    }
+
+    private void addPending(UUID productId, int delta, String reference) {
+        pending.merge(productId, delta, Integer::sum);
+        if (reference != null) {
+            pendingReferenced.computeIfAbsent(productId, id -> new HashMap<>()).merge(reference, delta, Integer::sum);
+        }
+    }
+
+    private long append(byte type, UUID productId, int quantity, byte[] reference) throws IOException {
+        wal.append(++lastSeq, type, productId, quantity, reference);
+        return lastSeq;
+    }
+}
@@ -0,0 +1,13 @@
+package com.himusharier.inventory.flashsale;
+
+import com.himusharier.inventory.constants.FlashSaleReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class FlashSaleReservation {
+    private final FlashSaleReservationStatus status;
+    // Stock left after the request; the stock that was too little when INSUFFICIENT_STOCK.
+    private final int available;
+}
@@ -0,0 +1,198 @@
+package com.himusharier.inventory.flashsale;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Segmented, memory-mapped write-ahead log of the flash-sale engine. Segments are preallocated
+ * files named after their first sequence number and hold records (seq, type, product id,
+ * quantity, the caller's optional reference) each closed by a CRC32C, so replay stops cleanly
+ * at the first torn or never-written slot.
+ *
+ * <p>Appends are plain memory writes: once {@code append} returns, a record survives a crash of
+ * the process (the page cache holds it). {@link #sync()} additionally forces the records
+ * written since the previous sync to the device, which is what survives power loss. Only the
+ * engine's writer thread appends and syncs; {@link #deleteSegmentsThrough} may run on any thread.
+ */
+public class FlashSaleWal implements Closeable {
+
+    // seq (8) + type (1) + product id (16) + quantity (4) + reference length (2)
+    private static final int HEADER_SIZE = 31;
+    private static final int CRC_SIZE = 4;
+    // A record without a reference.
+    public static final int RECORD_SIZE = HEADER_SIZE + CRC_SIZE;
+    // UTF-8 of the 100 characters a stock request's reference may have.
+    public static final int MAX_REFERENCE_SIZE = 300;
+    public static final int MAX_RECORD_SIZE = RECORD_SIZE + MAX_REFERENCE_SIZE;
+    private static final String SEGMENT_SUFFIX = ".wal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean fsync;
+    private final CRC32C crc = new CRC32C();
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int syncedPosition;
+    private volatile long segmentFirstSeq = -1;
+
+    public FlashSaleWal(Path directory, long segmentSize, boolean fsync) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = (int) Math.max(MAX_RECORD_SIZE, Math.min(segmentSize, Integer.MAX_VALUE));
+        this.fsync = fsync;
+    }
+
+    /**
+     * Reads every intact record, oldest first. Call before {@link #open}.
+     *
+     * @return the highest sequence number seen, 0 for an empty log
+     */
+    public long replay(Consumer<FlashSaleWalRecord> consumer) throws IOException {
+        long lastSeq = 0;
+        for (Path segment : segments()) {
+            try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ)) {
+                MappedByteBuffer mapped = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+                while (mapped.remaining() >= RECORD_SIZE) {
+                    FlashSaleWalRecord record = decode(mapped);
+                    // Zeroed slot (end of the written part) or a record torn by a crash.
+                    if (record == null || record.getSeq() <= lastSeq) {
+                        break;
+                    }
+                    lastSeq = record.getSeq();
+                    consumer.accept(record);
+                }
+            }
+        }
+        return lastSeq;
+    }
+
+    // Starts a fresh segment for records from firstSeq on; a leftover file of that name is cleared.
+    public void open(long firstSeq) throws IOException {
+        closeSegment();
+        Path path = directory.resolve(segmentName(firstSeq));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        syncedPosition = 0;
+        segmentFirstSeq = firstSeq;
+    }
+
+    /**
+     * @param reference UTF-8 of the caller's reference, at most {@link #MAX_REFERENCE_SIZE} bytes;
+     *                  empty for none
+     */
+    public void append(long seq, byte type, UUID productId, int quantity, byte[] reference) throws IOException {
+        if (buffer.remaining() < RECORD_SIZE + reference.length) {
+            sync();
+            open(seq);
+        }
+        int start = buffer.position();
+        buffer.putLong(seq)
+                .put(type)
+                .putLong(productId.getMostSignificantBits())
+                .putLong(productId.getLeastSignificantBits())
+                .putInt(quantity)
+                .putShort((short) reference.length)
+                .put(reference);
+        crc.reset();
+        crc.update(buffer.slice(start, HEADER_SIZE + reference.length));
+        buffer.putInt((int) crc.getValue());
+    }
+
+    // Forces everything appended since the previous sync (one msync for a whole batch); a no-op without fsync.
+    public void sync() {
+        int position = buffer.position();
+        if (fsync && position > syncedPosition) {
+            buffer.force(syncedPosition, position - syncedPosition);
+        }
+        syncedPosition = position;
+    }
+
+    /**
+     * Deletes the segments holding only records up to {@code seq}, i.e. those already applied
+     * to the database. The segment being written is always kept.
+     */
+    public int deleteSegmentsThrough(long seq) throws IOException {
+        List<Path> segments = segments();
+        int deleted = 0;
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            long first = firstSeq(segments.get(i));
+            long nextFirst = firstSeq(segments.get(i + 1));
+            if (first == segmentFirstSeq || nextFirst - 1 > seq) {
+                break;
+            }
+            Files.deleteIfExists(segments.get(i));
+            deleted++;
+        }
+        return deleted;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (buffer != null) {
+            sync();
+        }
+        closeSegment();
+    }
+
+    private void closeSegment() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+            buffer = null;
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().matches("\\d{20}\\" + SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    // Reads the record at the buffer's position, or returns null for a zeroed slot or a torn record.
+    private FlashSaleWalRecord decode(ByteBuffer in) {
+        int start = in.position();
+        long seq = in.getLong();
+        int referenceSize = in.getShort(start + HEADER_SIZE - 2);
+        if (seq == 0 || referenceSize < 0 || referenceSize > MAX_REFERENCE_SIZE
+                || in.remaining() < RECORD_SIZE - 8 + referenceSize) {
+            return null;
+        }
+        crc.reset();
+        crc.update(in.slice(start, HEADER_SIZE + referenceSize));
+        if ((int) crc.getValue() != in.getInt(start + HEADER_SIZE + referenceSize)) {
+            return null;
+        }
+        byte type = in.get();
+        UUID productId = new UUID(in.getLong(), in.getLong());
+        int quantity = in.getInt();
+        byte[] reference = new byte[in.getShort()];
+        in.get(reference);
+        in.getInt();
+        return new FlashSaleWalRecord(seq, type, productId, quantity,
+                reference.length > 0 ? new String(reference, StandardCharsets.UTF_8) : null);
+    }
+
+    private static String segmentName(long firstSeq) {
+        return String.format("%020d%s", firstSeq, SEGMENT_SUFFIX);
+    }
+
+    private static long firstSeq(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,32 @@
+package com.himusharier.inventory.flashsale;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class FlashSaleWalRecord {
+    public static final byte START = 1;
+    public static final byte RESERVE = 2;
+    public static final byte RESTOCK = 3;
+    public static final byte STOP = 4;
+
+    private final long seq;
+    private final byte type;
+    private final UUID productId;
+    // START: the stock the sale opened with; RESERVE / RESTOCK: the amount; STOP: unused.
+    private final int quantity;
+    // RESERVE / RESTOCK: the caller's reference, null for none.
+    private final String reference;
+
+    // Change to the product's quantity.
+    public int getDelta() {
+        return switch (type) {
+            case RESERVE -> -quantity;
+            case RESTOCK -> quantity;
+            default -> 0;
+        };
+    }
+}
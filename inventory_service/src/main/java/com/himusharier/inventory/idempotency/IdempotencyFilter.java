@@ -0,0 +1,316 @@
+package com.himusharier.inventory.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.himusharier.inventory.util.ApiResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@code Idempotency-Key} support for every write under {@code /api/v1/products}. The first
+ * request with a key runs and its response is stored (see {@link IdempotencyStore}); retries
+ * with the same key get that response back, marked {@code Idempotent-Replayed: true}, without
+ * running again. A duplicate that arrives while the first is still running on this node waits
+ * for its response; one that arrives on another node gets 409 and may retry.
+ *
+ * A key belongs to one request: method, path, query, {@code Accept} and body are fingerprinted,
+ * and reusing the key for a different request is rejected with 422. Server errors (5xx) are not
+ * stored, so a retry after one runs again. Requests without the header are not affected.
+ */
+@Slf4j
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    // POST, but only reads.
+    private static final String LOOKUP_PATH = "/api/v1/products/lookup";
+
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+    private final Duration waitTimeout;
+    private final int maxResponseSize;
+
+    @Autowired
+    public IdempotencyFilter(IdempotencyStore idempotencyStore,
+                             ObjectMapper objectMapper,
+                             @Value("${app.idempotency.wait-timeout:PT30S}") Duration waitTimeout,
+                             @Value("${app.idempotency.max-response-size:1048576}") int maxResponseSize) {
+        this.idempotencyStore = idempotencyStore;
+        this.objectMapper = objectMapper;
+        this.waitTimeout = waitTimeout;
+        this.maxResponseSize = maxResponseSize;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return request.getHeader(IDEMPOTENCY_KEY) == null
+                || !WRITE_METHODS.contains(request.getMethod())
+                || !path.startsWith("/api/v1/products")
+                || path.equals(LOOKUP_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY).trim();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST,
+                    IDEMPOTENCY_KEY + " must be between 1 and " + MAX_KEY_LENGTH + " characters.");
+            return;
+        }
+
+        Optional<IdempotentResponse> stored = idempotencyStore.findCompleted(idempotencyKey);
+        if (stored.isPresent()) {
+            replay(request, response, stored.get());
+            return;
+        }
+
+        CompletableFuture<IdempotentResponse> execution = new CompletableFuture<>();
+        CompletableFuture<IdempotentResponse> running = idempotencyStore.join(idempotencyKey, execution);
+        if (running != null) {
+            awaitAndReplay(request, response, running);
+            return;
+        }
+        try {
+            // Completed on another node, or by a request that left after our first check.
+            stored = idempotencyStore.findCompleted(idempotencyKey);
+            if (stored.isPresent()) {
+                execution.complete(stored.get());
+                replay(request, response, stored.get());
+                return;
+            }
+            String claimToken = idempotencyStore.claim(idempotencyKey);
+            if (claimToken == null) {
+                execution.complete(null);
+                writeInProgress(response);
+                return;
+            }
+            execution.complete(execute(idempotencyKey, claimToken, request, response, filterChain));
+        } catch (IOException | ServletException | RuntimeException e) {
+            execution.completeExceptionally(e);
+            throw e;
+        } finally {
+            idempotencyStore.leave(idempotencyKey, execution);
+        }
+    }
+
+    private IdempotentResponse execute(String idempotencyKey, String claimToken, HttpServletRequest request,
+                                       HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        FingerprintingRequest fingerprintingRequest = new FingerprintingRequest(request);
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        IdempotentResponse result;
+        try {
+            filterChain.doFilter(fingerprintingRequest, cachingResponse);
+            result = new IdempotentResponse(
+                    fingerprintingRequest.finish(),
+                    cachingResponse.getStatus(),
+                    cachingResponse.getContentType(),
+                    cachingResponse.getHeader(HttpHeaders.ETAG),
+                    cachingResponse.getHeader(HttpHeaders.LOCATION),
+                    cachingResponse.getContentAsByteArray());
+        } catch (IOException | ServletException | RuntimeException e) {
+            idempotencyStore.release(idempotencyKey, claimToken);
+            throw e;
+        }
+
+        if (result.status() >= 500) {
+            idempotencyStore.release(idempotencyKey, claimToken);
+        } else if (result.body().length > maxResponseSize) {
+            log.warn("Response for {} {} is larger than {} bytes; not stored for idempotent replay",
+                    request.getMethod(), request.getRequestURI(), maxResponseSize);
+            idempotencyStore.release(idempotencyKey, claimToken);
+        } else {
+            idempotencyStore.complete(idempotencyKey, claimToken, result);
+        }
+        cachingResponse.copyBodyToResponse();
+        return result;
+    }
+
+    private void awaitAndReplay(HttpServletRequest request, HttpServletResponse response,
+                                CompletableFuture<IdempotentResponse> running) throws IOException {
+        IdempotentResponse result;
+        try {
+            result = running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result = null;
+        } catch (ExecutionException | TimeoutException e) {
+            result = null;
+        }
+        if (result == null) {
+            writeInProgress(response);
+        } else {
+            replay(request, response, result);
+        }
+    }
+
+    private void replay(HttpServletRequest request, HttpServletResponse response, IdempotentResponse stored)
+            throws IOException {
+        if (!fingerprint(request).equals(stored.fingerprint())) {
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    IDEMPOTENCY_KEY + " was already used for a different request.");
+            return;
+        }
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.eTag() != null) {
+            response.setHeader(HttpHeaders.ETAG, stored.eTag());
+        }
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        response.setHeader(IDEMPOTENT_REPLAYED, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void writeInProgress(HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        writeError(response, HttpStatus.CONFLICT,
+                "A request with this " + IDEMPOTENCY_KEY + " is still in progress; retry later.");
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ApiResponse<String>(false, message));
+    }
+
+    // Reads the whole body: only for requests that are not going to run.
+    private static String fingerprint(HttpServletRequest request) throws IOException {
+        MessageDigest digest = requestDigest(request);
+        try (InputStream body = request.getInputStream()) {
+            byte[] buffer = new byte[8192];
+            for (int read; (read = body.read(buffer)) != -1; ) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest requestDigest(HttpServletRequest request) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        digest.update((request.getMethod() + ' ' + request.getRequestURI()
+                + '?' + (request.getQueryString() != null ? request.getQueryString() : "")
+                + '\n' + (accept != null ? accept : "") + '\n').getBytes(StandardCharsets.UTF_8));
+        return digest;
+    }
+
+    /**
+     * Fingerprints the body while the request reads it, so streamed uploads (e.g. imports) are
+     * not buffered. {@link #finish()} hashes whatever the handler left unread.
+     */
+    private static final class FingerprintingRequest extends HttpServletRequestWrapper {
+
+        private final MessageDigest digest;
+        private ServletInputStream inputStream;
+
+        FingerprintingRequest(HttpServletRequest request) {
+            super(request);
+            this.digest = requestDigest(request);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                ServletInputStream delegate = super.getInputStream();
+                inputStream = new ServletInputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        int b = delegate.read();
+                        if (b != -1) {
+                            digest.update((byte) b);
+                        }
+                        return b;
+                    }
+
+                    @Override
+                    public int read(byte[] buffer, int offset, int length) throws IOException {
+                        int read = delegate.read(buffer, offset, length);
+                        if (read > 0) {
+                            digest.update(buffer, offset, read);
+                        }
+                        return read;
+                    }
+
+                    @Override
+                    public boolean isFinished() {
+                        return delegate.isFinished();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setReadListener(ReadListener readListener) {
+                        delegate.setReadListener(readListener);
+                    }
+                };
+            }
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        String finish() throws IOException {
+            InputStream body = getInputStream();
+            byte[] buffer = new byte[8192];
+            while (body.read(buffer) != -1) {
+                // Drained into the digest.
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        }
+    }
+}
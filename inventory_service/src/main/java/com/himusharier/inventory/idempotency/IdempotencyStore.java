@@ -0,0 +1,150 @@
+package com.himusharier.inventory.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.himusharier.inventory.constants.IdempotencyStatus;
+import com.himusharier.inventory.datasource.ReadRouting;
+import com.himusharier.inventory.model.IdempotencyRecord;
+import com.himusharier.inventory.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Results of idempotent writes: a bounded in-process cache (Caffeine) in front of
+ * {@code em_idempotency_keys}, which every node shares. Requests running on this node are
+ * tracked too, so a concurrent duplicate waits for the one that runs instead of claiming the
+ * key in the database and being turned away.
+ *
+ * <p>A claim lasts claim-timeout and is renewed every claim-renew-interval while its request
+ * runs, so only a node that died mid-request loses it. Completing or releasing a key checks the
+ * claim's token: a request whose claim was taken over anyway does not overwrite the new owner.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, IdempotentResponse> completed;
+    private final ConcurrentMap<String, CompletableFuture<IdempotentResponse>> running = new ConcurrentHashMap<>();
+    // Claims held by requests running on this node: key to claim token.
+    private final ConcurrentMap<String, String> claims = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final Duration claimTimeout;
+
+    @Autowired
+    public IdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.idempotency.cache.maximum-size:10000}") long maximumSize,
+                            @Value("${app.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${app.idempotency.claim-timeout:PT1M}") Duration claimTimeout) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.claimTimeout = claimTimeout;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * The stored response for the key, from memory or else from the database (always the
+     * primary: a lagging replica could miss a result and let the request run twice).
+     */
+    public Optional<IdempotentResponse> findCompleted(String idempotencyKey) {
+        IdempotentResponse response = completed.getIfPresent(idempotencyKey);
+        if (response != null) {
+            return Optional.of(response);
+        }
+        Instant now = Instant.now();
+        Optional<IdempotentResponse> stored = ReadRouting.onPrimary(() -> idempotencyRecordRepository.findById(idempotencyKey))
+                .filter(record -> record.getStatus() == IdempotencyStatus.COMPLETED && record.getExpiresAt().isAfter(now))
+                .map(IdempotencyStore::toResponse);
+        stored.ifPresent(found -> completed.put(idempotencyKey, found));
+        return stored;
+    }
+
+    /**
+     * Registers {@code execution} as the request running the key on this node.
+     *
+     * @return the execution already running the key here, or null when {@code execution} was registered
+     */
+    public CompletableFuture<IdempotentResponse> join(String idempotencyKey, CompletableFuture<IdempotentResponse> execution) {
+        return running.putIfAbsent(idempotencyKey, execution);
+    }
+
+    public void leave(String idempotencyKey, CompletableFuture<IdempotentResponse> execution) {
+        running.remove(idempotencyKey, execution);
+    }
+
+    /**
+     * @return the claim's token, or null when a request on another node holds the key
+     */
+    public String claim(String idempotencyKey) {
+        String claimToken = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        if (!idempotencyRecordRepository.claim(idempotencyKey, claimToken, now, now.plus(claimTimeout))) {
+            return null;
+        }
+        claims.put(idempotencyKey, claimToken);
+        return claimToken;
+    }
+
+    public void complete(String idempotencyKey, String claimToken, IdempotentResponse response) {
+        claims.remove(idempotencyKey, claimToken);
+        if (idempotencyRecordRepository.complete(idempotencyKey, claimToken, response, Instant.now().plus(ttl))) {
+            completed.put(idempotencyKey, response);
+        } else {
+            log.warn("Claim on idempotency key {} was lost while its request ran; its response is not stored", idempotencyKey);
+        }
+    }
+
+    public void release(String idempotencyKey, String claimToken) {
+        claims.remove(idempotencyKey, claimToken);
+        idempotencyRecordRepository.release(idempotencyKey, claimToken);
+    }
+
+    // Heartbeat for the claims of requests still running here.
+    @Scheduled(fixedDelayString = "${app.idempotency.claim-renew-interval:PT20S}")
+    public void renewClaims() {
+        Instant claimExpiresAt = Instant.now().plus(claimTimeout);
+        claims.forEach((idempotencyKey, claimToken) -> {
+            try {
+                if (!idempotencyRecordRepository.renew(idempotencyKey, claimToken, claimExpiresAt)
+                        && claims.remove(idempotencyKey, claimToken)) {
+                    log.warn("Claim on idempotency key {} was lost while its request ran", idempotencyKey);
+                }
+            } catch (RuntimeException e) {
+                // The claim still has until its current expiry; the next run retries.
+                log.warn("Renewing the claim on idempotency key {} failed", idempotencyKey, e);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval:PT10M}")
+    public void purge() {
+        Integer purged = transactionTemplate.execute(status -> idempotencyRecordRepository.deleteExpired(Instant.now()));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} expired idempotency key(s)", purged);
+        }
+    }
+
+    private static IdempotentResponse toResponse(IdempotencyRecord record) {
+        return new IdempotentResponse(record.getFingerprint(), record.getResponseStatus(), record.getContentType(),
+                record.getETag(), record.getLocation(), record.getResponseBody() != null ? record.getResponseBody() : new byte[0]);
+    }
+}
@@ -0,0 +1,9 @@
+package com.himusharier.inventory.idempotency;
+
+/**
+ * A response as replayed for its {@code Idempotency-Key}. {@code fingerprint} identifies the
+ * request that produced it, so the key can not be reused for a different request.
+ */
+public record IdempotentResponse(String fingerprint, int status, String contentType, String eTag, String location,
+                                 byte[] body) {
+}
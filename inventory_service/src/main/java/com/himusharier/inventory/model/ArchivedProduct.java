@@ -0,0 +1,38 @@
+package com.himusharier.inventory.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A product moved out of em_products by a bulk archive. Rows are only ever written with
+ * INSERT ... SELECT (see {@code ProductRepositoryCustom#archiveProducts}); keeping them in their
+ * own table keeps em_products and its indexes down to the live catalog.
+ */
+@Entity
+@Table(name = "em_products_archive", indexes = {
+        @Index(name = "idx_em_products_archive_archived_at", columnList = "archivedAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedProduct {
+    @Id
+    private UUID productId;
+    private String name;
+    private String description;
+    private Double price;
+    // Live stock when archived: the stripe sum for striped products.
+    private int quantity;
+    private Integer reorderThreshold;
+    private long version;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
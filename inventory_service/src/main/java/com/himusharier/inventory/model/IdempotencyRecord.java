@@ -0,0 +1,56 @@
+package com.himusharier.inventory.model;
+
+import com.himusharier.inventory.constants.IdempotencyStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * The outcome of a write sent with an {@code Idempotency-Key}, shared by every node: the claim
+ * while the request runs, then the response that replays of the key receive. Rows are written
+ * with plain JDBC outside the request's transaction (see {@code IdempotencyRecordRepositoryCustom}).
+ */
+@Entity
+@Table(name = "em_idempotency_keys", indexes = {
+        // Purge of expired keys and claims.
+        @Index(name = "idx_em_idempotency_keys_expires_at", columnList = "expiresAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+    @Id
+    @Column(length = 255)
+    private String idempotencyKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private IdempotencyStatus status;
+
+    // Identifies the claim that may complete or release the row; a new one on take-over.
+    @Column(length = 36)
+    private String claimToken;
+
+    // Hex SHA-256 of method, path, query and body; null while in progress.
+    @Column(length = 64)
+    private String fingerprint;
+
+    private Integer responseStatus;
+    private String contentType;
+    private String eTag;
+    private String location;
+
+    @Column(length = 1_048_576)
+    private byte[] responseBody;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Completed: when the key may be reused. In progress: when a crashed claim may be taken over;
+    // renewed while the request runs.
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
@@ -2,28 +2,60 @@ package com.himusharier.inventory.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "em_products")
+@Table(name = "em_products", indexes = {
+        // Price range (optionally also filtered on stock) and price-ordered listings.
+        @Index(name = "idx_em_products_price_quantity", columnList = "price, quantity"),
+        // Stock range / in-stock filters and stock-ordered listings.
+        @Index(name = "idx_em_products_quantity_price", columnList = "quantity, price"),
+        // Name prefix filters and name-ordered listings.
+        @Index(name = "idx_em_products_name", columnList = "name")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Product {
+    // Generated in the application (no database round trip) and time-ordered, so bulk inserts
+    // append to the primary key index instead of splitting random pages.
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue
+    @UuidGenerator(style = UuidGenerator.Style.TIME)
     private UUID productId;
     private String name;
     private String description;
     private Double price;
     private int quantity;
+    // Low-stock alerts fire when quantity drops below this; null disables them.
+    private Integer reorderThreshold;
+    // Set while a LOW alert is outstanding, so each crossing is reported once.
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean lowStockAlerted;
+    // 0: stock lives in quantity. N > 0: live stock is split over N em_stock_stripes rows and
+    // quantity is only a total refreshed by the rebalancer (used by listing filters and sorts).
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int stockStripes;
+    // Non-null while the product is in flash-sale mode (stock owned by the in-memory engine):
+    // the last flash-sale WAL sequence number whose changes are already in quantity.
+    private Long flashSaleSeq;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Incremented on every update; drives ETags and optimistic locking.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
     @PrePersist
     private void onCreated() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,53 @@
+package com.himusharier.inventory.model;
+
+import com.himusharier.inventory.constants.ProductChangeType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One committed product change, written in the same transaction as the change itself (see
+ * {@code ProductOutboxWriter}). The product columns hold its state as committed; they are null
+ * for deletes. {@code feedOffset} is assigned afterwards by the relay, in commit order.
+ */
+@Entity
+@Table(name = "em_product_outbox", indexes = {
+        // Feed reads (offset > ?) and the relay's scan for rows still without an offset.
+        @Index(name = "idx_em_product_outbox_feed_offset", columnList = "feedOffset", unique = true)
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductOutboxEntry {
+    // Database generated: rows are appended with INSERT ... SELECT from em_products.
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long feedOffset;
+
+    @Column(nullable = false)
+    private UUID productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ProductChangeType changeType;
+
+    // Comma separated field names, e.g. "price,quantity".
+    @Column(nullable = false, length = 128)
+    private String changedFields;
+
+    private Long version;
+    private String name;
+    private String description;
+    private Double price;
+    private Integer quantity;
+    private Integer reorderThreshold;
+
+    @Column(nullable = false)
+    private Instant changedAt;
+}
@@ -0,0 +1,41 @@
+package com.himusharier.inventory.model;
+
+import com.himusharier.inventory.constants.StockThresholdEventType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "em_stock_alert_outbox", indexes = {
+        // Relay scans unpublished rows in order.
+        @Index(name = "idx_em_stock_alert_outbox_unpublished", columnList = "publishedAt, occurredAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockAlertOutboxEntry {
+    @Id
+    @GeneratedValue
+    @UuidGenerator(style = UuidGenerator.Style.TIME)
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private StockThresholdEventType alertType;
+
+    private int quantity;
+    private int reorderThreshold;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+
+    private Instant publishedAt;
+}
@@ -0,0 +1,48 @@
+package com.himusharier.inventory.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stock taken out of {@code quantity} for a checkout that has not been paid yet. Confirming
+ * the hold deletes it (the stock stays sold); cancelling it, or letting it expire, puts the
+ * stock back.
+ */
+@Entity
+@Table(name = "em_stock_holds", indexes = {
+        // Orphan sweep: holds expired without any node's timing wheel noticing.
+        @Index(name = "idx_em_stock_holds_expires_at", columnList = "expiresAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockHold {
+    @Id
+    @GeneratedValue
+    @UuidGenerator(style = UuidGenerator.Style.TIME)
+    private UUID holdId;
+
+    @Column(length = 100)
+    private String reference;
+
+    @ElementCollection
+    @CollectionTable(name = "em_stock_hold_lines", joinColumns = @JoinColumn(name = "hold_id"), indexes = {
+            // Held stock per product.
+            @Index(name = "idx_em_stock_hold_lines_product", columnList = "product_id")
+    })
+    @Builder.Default
+    private List<StockHoldLine> lines = new ArrayList<>();
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,20 @@
+package com.himusharier.inventory.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Embeddable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHoldLine {
+    @Column(name = "product_id", nullable = false)
+    private UUID productId;
+
+    private int quantity;
+}
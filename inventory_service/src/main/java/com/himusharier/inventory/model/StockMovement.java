@@ -0,0 +1,49 @@
+package com.himusharier.inventory.model;
+
+import com.himusharier.inventory.constants.StockMovementReason;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One signed change to a product's stock. Rows are only ever inserted: concurrent writers
+ * never wait on each other here, and history can not be rewritten.
+ */
+@Entity
+@Immutable
+@Table(name = "em_stock_movements", indexes = {
+        // Per-product history and "deltas after the last snapshot" sums.
+        @Index(name = "idx_em_stock_movements_product_time", columnList = "productId, occurredAt"),
+        // Snapshot job: everything that happened since the previous watermark.
+        @Index(name = "idx_em_stock_movements_time", columnList = "occurredAt")
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockMovement {
+    @Id
+    @GeneratedValue
+    @UuidGenerator(style = UuidGenerator.Style.TIME)
+    private UUID movementId;
+
+    @Column(nullable = false)
+    private UUID productId;
+
+    private int delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private StockMovementReason reason;
+
+    // Caller supplied, e.g. an order or purchase order number.
+    @Column(length = 100)
+    private String reference;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,41 @@
+package com.himusharier.inventory.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A product's stock including every movement with {@code occurredAt <= coveredUntil}. Stock at
+ * any later time is this quantity plus the movements after {@code coveredUntil}.
+ */
+@Entity
+@Immutable
+@Table(name = "em_stock_snapshots", uniqueConstraints = {
+        // Also the index for "latest snapshot at or before T" lookups.
+        @UniqueConstraint(name = "uk_em_stock_snapshots_product_covered", columnNames = {"productId", "coveredUntil"})
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockSnapshot {
+    @Id
+    @GeneratedValue
+    @UuidGenerator(style = UuidGenerator.Style.TIME)
+    private UUID snapshotId;
+
+    @Column(nullable = false)
+    private UUID productId;
+
+    private long quantity;
+
+    @Column(nullable = false)
+    private LocalDateTime coveredUntil;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
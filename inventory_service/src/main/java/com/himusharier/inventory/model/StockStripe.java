@@ -0,0 +1,29 @@
+package com.himusharier.inventory.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * One sub-counter of a striped product's stock. Concurrent decrements land on different rows,
+ * so they no longer queue on a single row lock; the product's stock is the sum of its stripes.
+ */
+@Entity
+@IdClass(StockStripeId.class)
+@Table(name = "em_stock_stripes")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockStripe {
+    @Id
+    private UUID productId;
+
+    // 0 .. stripes - 1
+    @Id
+    private int stripe;
+
+    private int quantity;
+}
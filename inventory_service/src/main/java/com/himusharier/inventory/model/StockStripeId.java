@@ -0,0 +1,18 @@
+package com.himusharier.inventory.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class StockStripeId implements Serializable {
+    private UUID productId;
+    private int stripe;
+}
@@ -0,0 +1,9 @@
+package com.himusharier.inventory.repository;
+
+import java.util.UUID;
+
+public interface FlashSaleCheckpointView {
+    UUID getProductId();
+
+    long getFlashSaleSeq();
+}
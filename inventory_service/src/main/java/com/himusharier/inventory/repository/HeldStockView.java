@@ -0,0 +1,7 @@
+package com.himusharier.inventory.repository;
+
+public interface HeldStockView {
+    long getHolds();
+
+    long getHeldQuantity();
+}
@@ -0,0 +1,35 @@
+package com.himusharier.inventory.repository;
+
+import com.himusharier.inventory.idempotency.IdempotentResponse;
+
+import java.time.Instant;
+
+public interface IdempotencyRecordRepositoryCustom {
+
+    /**
+     * Claims a key for one request: inserts an in-progress row, or takes over a row whose
+     * claim or result has expired. Each statement commits on its own, so the claim is visible
+     * to other nodes before the request runs.
+     *
+     * @param claimToken identifies this claim; complete, release and renew only act while it holds
+     * @return false when another request holds the key or its result is still live
+     */
+    boolean claim(String idempotencyKey, String claimToken, Instant now, Instant claimExpiresAt);
+
+    /**
+     * Extends a claim whose request is still running, so it is not taken over.
+     *
+     * @return false when the claim was lost (taken over after it expired)
+     */
+    boolean renew(String idempotencyKey, String claimToken, Instant claimExpiresAt);
+
+    /**
+     * Stores the response of a claimed key, replayable until expiresAt.
+     *
+     * @return false when the claim was lost
+     */
+    boolean complete(String idempotencyKey, String claimToken, IdempotentResponse response, Instant expiresAt);
+
+    // Drops a claim whose request failed, so a retry can run it again; a lost claim is left alone.
+    void release(String idempotencyKey, String claimToken);
+}
@@ -0,0 +1,75 @@
+package com.himusharier.inventory.repository;
+
+import com.himusharier.inventory.constants.IdempotencyStatus;
+import com.himusharier.inventory.idempotency.IdempotentResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+public class IdempotencyRecordRepositoryCustomImpl implements IdempotencyRecordRepositoryCustom {
+
+    private static final String TAKE_OVER_SQL =
+            "UPDATE em_idempotency_keys SET status = ?, claim_token = ?, fingerprint = NULL, response_status = NULL, "
+                    + "content_type = NULL, e_tag = NULL, location = NULL, response_body = NULL, "
+                    + "created_at = ?, expires_at = ? WHERE idempotency_key = ? AND expires_at < ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO em_idempotency_keys (idempotency_key, status, claim_token, created_at, expires_at) "
+                    + "VALUES (?, ?, ?, ?, ?)";
+
+    private static final String RENEW_SQL =
+            "UPDATE em_idempotency_keys SET expires_at = ? "
+                    + "WHERE idempotency_key = ? AND claim_token = ? AND status = ?";
+
+    private static final String COMPLETE_SQL =
+            "UPDATE em_idempotency_keys SET status = ?, fingerprint = ?, response_status = ?, content_type = ?, "
+                    + "e_tag = ?, location = ?, response_body = ?, expires_at = ? "
+                    + "WHERE idempotency_key = ? AND claim_token = ? AND status = ?";
+
+    private static final String RELEASE_SQL =
+            "DELETE FROM em_idempotency_keys WHERE idempotency_key = ? AND claim_token = ? AND status = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public IdempotencyRecordRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean claim(String idempotencyKey, String claimToken, Instant now, Instant claimExpiresAt) {
+        Timestamp nowTimestamp = Timestamp.from(now);
+        Timestamp expiresAt = Timestamp.from(claimExpiresAt);
+        if (jdbcTemplate.update(TAKE_OVER_SQL, IdempotencyStatus.IN_PROGRESS.name(), claimToken, nowTimestamp,
+                expiresAt, idempotencyKey, nowTimestamp) == 1) {
+            return true;
+        }
+        try {
+            return jdbcTemplate.update(INSERT_SQL, idempotencyKey, IdempotencyStatus.IN_PROGRESS.name(), claimToken,
+                    nowTimestamp, expiresAt) == 1;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean renew(String idempotencyKey, String claimToken, Instant claimExpiresAt) {
+        return jdbcTemplate.update(RENEW_SQL, Timestamp.from(claimExpiresAt), idempotencyKey, claimToken,
+                IdempotencyStatus.IN_PROGRESS.name()) == 1;
+    }
+
+    @Override
+    public boolean complete(String idempotencyKey, String claimToken, IdempotentResponse response, Instant expiresAt) {
+        return jdbcTemplate.update(COMPLETE_SQL, IdempotencyStatus.COMPLETED.name(), response.fingerprint(),
+                response.status(), response.contentType(), response.eTag(), response.location(), response.body(),
+                Timestamp.from(expiresAt), idempotencyKey, claimToken, IdempotencyStatus.IN_PROGRESS.name()) == 1;
+    }
+
+    @Override
+    public void release(String idempotencyKey, String claimToken) {
+        jdbcTemplate.update(RELEASE_SQL, idempotencyKey, claimToken, IdempotencyStatus.IN_PROGRESS.name());
+    }
+}
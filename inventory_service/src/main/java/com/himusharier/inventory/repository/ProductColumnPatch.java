@@ -0,0 +1,18 @@
+package com.himusharier.inventory.repository;
+
+import com.himusharier.inventory.constants.ProductPatchField;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.EnumMap;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class ProductColumnPatch {
+    private final UUID productId;
+    // Only the columns to change; a null value clears a nullable column.
+    private final EnumMap<ProductPatchField, Object> values;
+    // The update applies only while the stored version equals this; null skips the check.
+    private final Long expectedVersion;
+}
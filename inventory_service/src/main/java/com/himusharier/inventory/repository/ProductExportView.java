@@ -0,0 +1,20 @@
+package com.himusharier.inventory.repository;
+
+import java.util.UUID;
+
+// One export line: catalog columns plus the live quantity (stripe sum for striped products).
+public interface ProductExportView {
+    UUID getProductId();
+
+    String getName();
+
+    String getDescription();
+
+    Double getPrice();
+
+    int getQuantity();
+
+    Integer getReorderThreshold();
+
+    long getVersion();
+}
@@ -0,0 +1,36 @@
+package com.himusharier.inventory.repository;
+
+import com.himusharier.inventory.model.ProductOutboxEntry;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ProductOutboxRepository extends JpaRepository<ProductOutboxEntry, Long>, ProductOutboxRepositoryCustom {
+
+    /**
+     * Committed rows still without a feed offset, oldest first. The row locks make a relay on
+     * another node wait for this one to commit, so offsets are never handed out twice.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from ProductOutboxEntry e where e.feedOffset is null order by e.id")
+    List<ProductOutboxEntry> lockUnsequenced(Limit limit);
+
+    @Query("select coalesce(max(e.feedOffset), 0) from ProductOutboxEntry e")
+    long findLatestOffset();
+
+    List<ProductOutboxEntry> findByFeedOffsetGreaterThanOrderByFeedOffset(long feedOffset, Limit limit);
+
+    // Keeps the newest row, so the latest offset survives even when nothing changed for a while.
+    @Modifying
+    @Query("delete from ProductOutboxEntry e where e.changedAt < :cutoff and e.feedOffset < :latestOffset")
+    int deleteSequencedBefore(@Param("cutoff") Instant cutoff, @Param("latestOffset") long latestOffset);
+}
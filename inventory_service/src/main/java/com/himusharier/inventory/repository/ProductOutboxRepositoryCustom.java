@@ -0,0 +1,15 @@
+package com.himusharier.inventory.repository;
+
+import com.himusharier.inventory.event.ProductChangedEvent;
+
+import java.util.Collection;
+
+public interface ProductOutboxRepositoryCustom {
+
+    /**
+     * Appends one outbox row per change as a single JDBC batch, copying version and field
+     * values from em_products in the same statement, so each row holds the state this
+     * transaction commits. Joins the surrounding JPA transaction.
+     */
+    void appendChanges(Collection<ProductChangedEvent> changes);
+}
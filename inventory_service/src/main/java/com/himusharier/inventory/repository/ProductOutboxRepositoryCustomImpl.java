@@ -0,0 +1,60 @@
+package com.himusharier.inventory.repository;
+
+import com.himusharier.inventory.constants.ProductChangeType;
+import com.himusharier.inventory.constants.ProductPatchField;
+import com.himusharier.inventory.event.ProductChangedEvent;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ProductOutboxRepositoryCustomImpl implements ProductOutboxRepositoryCustom {
+
+    private static final String APPEND_CHANGE_SQL =
+            "INSERT INTO em_product_outbox (product_id, change_type, changed_fields, changed_at, "
+                    + "version, name, description, price, quantity, reorder_threshold) "
+                    + "SELECT product_id, CAST(? AS VARCHAR(16)), CAST(? AS VARCHAR(128)), CURRENT_TIMESTAMP, "
+                    + "version, name, description, price, quantity, reorder_threshold "
+                    + "FROM em_products WHERE product_id = ?";
+
+    private static final String APPEND_DELETE_SQL =
+            "INSERT INTO em_product_outbox (product_id, change_type, changed_fields, changed_at) "
+                    + "VALUES (?, ?, '', CURRENT_TIMESTAMP)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    @Autowired
+    public ProductOutboxRepositoryCustomImpl(JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public void appendChanges(Collection<ProductChangedEvent> changes) {
+        // JDBC bypasses Hibernate's auto-flush; the copied columns must include pending entity changes.
+        entityManager.flush();
+        List<Object[]> changeArgs = new ArrayList<>(changes.size());
+        List<Object[]> deleteArgs = new ArrayList<>();
+        for (ProductChangedEvent change : changes) {
+            if (change.getChangeType() == ProductChangeType.DELETED) {
+                deleteArgs.add(new Object[]{change.getProductId(), change.getChangeType().name()});
+            } else {
+                String fields = change.getChangedFields().stream()
+                        .map(ProductPatchField::getFieldName)
+                        .collect(Collectors.joining(","));
+                changeArgs.add(new Object[]{change.getChangeType().name(), fields, change.getProductId()});
+            }
+        }
+        if (!changeArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(APPEND_CHANGE_SQL, changeArgs);
+        }
+        if (!deleteArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(APPEND_DELETE_SQL, deleteArgs);
+        }
+    }
+}
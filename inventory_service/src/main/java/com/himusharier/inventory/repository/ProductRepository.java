@@ -1,17 +1,163 @@
 package com.himusharier.inventory.repository;
 
+import com.himusharier.inventory.dto.response.ProductResponseDto;
 import com.himusharier.inventory.model.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, UUID> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, ProductRepositoryCustom {
+    // Live stock: the quantity column, or the sum of the stripes for striped products.
+    String AVAILABLE_QUANTITY = "cast(case when p.stockStripes > 0 then "
+            + "(select coalesce(sum(s.quantity), 0) from StockStripe s where s.productId = p.productId) "
+            + "else p.quantity end as Integer)";
+
+    String SELECT_PRODUCT_DTO = "select new com.himusharier.inventory.dto.response.ProductResponseDto("
+            + "p.productId, p.name, p.description, p.price, " + AVAILABLE_QUANTITY + ", p.reorderThreshold, "
+            + "p.stockStripes, p.version) from Product p";
+
+    // Stored quantity, not the stripe sum: the snapshot refreshes striped rows on the rebalance interval.
+    String SELECT_SNAPSHOT_VIEW = "select p.productId as productId, p.name as name, p.description as description, "
+            + "p.price as price, p.quantity as quantity, p.reorderThreshold as reorderThreshold, "
+            + "p.stockStripes as stockStripes, p.version as version, p.createdAt as createdAt, "
+            + "p.updatedAt as updatedAt from Product p";
+
     Optional<Product> findByProductId(UUID productId);
 
     boolean existsByProductId(UUID productId);
 
+    boolean existsByProductIdAndFlashSaleSeqIsNotNull(UUID productId);
+
     void deleteByProductId(UUID productId);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_PRODUCT_DTO + " where p.productId = :productId")
+    Optional<ProductResponseDto> findDtoByProductId(@Param("productId") UUID productId);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_PRODUCT_DTO + " where p.productId in :productIds")
+    List<ProductResponseDto> findAllDtosByProductIdIn(@Param("productIds") Collection<UUID> productIds);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_PRODUCT_DTO)
+    List<ProductResponseDto> findAllDtos();
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_SNAPSHOT_VIEW + " where p.productId in :productIds")
+    List<ProductSnapshotView> findSnapshotViewsByProductIdIn(@Param("productIds") Collection<UUID> productIds);
+
+    @Query("select p.productId as productId, " + AVAILABLE_QUANTITY + " as quantity from Product p where p.productId in :productIds")
+    List<ProductStockView> findStockByProductIdIn(@Param("productIds") Collection<UUID> productIds);
+
+    @Query("select " + AVAILABLE_QUANTITY + " as quantity, p.reorderThreshold as reorderThreshold, p.lowStockAlerted as lowStockAlerted "
+            + "from Product p where p.productId = :productId")
+    Optional<ProductThresholdView> findThresholdStateByProductId(@Param("productId") UUID productId);
+
+    // Alert bookkeeping only: deliberately leaves version and updatedAt alone.
+    @Modifying
+    @Query("update Product p set p.lowStockAlerted = :lowStockAlerted where p.productId = :productId")
+    int updateLowStockAlerted(@Param("productId") UUID productId, @Param("lowStockAlerted") boolean lowStockAlerted);
+
+    // Striped stock changes do not bump the version, so striped products never get a version-based ETag.
+    @Transactional(readOnly = true)
+    @Query("select p.version from Product p where p.productId = :productId and p.stockStripes = 0")
+    Optional<Long> findUnstripedVersionByProductId(@Param("productId") UUID productId);
+
+    @Query("select p.stockStripes from Product p where p.productId = :productId")
+    Optional<Integer> findStockStripesByProductId(@Param("productId") UUID productId);
+
+    @Query("select p.productId from Product p where p.productId in :productIds and p.stockStripes > 0")
+    List<UUID> findStripedProductIdsIn(@Param("productIds") Collection<UUID> productIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Product p where p.productId = :productId")
+    Optional<Product> lockByProductId(@Param("productId") UUID productId);
+
+    // Listing value of a striped product; not a catalog edit, so version and updatedAt stay.
+    @Modifying
+    @Query("update Product p set p.quantity = :quantity where p.productId = :productId and p.quantity <> :quantity")
+    int refreshStripedQuantity(@Param("productId") UUID productId, @Param("quantity") int quantity);
+
+    // Single conditional statement: no read, no lost update, and it can never take stock below zero.
+    @Modifying
+    @Query("update Product p set p.quantity = p.quantity - :quantity, p.version = p.version + 1, p.updatedAt = :now "
+            + "where p.productId = :productId and p.stockStripes = 0 and p.flashSaleSeq is null and p.quantity >= :quantity")
+    int decrementQuantity(@Param("productId") UUID productId,
+                          @Param("quantity") int quantity,
+                          @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update Product p set p.quantity = p.quantity + :quantity, p.version = p.version + 1, p.updatedAt = :now "
+            + "where p.productId = :productId and p.stockStripes = 0 and p.flashSaleSeq is null")
+    int incrementQuantity(@Param("productId") UUID productId,
+                          @Param("quantity") int quantity,
+                          @Param("now") LocalDateTime now);
+
+    @Query("select p.productId as productId, p.flashSaleSeq as flashSaleSeq from Product p where p.flashSaleSeq is not null")
+    List<FlashSaleCheckpointView> findFlashSaleCheckpoints();
+
+    // Applies flash-sale WAL changes up to :seq; the checkpoint guard makes re-applying a batch a no-op.
+    @Modifying
+    @Query("update Product p set p.quantity = p.quantity + :delta, p.flashSaleSeq = :seq, p.version = p.version + 1, "
+            + "p.updatedAt = :now where p.productId = :productId and p.flashSaleSeq < :seq")
+    int applyFlashSaleDelta(@Param("productId") UUID productId,
+                            @Param("delta") int delta,
+                            @Param("seq") long seq,
+                            @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update Product p set p.flashSaleSeq = null, p.version = p.version + 1, p.updatedAt = :now "
+            + "where p.productId = :productId and p.flashSaleSeq is not null")
+    int endFlashSale(@Param("productId") UUID productId, @Param("now") LocalDateTime now);
+
+    // Cursor-backed, read-only stream (no snapshots, no dirty checking); must be consumed inside a transaction.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select p from Product p")
+    Stream<Product> streamAll();
+
+    // Products the stock ledger has never seen (rows older than the ledger); read-only cursor like streamAll().
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p.productId as productId, p.quantity as quantity from Product p where p.quantity <> 0 "
+            + "and not exists (select 1 from StockMovement m where m.productId = p.productId)")
+    Stream<ProductStockView> streamWithoutStockMovements();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_SNAPSHOT_VIEW)
+    Stream<ProductSnapshotView> streamSnapshotViews();
+
+    // Read-only cursor like streamAll(), with the live quantity the DTO queries return.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p.productId as productId, p.name as name, p.description as description, p.price as price, "
+            + AVAILABLE_QUANTITY + " as quantity, p.reorderThreshold as reorderThreshold, p.version as version "
+            + "from Product p")
+    Stream<ProductExportView> streamExportViews();
 }
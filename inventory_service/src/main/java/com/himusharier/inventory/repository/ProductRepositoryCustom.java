@@ -0,0 +1,76 @@
+package com.himusharier.inventory.repository;
+
+import com.himusharier.inventory.dto.response.ProductResponseDto;
+import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.util.ProductLockOrder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.UUID;
+
+/**
+ * Set-based/batched statements that go through plain JDBC instead of the persistence context.
+ * They join the surrounding JPA transaction.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Applies one conditional decrement per entry as a single JDBC batch. Statements run in
+     * the map's key order; build it with {@link ProductLockOrder#newMap()}, so concurrent
+     * callers always lock rows in the same order.
+     *
+     * @return update counts in key order: 1 when applied, 0 when not found or not enough stock
+     */
+    int[] batchDecrementQuantities(SortedMap<UUID, Integer> quantities, LocalDateTime now);
+
+    /**
+     * Writes only the patched columns (plus version and updated_at) in a single UPDATE,
+     * without loading the product first.
+     *
+     * @return 1 when applied, 0 when the product does not exist or its version did not match
+     */
+    int patchProduct(ProductColumnPatch patch, LocalDateTime now);
+
+    /**
+     * Applies many patches with one JDBC batch per distinct column set, rows within a batch in
+     * product id order.
+     *
+     * @return update counts in the order of {@code patches}
+     */
+    int[] batchPatchProducts(List<ProductColumnPatch> patches, LocalDateTime now);
+
+    /**
+     * Projects the products matching {@code specification} straight into DTOs, in the order
+     * of {@code pageable}'s sort, limited to its page when paged.
+     */
+    List<ProductResponseDto> findDtos(Specification<Product> specification, Pageable pageable);
+
+    /**
+     * Ids of the products matching {@code specification} that sort after {@code afterId}
+     * (all when null), in id order, at most {@code limit}: keyset pages for walking a filter
+     * in chunks.
+     */
+    List<UUID> findIdsAfter(Specification<Product> specification, UUID afterId, int limit);
+
+    /**
+     * Locks the given products with one {@code SELECT ... ORDER BY product_id FOR UPDATE}, so in
+     * {@link ProductLockOrder} like every other multi-product write, and tells which of them can
+     * be deleted: false while in flash-sale mode. Ids without a product are absent.
+     */
+    SortedMap<UUID, Boolean> lockForDelete(Collection<UUID> productIds);
+
+    /**
+     * Copies the products into em_products_archive with one INSERT ... SELECT, taking the
+     * stripe sum as the quantity of striped products. Run it before their stripes are removed.
+     *
+     * @return rows archived
+     */
+    int archiveProducts(Collection<UUID> productIds, LocalDateTime archivedAt);
+
+    // One DELETE for all given products; returns rows deleted.
+    int deleteProducts(Collection<UUID> productIds);
+}
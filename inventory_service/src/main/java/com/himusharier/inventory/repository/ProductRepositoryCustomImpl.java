@@ -0,0 +1,218 @@
+package com.himusharier.inventory.repository;
+
+import com.himusharier.inventory.constants.ProductPatchField;
+import com.himusharier.inventory.dto.response.ProductResponseDto;
+import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.util.ProductLockOrder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.UUID;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private static final String DECREMENT_QUANTITY_SQL =
+            "UPDATE em_products SET quantity = quantity - ?, version = version + 1, updated_at = ? "
+                    + "WHERE product_id = ? AND stock_stripes = 0 AND flash_sale_seq IS NULL AND quantity >= ?";
+
+    private static final String LOCK_FOR_DELETE_SQL =
+            "SELECT product_id, flash_sale_seq FROM em_products WHERE product_id IN (%s) ORDER BY product_id FOR UPDATE";
+
+    private static final String ARCHIVE_PRODUCTS_SQL =
+            "INSERT INTO em_products_archive (product_id, name, description, price, quantity, reorder_threshold, "
+                    + "version, created_at, updated_at, archived_at) "
+                    + "SELECT p.product_id, p.name, p.description, p.price, "
+                    + "CAST(CASE WHEN p.stock_stripes > 0 THEN "
+                    + "(SELECT COALESCE(SUM(s.quantity), 0) FROM em_stock_stripes s WHERE s.product_id = p.product_id) "
+                    + "ELSE p.quantity END AS INTEGER), "
+                    + "p.reorder_threshold, p.version, p.created_at, p.updated_at, ? "
+                    + "FROM em_products p WHERE p.product_id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    @Autowired
+    public ProductRepositoryCustomImpl(JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int[] batchDecrementQuantities(SortedMap<UUID, Integer> quantities, LocalDateTime now) {
+        // JDBC bypasses Hibernate's auto-flush, so push pending changes of this transaction first.
+        entityManager.flush();
+        List<Object[]> batchArgs = new ArrayList<>(quantities.size());
+        for (Map.Entry<UUID, Integer> entry : quantities.entrySet()) {
+            batchArgs.add(new Object[]{entry.getValue(), now, entry.getKey(), entry.getValue()});
+        }
+        return jdbcTemplate.batchUpdate(DECREMENT_QUANTITY_SQL, batchArgs);
+    }
+
+    @Override
+    public int patchProduct(ProductColumnPatch patch, LocalDateTime now) {
+        entityManager.flush();
+        return jdbcTemplate.update(patchSql(patch), patchArgs(patch, now));
+    }
+
+    @Override
+    public int[] batchPatchProducts(List<ProductColumnPatch> patches, LocalDateTime now) {
+        entityManager.flush();
+
+        // Patches touching the same columns share one statement and therefore one batch.
+        Map<String, List<Integer>> positionsBySql = new LinkedHashMap<>();
+        for (int i = 0; i < patches.size(); i++) {
+            positionsBySql.computeIfAbsent(patchSql(patches.get(i)), sql -> new ArrayList<>()).add(i);
+        }
+
+        int[] updateCounts = new int[patches.size()];
+        for (Map.Entry<String, List<Integer>> group : positionsBySql.entrySet()) {
+            List<Integer> positions = group.getValue();
+            positions.sort(Comparator.comparing(position -> patches.get(position).getProductId(), ProductLockOrder.COMPARATOR));
+
+            List<Object[]> batchArgs = new ArrayList<>(positions.size());
+            for (Integer position : positions) {
+                batchArgs.add(patchArgs(patches.get(position), now));
+            }
+            int[] groupCounts = jdbcTemplate.batchUpdate(group.getKey(), batchArgs);
+            for (int i = 0; i < positions.size(); i++) {
+                updateCounts[positions.get(i)] = groupCounts[i];
+            }
+        }
+        return updateCounts;
+    }
+
+    @Override
+    public List<ProductResponseDto> findDtos(Specification<Product> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductResponseDto> query = cb.createQuery(ProductResponseDto.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(cb.construct(ProductResponseDto.class,
+                root.get("productId"),
+                root.get("name"),
+                root.get("description"),
+                root.get("price"),
+                // For striped products this is the rebalancer's refreshed total, the same value
+                // the quantity filters and sorts see; point reads return the exact stripe sum.
+                root.get("quantity"),
+                root.get("reorderThreshold"),
+                root.get("stockStripes"),
+                root.get("version")));
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<ProductResponseDto> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public List<UUID> findIdsAfter(Specification<Product> specification, UUID afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UUID> query = cb.createQuery(UUID.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(root.get("productId"));
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            predicates.add(predicate);
+        }
+        if (afterId != null) {
+            predicates.add(cb.greaterThan(root.get("productId"), afterId));
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+        query.orderBy(cb.asc(root.get("productId")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public SortedMap<UUID, Boolean> lockForDelete(Collection<UUID> productIds) {
+        entityManager.flush();
+        SortedMap<UUID, Boolean> deletable = ProductLockOrder.newMap();
+        if (productIds.isEmpty()) {
+            return deletable;
+        }
+        jdbcTemplate.query(LOCK_FOR_DELETE_SQL.formatted(placeholders(productIds.size())),
+                rs -> {
+                    deletable.put(rs.getObject("product_id", UUID.class), rs.getObject("flash_sale_seq") == null);
+                },
+                productIds.toArray());
+        return deletable;
+    }
+
+    @Override
+    public int archiveProducts(Collection<UUID> productIds, LocalDateTime archivedAt) {
+        entityManager.flush();
+        List<Object> args = new ArrayList<>(productIds.size() + 1);
+        args.add(archivedAt);
+        args.addAll(productIds);
+        return jdbcTemplate.update(ARCHIVE_PRODUCTS_SQL.formatted(placeholders(productIds.size())), args.toArray());
+    }
+
+    @Override
+    public int deleteProducts(Collection<UUID> productIds) {
+        entityManager.flush();
+        int deleted = jdbcTemplate.update("DELETE FROM em_products WHERE product_id IN ("
+                + placeholders(productIds.size()) + ")", productIds.toArray());
+        // Managed copies of the deleted rows would otherwise be flushed back as updates.
+        entityManager.clear();
+        return deleted;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static String patchSql(ProductColumnPatch patch) {
+        Set<ProductPatchField> fields = patch.getValues().keySet();
+        StringBuilder sql = new StringBuilder("UPDATE em_products SET ");
+        for (ProductPatchField field : fields) {
+            sql.append(field.getColumn()).append(" = ?, ");
+        }
+        sql.append("version = version + 1, updated_at = ? WHERE product_id = ?");
+        // A flash sale's stock belongs to the in-memory engine until the sale ends.
+        if (fields.contains(ProductPatchField.QUANTITY)) {
+            sql.append(" AND flash_sale_seq IS NULL");
+        }
+        if (patch.getExpectedVersion() != null) {
+            sql.append(" AND version = ?");
+        }
+        return sql.toString();
+    }
+
+    private static Object[] patchArgs(ProductColumnPatch patch, LocalDateTime now) {
+        List<Object> args = new ArrayList<>(patch.getValues().values());
+        args.add(now);
+        args.add(patch.getProductId());
+        if (patch.getExpectedVersion() != null) {
+            args.add(patch.getExpectedVersion());
+        }
+        return args.toArray();
+    }
+}
@@ -0,0 +1,27 @@
+package com.himusharier.inventory.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Stored columns of a product as held by the columnar catalog snapshot.
+public interface ProductSnapshotView {
+    UUID getProductId();
+
+    String getName();
+
+    String getDescription();
+
+    Double getPrice();
+
+    int getQuantity();
+
+    Integer getReorderThreshold();
+
+    int getStockStripes();
+
+    long getVersion();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,119 @@
+package com.himusharier.inventory.repository;
+
+import com.himusharier.inventory.dto.request.ProductQuerySpec;
+import com.himusharier.inventory.exception.ProductSubmissionException;
+import com.himusharier.inventory.model.Product;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles a {@link ProductQuerySpec} into a Criteria predicate. Every value is bound as a
+ * parameter; range filters are written so they can use the (price, quantity) and
+ * (quantity, price) indexes declared on {@link Product}.
+ *
+ * <p>{@link #filter} is the one definition of what a query spec matches; the reactive read
+ * path's SQL and the catalog snapshot's scan are compiled from it too.
+ */
+public final class ProductSpecifications {
+
+    public static final char LIKE_ESCAPE = '\\';
+
+    // Sortable fields and their em_products columns; the product id is only ever the appended tie-breaker.
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "name", "name",
+            "price", "price",
+            "quantity", "quantity",
+            "createdAt", "created_at",
+            "updatedAt", "updated_at");
+
+    private ProductSpecifications() {
+    }
+
+    /**
+     * The filters of a query spec with {@code inStock} folded into the quantity bounds. A null
+     * bound does not filter; a set price bound never matches a missing price.
+     */
+    public record Filter(Double minPrice, Double maxPrice, Integer minQuantity, Integer maxQuantity, String namePrefix) {
+
+        // LIKE pattern for the name prefix, escaped with LIKE_ESCAPE.
+        public String namePattern() {
+            return namePrefix != null ? escapeLike(namePrefix) + "%" : null;
+        }
+    }
+
+    public static Filter filter(ProductQuerySpec querySpec) {
+        Integer minQuantity = querySpec.getMinQuantity();
+        if (Boolean.TRUE.equals(querySpec.getInStock())) {
+            minQuantity = Math.max(minQuantity != null ? minQuantity : 1, 1);
+        }
+        Integer maxQuantity = querySpec.getMaxQuantity();
+        if (Boolean.FALSE.equals(querySpec.getInStock())) {
+            maxQuantity = Math.min(maxQuantity != null ? maxQuantity : 0, 0);
+        }
+        String name = querySpec.getName();
+        return new Filter(querySpec.getMinPrice(), querySpec.getMaxPrice(), minQuantity, maxQuantity,
+                name != null && !name.isEmpty() ? name : null);
+    }
+
+    public static Specification<Product> matching(ProductQuerySpec querySpec) {
+        Filter filter = filter(querySpec);
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (filter.minPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), filter.minPrice()));
+            }
+            if (filter.maxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), filter.maxPrice()));
+            }
+            if (filter.minQuantity() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("quantity"), filter.minQuantity()));
+            }
+            if (filter.maxQuantity() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("quantity"), filter.maxQuantity()));
+            }
+            if (filter.namePrefix() != null) {
+                predicates.add(cb.like(root.get("name"), filter.namePattern(), LIKE_ESCAPE));
+            }
+
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    // em_products column of a property in a sort built by sort(), for hand-written SQL.
+    public static String sortColumn(String property) {
+        return "productId".equals(property) ? "product_id" : SORT_COLUMNS.get(property);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Parses sort keys ({@code price}, {@code -price} for descending) against a whitelist of
+     * product fields. The product id is always appended as the last key, so pages are stable
+     * for equal values.
+     */
+    public static Sort sort(List<String> sortKeys) {
+        List<Sort.Order> orders = new ArrayList<>();
+        if (sortKeys != null) {
+            for (String sortKey : sortKeys) {
+                String key = sortKey.trim();
+                boolean descending = key.startsWith("-");
+                String field = descending || key.startsWith("+") ? key.substring(1) : key;
+                if (!SORT_COLUMNS.containsKey(field)) {
+                    throw new ProductSubmissionException("Can not sort by '" + sortKey + "'. Sortable fields: "
+                            + String.join(", ", SORT_COLUMNS.keySet().stream().sorted().toList()) + ".");
+                }
+                orders.add(descending ? Sort.Order.desc(field) : Sort.Order.asc(field));
+            }
+        }
+        orders.add(Sort.Order.asc("productId"));
+        return Sort.by(orders);
+    }
+}
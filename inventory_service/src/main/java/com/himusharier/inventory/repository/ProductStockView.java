@@ -0,0 +1,9 @@
+package com.himusharier.inventory.repository;
+
+import java.util.UUID;
+
+public interface ProductStockView {
+    UUID getProductId();
+
+    int getQuantity();
+}
@@ -0,0 +1,9 @@
+package com.himusharier.inventory.repository;
+
+public interface ProductThresholdView {
+    int getQuantity();
+
+    Integer getReorderThreshold();
+
+    boolean getLowStockAlerted();
+}
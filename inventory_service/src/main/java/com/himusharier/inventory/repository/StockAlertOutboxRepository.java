@@ -0,0 +1,11 @@
+package com.himusharier.inventory.repository;
+
+import com.himusharier.inventory.model.StockAlertOutboxEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface StockAlertOutboxRepository extends JpaRepository<StockAlertOutboxEntry, UUID> {
+}
@@ -0,0 +1,11 @@
+package com.himusharier.inventory.repository;
+
+import java.util.UUID;
+
+public interface StockDeltaView {
+    UUID getProductId();
+
+    long getDelta();
+
+    long getMovements();
+}
@@ -0,0 +1,10 @@
+package com.himusharier.inventory.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface StockHoldExpiryView {
+    UUID getHoldId();
+
+    LocalDateTime getExpiresAt();
+}
@@ -0,0 +1,47 @@
+package com.himusharier.inventory.repository;
+
+import com.himusharier.inventory.model.StockHold;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface StockHoldRepository extends JpaRepository<StockHold, UUID> {
+
+    // Confirm, cancel and expiry all take this lock first, so exactly one of them wins.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from StockHold h where h.holdId = :holdId")
+    Optional<StockHold> lockByHoldId(@Param("holdId") UUID holdId);
+
+    @Query("select h from StockHold h left join fetch h.lines where h.holdId = :holdId")
+    Optional<StockHold> findWithLinesByHoldId(@Param("holdId") UUID holdId);
+
+    @Query("select count(distinct h.holdId) as holds, coalesce(sum(l.quantity), 0) as heldQuantity "
+            + "from StockHold h join h.lines l where l.productId = :productId")
+    HeldStockView findHeldStock(@Param("productId") UUID productId);
+
+    // Timing wheel rebuild at startup; read-only cursor.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select h.holdId as holdId, h.expiresAt as expiresAt from StockHold h")
+    Stream<StockHoldExpiryView> streamExpiries();
+
+    // Index range on expiresAt, not a table scan.
+    @Query("select h.holdId from StockHold h where h.expiresAt <= :now order by h.expiresAt")
+    List<UUID> findExpiredHoldIds(@Param("now") LocalDateTime now, Limit limit);
+}
@@ -0,0 +1,51 @@
+package com.himusharier.inventory.repository;
+
+import com.himusharier.inventory.model.StockMovement;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, UUID> {
+
+    // Both sums are range scans of idx_em_stock_movements_product_time, bounded by the snapshot.
+    @Query("select m.productId as productId, coalesce(sum(m.delta), 0) as delta, count(m) as movements "
+            + "from StockMovement m where m.productId = :productId and m.occurredAt > :after and m.occurredAt <= :until "
+            + "group by m.productId")
+    StockDeltaView sumDeltas(@Param("productId") UUID productId,
+                             @Param("after") LocalDateTime after,
+                             @Param("until") LocalDateTime until);
+
+    @Query("select m.productId as productId, coalesce(sum(m.delta), 0) as delta, count(m) as movements "
+            + "from StockMovement m where m.productId = :productId and m.occurredAt > :after "
+            + "group by m.productId")
+    StockDeltaView sumDeltasAfter(@Param("productId") UUID productId, @Param("after") LocalDateTime after);
+
+    // Ledger balance past each product's latest snapshot, for many products at once.
+    @Query("select m.productId as productId, coalesce(sum(m.delta), 0) as delta, count(m) as movements "
+            + "from StockMovement m where m.productId in :productIds and m.occurredAt > coalesce("
+            + "(select max(s.coveredUntil) from StockSnapshot s where s.productId = m.productId), :ledgerStart) "
+            + "group by m.productId")
+    List<StockDeltaView> sumDeltasAfterLatestSnapshot(@Param("productIds") Collection<UUID> productIds,
+                                                      @Param("ledgerStart") LocalDateTime ledgerStart);
+
+    @Query("select m from StockMovement m where m.productId = :productId and m.occurredAt > :after "
+            + "and m.occurredAt <= :until order by m.occurredAt, m.movementId")
+    List<StockMovement> findMovements(@Param("productId") UUID productId,
+                                      @Param("after") LocalDateTime after,
+                                      @Param("until") LocalDateTime until,
+                                      Limit limit);
+
+    // Snapshot job input: net change per product over one watermark interval. Must be consumed inside a transaction.
+    @Query("select m.productId as productId, sum(m.delta) as delta, count(m) as movements "
+            + "from StockMovement m where m.occurredAt > :after and m.occurredAt <= :until group by m.productId")
+    Stream<StockDeltaView> streamDeltasBetween(@Param("after") LocalDateTime after, @Param("until") LocalDateTime until);
+}
@@ -0,0 +1,30 @@
+package com.himusharier.inventory.repository;
+
+import com.himusharier.inventory.model.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, UUID> {
+
+    Optional<StockSnapshot> findFirstByProductIdAndCoveredUntilLessThanEqualOrderByCoveredUntilDesc(
+            UUID productId, LocalDateTime coveredUntil);
+
+    Optional<StockSnapshot> findFirstByProductIdOrderByCoveredUntilDesc(UUID productId);
+
+    @Query("select max(s.coveredUntil) from StockSnapshot s")
+    Optional<LocalDateTime> findLatestWatermark();
+
+    @Query("select s from StockSnapshot s where s.productId in :productIds and s.coveredUntil = "
+            + "(select max(s2.coveredUntil) from StockSnapshot s2 where s2.productId = s.productId and s2.coveredUntil <= :watermark)")
+    List<StockSnapshot> findLatestByProductIdIn(@Param("productIds") Collection<UUID> productIds,
+                                                @Param("watermark") LocalDateTime watermark);
+}
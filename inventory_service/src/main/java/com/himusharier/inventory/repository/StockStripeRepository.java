@@ -0,0 +1,44 @@
+package com.himusharier.inventory.repository;
+
+import com.himusharier.inventory.model.StockStripe;
+import com.himusharier.inventory.model.StockStripeId;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface StockStripeRepository extends JpaRepository<StockStripe, StockStripeId>, StockStripeRepositoryCustom {
+
+    // Goes around the persistence context, like decrementOneStripe: stripes loaded earlier in the
+    // transaction are stale afterwards.
+    @Modifying(flushAutomatically = true)
+    @Query("update StockStripe s set s.quantity = s.quantity + :quantity "
+            + "where s.productId = :productId and s.stripe = :stripe")
+    int incrementStripe(@Param("productId") UUID productId,
+                        @Param("stripe") int stripe,
+                        @Param("quantity") int quantity);
+
+    // Always in stripe order, so transactions locking several stripes of a product can not deadlock.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from StockStripe s where s.productId = :productId order by s.stripe")
+    List<StockStripe> lockStripes(@Param("productId") UUID productId);
+
+    @Query("select s from StockStripe s where s.productId = :productId order by s.stripe")
+    List<StockStripe> findStripes(@Param("productId") UUID productId);
+
+    // Callers lock the stripes first (lockStripes), so this waits for no one.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from StockStripe s where s.productId in :productIds")
+    int deleteByProductIdIn(@Param("productIds") Collection<UUID> productIds);
+
+    @Query("select distinct s.productId from StockStripe s")
+    List<UUID> findStripedProductIds();
+}
@@ -0,0 +1,21 @@
+package com.himusharier.inventory.repository;
+
+import java.util.UUID;
+
+/**
+ * Stripe statements that go through plain JDBC instead of the persistence context. They join
+ * the surrounding JPA transaction.
+ */
+public interface StockStripeRepositoryCustom {
+
+    /**
+     * Takes {@code quantity} from the first stripe, walking from {@code firstStripe} round all
+     * {@code stripes}, that holds enough, with the same guard as
+     * {@link ProductRepository#decrementQuantity}. The walk runs in a savepoint that is rolled
+     * back when no stripe holds enough, so a failed walk keeps no row locks: some databases (H2)
+     * keep the lock of a conditional update that waited for a row and then failed its guard.
+     *
+     * @return true when a stripe was decremented
+     */
+    boolean decrementOneStripe(UUID productId, int firstStripe, int stripes, int quantity);
+}
@@ -0,0 +1,48 @@
+package com.himusharier.inventory.repository;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Savepoint;
+import java.util.UUID;
+
+public class StockStripeRepositoryCustomImpl implements StockStripeRepositoryCustom {
+
+    private static final String DECREMENT_STRIPE_SQL =
+            "UPDATE em_stock_stripes SET quantity = quantity - ? WHERE product_id = ? AND stripe = ? AND quantity >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    @Autowired
+    public StockStripeRepositoryCustomImpl(JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public boolean decrementOneStripe(UUID productId, int firstStripe, int stripes, int quantity) {
+        // Pending changes go out before the savepoint, so rolling back to it can only undo the walk.
+        entityManager.flush();
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try (PreparedStatement statement = connection.prepareStatement(DECREMENT_STRIPE_SQL)) {
+                statement.setInt(1, quantity);
+                statement.setObject(2, productId);
+                statement.setInt(4, quantity);
+                for (int i = 0; i < stripes; i++) {
+                    statement.setInt(3, (firstStripe + i) % stripes);
+                    if (statement.executeUpdate() == 1) {
+                        connection.releaseSavepoint(savepoint);
+                        return true;
+                    }
+                }
+            }
+            connection.rollback(savepoint);
+            return false;
+        }));
+    }
+}
@@ -0,0 +1,63 @@
+package com.himusharier.inventory.service;
+
+import com.himusharier.inventory.catalog.ProductCatalogSnapshot;
+import com.himusharier.inventory.changefeed.ProductChangeRelay;
+import com.himusharier.inventory.event.ProductChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ETag of product listings, derived from the shared change feed: the outbox offset the listing
+ * source is known to include (the catalog snapshot's once loaded, else the relay's latest), so
+ * every node tags the same catalog state alike and a change on any node moves every node's tag
+ * once it is relayed. Changes committed on this node are visible here before they have an
+ * offset; until the offset moves on, the tag also counts them, with a per-start epoch so a
+ * count issued before a restart is never reused.
+ */
+@Service
+public class CatalogVersionService {
+
+    private final ProductCatalogSnapshot productCatalogSnapshot;
+    private final ProductChangeRelay productChangeRelay;
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicReference<LocalChanges> localChanges = new AtomicReference<>(new LocalChanges(0, 0));
+
+    @Autowired
+    public CatalogVersionService(ProductCatalogSnapshot productCatalogSnapshot, ProductChangeRelay productChangeRelay) {
+        this.productCatalogSnapshot = productCatalogSnapshot;
+        this.productChangeRelay = productChangeRelay;
+    }
+
+    /**
+     * Must be read <em>before</em> loading the listing it will tag: a change committed in
+     * between then produces a stale tag, which at worst costs one extra full response,
+     * never a missed update.
+     */
+    public String currentETag() {
+        long offset = offset();
+        LocalChanges local = localChanges.get();
+        if (local.offset() != offset || local.count() == 0) {
+            return "\"c" + offset + "\"";
+        }
+        return "\"c" + offset + "-" + epoch + "." + local.count() + "\"";
+    }
+
+    // Runs after the snapshot has taken the change in, so the count never covers a change the listing lacks.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        long offset = offset();
+        localChanges.updateAndGet(local -> new LocalChanges(offset, local.offset() == offset ? local.count() + 1 : 1));
+    }
+
+    private long offset() {
+        long snapshotOffset = productCatalogSnapshot.offset();
+        return snapshotOffset >= 0 ? snapshotOffset : productChangeRelay.latestOffset();
+    }
+
+    // Changes committed on this node since the tag's offset last moved.
+    private record LocalChanges(long offset, long count) {
+    }
+}
@@ -0,0 +1,453 @@
+package com.himusharier.inventory.service;
+
+import com.himusharier.inventory.constants.FlashSaleReservationStatus;
+import com.himusharier.inventory.constants.ProductChangeType;
+import com.himusharier.inventory.constants.ProductPatchField;
+import com.himusharier.inventory.constants.StockMovementReason;
+import com.himusharier.inventory.dto.response.FlashSaleStatusDto;
+import com.himusharier.inventory.dto.response.StockAdjustmentResponseDto;
+import com.himusharier.inventory.event.ProductChangedEvent;
+import com.himusharier.inventory.exception.FlashSaleUnavailableException;
+import com.himusharier.inventory.exception.InsufficientStockException;
+import com.himusharier.inventory.exception.ProductSubmissionException;
+import com.himusharier.inventory.exception.ResourceNotFoundException;
+import com.himusharier.inventory.flashsale.FlashSaleDrain;
+import com.himusharier.inventory.flashsale.FlashSaleEngine;
+import com.himusharier.inventory.flashsale.FlashSaleReservation;
+import com.himusharier.inventory.flashsale.FlashSaleWal;
+import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.repository.FlashSaleCheckpointView;
+import com.himusharier.inventory.repository.ProductRepository;
+import com.himusharier.inventory.repository.ProductStockView;
+import com.himusharier.inventory.util.ProductLockOrder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Flash-sale mode. While a product is in it, its stock is owned by the in-memory
+ * {@link FlashSaleEngine} instead of its em_products row: a reservation costs a queue hand-off
+ * and a share of one WAL sync, not a transaction and a row lock. Every flush-interval the net
+ * changes are written to em_products in one transaction, together with the WAL sequence number
+ * they cover ({@code flashSaleSeq}); at startup, before the first request, the WAL records past
+ * each product's {@code flashSaleSeq} are replayed into the database and the engine is reloaded
+ * from it. The regular stock path skips products whose {@code flashSaleSeq} is set.
+ *
+ * <p>One node owns a product's flash sale: its stock requests must all be routed to that node.
+ */
+@Slf4j
+@Service
+public class FlashSaleService implements SmartInitializingSingleton {
+
+    private final ProductRepository productRepository;
+    private final StockLedgerService stockLedgerService;
+    private final StockThresholdService stockThresholdService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    // Flushes and stops drain the engine; one at a time, so every drained change is applied once.
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // Drained from the engine but not committed yet (the last flush failed); retried by the next one.
+    private final Map<UUID, Integer> unflushed = new HashMap<>();
+    private final Map<UUID, Map<String, Integer>> unflushedReferenced = new HashMap<>();
+    private long unflushedThroughSeq;
+
+    // Blank: flash-sale mode is disabled. Must survive restarts: it holds acknowledged reservations not yet flushed.
+    @Value("${app.flashsale.wal-path:}")
+    private String walPath = "";
+
+    @Value("${app.flashsale.wal-segment-size:64MB}")
+    private DataSize walSegmentSize = DataSize.ofMegabytes(64);
+
+    @Value("${app.flashsale.fsync:true}")
+    private boolean fsync = true;
+
+    @Value("${app.flashsale.queue-capacity:65536}")
+    private int queueCapacity = 65536;
+
+    @Value("${app.flashsale.ack-timeout:PT5S}")
+    private Duration ackTimeout = Duration.ofSeconds(5);
+
+    private volatile FlashSaleEngine engine;
+
+    @Autowired
+    public FlashSaleService(ProductRepository productRepository,
+                            StockLedgerService stockLedgerService,
+                            StockThresholdService stockThresholdService,
+                            ApplicationEventPublisher eventPublisher,
+                            PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.stockLedgerService = stockLedgerService;
+        this.stockThresholdService = stockThresholdService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // After every singleton (and event listener) exists, but before the web server takes requests.
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (walPath.isBlank()) {
+            log.info("Flash-sale mode is disabled (app.flashsale.wal-path is blank)");
+            return;
+        }
+        try {
+            recover(new FlashSaleWal(Path.of(walPath), walSegmentSize.toBytes(), fsync));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Flash-sale WAL recovery failed", e);
+        }
+    }
+
+    private void recover(FlashSaleWal wal) throws IOException {
+        Map<UUID, Long> checkpoints = new HashMap<>();
+        for (FlashSaleCheckpointView checkpoint : productRepository.findFlashSaleCheckpoints()) {
+            checkpoints.put(checkpoint.getProductId(), checkpoint.getFlashSaleSeq());
+        }
+
+        Map<UUID, Integer> deltas = new HashMap<>();
+        Map<UUID, Map<String, Integer>> referencedDeltas = new HashMap<>();
+        int[] replayed = {0};
+        long lastSeq = wal.replay(record -> {
+            Long checkpoint = checkpoints.get(record.getProductId());
+            if (checkpoint != null && record.getSeq() > checkpoint) {
+                deltas.merge(record.getProductId(), record.getDelta(), Integer::sum);
+                if (record.getReference() != null) {
+                    referencedDeltas.computeIfAbsent(record.getProductId(), id -> new HashMap<>())
+                            .merge(record.getReference(), record.getDelta(), Integer::sum);
+                }
+                replayed[0]++;
+            }
+        });
+        long throughSeq = Math.max(lastSeq, checkpoints.values().stream().mapToLong(Long::longValue).max().orElse(0));
+
+        Map<UUID, Integer> stock = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            apply(deltas, referencedDeltas, throughSeq);
+            if (!checkpoints.isEmpty()) {
+                for (ProductStockView view : productRepository.findStockByProductIdIn(checkpoints.keySet())) {
+                    stock.put(view.getProductId(), view.getQuantity());
+                }
+            }
+        });
+
+        engine = new FlashSaleEngine(wal, throughSeq + 1, queueCapacity, stock);
+        engine.truncateThrough(throughSeq);
+        log.info("Flash-sale engine started with {} product(s) in flash-sale mode, {} WAL record(s) replayed",
+                stock.size(), replayed[0]);
+    }
+
+    public boolean isActive(UUID id) {
+        FlashSaleEngine current = engine;
+        return current != null && current.isActive(id);
+    }
+
+    /**
+     * @param reference recorded on the product's ledger entry once the change is flushed; may be null
+     * @return empty when the product is not in flash-sale mode (use the regular stock path)
+     * @throws InsufficientStockException when the flash sale does not have {@code quantity} left
+     */
+    public Optional<StockAdjustmentResponseDto> decrement(UUID id, int quantity, String reference) {
+        if (!isActive(id)) {
+            return Optional.empty();
+        }
+        return adjustment(id, -quantity, await(engine.reserve(id, quantity, reference)));
+    }
+
+    /**
+     * @param reference recorded on the product's ledger entry once the change is flushed; may be null
+     * @return empty when the product is not in flash-sale mode (use the regular stock path)
+     */
+    public Optional<StockAdjustmentResponseDto> increment(UUID id, int quantity, String reference) {
+        if (!isActive(id)) {
+            return Optional.empty();
+        }
+        return adjustment(id, quantity, await(engine.restock(id, quantity, reference)));
+    }
+
+    /**
+     * Gives units back to the flash sale and waits for the engine's answer however long it takes:
+     * {@link #increment}'s timeout leaves the outcome unknown, so a caller could not tell whether
+     * retrying would return the units twice.
+     *
+     * @return false when the product is not in flash-sale mode (use the regular stock path)
+     * @throws FlashSaleUnavailableException when the engine refused the units (overloaded or
+     *                                       failed); nothing was returned, so it can be retried
+     */
+    public boolean returnStock(UUID id, int quantity, String reference) {
+        FlashSaleEngine current = engine;
+        if (current == null) {
+            return false;
+        }
+        try {
+            return current.restock(id, quantity, reference).join().getStatus() == FlashSaleReservationStatus.APPLIED;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new FlashSaleUnavailableException("Flash-sale engine has failed.", e.getCause());
+        }
+    }
+
+    // Multi-line reservations are all-or-nothing database transactions; flash-sale stock is not in the database.
+    public void rejectActive(Collection<UUID> ids) {
+        for (UUID id : ids) {
+            if (isActive(id)) {
+                throw new ProductSubmissionException("Product with the id: " + id
+                        + " is in flash-sale mode; reserve it with POST /products/" + id + "/stock/decrement.");
+            }
+        }
+    }
+
+    // The engine's count for a product in flash-sale mode; empty otherwise (its stored quantity is live).
+    public OptionalInt available(UUID id) {
+        FlashSaleEngine current = engine;
+        return current != null ? current.available(id) : OptionalInt.empty();
+    }
+
+    public FlashSaleStatusDto getStatus(UUID id) {
+        OptionalInt available = available(id);
+        if (available.isPresent()) {
+            return status(id, true, available.getAsInt());
+        }
+        return status(id, false, storedQuantity(id));
+    }
+
+    /**
+     * Hands the product's stock to the engine. The database side commits first: from then on the
+     * regular stock path refuses the product, so the quantity given to the engine can not go stale.
+     * When the engine does not acknowledge the open, the sale is stopped again, so the product is
+     * never left in flash-sale mode in the database only.
+     */
+    public FlashSaleStatusDto start(UUID id) {
+        FlashSaleEngine current = requireEngine();
+        Integer quantity = transactionTemplate.execute(status -> {
+            Product product = productRepository.lockByProductId(id).orElseThrow(() ->
+                    new ResourceNotFoundException("Product not found with the id: " + id));
+            if (product.getFlashSaleSeq() != null) {
+                throw new ProductSubmissionException("Product with the id: " + id + " is already in flash-sale mode.");
+            }
+            if (product.getStockStripes() > 0) {
+                throw new ProductSubmissionException("Product with the id: " + id
+                        + " has striped stock; set its stripes to 0 before starting a flash sale.");
+            }
+            // Every WAL record written so far predates this sale, so replay must skip them.
+            product.setFlashSaleSeq(current.getLastSeq());
+            product.setUpdatedAt(LocalDateTime.now());
+            eventPublisher.publishEvent(new ProductChangedEvent(id, ProductChangeType.UPDATED));
+            return product.getQuantity();
+        });
+        try {
+            await(current.open(id, quantity));
+        } catch (RuntimeException e) {
+            // A timed-out open may still be applied; the close queued behind it takes back whatever it got.
+            try {
+                stop(id);
+            } catch (RuntimeException stopFailure) {
+                e.addSuppressed(stopFailure);
+                log.error("Could not undo the flash-sale start of the product {}; stop it before selling it again", id, stopFailure);
+            }
+            throw e;
+        }
+        return status(id, true, quantity);
+    }
+
+    /**
+     * Hands the product's stock back to its em_products row. Runs as one transaction holding the
+     * product row lock, so a regular stock request arriving meanwhile waits and then sees the
+     * final quantity.
+     */
+    public FlashSaleStatusDto stop(UUID id) {
+        FlashSaleEngine current = requireEngine();
+        flushLock.lock();
+        try {
+            Integer[] closedStock = {null};
+            try {
+                FlashSaleStatusDto stopped = transactionTemplate.execute(status -> {
+                    Product product = productRepository.lockByProductId(id).orElseThrow(() ->
+                            new ResourceNotFoundException("Product not found with the id: " + id));
+                    if (product.getFlashSaleSeq() == null) {
+                        throw new ProductSubmissionException("Product with the id: " + id + " is not in flash-sale mode.");
+                    }
+                    closedStock[0] = await(current.close(id));
+                    collect(await(current.drain()));
+                    apply(unflushed, unflushedReferenced, unflushedThroughSeq);
+                    productRepository.endFlashSale(id, LocalDateTime.now());
+                    eventPublisher.publishEvent(new ProductChangedEvent(id, ProductChangeType.UPDATED));
+                    return status(id, false, storedQuantity(id));
+                });
+                clearUnflushed();
+                return stopped;
+            } catch (RuntimeException e) {
+                // Still in flash-sale mode in the database: give the stock back to the engine.
+                if (closedStock[0] != null) {
+                    await(current.open(id, closedStock[0]));
+                }
+                throw e;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.flashsale.flush-interval:PT0.2S}")
+    public void flush() {
+        FlashSaleEngine current = engine;
+        if (current == null) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            collect(await(current.drain()));
+            if (!unflushed.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> apply(unflushed, unflushedReferenced, unflushedThroughSeq));
+                clearUnflushed();
+            }
+            current.truncateThrough(unflushedThroughSeq);
+        } catch (RuntimeException | IOException e) {
+            log.warn("Flash-sale flush failed, retrying with the next run", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Whatever is not flushed here is replayed from the WAL at the next start.
+    @PreDestroy
+    public void shutdown() throws IOException {
+        FlashSaleEngine current = engine;
+        if (current != null) {
+            flush();
+            current.close();
+        }
+    }
+
+    private void collect(FlashSaleDrain drain) {
+        drain.getDeltas().forEach((productId, delta) -> unflushed.merge(productId, delta, Integer::sum));
+        drain.getReferencedDeltas().forEach((productId, byReference) -> byReference.forEach((reference, delta) ->
+                unflushedReferenced.computeIfAbsent(productId, id -> new HashMap<>()).merge(reference, delta, Integer::sum)));
+        unflushedThroughSeq = drain.getThroughSeq();
+    }
+
+    private void clearUnflushed() {
+        unflushed.clear();
+        unflushedReferenced.clear();
+    }
+
+    /**
+     * Applies net changes covering the WAL up to {@code throughSeq}. Products are updated even
+     * when their net change is 0, so their checkpoint moves past records that may be deleted.
+     * The ledger gets one movement per product and reference; the changes made without one are
+     * summed into a movement referencing the WAL position.
+     */
+    private void apply(Map<UUID, Integer> deltas, Map<UUID, Map<String, Integer>> referencedDeltas, long throughSeq) {
+        LocalDateTime now = LocalDateTime.now();
+        String walReference = "flash-sale-wal:" + throughSeq;
+        Map<UUID, Map<String, Integer>> movements = new LinkedHashMap<>();
+        List<UUID> changed = new ArrayList<>();
+        // Ascending id order, like every other multi-row stock write.
+        SortedMap<UUID, Integer> ordered = ProductLockOrder.newMap();
+        ordered.putAll(deltas);
+        ordered.forEach((productId, delta) -> {
+            if (productRepository.applyFlashSaleDelta(productId, delta, throughSeq, now) != 1) {
+                return;
+            }
+            Map<String, Integer> byReference = new LinkedHashMap<>(referencedDeltas.getOrDefault(productId, Map.of()));
+            int unreferenced = delta - byReference.values().stream().mapToInt(Integer::intValue).sum();
+            if (unreferenced != 0) {
+                byReference.merge(walReference, unreferenced, Integer::sum);
+            }
+            movements.put(productId, byReference);
+            if (delta != 0) {
+                changed.add(productId);
+            }
+        });
+        stockLedgerService.recordAllReferenced(movements, StockMovementReason.FLASH_SALE);
+        changed.forEach(productId -> {
+            stockThresholdService.evaluate(productId);
+            eventPublisher.publishEvent(new ProductChangedEvent(productId, ProductChangeType.UPDATED, Set.of(ProductPatchField.QUANTITY)));
+        });
+    }
+
+    private Optional<StockAdjustmentResponseDto> adjustment(UUID id, int adjustment, FlashSaleReservation reservation) {
+        return switch (reservation.getStatus()) {
+            // Ended in between: the regular stock path owns the product again.
+            case NOT_ACTIVE -> Optional.empty();
+            case INSUFFICIENT_STOCK ->
+                    throw new InsufficientStockException("Insufficient stock for the product with the id: " + id);
+            case APPLIED -> Optional.of(StockAdjustmentResponseDto.builder()
+                    .productId(id)
+                    .adjustment(adjustment)
+                    .build());
+        };
+    }
+
+    private int storedQuantity(UUID id) {
+        List<ProductStockView> stock = productRepository.findStockByProductIdIn(List.of(id));
+        if (stock.isEmpty()) {
+            throw new ResourceNotFoundException("Product not found with the id: " + id);
+        }
+        return stock.get(0).getQuantity();
+    }
+
+    private FlashSaleEngine requireEngine() {
+        FlashSaleEngine current = engine;
+        if (current == null) {
+            throw new ProductSubmissionException("Flash-sale mode is disabled (app.flashsale.wal-path is not set).");
+        }
+        return current;
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get(ackTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new FlashSaleUnavailableException("Flash-sale engine has failed.", e.getCause());
+        } catch (TimeoutException e) {
+            // The request may still be applied: the outcome is unknown, not failed.
+            throw new FlashSaleUnavailableException("Flash-sale engine did not acknowledge in time; check the stock before retrying.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlashSaleUnavailableException("Interrupted while waiting for the flash-sale engine.", e);
+        }
+    }
+
+    private static FlashSaleStatusDto status(UUID id, boolean active, int available) {
+        return FlashSaleStatusDto.builder()
+                .productId(id)
+                .active(active)
+                .available(available)
+                .build();
+    }
+}
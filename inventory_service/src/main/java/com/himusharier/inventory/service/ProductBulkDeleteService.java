@@ -0,0 +1,111 @@
+package com.himusharier.inventory.service;
+
+import com.himusharier.inventory.constants.ProductDeleteMode;
+import com.himusharier.inventory.dto.request.ProductBulkDeleteRequestDto;
+import com.himusharier.inventory.dto.request.ProductQuerySpec;
+import com.himusharier.inventory.dto.response.ProductBulkDeleteResponseDto;
+import com.himusharier.inventory.exception.ProductSubmissionException;
+import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.repository.ProductRepository;
+import com.himusharier.inventory.repository.ProductSpecifications;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Deletes or archives many products, given by id or by filter, in chunks of
+ * {@code app.products.bulk-delete.chunk-size}. Each chunk is one transaction of set-based
+ * statements ({@link ProductService#deleteProducts}), so locks and undo stay bounded however
+ * many products match, and a failure only rolls back the chunk it happened in.
+ */
+@Slf4j
+@Service
+public class ProductBulkDeleteService {
+
+    private final ProductService productService;
+    private final ProductRepository productRepository;
+
+    @Value("${app.products.bulk-delete.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Autowired
+    public ProductBulkDeleteService(ProductService productService, ProductRepository productRepository) {
+        this.productService = productService;
+        this.productRepository = productRepository;
+    }
+
+    public ProductBulkDeleteResponseDto deleteProducts(ProductBulkDeleteRequestDto request) {
+        boolean byIds = request.getProductIds() != null && !request.getProductIds().isEmpty();
+        boolean byFilter = request.getFilter() != null && !request.getFilter().isEmpty();
+        if (byIds == byFilter) {
+            throw new ProductSubmissionException("Either productIds or a filter is required, not both.");
+        }
+        ProductDeleteMode mode = request.getMode() != null ? request.getMode() : ProductDeleteMode.DELETE;
+
+        Totals totals = new Totals(mode);
+        if (byIds) {
+            List<UUID> productIds = new ArrayList<>(new LinkedHashSet<>(request.getProductIds()));
+            for (int from = 0; from < productIds.size(); from += chunkSize) {
+                totals.add(productService.deleteProducts(
+                        productIds.subList(from, Math.min(productIds.size(), from + chunkSize)), mode));
+            }
+        } else {
+            ProductQuerySpec filter = request.getFilter();
+            if (filter.getSort() != null || filter.getPage() != null || filter.getSize() != null) {
+                throw new ProductSubmissionException("A delete filter takes no sort, page or size.");
+            }
+            Specification<Product> specification = ProductSpecifications.matching(filter);
+            UUID afterId = null;
+            List<UUID> chunk;
+            do {
+                // Keyset pages: skipped products (flash sale) stay behind the cursor instead of being read again.
+                chunk = productRepository.findIdsAfter(specification, afterId, chunkSize);
+                if (!chunk.isEmpty()) {
+                    totals.add(productService.deleteProducts(chunk, mode));
+                    afterId = chunk.get(chunk.size() - 1);
+                }
+            } while (chunk.size() == chunkSize);
+        }
+
+        ProductBulkDeleteResponseDto result = totals.toDto();
+        log.info("Bulk {}: {} matched, {} deleted, {} archived, {} skipped, {} not found in {} chunk(s)",
+                mode, result.getMatched(), result.getDeleted(), result.getArchived(), result.getSkipped(),
+                result.getNotFound(), result.getChunks());
+        return result;
+    }
+
+    private static final class Totals {
+
+        private final ProductDeleteMode mode;
+        private int matched;
+        private int deleted;
+        private int archived;
+        private int skipped;
+        private int notFound;
+        private int chunks;
+
+        private Totals(ProductDeleteMode mode) {
+            this.mode = mode;
+        }
+
+        private void add(ProductDeleteCounts chunk) {
+            matched += chunk.getMatched();
+            deleted += chunk.getDeleted();
+            archived += chunk.getArchived();
+            skipped += chunk.getSkipped();
+            notFound += chunk.getNotFound();
+            chunks++;
+        }
+
+        private ProductBulkDeleteResponseDto toDto() {
+            return new ProductBulkDeleteResponseDto(mode, matched, deleted, archived, skipped, notFound, chunks);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.himusharier.inventory.service;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.himusharier.inventory.datasource.ReadRouting;
+import com.himusharier.inventory.dto.response.ProductResponseDto;
+import com.himusharier.inventory.event.ProductChangedEvent;
+import com.himusharier.inventory.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded in-process cache (Caffeine, W-TinyLFU eviction) in front of product lookups by id.
+ * Concurrent misses for the same id share a single database load. Entries are invalidated
+ * once the transaction that changed the product has committed.
+ */
+@Slf4j
+@Service
+public class ProductCacheService implements MeterBinder {
+
+    private final ProductRepository productRepository;
+    private final LoadingCache<UUID, ProductResponseDto> cache;
+    private final List<UUID> warmUpIds;
+
+    @Autowired
+    public ProductCacheService(ProductRepository productRepository,
+                               @Value("${app.cache.product.maximum-size:10000}") long maximumSize,
+                               @Value("${app.cache.product.expire-after-write:10m}") Duration expireAfterWrite,
+                               @Value("${app.cache.product.warm-up-ids:}") List<UUID> warmUpIds) {
+        this.productRepository = productRepository;
+        this.warmUpIds = warmUpIds;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build(new ProductLoader());
+    }
+
+    public Optional<ProductResponseDto> get(UUID productId) {
+        return Optional.ofNullable(cache.get(productId));
+    }
+
+    public Optional<ProductResponseDto> getIfPresent(UUID productId) {
+        return Optional.ofNullable(cache.getIfPresent(productId));
+    }
+
+    /**
+     * Cached products for the given ids. All misses are loaded together with one {@code IN}
+     * query; ids without a product are simply absent from the result.
+     */
+    public Map<UUID, ProductResponseDto> getAll(Collection<UUID> productIds) {
+        return cache.getAll(productIds);
+    }
+
+    public void invalidate(UUID productId) {
+        cache.invalidate(productId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(event.getProductId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (warmUpIds.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        Map<UUID, ProductResponseDto> loaded = cache.getAll(warmUpIds);
+        log.info("Product cache warmed with {} of {} configured products in {} ms",
+                loaded.size(), warmUpIds.size(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    /**
+     * Changes the size/TTL policy of the live cache. {@code null} leaves a setting unchanged.
+     */
+    public void resize(Long maximumSize, Duration expireAfterWrite) {
+        if (maximumSize != null) {
+            cache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(maximumSize));
+        }
+        if (expireAfterWrite != null) {
+            cache.policy().expireAfterWrite().ifPresent(expiration -> expiration.setExpiresAfter(expireAfterWrite));
+        }
+        log.info("Product cache policy changed: {}", describe());
+    }
+
+    public Map<String, Object> describe() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("estimatedSize", cache.estimatedSize());
+        cache.policy().eviction().ifPresent(eviction -> description.put("maximumSize", eviction.getMaximum()));
+        cache.policy().expireAfterWrite().ifPresent(expiration ->
+                description.put("expireAfterWrite", expiration.getExpiresAfter().toString()));
+        description.put("hitRate", stats.hitRate());
+        description.put("hitCount", stats.hitCount());
+        description.put("missCount", stats.missCount());
+        description.put("loadCount", stats.loadCount());
+        description.put("averageLoadPenaltyMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        description.put("evictionCount", stats.evictionCount());
+        return description;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "products");
+    }
+
+    // Loads read the primary: an entry read from a lagging replica would be served until it expires.
+    private class ProductLoader implements CacheLoader<UUID, ProductResponseDto> {
+        @Override
+        public ProductResponseDto load(UUID productId) {
+            // A null result is not cached, so unknown ids keep falling through to the database.
+            return ReadRouting.onPrimary(() -> productRepository.findDtoByProductId(productId)).orElse(null);
+        }
+
+        @Override
+        public Map<UUID, ProductResponseDto> loadAll(Set<? extends UUID> productIds) {
+            return ReadRouting.onPrimary(() -> productRepository.findAllDtosByProductIdIn(List.copyOf(productIds))).stream()
+                    .collect(Collectors.toMap(ProductResponseDto::getProductId, Function.identity()));
+        }
+    }
+}
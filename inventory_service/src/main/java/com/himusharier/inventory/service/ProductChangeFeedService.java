@@ -0,0 +1,160 @@
+package com.himusharier.inventory.service;
+
+import com.himusharier.inventory.changefeed.ProductChangeSink;
+import com.himusharier.inventory.dto.response.ProductChangeDto;
+import com.himusharier.inventory.dto.response.ProductChangeFeedDto;
+import com.himusharier.inventory.model.ProductOutboxEntry;
+import com.himusharier.inventory.repository.ProductOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product change feed for other services ({@code GET /products/changes}): the committed changes
+ * after a consumer's offset, oldest first. A consumer stores the offset it has applied and
+ * resumes from there, so it can keep a replica current without re-reading the catalog.
+ *
+ * <p>A poll that finds nothing new may wait (long poll). Waiting polls hold no thread and no
+ * connection: they are parked until the relay delivers the next changes to this sink and are
+ * answered straight from that delivery.
+ */
+@Service
+public class ProductChangeFeedService implements ProductChangeSink {
+
+    public static final int MAX_LIMIT = 1000;
+
+    private record Waiter(long after, int limit, CompletableFuture<ProductChangeFeedDto> result) {
+    }
+
+    private final ProductOutboxRepository productOutboxRepository;
+    private final List<Waiter> waiters = new ArrayList<>();
+    // Last offset the relay delivered here; guarded by this.
+    private long deliveredOffset = -1;
+
+    @Value("${app.products.changes.max-wait:PT30S}")
+    private Duration maxWait = Duration.ofSeconds(30);
+
+    @Autowired
+    public ProductChangeFeedService(ProductOutboxRepository productOutboxRepository) {
+        this.productOutboxRepository = productOutboxRepository;
+    }
+
+    // Longest a poll is held open, whatever wait it asks for.
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    /**
+     * @param after the last offset the consumer applied; {@code null} to start from now (no
+     *              changes, just the current offset: load the catalog, then follow from there)
+     * @param wait  how long to wait when there is nothing after {@code after} yet, capped at
+     *              app.products.changes.max-wait
+     */
+    public CompletableFuture<ProductChangeFeedDto> poll(Long after, int limit, Duration wait) {
+        if (after == null) {
+            return CompletableFuture.completedFuture(
+                    new ProductChangeFeedDto(List.of(), productOutboxRepository.findLatestOffset(), false));
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        ProductChangeFeedDto feed = read(after, pageSize);
+        long waitMillis = Math.min(wait.toMillis(), maxWait.toMillis());
+        if (!feed.getChanges().isEmpty() || waitMillis <= 0) {
+            return CompletableFuture.completedFuture(feed);
+        }
+
+        Waiter waiter = new Waiter(after, pageSize, new CompletableFuture<>());
+        boolean parked = false;
+        synchronized (this) {
+            // Otherwise changes were delivered since the read above: read again instead of waiting.
+            if (deliveredOffset <= after) {
+                waiters.add(waiter);
+                parked = true;
+            }
+        }
+        if (!parked) {
+            return CompletableFuture.completedFuture(read(after, pageSize));
+        }
+        waiter.result().completeOnTimeout(feed, waitMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((result, failure) -> {
+                    synchronized (this) {
+                        waiters.remove(waiter);
+                    }
+                });
+        return waiter.result();
+    }
+
+    public ProductChangeFeedDto read(long after, int limit) {
+        List<ProductChangeDto> changes = productOutboxRepository
+                .findByFeedOffsetGreaterThanOrderByFeedOffset(after, Limit.of(limit)).stream()
+                .map(ProductChangeFeedService::toChangeDto)
+                .toList();
+        return feed(after, changes);
+    }
+
+    @Override
+    public void publish(List<ProductChangeDto> changes) {
+        long firstOffset = changes.get(0).getOffset();
+        List<Waiter> ready = new ArrayList<>();
+        synchronized (this) {
+            deliveredOffset = changes.get(changes.size() - 1).getOffset();
+            Iterator<Waiter> iterator = waiters.iterator();
+            while (iterator.hasNext()) {
+                Waiter waiter = iterator.next();
+                if (waiter.after() < deliveredOffset) {
+                    ready.add(waiter);
+                    iterator.remove();
+                }
+            }
+        }
+        for (Waiter waiter : ready) {
+            try {
+                if (waiter.after() >= firstOffset - 1) {
+                    waiter.result().complete(feed(waiter.after(), changes.stream()
+                            .filter(change -> change.getOffset() > waiter.after())
+                            .limit(waiter.limit())
+                            .toList()));
+                } else {
+                    waiter.result().complete(read(waiter.after(), waiter.limit()));
+                }
+            } catch (RuntimeException e) {
+                waiter.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    public static ProductChangeDto toChangeDto(ProductOutboxEntry entry) {
+        return ProductChangeDto.builder()
+                .offset(entry.getFeedOffset())
+                .productId(entry.getProductId())
+                .changeType(entry.getChangeType())
+                .changedFields(entry.getChangedFields().isEmpty()
+                        ? List.of()
+                        : Arrays.asList(entry.getChangedFields().split(",")))
+                .version(entry.getVersion())
+                .name(entry.getName())
+                .description(entry.getDescription())
+                .price(entry.getPrice())
+                .quantity(entry.getQuantity())
+                .reorderThreshold(entry.getReorderThreshold())
+                .changedAt(entry.getChangedAt())
+                .build();
+    }
+
+    private static ProductChangeFeedDto feed(long after, List<ProductChangeDto> changes) {
+        if (changes.isEmpty()) {
+            return new ProductChangeFeedDto(changes, after, false);
+        }
+        // Offsets have no gaps, so a jump means the changes in between were pruned.
+        return new ProductChangeFeedDto(changes, changes.get(changes.size() - 1).getOffset(),
+                changes.get(0).getOffset() > after + 1);
+    }
+}
@@ -0,0 +1,20 @@
+package com.himusharier.inventory.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+// Outcome of one ProductService#deleteProducts call, i.e. one transaction of a bulk delete.
+@Getter
+@Builder
+@AllArgsConstructor
+public class ProductDeleteCounts {
+    // Products found: deleted plus skipped.
+    private final int matched;
+    private final int deleted;
+    private final int archived;
+    // In flash-sale mode: left in place.
+    private final int skipped;
+    // Requested ids without a product.
+    private final int notFound;
+}
@@ -0,0 +1,112 @@
+package com.himusharier.inventory.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.himusharier.inventory.repository.ProductExportView;
+import com.himusharier.inventory.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class ProductExportService {
+
+    private final ProductRepository productRepository;
+    private final FlashSaleService flashSaleService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    private int clearInterval = 500;
+
+    @Value("${app.export.timeout:PT1H}")
+    private Duration timeout = Duration.ofHours(1);
+
+    @Autowired
+    public ProductExportService(ProductRepository productRepository,
+                                FlashSaleService flashSaleService,
+                                EntityManager entityManager,
+                                ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.flashSaleService = flashSaleService;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @Value("${app.export.clear-interval:500}")
+    void setClearInterval(int clearInterval) {
+        if (clearInterval <= 0) {
+            throw new IllegalArgumentException("app.export.clear-interval must be greater than zero, was " + clearInterval + ".");
+        }
+        this.clearInterval = clearInterval;
+    }
+
+    // Longest an export response may take, set on that request only.
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Writes every product as one JSON object per line (NDJSON) to the given stream, with the
+     * quantity the API returns: the stripe sum for striped products, the engine's count for
+     * products in flash-sale mode.
+     * Rows are read through a database cursor and the persistence context is cleared
+     * every {@code clearInterval} rows, so heap usage does not grow with the catalog size.
+     * The output stream is flushed but not closed.
+     *
+     * @return number of exported products
+     */
+    @Transactional(readOnly = true)
+    public long exportProducts(OutputStream outputStream) throws IOException {
+        long exported = 0;
+
+        try (Stream<ProductExportView> products = productRepository.streamExportViews();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString(""));
+
+            Iterator<ProductExportView> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                writeProduct(generator, iterator.next());
+                exported++;
+
+                if (exported % clearInterval == 0) {
+                    entityManager.clear();
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+        return exported;
+    }
+
+    private void writeProduct(JsonGenerator generator, ProductExportView product) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("productId", product.getProductId().toString());
+        generator.writeStringField("name", product.getName());
+        generator.writeStringField("description", product.getDescription());
+        if (product.getPrice() != null) {
+            generator.writeNumberField("price", product.getPrice());
+        } else {
+            generator.writeNullField("price");
+        }
+        generator.writeNumberField("quantity", flashSaleService.available(product.getProductId())
+                .orElse(product.getQuantity()));
+        if (product.getReorderThreshold() != null) {
+            generator.writeNumberField("reorderThreshold", product.getReorderThreshold());
+        } else {
+            generator.writeNullField("reorderThreshold");
+        }
+        generator.writeNumberField("version", product.getVersion());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+}
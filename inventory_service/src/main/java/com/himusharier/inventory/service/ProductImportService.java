@@ -0,0 +1,259 @@
+package com.himusharier.inventory.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.himusharier.inventory.constants.ImportFormat;
+import com.himusharier.inventory.constants.ProductChangeType;
+import com.himusharier.inventory.constants.ProductPatchField;
+import com.himusharier.inventory.constants.StockMovementReason;
+import com.himusharier.inventory.dto.request.ProductRequestDto;
+import com.himusharier.inventory.dto.response.ProductImportErrorDto;
+import com.himusharier.inventory.dto.response.ProductImportResponseDto;
+import com.himusharier.inventory.event.ProductChangedEvent;
+import com.himusharier.inventory.exception.ProductSubmissionException;
+import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.util.CsvLineParser;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a CSV or NDJSON upload into the catalog. Rows are validated one by one and written
+ * in chunks of {@code app.import.chunk-size}: each chunk is its own transaction, inserted with
+ * Hibernate JDBC batching, then flushed and cleared so memory stays flat for any file size.
+ * A chunk the database rejects is retried row by row, so only the offending lines fail.
+ */
+@Slf4j
+@Service
+public class ProductImportService {
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockThresholdService stockThresholdService;
+
+    @Value("${app.import.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Value("${app.import.max-reported-errors:1000}")
+    private int maxReportedErrors = 1000;
+
+    @Autowired
+    public ProductImportService(EntityManager entityManager,
+                                PlatformTransactionManager transactionManager,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                ApplicationEventPublisher eventPublisher,
+                                StockThresholdService stockThresholdService) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.stockThresholdService = stockThresholdService;
+    }
+
+    public ProductImportResponseDto importProducts(InputStream inputStream, ImportFormat format) throws IOException {
+        ImportProgress progress = new ImportProgress();
+        List<ProductRequestDto> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkLines = new ArrayList<>(chunkSize);
+        Map<String, Integer> csvColumns = null;
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == ImportFormat.CSV && csvColumns == null) {
+                csvColumns = parseCsvHeader(line);
+                continue;
+            }
+
+            progress.processed++;
+            try {
+                ProductRequestDto productRequestDto = format == ImportFormat.CSV
+                        ? readCsvRow(line, csvColumns)
+                        : objectMapper.readValue(line, ProductRequestDto.class);
+                validate(productRequestDto);
+                chunk.add(productRequestDto);
+                chunkLines.add(lineNumber);
+            } catch (Exception e) {
+                progress.fail(lineNumber, e.getMessage());
+            }
+
+            if (chunk.size() >= chunkSize) {
+                writeChunk(chunk, chunkLines, progress);
+            }
+        }
+        writeChunk(chunk, chunkLines, progress);
+
+        log.info("Product import finished: {} processed, {} imported, {} failed",
+                progress.processed, progress.imported, progress.failed);
+        return new ProductImportResponseDto(
+                progress.processed,
+                progress.imported,
+                progress.failed,
+                progress.errors,
+                progress.failed > progress.errors.size()
+        );
+    }
+
+    private void writeChunk(List<ProductRequestDto> chunk, List<Long> chunkLines, ImportProgress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            insert(chunk);
+            progress.imported += chunk.size();
+        } catch (RuntimeException e) {
+            log.warn("Product import chunk starting at line {} rolled back, retrying its rows one by one",
+                    chunkLines.get(0), e);
+            for (int i = 0; i < chunk.size(); i++) {
+                try {
+                    insert(List.of(chunk.get(i)));
+                    progress.imported++;
+                } catch (RuntimeException rowException) {
+                    progress.fail(chunkLines.get(i), rowException.getMessage());
+                }
+            }
+        }
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    // One transaction; products are built inside it, so a retry never sees ids from a rolled back attempt.
+    private void insert(List<ProductRequestDto> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Product> products = new ArrayList<>(rows.size());
+            for (ProductRequestDto row : rows) {
+                Product product = toProduct(row);
+                entityManager.persist(product);
+                stockThresholdService.evaluate(product);
+                if (product.getQuantity() != 0) {
+                    entityManager.persist(StockLedgerService.movement(product.getProductId(), product.getQuantity(),
+                            StockMovementReason.IMPORTED, null, LocalDateTime.now()));
+                }
+                products.add(product);
+            }
+            entityManager.flush();
+            entityManager.clear();
+            for (Product product : products) {
+                eventPublisher.publishEvent(new ProductChangedEvent(product.getProductId(), ProductChangeType.CREATED,
+                        EnumSet.allOf(ProductPatchField.class)));
+            }
+        });
+    }
+
+    private Map<String, Integer> parseCsvHeader(String line) {
+        List<String> header = CsvLineParser.parse(line);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("name", "price", "quantity")) {
+            if (!columns.containsKey(required)) {
+                throw new ProductSubmissionException("CSV header is missing the '" + required + "' column.");
+            }
+        }
+        return columns;
+    }
+
+    private ProductRequestDto readCsvRow(String line, Map<String, Integer> columns) {
+        List<String> fields = CsvLineParser.parse(line);
+        ProductRequestDto productRequestDto = new ProductRequestDto();
+        productRequestDto.setName(field(fields, columns, "name"));
+        productRequestDto.setDescription(field(fields, columns, "description"));
+
+        String price = field(fields, columns, "price");
+        if (price != null) {
+            productRequestDto.setPrice(parseNumber(price, "price", Double::valueOf));
+        }
+        String quantity = field(fields, columns, "quantity");
+        if (quantity != null) {
+            productRequestDto.setQuantity(parseNumber(quantity, "quantity", Integer::valueOf));
+        }
+        String reorderThreshold = field(fields, columns, "reorderthreshold");
+        if (reorderThreshold != null) {
+            productRequestDto.setReorderThreshold(parseNumber(reorderThreshold, "reorderThreshold", Integer::valueOf));
+        }
+        return productRequestDto;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static <T> T parseNumber(String value, String column, Function<String, T> parser) {
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private void validate(ProductRequestDto productRequestDto) {
+        Set<ConstraintViolation<ProductRequestDto>> violations = validator.validate(productRequestDto);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(" ")));
+        }
+    }
+
+    private static Product toProduct(ProductRequestDto productRequestDto) {
+        return Product.builder()
+                .name(productRequestDto.getName())
+                .description(productRequestDto.getDescription())
+                .price(productRequestDto.getPrice())
+                .quantity(productRequestDto.getQuantity())
+                .reorderThreshold(productRequestDto.getReorderThreshold())
+                .build();
+    }
+
+    private class ImportProgress {
+        private long processed;
+        private long imported;
+        private long failed;
+        private final List<ProductImportErrorDto> errors = new ArrayList<>();
+
+        private void fail(long line, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ProductImportErrorDto(line, message));
+            }
+        }
+    }
+}
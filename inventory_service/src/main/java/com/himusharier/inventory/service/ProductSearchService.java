@@ -0,0 +1,300 @@
+package com.himusharier.inventory.service;
+
+import com.himusharier.inventory.constants.ProductChangeType;
+import com.himusharier.inventory.constants.ProductPatchField;
+import com.himusharier.inventory.datasource.ReadRouting;
+import com.himusharier.inventory.dto.response.ProductResponseDto;
+import com.himusharier.inventory.dto.response.ProductSearchHitDto;
+import com.himusharier.inventory.dto.response.ProductSearchResponseDto;
+import com.himusharier.inventory.event.ProductChangedEvent;
+import com.himusharier.inventory.exception.ProductSubmissionException;
+import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Embedded Lucene index over product name and description. Hits are answered from stored
+ * fields, so searches never reach the database. The index is rebuilt from the catalog at
+ * startup and kept current from committed product changes; with {@code app.search.index-path}
+ * set it lives in memory-mapped files on local disk, otherwise on the heap.
+ *
+ * <p>Writers only queue the changed product's id: a background run every
+ * {@code app.search.refresh-interval} re-reads the queued products in one query, updates their
+ * documents and refreshes the searcher once. Only name, description and price are indexed, so
+ * stock changes, by far the most frequent writes, are not queued at all; hits carry no stock.
+ */
+@Slf4j
+@Service
+public class ProductSearchService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+    // Deep pages cost O(page * size); past this window clients should narrow the query instead.
+    public static final int MAX_RESULT_WINDOW = 10_000;
+
+    private static final String ID = "productId";
+    private static final String NAME = "name";
+    private static final String DESCRIPTION = "description";
+    private static final String PRICE = "price";
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(NAME, 2.0f, DESCRIPTION, 1.0f);
+    private static final int REBUILD_CLEAR_INTERVAL = 500;
+    private static final Set<ProductPatchField> INDEXED_FIELDS =
+            EnumSet.of(ProductPatchField.NAME, ProductPatchField.DESCRIPTION, ProductPatchField.PRICE);
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Analyzer analyzer = new EnglishAnalyzer();
+    private final Directory directory;
+    private final IndexWriter indexWriter;
+    private final SearcherManager searcherManager;
+
+    // Products changed since the last run; a set, so a product changed many times is re-read once.
+    private final Set<UUID> pendingChanges = ConcurrentHashMap.newKeySet();
+    // Held by a rebuild for its whole run: changes queued meanwhile are applied after it, never under it.
+    private final ReentrantLock indexLock = new ReentrantLock();
+
+    @Autowired
+    public ProductSearchService(ProductRepository productRepository,
+                                EntityManager entityManager,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.search.index-path:}") String indexPath) throws IOException {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        this.directory = indexPath.isBlank() ? new ByteBuffersDirectory() : new MMapDirectory(Path.of(indexPath));
+        this.indexWriter = new IndexWriter(directory,
+                new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE));
+        this.searcherManager = new SearcherManager(indexWriter, null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        long indexed;
+        indexLock.lock();
+        try {
+            indexWriter.deleteAll();
+            indexed = ReadRouting.onPrimary(() -> readOnlyTransaction.execute(status -> indexAll()));
+            indexWriter.commit();
+            // Changed while the rebuild streamed: re-read, so the rebuild cannot leave an older copy.
+            reindexPending();
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not build the product search index", e);
+        } finally {
+            indexLock.unlock();
+        }
+        log.info("Product search index built with {} products in {} ms",
+                indexed, Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getChangeType() != ProductChangeType.UPDATED
+                || event.getChangedFields().stream().anyMatch(INDEXED_FIELDS::contains)) {
+            pendingChanges.add(event.getProductId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.refresh-interval:PT1S}")
+    public void applyPendingChanges() {
+        // A running rebuild applies them when it is done.
+        if (pendingChanges.isEmpty() || !indexLock.tryLock()) {
+            return;
+        }
+        try {
+            reindexPending();
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    public ProductSearchResponseDto search(String queryText, int page, int size) {
+        if (queryText == null || queryText.isBlank()) {
+            throw new ProductSubmissionException("Search query can not be blank.");
+        }
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ProductSubmissionException("Page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        if ((long) (page + 1) * size > MAX_RESULT_WINDOW) {
+            throw new ProductSubmissionException("Only the first " + MAX_RESULT_WINDOW + " results can be paged through.");
+        }
+
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_WEIGHTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query query = parser.parse(queryText);
+        if (query == null) {
+            // Only stop words, e.g. "the".
+            return new ProductSearchResponseDto(queryText, page, size, 0, true, List.of());
+        }
+
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            TopDocs topDocs = searcher.search(query, (page + 1) * size);
+            StoredFields storedFields = searcher.storedFields();
+
+            List<ProductSearchHitDto> hits = new ArrayList<>(size);
+            for (int i = page * size; i < topDocs.scoreDocs.length; i++) {
+                ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+                hits.add(toHit(storedFields.document(scoreDoc.doc), scoreDoc.score));
+            }
+            return new ProductSearchResponseDto(
+                    queryText,
+                    page,
+                    size,
+                    topDocs.totalHits.value,
+                    topDocs.totalHits.relation == TotalHits.Relation.EQUAL_TO,
+                    hits
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException("Product search failed", e);
+        } finally {
+            if (searcher != null) {
+                releaseQuietly(searcher);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        indexWriter.close();
+        directory.close();
+        analyzer.close();
+    }
+
+    private long indexAll() {
+        long indexed = 0;
+        try (Stream<Product> products = productRepository.streamAll()) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                indexWriter.addDocument(toDocument(ProductResponseDto.builder()
+                        .productId(product.getProductId())
+                        .name(product.getName())
+                        .description(product.getDescription())
+                        .price(product.getPrice())
+                        .build()));
+                indexed++;
+
+                if (indexed % REBUILD_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return indexed;
+    }
+
+    private void reindexPending() {
+        List<UUID> productIds = new ArrayList<>(pendingChanges);
+        if (productIds.isEmpty()) {
+            return;
+        }
+        pendingChanges.removeAll(productIds);
+        try {
+            Map<UUID, ProductResponseDto> products = new HashMap<>();
+            ReadRouting.onPrimary(() -> productRepository.findAllDtosByProductIdIn(productIds))
+                    .forEach(product -> products.put(product.getProductId(), product));
+            for (UUID productId : productIds) {
+                Term idTerm = new Term(ID, productId.toString());
+                ProductResponseDto product = products.get(productId);
+                if (product != null) {
+                    indexWriter.updateDocument(idTerm, toDocument(product));
+                } else {
+                    indexWriter.deleteDocuments(idTerm);
+                }
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException | RuntimeException e) {
+            // The product changes themselves are committed; queue them again for the next run.
+            pendingChanges.addAll(productIds);
+            log.error("Could not update {} product(s) in the search index", productIds.size(), e);
+        }
+    }
+
+    private void releaseQuietly(IndexSearcher searcher) {
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            log.warn("Could not release product index searcher", e);
+        }
+    }
+
+    private static Document toDocument(ProductResponseDto product) {
+        Document document = new Document();
+        document.add(new StringField(ID, product.getProductId().toString(), Field.Store.YES));
+        document.add(new TextField(NAME, product.getName(), Field.Store.YES));
+        if (product.getDescription() != null) {
+            document.add(new TextField(DESCRIPTION, product.getDescription(), Field.Store.YES));
+        }
+        if (product.getPrice() != null) {
+            document.add(new StoredField(PRICE, product.getPrice()));
+        }
+        return document;
+    }
+
+    private static ProductSearchHitDto toHit(Document document, float score) {
+        return ProductSearchHitDto.builder()
+                .productId(UUID.fromString(document.get(ID)))
+                .name(document.get(NAME))
+                .description(document.get(DESCRIPTION))
+                .price(document.getField(PRICE) != null ? document.getField(PRICE).numericValue().doubleValue() : null)
+                .score(score)
+                .build();
+    }
+}
@@ -1,72 +1,470 @@
 package com.himusharier.inventory.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.himusharier.inventory.catalog.ProductCatalogSnapshot;
+import com.himusharier.inventory.constants.ProductChangeType;
+import com.himusharier.inventory.constants.ProductDeleteMode;
+import com.himusharier.inventory.constants.ProductPatchField;
+import com.himusharier.inventory.constants.ProductPatchStatus;
+import com.himusharier.inventory.constants.StockMovementReason;
+import com.himusharier.inventory.dto.request.ProductPatchItemDto;
+import com.himusharier.inventory.dto.request.ProductQuerySpec;
+import com.himusharier.inventory.dto.response.ProductBulkPatchResponseDto;
+import com.himusharier.inventory.dto.response.ProductLookupResponseDto;
+import com.himusharier.inventory.dto.response.ProductLookupResultDto;
+import com.himusharier.inventory.dto.response.ProductPatchResultDto;
 import com.himusharier.inventory.dto.response.ProductResponseDto;
+import com.himusharier.inventory.event.ProductChangedEvent;
+import com.himusharier.inventory.exception.ProductSubmissionException;
+import com.himusharier.inventory.exception.ProductVersionConflictException;
 import com.himusharier.inventory.exception.ResourceNotFoundException;
 import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.repository.FlashSaleCheckpointView;
+import com.himusharier.inventory.repository.ProductColumnPatch;
 import com.himusharier.inventory.repository.ProductRepository;
+import com.himusharier.inventory.repository.ProductSpecifications;
+import com.himusharier.inventory.repository.ProductStockView;
+import com.himusharier.inventory.util.ProductLockOrder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 public class ProductService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
     private final ProductRepository productRepository;
+    private final ProductCacheService productCacheService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockThresholdService stockThresholdService;
+    private final StockLedgerService stockLedgerService;
+    private final StockStripeService stockStripeService;
+    private final ProductCatalogSnapshot productCatalogSnapshot;
 
     @Autowired
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository,
+                          ProductCacheService productCacheService,
+                          ApplicationEventPublisher eventPublisher,
+                          StockThresholdService stockThresholdService,
+                          StockLedgerService stockLedgerService,
+                          StockStripeService stockStripeService,
+                          ProductCatalogSnapshot productCatalogSnapshot) {
         this.productRepository = productRepository;
+        this.productCacheService = productCacheService;
+        this.eventPublisher = eventPublisher;
+        this.stockThresholdService = stockThresholdService;
+        this.stockLedgerService = stockLedgerService;
+        this.stockStripeService = stockStripeService;
+        this.productCatalogSnapshot = productCatalogSnapshot;
     }
 
+    // Not transactional: answered from the catalog snapshot once loaded, else projected straight into DTOs.
     public List<ProductResponseDto> getAllProducts() {
-        List<Product> getAllProducts = productRepository.findAll();
+        return productCatalogSnapshot.findAll().orElseGet(productRepository::findAllDtos);
+    }
 
-        return getAllProducts.stream()
-                .map(this::mapProductToRespondDto)
-                .collect(Collectors.toList());
+    /**
+     * Filtered, sorted and optionally paged listing. Paging is applied in the query only when
+     * {@code page} or {@code size} is given. Answered from the catalog snapshot once it is
+     * loaded, without a connection.
+     */
+    public List<ProductResponseDto> findProducts(ProductQuerySpec querySpec) {
+        Pageable pageable = pageable(querySpec);
+        return productCatalogSnapshot.find(querySpec, pageable).orElseGet(() ->
+                productRepository.findDtos(ProductSpecifications.matching(querySpec), pageable));
     }
 
+    // Sorted by the requested keys, then product id; paged only when page or size is given.
+    public static Pageable pageable(ProductQuerySpec querySpec) {
+        Sort sort = ProductSpecifications.sort(querySpec.getSort());
+        return querySpec.getPage() != null || querySpec.getSize() != null
+                ? PageRequest.of(
+                        querySpec.getPage() != null ? querySpec.getPage() : 0,
+                        querySpec.getSize() != null ? querySpec.getSize() : DEFAULT_PAGE_SIZE,
+                        sort)
+                : Pageable.unpaged(sort);
+    }
+
+    // Not transactional: cache hits must not check out a connection; misses load in their own read-only transaction.
     public ProductResponseDto getProductById(UUID id) {
-        Product product = productRepository.findByProductId(id).orElseThrow(() ->
+        return productCacheService.get(id).orElseThrow(() ->
                 new ResourceNotFoundException("Product not found with the id: " + id));
+    }
+
+    /**
+     * Looks up many products at once. Cached products are served from the cache and all
+     * others are loaded with a single {@code IN} query. Unknown ids are reported as not found
+     * instead of failing the lookup. Not transactional, for the same reason as
+     * {@link #getProductById(UUID)}.
+     */
+    public ProductLookupResponseDto lookupProducts(List<UUID> productIds) {
+        return lookupResult(productIds, productCacheService.getAll(new LinkedHashSet<>(productIds)));
+    }
+
+    // One item per requested id, in request order; ids missing from products are marked not found.
+    public static ProductLookupResponseDto lookupResult(List<UUID> productIds, Map<UUID, ProductResponseDto> products) {
+        List<ProductLookupResultDto> items = new ArrayList<>(productIds.size());
+        int found = 0;
+        for (UUID productId : productIds) {
+            ProductResponseDto product = products.get(productId);
+            if (product != null) {
+                found++;
+            }
+            items.add(new ProductLookupResultDto(productId, product != null, product));
+        }
+        return new ProductLookupResponseDto(found, productIds.size() - found, items);
+    }
 
-        return mapProductToRespondDto(product);
+    /**
+     * Current version of a product, answered from the cache when possible and otherwise
+     * with a single-column lookup, without materializing the product. Empty for striped
+     * products: their stock changes without a version bump, so the version can not validate
+     * a cached copy.
+     */
+    public Optional<Long> findCurrentVersion(UUID id) {
+        return productCacheService.getIfPresent(id)
+                .filter(product -> product.getStockStripes() == 0)
+                .map(ProductResponseDto::getVersion)
+                .or(() -> productRepository.findUnstripedVersionByProductId(id));
     }
 
     @Transactional
     public ProductResponseDto createProduct(Product product) {
         Product createProduct = productRepository.save(product);
+        stockThresholdService.evaluate(createProduct);
+        stockLedgerService.record(createProduct.getProductId(), createProduct.getQuantity(), StockMovementReason.CREATED, null);
+        publishChange(createProduct.getProductId(), ProductChangeType.CREATED, EnumSet.allOf(ProductPatchField.class));
 
         return mapProductToRespondDto(createProduct);
     }
 
     @Transactional
     public ProductResponseDto updateProduct(UUID id, Product product) {
+        return updateProduct(id, product, null);
+    }
+
+    /**
+     * Full update guarded by optimistic locking: when {@code expectedVersion} is given it must
+     * match the stored version, and a concurrent commit between read and flush fails on the
+     * {@code @Version} check instead of being silently overwritten.
+     */
+    @Transactional
+    public ProductResponseDto updateProduct(UUID id, Product product, Long expectedVersion) {
         Product existingProduct = productRepository.findByProductId(id).orElseThrow(() ->
                 new ResourceNotFoundException("Product not found with the id: " + id));
 
+        if (expectedVersion != null && existingProduct.getVersion() != expectedVersion) {
+            throw new ProductVersionConflictException("Product with the id: " + id
+                    + " has been modified (expected version " + expectedVersion
+                    + ", current version " + existingProduct.getVersion() + ").");
+        }
+
+        if (existingProduct.getFlashSaleSeq() != null) {
+            throw flashSaleConflict(id);
+        }
+
+        Set<ProductPatchField> changedFields = changedFields(existingProduct, product);
         existingProduct.setName(product.getName());
         existingProduct.setDescription(product.getDescription());
         existingProduct.setPrice(product.getPrice());
+        Long stripedQuantity = existingProduct.getStockStripes() > 0
+                ? stockStripeService.redistribute(id, product.getQuantity())
+                : null;
+        int quantityChange = product.getQuantity()
+                - (stripedQuantity != null ? Math.toIntExact(stripedQuantity) : existingProduct.getQuantity());
         existingProduct.setQuantity(product.getQuantity());
+        existingProduct.setReorderThreshold(product.getReorderThreshold());
+        stockThresholdService.evaluate(existingProduct);
 
         Product savedProduct = productRepository.save(existingProduct);
+        stockLedgerService.record(id, quantityChange, StockMovementReason.ADJUSTED, null);
+        if (quantityChange != 0) {
+            changedFields.add(ProductPatchField.QUANTITY);
+        }
+        publishChange(id, ProductChangeType.UPDATED, changedFields);
         return mapProductToRespondDto(savedProduct);
     }
 
+    /**
+     * Applies a JSON Merge Patch as one UPDATE of just the patched columns. No read happens
+     * before the write; the stored version check (when {@code expectedVersion} is given) is
+     * part of the UPDATE itself.
+     */
+    @Transactional
+    public ProductResponseDto patchProduct(UUID id, JsonNode patch, Long expectedVersion) {
+        ProductColumnPatch columnPatch = new ProductColumnPatch(id, readPatch(patch), expectedVersion);
+
+        if (productRepository.patchProduct(columnPatch, LocalDateTime.now()) == 0) {
+            if (!productRepository.existsByProductId(id)) {
+                throw new ResourceNotFoundException("Product not found with the id: " + id);
+            }
+            if (columnPatch.getValues().containsKey(ProductPatchField.QUANTITY)
+                    && productRepository.existsByProductIdAndFlashSaleSeqIsNotNull(id)) {
+                throw flashSaleConflict(id);
+            }
+            throw new ProductVersionConflictException("Product with the id: " + id
+                    + " has been modified (expected version " + expectedVersion + ").");
+        }
+
+        applyQuantityPatch(columnPatch);
+        if (affectsStockThreshold(columnPatch)) {
+            stockThresholdService.evaluate(id);
+        }
+        publishChange(id, ProductChangeType.UPDATED, columnPatch.getValues().keySet());
+        return productRepository.findDtoByProductId(id).orElseThrow(() ->
+                new ResourceNotFoundException("Product not found with the id: " + id));
+    }
+
+    /**
+     * Applies many merge patches in one transaction. Items are independent: an invalid patch,
+     * unknown id or version mismatch is reported for that item and the others are still written.
+     */
+    @Transactional
+    public ProductBulkPatchResponseDto patchProducts(List<ProductPatchItemDto> items) {
+        List<ProductPatchResultDto> results = new ArrayList<>(items.size());
+        List<ProductColumnPatch> patches = new ArrayList<>(items.size());
+        List<Integer> patchPositions = new ArrayList<>(items.size());
+
+        for (int i = 0; i < items.size(); i++) {
+            ProductPatchItemDto item = items.get(i);
+            results.add(null);
+            try {
+                patches.add(new ProductColumnPatch(item.getProductId(), readPatch(item.getPatch()), item.getVersion()));
+                patchPositions.add(i);
+            } catch (ProductSubmissionException e) {
+                results.set(i, new ProductPatchResultDto(item.getProductId(), ProductPatchStatus.INVALID, e.getMessage()));
+            }
+        }
+
+        int[] updateCounts = patches.isEmpty()
+                ? new int[0]
+                : productRepository.batchPatchProducts(patches, LocalDateTime.now());
+
+        Set<UUID> missed = new LinkedHashSet<>();
+        for (int i = 0; i < patches.size(); i++) {
+            if (updateCounts[i] == 0) {
+                missed.add(patches.get(i).getProductId());
+            }
+        }
+        Set<UUID> existing = missed.isEmpty()
+                ? Set.of()
+                : productRepository.findStockByProductIdIn(missed).stream()
+                        .map(ProductStockView::getProductId)
+                        .collect(Collectors.toSet());
+        Set<UUID> inFlashSale = missed.isEmpty()
+                ? Set.of()
+                : productRepository.findFlashSaleCheckpoints().stream()
+                        .map(FlashSaleCheckpointView::getProductId)
+                        .collect(Collectors.toSet());
+
+        int patched = 0;
+        Map<UUID, EnumSet<ProductPatchField>> changed = new LinkedHashMap<>();
+        for (int i = 0; i < patches.size(); i++) {
+            UUID productId = patches.get(i).getProductId();
+            ProductPatchStatus status;
+            if (updateCounts[i] > 0) {
+                status = ProductPatchStatus.PATCHED;
+                patched++;
+                changed.computeIfAbsent(productId, id -> EnumSet.noneOf(ProductPatchField.class))
+                        .addAll(patches.get(i).getValues().keySet());
+                applyQuantityPatch(patches.get(i));
+                if (affectsStockThreshold(patches.get(i))) {
+                    stockThresholdService.evaluate(productId);
+                }
+            } else if (inFlashSale.contains(productId) && patches.get(i).getValues().containsKey(ProductPatchField.QUANTITY)) {
+                results.set(patchPositions.get(i), new ProductPatchResultDto(productId, ProductPatchStatus.INVALID,
+                        flashSaleConflict(productId).getMessage()));
+                continue;
+            } else {
+                status = existing.contains(productId) ? ProductPatchStatus.VERSION_CONFLICT : ProductPatchStatus.NOT_FOUND;
+            }
+            results.set(patchPositions.get(i), new ProductPatchResultDto(productId, status, null));
+        }
+
+        changed.forEach((productId, fields) -> publishChange(productId, ProductChangeType.UPDATED, fields));
+        return new ProductBulkPatchResponseDto(patched, items.size() - patched, results);
+    }
+
     @Transactional
     public boolean deleteProduct(UUID id) {
-        if (!productRepository.existsByProductId(id)) {
+        ProductDeleteCounts result = deleteProducts(List.of(id), ProductDeleteMode.DELETE);
+        if (result.getNotFound() > 0) {
             throw new ResourceNotFoundException("Product not found with the id: " + id);
         }
-        productRepository.deleteByProductId(id);
+        if (result.getSkipped() > 0) {
+            throw flashSaleConflict(id);
+        }
         return true;
     }
 
+    /**
+     * Deletes or archives the given products with set-based statements after locking them: the
+     * ledger entries as one batch, then one statement each for the archive copy, the stripes
+     * and the products. Products in flash-sale mode are skipped; the stock they hold belongs
+     * to the in-memory engine until the sale ends.
+     */
+    @Transactional
+    public ProductDeleteCounts deleteProducts(Collection<UUID> productIds, ProductDeleteMode mode) {
+        // Lock order: plain rows first, as reservations take them, then each striped product's
+        // stripes before its row, as the rebalancer does. Both in ProductLockOrder.
+        Set<UUID> striped = productIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(productRepository.findStripedProductIdsIn(productIds));
+        Map<UUID, Boolean> locked = new HashMap<>(productRepository.lockForDelete(
+                productIds.stream().filter(productId -> !striped.contains(productId)).toList()));
+        if (!striped.isEmpty()) {
+            stockStripeService.lockStripes(striped);
+            locked.putAll(productRepository.lockForDelete(striped));
+        }
+        List<UUID> deletable = locked.entrySet().stream()
+                .filter(Map.Entry::getValue)
+                .map(Map.Entry::getKey)
+                .sorted(ProductLockOrder.COMPARATOR)
+                .toList();
+
+        int archived = 0;
+        int deleted = 0;
+        if (!deletable.isEmpty()) {
+            stockLedgerService.recordQuantitiesSet(deletable, 0, StockMovementReason.DELETED, null);
+            if (mode == ProductDeleteMode.ARCHIVE) {
+                archived = productRepository.archiveProducts(deletable, LocalDateTime.now());
+            }
+            stockStripeService.removeStripes(deletable);
+            deleted = productRepository.deleteProducts(deletable);
+            deletable.forEach(productId -> publishChange(productId, ProductChangeType.DELETED, Set.of()));
+        }
+
+        return ProductDeleteCounts.builder()
+                .matched(locked.size())
+                .deleted(deleted)
+                .archived(archived)
+                .skipped(locked.size() - deletable.size())
+                .notFound(new HashSet<>(productIds).size() - locked.size())
+                .build();
+    }
+
+    private static ProductSubmissionException flashSaleConflict(UUID id) {
+        return new ProductSubmissionException("Product with the id: " + id
+                + " is in flash-sale mode; its stock can not be set until the flash sale ends.");
+    }
+
+    private void publishChange(UUID productId, ProductChangeType changeType, Set<ProductPatchField> changedFields) {
+        eventPublisher.publishEvent(new ProductChangedEvent(productId, changeType, changedFields));
+    }
+
+    // Quantity is left to the caller: for striped products the stored total is not the live stock.
+    private static EnumSet<ProductPatchField> changedFields(Product existing, Product updated) {
+        EnumSet<ProductPatchField> fields = EnumSet.noneOf(ProductPatchField.class);
+        if (!Objects.equals(existing.getName(), updated.getName())) {
+            fields.add(ProductPatchField.NAME);
+        }
+        if (!Objects.equals(existing.getDescription(), updated.getDescription())) {
+            fields.add(ProductPatchField.DESCRIPTION);
+        }
+        if (!Objects.equals(existing.getPrice(), updated.getPrice())) {
+            fields.add(ProductPatchField.PRICE);
+        }
+        if (!Objects.equals(existing.getReorderThreshold(), updated.getReorderThreshold())) {
+            fields.add(ProductPatchField.REORDER_THRESHOLD);
+        }
+        return fields;
+    }
+
+    // The column UPDATE already set quantity; striped products also need their stripes reset.
+    private void applyQuantityPatch(ProductColumnPatch columnPatch) {
+        if (columnPatch.getValues().containsKey(ProductPatchField.QUANTITY)) {
+            int quantity = (Integer) columnPatch.getValues().get(ProductPatchField.QUANTITY);
+            stockStripeService.redistribute(columnPatch.getProductId(), quantity);
+            stockLedgerService.recordQuantitySet(columnPatch.getProductId(), quantity, StockMovementReason.ADJUSTED, null);
+        }
+    }
+
+    private static boolean affectsStockThreshold(ProductColumnPatch columnPatch) {
+        return columnPatch.getValues().containsKey(ProductPatchField.QUANTITY)
+                || columnPatch.getValues().containsKey(ProductPatchField.REORDER_THRESHOLD);
+    }
+
+    private static EnumMap<ProductPatchField, Object> readPatch(JsonNode patch) {
+        if (patch == null || !patch.isObject() || patch.isEmpty()) {
+            throw new ProductSubmissionException("Patch must be a non-empty JSON object.");
+        }
+
+        EnumMap<ProductPatchField, Object> values = new EnumMap<>(ProductPatchField.class);
+        Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> entry = fields.next();
+            ProductPatchField field = ProductPatchField.fromFieldName(entry.getKey()).orElseThrow(() ->
+                    new ProductSubmissionException("Field '" + entry.getKey() + "' can not be patched."));
+            values.put(field, readPatchValue(field, entry.getValue()));
+        }
+        return values;
+    }
+
+    private static Object readPatchValue(ProductPatchField field, JsonNode value) {
+        if (value.isNull()) {
+            if (field.isNullable()) {
+                return null;
+            }
+            throw new ProductSubmissionException("Product " + field.getFieldName() + " can not be blank.");
+        }
+
+        return switch (field) {
+            case NAME -> {
+                if (!value.isTextual() || value.asText().isBlank()) {
+                    throw new ProductSubmissionException("Product name can not be blank.");
+                }
+                yield value.asText();
+            }
+            case DESCRIPTION -> {
+                if (!value.isTextual()) {
+                    throw new ProductSubmissionException("Product description must be a string.");
+                }
+                yield value.asText();
+            }
+            case PRICE -> {
+                if (!value.isNumber()) {
+                    throw new ProductSubmissionException("Product price must be a number.");
+                }
+                yield value.doubleValue();
+            }
+            case QUANTITY -> {
+                if (!value.isIntegralNumber() || !value.canConvertToInt()) {
+                    throw new ProductSubmissionException("Product quantity must be an integer.");
+                }
+                yield value.intValue();
+            }
+            case REORDER_THRESHOLD -> {
+                if (!value.isIntegralNumber() || !value.canConvertToInt() || value.intValue() < 0) {
+                    throw new ProductSubmissionException("Reorder threshold must be a non-negative integer.");
+                }
+                yield value.intValue();
+            }
+        };
+    }
+
     private ProductResponseDto mapProductToRespondDto(Product product) {
         return ProductResponseDto.builder()
                 .productId(product.getProductId())
@@ -74,6 +472,9 @@ public class ProductService {
                 .description(product.getDescription())
                 .price(product.getPrice())
                 .quantity(product.getQuantity())
+                .reorderThreshold(product.getReorderThreshold())
+                .stockStripes(product.getStockStripes())
+                .version(product.getVersion())
                 .build();
     }
 
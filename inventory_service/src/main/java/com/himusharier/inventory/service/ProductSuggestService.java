@@ -0,0 +1,418 @@
+package com.himusharier.inventory.service;
+
+import com.himusharier.inventory.constants.ProductChangeType;
+import com.himusharier.inventory.constants.ProductPatchField;
+import com.himusharier.inventory.datasource.ReadRouting;
+import com.himusharier.inventory.dto.response.ProductSuggestionDto;
+import com.himusharier.inventory.event.ProductChangedEvent;
+import com.himusharier.inventory.exception.ProductSubmissionException;
+import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.repository.ProductRepository;
+import com.himusharier.inventory.repository.ProductStockView;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.KeywordTokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.search.suggest.InputIterator;
+import org.apache.lucene.search.suggest.Lookup;
+import org.apache.lucene.search.suggest.analyzing.AnalyzingSuggester;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Prefix autocomplete over product names. Suggestions come from an immutable finite-state
+ * transducer (Lucene {@link AnalyzingSuggester}) that keeps the top weighted completions
+ * reachable from every prefix; the weight is only whether the product is in stock, so in-stock
+ * products come first and ordinary sales do not change it. Created, deleted and renamed
+ * products mark the suggester dirty; stock changes are collected and checked in one query per
+ * run, and mark it dirty only when a product went in or out of stock. A background job builds
+ * a complete replacement and swaps it in with one volatile write; its memory budget is in the README.
+ */
+@Slf4j
+@Service
+public class ProductSuggestService implements MeterBinder {
+
+    public static final int MAX_LIMIT = 20;
+    // Besides the full name, each later word start is indexed too, so "keyb" finds "Mechanical Keyboard".
+    static final int MAX_WORD_ENTRIES_PER_NAME = 4;
+    private static final int REBUILD_CLEAR_INTERVAL = 500;
+    private static final int STOCK_CHECK_BATCH_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    // Products whose stock changed since the last run; only a change of in-stock status needs a rebuild.
+    private final Set<UUID> stockChanged = ConcurrentHashMap.newKeySet();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    @Autowired
+    public ProductSuggestService(ProductRepository productRepository,
+                                 EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public List<ProductSuggestionDto> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new ProductSubmissionException("Suggestion prefix can not be blank.");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ProductSubmissionException("Limit must be between 1 and " + MAX_LIMIT + ".");
+        }
+
+        Snapshot current = snapshot;
+        if (current.suggester == null) {
+            return List.of();
+        }
+
+        List<Lookup.LookupResult> results;
+        try {
+            // Several entries of one product can match the same prefix; over-fetch and keep the first of each.
+            results = current.suggester.lookup(prefix.strip(), false, limit * 2);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Map<Integer, ProductSuggestionDto> suggestions = new LinkedHashMap<>();
+        for (Lookup.LookupResult result : results) {
+            int ordinal = decodeOrdinal(result.payload);
+            suggestions.computeIfAbsent(ordinal, current::suggestion);
+            if (suggestions.size() == limit) {
+                break;
+            }
+        }
+        return List.copyOf(suggestions.values());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getChangeType() != ProductChangeType.UPDATED || event.getChangedFields().contains(ProductPatchField.NAME)) {
+            dirty.set(true);
+        } else if (event.getChangedFields().contains(ProductPatchField.QUANTITY)) {
+            stockChanged.add(event.getProductId());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.suggest.rebuild-interval:PT30S}",
+            initialDelayString = "${app.suggest.rebuild-interval:PT30S}")
+    public void rebuildIfDirty() {
+        if (!dirty.get() && !stockChanged.isEmpty() && inStockChanged()) {
+            dirty.set(true);
+        }
+        // Cleared before reading the catalog, so changes committed during the build trigger the next one.
+        if (dirty.getAndSet(false)) {
+            stockChanged.clear();
+            rebuild();
+        }
+    }
+
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        Snapshot built = ReadRouting.onPrimary(() -> readOnlyTransaction.execute(status -> buildSnapshot()));
+        snapshot = built;
+        log.info("Product suggester built with {} products ({} entries, {} KiB) in {} ms",
+                built.size(), built.entries, built.ramBytesUsed() / 1024,
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    public long ramBytesUsed() {
+        return snapshot.ramBytesUsed();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("product.suggest.products", this, service -> service.snapshot.size())
+                .description("Products in the current autocomplete suggester")
+                .register(registry);
+        Gauge.builder("product.suggest.memory", this, ProductSuggestService::ramBytesUsed)
+                .description("Heap used by the current autocomplete suggester")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private boolean inStockChanged() {
+        Snapshot current = snapshot;
+        List<UUID> batch = new ArrayList<>(STOCK_CHECK_BATCH_SIZE);
+        for (Iterator<UUID> it = stockChanged.iterator(); it.hasNext(); ) {
+            UUID productId = it.next();
+            it.remove();
+            batch.add(productId);
+            if (batch.size() == STOCK_CHECK_BATCH_SIZE || !it.hasNext()) {
+                List<UUID> productIds = List.copyOf(batch);
+                batch.clear();
+                // From the primary: a lagging replica would hide the flip until the product's next change.
+                for (ProductStockView stock : ReadRouting.onPrimary(() -> productRepository.findStockByProductIdIn(productIds))) {
+                    int ordinal = current.ordinal(stock.getProductId());
+                    if (ordinal >= 0 && current.inStock(ordinal) != (stock.getQuantity() > 0)) {
+                        // The rest is covered by the rebuild.
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private Snapshot buildSnapshot() {
+        List<UUID> productIds = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<SuggestEntry> entries = new ArrayList<>();
+        long read = 0;
+
+        try (Stream<Product> products = productRepository.streamAll()) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                String name = product.getName() != null ? product.getName().strip() : "";
+                if (!name.isEmpty()) {
+                    int ordinal = names.size();
+                    productIds.add(product.getProductId());
+                    names.add(name);
+                    addEntries(entries, name, product.getQuantity() > 0 ? 1 : 0, ordinal);
+                }
+                if (++read % REBUILD_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return Snapshot.build(productIds, names, entries);
+    }
+
+    private static void addEntries(List<SuggestEntry> entries, String name, int weight, int ordinal) {
+        entries.add(new SuggestEntry(name, weight, ordinal));
+        int wordEntries = 0;
+        for (int i = 1; i < name.length() && wordEntries < MAX_WORD_ENTRIES_PER_NAME; i++) {
+            if (Character.isWhitespace(name.charAt(i - 1)) && !Character.isWhitespace(name.charAt(i))) {
+                entries.add(new SuggestEntry(name.substring(i), weight, ordinal));
+                wordEntries++;
+            }
+        }
+    }
+
+    private static BytesRef encodeOrdinal(int ordinal) {
+        return new BytesRef(new byte[]{(byte) (ordinal >>> 24), (byte) (ordinal >>> 16), (byte) (ordinal >>> 8), (byte) ordinal});
+    }
+
+    private static int decodeOrdinal(BytesRef payload) {
+        byte[] bytes = payload.bytes;
+        int offset = payload.offset;
+        return (bytes[offset] & 0xFF) << 24
+                | (bytes[offset + 1] & 0xFF) << 16
+                | (bytes[offset + 2] & 0xFF) << 8
+                | (bytes[offset + 3] & 0xFF);
+    }
+
+    // Lower-cased, accent-folded whole string: matching is a plain prefix of the name (or of a later word).
+    private static Analyzer prefixAnalyzer() {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                Tokenizer tokenizer = new KeywordTokenizer();
+                return new TokenStreamComponents(tokenizer, new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer)));
+            }
+        };
+    }
+
+    private static final class SuggestEntry {
+        private final String text;
+        private final int weight;
+        private final int ordinal;
+
+        private SuggestEntry(String text, int weight, int ordinal) {
+            this.text = text;
+            this.weight = weight;
+            this.ordinal = ordinal;
+        }
+    }
+
+    /**
+     * One immutable generation of the suggester. Product ids are kept as two primitive arrays
+     * and referenced from the FST by a 4-byte ordinal payload; {@code byId} lists the ordinals
+     * in product id order, for looking a product up when its stock changes.
+     */
+    private static final class Snapshot {
+
+        private static final Snapshot EMPTY = new Snapshot(null, new long[0], new long[0], new int[0], new BitSet(),
+                new String[0], 0);
+
+        private final AnalyzingSuggester suggester;
+        private final long[] idHigh;
+        private final long[] idLow;
+        private final int[] byId;
+        private final BitSet inStock;
+        private final String[] names;
+        private final long entries;
+
+        private Snapshot(AnalyzingSuggester suggester, long[] idHigh, long[] idLow, int[] byId, BitSet inStock,
+                         String[] names, long entries) {
+            this.suggester = suggester;
+            this.idHigh = idHigh;
+            this.idLow = idLow;
+            this.byId = byId;
+            this.inStock = inStock;
+            this.names = names;
+            this.entries = entries;
+        }
+
+        private static Snapshot build(List<UUID> productIds, List<String> names, List<SuggestEntry> entries) {
+            if (entries.isEmpty()) {
+                return EMPTY;
+            }
+
+            long[] idHigh = new long[productIds.size()];
+            long[] idLow = new long[productIds.size()];
+            for (int i = 0; i < productIds.size(); i++) {
+                idHigh[i] = productIds.get(i).getMostSignificantBits();
+                idLow[i] = productIds.get(i).getLeastSignificantBits();
+            }
+            int[] byId = IntStream.range(0, productIds.size()).boxed()
+                    .sorted(Comparator.comparing(productIds::get))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            BitSet inStock = new BitSet(productIds.size());
+            for (SuggestEntry entry : entries) {
+                if (entry.weight > 0) {
+                    inStock.set(entry.ordinal);
+                }
+            }
+
+            Analyzer analyzer = prefixAnalyzer();
+            AnalyzingSuggester suggester = new AnalyzingSuggester(new ByteBuffersDirectory(), "suggest",
+                    analyzer, analyzer, AnalyzingSuggester.EXACT_FIRST | AnalyzingSuggester.PRESERVE_SEP,
+                    256, -1, true);
+            try {
+                suggester.build(new EntryIterator(entries.iterator()));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not build the product suggester", e);
+            }
+            return new Snapshot(suggester, idHigh, idLow, byId, inStock, names.toArray(String[]::new), entries.size());
+        }
+
+        private int size() {
+            return names.length;
+        }
+
+        // -1 when the product is not in this generation.
+        private int ordinal(UUID productId) {
+            int low = 0;
+            int high = byId.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int ordinal = byId[middle];
+                int comparison = new UUID(idHigh[ordinal], idLow[ordinal]).compareTo(productId);
+                if (comparison == 0) {
+                    return ordinal;
+                }
+                if (comparison < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return -1;
+        }
+
+        private boolean inStock(int ordinal) {
+            return inStock.get(ordinal);
+        }
+
+        private ProductSuggestionDto suggestion(int ordinal) {
+            return new ProductSuggestionDto(new UUID(idHigh[ordinal], idLow[ordinal]), names[ordinal]);
+        }
+
+        private long ramBytesUsed() {
+            return (suggester != null ? suggester.ramBytesUsed() : 0)
+                    + RamUsageEstimator.sizeOf(idHigh)
+                    + RamUsageEstimator.sizeOf(idLow)
+                    + RamUsageEstimator.sizeOf(byId)
+                    + inStock.size() / Byte.SIZE
+                    + RamUsageEstimator.sizeOf(names);
+        }
+    }
+
+    private static final class EntryIterator implements InputIterator {
+
+        private final Iterator<SuggestEntry> entries;
+        private SuggestEntry current;
+
+        private EntryIterator(Iterator<SuggestEntry> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public BytesRef next() {
+            if (!entries.hasNext()) {
+                return null;
+            }
+            current = entries.next();
+            return new BytesRef(current.text);
+        }
+
+        @Override
+        public long weight() {
+            return current.weight;
+        }
+
+        @Override
+        public BytesRef payload() {
+            return encodeOrdinal(current.ordinal);
+        }
+
+        @Override
+        public boolean hasPayloads() {
+            return true;
+        }
+
+        @Override
+        public Set<BytesRef> contexts() {
+            return null;
+        }
+
+        @Override
+        public boolean hasContexts() {
+            return false;
+        }
+    }
+}
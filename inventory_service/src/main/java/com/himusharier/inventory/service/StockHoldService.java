@@ -0,0 +1,330 @@
+package com.himusharier.inventory.service;
+
+import com.himusharier.inventory.constants.StockHoldStatus;
+import com.himusharier.inventory.dto.request.StockReservationLineDto;
+import com.himusharier.inventory.dto.response.HeldStockDto;
+import com.himusharier.inventory.dto.response.StockHoldLineDto;
+import com.himusharier.inventory.dto.response.StockHoldResponseDto;
+import com.himusharier.inventory.exception.ProductSubmissionException;
+import com.himusharier.inventory.exception.ResourceNotFoundException;
+import com.himusharier.inventory.model.StockHold;
+import com.himusharier.inventory.model.StockHoldLine;
+import com.himusharier.inventory.repository.HeldStockView;
+import com.himusharier.inventory.repository.StockHoldExpiryView;
+import com.himusharier.inventory.repository.StockHoldRepository;
+import com.himusharier.inventory.util.HierarchicalTimingWheel;
+import com.himusharier.inventory.util.ProductLockOrder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.SortedMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+/**
+ * Time-limited stock holds for checkouts awaiting payment. Creating a hold reserves its lines
+ * like {@code POST /products/stock/reservations} (all or nothing) and records the hold; confirm
+ * deletes it and keeps the stock sold, cancel and expiry put the stock back.
+ *
+ * <p>Expiry is driven by an in-memory {@link HierarchicalTimingWheel} keyed by hold id: O(1) per
+ * hold to schedule, cancel and expire, with no table scans. The wheel is rebuilt from
+ * em_stock_holds at startup. Holds created on another node are only in that node's wheel, so
+ * an infrequent sweep picks up holds that expired without any wheel noticing (a node went
+ * down); it reads an index range on {@code expiresAt}, never the whole table.
+ */
+@Slf4j
+@Service
+public class StockHoldService {
+
+    private static final int SWEEP_BATCH_SIZE = 1000;
+    // A release that failed (e.g. the database was unavailable) is retried this much later.
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+
+    // Flash-sale units of a released hold, still to be handed back.
+    private record FlashSaleReturn(UUID holdId, UUID productId, int quantity, String reference, long retryAt) {
+    }
+
+    private final StockHoldRepository stockHoldRepository;
+    private final StockService stockService;
+    private final FlashSaleService flashSaleService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate newTransactionTemplate;
+    private final HierarchicalTimingWheel<UUID> expiryWheel;
+    // Returns the engine refused (overloaded, failed); retried by expireHolds.
+    private final Queue<FlashSaleReturn> pendingReturns = new ConcurrentLinkedQueue<>();
+
+    @Value("${app.stock.holds.default-ttl:PT15M}")
+    private Duration defaultTtl = Duration.ofMinutes(15);
+
+    @Value("${app.stock.holds.max-ttl:PT24H}")
+    private Duration maxTtl = Duration.ofHours(24);
+
+    @Autowired
+    public StockHoldService(StockHoldRepository stockHoldRepository,
+                            StockService stockService,
+                            FlashSaleService flashSaleService,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.stock.holds.tick:PT1S}") Duration tick) {
+        this.stockHoldRepository = stockHoldRepository;
+        this.stockService = stockService;
+        this.flashSaleService = flashSaleService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.expiryWheel = new HierarchicalTimingWheel<>(tick.toMillis(), System.currentTimeMillis());
+    }
+
+    /**
+     * @param ttl {@code null} for app.stock.holds.default-ttl
+     * @throws com.himusharier.inventory.exception.StockReservationException when any line can not be held
+     */
+    @Transactional
+    public StockHoldResponseDto createHold(List<StockReservationLineDto> lines, String reference, Duration ttl) {
+        Duration holdTtl = ttl != null ? ttl : defaultTtl;
+        if (holdTtl.compareTo(maxTtl) > 0) {
+            throw new ProductSubmissionException("Hold TTL can not be longer than " + maxTtl.toSeconds() + " seconds.");
+        }
+        flashSaleService.rejectActive(lines.stream().map(StockReservationLineDto::getProductId).toList());
+
+        stockService.reserveStock(lines, reference);
+
+        SortedMap<UUID, Integer> quantities = ProductLockOrder.newMap();
+        lines.forEach(line -> quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum));
+        LocalDateTime now = LocalDateTime.now();
+        StockHold hold = StockHold.builder()
+                .reference(reference)
+                .expiresAt(now.plus(holdTtl))
+                .createdAt(now)
+                .build();
+        quantities.forEach((productId, quantity) -> hold.getLines().add(new StockHoldLine(productId, quantity)));
+        StockHold savedHold = stockHoldRepository.save(hold);
+
+        // Only once committed: an expiry firing earlier would not find the hold and drop it.
+        afterCommit(() -> schedule(savedHold.getHoldId(), savedHold.getExpiresAt()));
+        return mapHoldToResponseDto(savedHold, StockHoldStatus.HELD);
+    }
+
+    @Transactional(readOnly = true)
+    public StockHoldResponseDto getHold(UUID holdId) {
+        return stockHoldRepository.findWithLinesByHoldId(holdId)
+                .map(hold -> mapHoldToResponseDto(hold, StockHoldStatus.HELD))
+                .orElseThrow(() -> holdNotFound(holdId));
+    }
+
+    // Payment arrived: the held stock stays sold.
+    @Transactional
+    public StockHoldResponseDto confirmHold(UUID holdId) {
+        StockHold hold = stockHoldRepository.lockByHoldId(holdId).orElseThrow(() -> holdNotFound(holdId));
+        StockHoldResponseDto response = mapHoldToResponseDto(hold, StockHoldStatus.CONFIRMED);
+        stockHoldRepository.delete(hold);
+        afterCommit(() -> expiryWheel.cancel(holdId));
+        return response;
+    }
+
+    @Transactional
+    public StockHoldResponseDto cancelHold(UUID holdId) {
+        StockHold hold = stockHoldRepository.lockByHoldId(holdId).orElseThrow(() -> holdNotFound(holdId));
+        StockHoldResponseDto response = release(hold);
+        afterCommit(() -> expiryWheel.cancel(holdId));
+        return response;
+    }
+
+    @Transactional(readOnly = true)
+    public HeldStockDto getHeldStock(UUID productId) {
+        HeldStockView held = stockHoldRepository.findHeldStock(productId);
+        return HeldStockDto.builder()
+                .productId(productId)
+                .holds(held.getHolds())
+                .heldQuantity(held.getHeldQuantity())
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock.holds.tick:PT1S}")
+    public void expireHolds() {
+        expireAll(expiryWheel.advance(System.currentTimeMillis()));
+        retryFlashSaleReturns();
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock.holds.sweep-interval:PT5M}")
+    public void sweepExpiredHolds() {
+        List<UUID> expired;
+        int released;
+        do {
+            expired = stockHoldRepository.findExpiredHoldIds(LocalDateTime.now(), Limit.of(SWEEP_BATCH_SIZE));
+            released = expireAll(expired);
+        } while (expired.size() == SWEEP_BATCH_SIZE && released > 0);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildExpiryWheel() {
+        Integer scheduled = transactionTemplate.execute(status -> {
+            int count = 0;
+            try (Stream<StockHoldExpiryView> holds = stockHoldRepository.streamExpiries()) {
+                Iterator<StockHoldExpiryView> iterator = holds.iterator();
+                while (iterator.hasNext()) {
+                    StockHoldExpiryView hold = iterator.next();
+                    schedule(hold.getHoldId(), hold.getExpiresAt());
+                    count++;
+                }
+            }
+            return count;
+        });
+        log.info("Stock hold expiry wheel rebuilt with {} outstanding hold(s)", scheduled);
+    }
+
+    /**
+     * Releases the hold if it is still there and due; confirm and cancel hold the same row lock,
+     * so whichever comes first wins.
+     *
+     * @return false when the hold was gone or not due yet
+     */
+    boolean expireHold(UUID holdId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            StockHold hold = stockHoldRepository.lockByHoldId(holdId).orElse(null);
+            if (hold == null) {
+                return false;
+            }
+            if (hold.getExpiresAt().isAfter(LocalDateTime.now())) {
+                // Fired early (another node's clock, or a rebuilt wheel): wait for the real expiry.
+                afterCommit(() -> schedule(holdId, hold.getExpiresAt()));
+                return false;
+            }
+            release(hold);
+            return true;
+        }));
+    }
+
+    int scheduledHolds() {
+        return expiryWheel.size();
+    }
+
+    int pendingFlashSaleReturns() {
+        return pendingReturns.size();
+    }
+
+    private int expireAll(List<UUID> holdIds) {
+        int released = 0;
+        for (UUID holdId : holdIds) {
+            try {
+                if (expireHold(holdId)) {
+                    released++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Releasing expired stock hold {} failed, retrying in {}", holdId, RETRY_DELAY, e);
+                expiryWheel.schedule(holdId, System.currentTimeMillis() + RETRY_DELAY.toMillis());
+            }
+        }
+        return released;
+    }
+
+    // Lines in ascending product id order, like every other multi-row stock write.
+    private StockHoldResponseDto release(StockHold hold) {
+        StockHoldResponseDto response = mapHoldToResponseDto(hold, StockHoldStatus.RELEASED);
+        List<StockHoldLine> lines = new ArrayList<>(hold.getLines());
+        lines.sort(Comparator.comparing(StockHoldLine::getProductId, ProductLockOrder.COMPARATOR));
+        stockHoldRepository.delete(hold);
+        for (StockHoldLine line : lines) {
+            if (flashSaleService.isActive(line.getProductId())) {
+                // The engine owns the stock now; hand it back only once the hold is really gone.
+                FlashSaleReturn held = new FlashSaleReturn(hold.getHoldId(), line.getProductId(), line.getQuantity(),
+                        hold.getReference(), 0);
+                afterCommit(() -> returnFlashSaleStock(held));
+            } else if (!stockService.releaseStock(line.getProductId(), line.getQuantity(), hold.getReference())) {
+                logDropped(line.getProductId(), hold.getHoldId());
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Hands a released hold's units back to the flash sale, or to the product row when the sale
+     * ended since the release. The release has committed by now, so a refusal must not fail it:
+     * the units are queued and retried after {@link #RETRY_DELAY} instead of being dropped.
+     */
+    private void returnFlashSaleStock(FlashSaleReturn held) {
+        try {
+            if (!flashSaleService.returnStock(held.productId(), held.quantity(), held.reference())) {
+                // Runs after commit: the finished transaction's resources are still bound, so it needs a new one.
+                Boolean released = newTransactionTemplate.execute(status ->
+                        stockService.releaseStock(held.productId(), held.quantity(), held.reference()));
+                if (!Boolean.TRUE.equals(released)) {
+                    logDropped(held.productId(), held.holdId());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Returning {} unit(s) of product {} from stock hold {} failed, retrying in {}",
+                    held.quantity(), held.productId(), held.holdId(), RETRY_DELAY, e);
+            pendingReturns.add(new FlashSaleReturn(held.holdId(), held.productId(), held.quantity(), held.reference(),
+                    System.currentTimeMillis() + RETRY_DELAY.toMillis()));
+        }
+    }
+
+    private void retryFlashSaleReturns() {
+        long now = System.currentTimeMillis();
+        for (int i = pendingReturns.size(); i > 0; i--) {
+            FlashSaleReturn held = pendingReturns.poll();
+            if (held == null) {
+                return;
+            }
+            if (held.retryAt() > now) {
+                pendingReturns.add(held);
+            } else {
+                returnFlashSaleStock(held);
+            }
+        }
+    }
+
+    private static void logDropped(UUID productId, UUID holdId) {
+        log.info("Product {} of stock hold {} no longer exists, its held stock is dropped", productId, holdId);
+    }
+
+    private void schedule(UUID holdId, LocalDateTime expiresAt) {
+        expiryWheel.schedule(holdId, expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static ResourceNotFoundException holdNotFound(UUID holdId) {
+        return new ResourceNotFoundException("Stock hold not found (confirmed, released or expired) with the id: " + holdId);
+    }
+
+    private static StockHoldResponseDto mapHoldToResponseDto(StockHold hold, StockHoldStatus status) {
+        return StockHoldResponseDto.builder()
+                .holdId(hold.getHoldId())
+                .status(status)
+                .reference(hold.getReference())
+                .expiresAt(hold.getExpiresAt())
+                .lines(hold.getLines().stream()
+                        .map(line -> new StockHoldLineDto(line.getProductId(), line.getQuantity()))
+                        .toList())
+                .build();
+    }
+}
@@ -0,0 +1,209 @@
+package com.himusharier.inventory.service;
+
+import com.himusharier.inventory.constants.StockMovementReason;
+import com.himusharier.inventory.dto.response.StockLevelResponseDto;
+import com.himusharier.inventory.dto.response.StockMovementDto;
+import com.himusharier.inventory.dto.response.StockReconciliationDto;
+import com.himusharier.inventory.exception.ProductSubmissionException;
+import com.himusharier.inventory.exception.ResourceNotFoundException;
+import com.himusharier.inventory.model.StockMovement;
+import com.himusharier.inventory.model.StockSnapshot;
+import com.himusharier.inventory.repository.ProductRepository;
+import com.himusharier.inventory.repository.ProductStockView;
+import com.himusharier.inventory.repository.StockDeltaView;
+import com.himusharier.inventory.repository.StockMovementRepository;
+import com.himusharier.inventory.repository.StockSnapshotRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Append-only record of every stock change. Writers add a movement in the same transaction as
+ * the change itself; readers answer "stock at time T" from the latest snapshot at or before T
+ * (see {@link StockSnapshotService}) plus the movements after it, so no query ever sums a
+ * product's full history.
+ */
+@Service
+public class StockLedgerService {
+
+    public static final int MAX_MOVEMENTS = 1000;
+
+    // Lower bound for "no snapshot yet"; every movement is after it.
+    static final LocalDateTime LEDGER_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final StockMovementRepository stockMovementRepository;
+    private final StockSnapshotRepository stockSnapshotRepository;
+    private final ProductRepository productRepository;
+
+    @Autowired
+    public StockLedgerService(StockMovementRepository stockMovementRepository,
+                              StockSnapshotRepository stockSnapshotRepository,
+                              ProductRepository productRepository) {
+        this.stockMovementRepository = stockMovementRepository;
+        this.stockSnapshotRepository = stockSnapshotRepository;
+        this.productRepository = productRepository;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(UUID productId, int delta, StockMovementReason reason, String reference) {
+        if (delta != 0) {
+            stockMovementRepository.save(movement(productId, delta, reason, reference, LocalDateTime.now()));
+        }
+    }
+
+    // One JDBC batch for all products (Hibernate insert batching).
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(Map<UUID, Integer> deltas, StockMovementReason reason, String reference) {
+        LocalDateTime now = LocalDateTime.now();
+        List<StockMovement> movements = new ArrayList<>(deltas.size());
+        deltas.forEach((productId, delta) -> {
+            if (delta != 0) {
+                movements.add(movement(productId, delta, reason, reference, now));
+            }
+        });
+        stockMovementRepository.saveAll(movements);
+    }
+
+    // recordAll with a reference per movement: the deltas per product, then per reference.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAllReferenced(Map<UUID, Map<String, Integer>> deltas, StockMovementReason reason) {
+        LocalDateTime now = LocalDateTime.now();
+        List<StockMovement> movements = new ArrayList<>();
+        deltas.forEach((productId, byReference) -> byReference.forEach((reference, delta) -> {
+            if (delta != 0) {
+                movements.add(movement(productId, delta, reason, reference, now));
+            }
+        }));
+        stockMovementRepository.saveAll(movements);
+    }
+
+    /**
+     * For writes that set an absolute quantity without reading the old one (merge patch, delete).
+     * The caller's UPDATE/DELETE already holds the product row lock, so every earlier movement
+     * of the product has committed and the ledger balance is exactly the quantity it replaced.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordQuantitySet(UUID productId, int quantity, StockMovementReason reason, String reference) {
+        record(productId, Math.toIntExact(quantity - currentQuantity(productId)), reason, reference);
+    }
+
+    /**
+     * {@link #recordQuantitySet} for many products: the ledger balances come from one snapshot
+     * query and one movement sum, and the movements are written as one batch.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordQuantitiesSet(Collection<UUID> productIds, int quantity, StockMovementReason reason,
+                                    String reference) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        Map<UUID, Long> balances = new HashMap<>();
+        for (StockSnapshot snapshot : stockSnapshotRepository.findLatestByProductIdIn(productIds, LocalDateTime.now())) {
+            balances.put(snapshot.getProductId(), snapshot.getQuantity());
+        }
+        for (StockDeltaView tail : stockMovementRepository.sumDeltasAfterLatestSnapshot(productIds, LEDGER_START)) {
+            balances.merge(tail.getProductId(), tail.getDelta(), Long::sum);
+        }
+        Map<UUID, Integer> deltas = new LinkedHashMap<>();
+        for (UUID productId : productIds) {
+            deltas.put(productId, Math.toIntExact(quantity - balances.getOrDefault(productId, 0L)));
+        }
+        recordAll(deltas, reason, reference);
+    }
+
+    @Transactional(readOnly = true)
+    public StockLevelResponseDto getStockLevel(UUID productId, LocalDateTime asOf) {
+        Optional<StockSnapshot> snapshot = stockSnapshotRepository
+                .findFirstByProductIdAndCoveredUntilLessThanEqualOrderByCoveredUntilDesc(productId, asOf);
+        LocalDateTime after = snapshot.map(StockSnapshot::getCoveredUntil).orElse(LEDGER_START);
+        StockDeltaView tail = stockMovementRepository.sumDeltas(productId, after, asOf);
+
+        if (snapshot.isEmpty() && tail == null && !productRepository.existsByProductId(productId)) {
+            throw new ResourceNotFoundException("Product not found with the id: " + productId);
+        }
+
+        return StockLevelResponseDto.builder()
+                .productId(productId)
+                .asOf(asOf)
+                .quantity(snapshot.map(StockSnapshot::getQuantity).orElse(0L) + (tail != null ? tail.getDelta() : 0))
+                .snapshotCoveredUntil(snapshot.map(StockSnapshot::getCoveredUntil).orElse(null))
+                .movementsAfterSnapshot(tail != null ? tail.getMovements() : 0)
+                .build();
+    }
+
+    // Movements with from < occurredAt <= to, oldest first.
+    @Transactional(readOnly = true)
+    public List<StockMovementDto> getMovements(UUID productId, LocalDateTime from, LocalDateTime to, int limit) {
+        if (limit < 1 || limit > MAX_MOVEMENTS) {
+            throw new ProductSubmissionException("Limit must be between 1 and " + MAX_MOVEMENTS + ".");
+        }
+        return stockMovementRepository.findMovements(productId,
+                        from != null ? from : LEDGER_START,
+                        to != null ? to : LocalDateTime.now(),
+                        Limit.of(limit)).stream()
+                .map(StockLedgerService::mapMovementToDto)
+                .toList();
+    }
+
+    /**
+     * Compares the product's quantity column with the ledger. Costs two index lookups and a sum
+     * over the movements since the product's latest snapshot.
+     */
+    @Transactional(readOnly = true)
+    public StockReconciliationDto reconcile(UUID productId) {
+        ProductStockView product = productRepository.findStockByProductIdIn(List.of(productId)).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with the id: " + productId));
+        long ledgerQuantity = currentQuantity(productId);
+        long difference = product.getQuantity() - ledgerQuantity;
+
+        return StockReconciliationDto.builder()
+                .productId(productId)
+                .productQuantity(product.getQuantity())
+                .ledgerQuantity(ledgerQuantity)
+                .difference(difference)
+                .consistent(difference == 0)
+                .build();
+    }
+
+    private long currentQuantity(UUID productId) {
+        Optional<StockSnapshot> snapshot = stockSnapshotRepository.findFirstByProductIdOrderByCoveredUntilDesc(productId);
+        StockDeltaView tail = stockMovementRepository.sumDeltasAfter(productId,
+                snapshot.map(StockSnapshot::getCoveredUntil).orElse(LEDGER_START));
+        return snapshot.map(StockSnapshot::getQuantity).orElse(0L) + (tail != null ? tail.getDelta() : 0);
+    }
+
+    static StockMovement movement(UUID productId, int delta, StockMovementReason reason, String reference,
+                                  LocalDateTime occurredAt) {
+        return StockMovement.builder()
+                .productId(productId)
+                .delta(delta)
+                .reason(reason)
+                .reference(reference)
+                .occurredAt(occurredAt)
+                .build();
+    }
+
+    private static StockMovementDto mapMovementToDto(StockMovement movement) {
+        return StockMovementDto.builder()
+                .movementId(movement.getMovementId())
+                .productId(movement.getProductId())
+                .delta(movement.getDelta())
+                .reason(movement.getReason())
+                .reference(movement.getReference())
+                .occurredAt(movement.getOccurredAt())
+                .build();
+    }
+}
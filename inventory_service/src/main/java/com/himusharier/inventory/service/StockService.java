@@ -0,0 +1,235 @@
+package com.himusharier.inventory.service;
+
+import com.himusharier.inventory.constants.ProductChangeType;
+import com.himusharier.inventory.constants.ProductPatchField;
+import com.himusharier.inventory.constants.StockMovementReason;
+import com.himusharier.inventory.constants.StockReservationStatus;
+import com.himusharier.inventory.dto.request.StockReservationLineDto;
+import com.himusharier.inventory.dto.response.StockAdjustmentResponseDto;
+import com.himusharier.inventory.dto.response.StockReservationLineResultDto;
+import com.himusharier.inventory.dto.response.StockReservationResponseDto;
+import com.himusharier.inventory.event.ProductChangedEvent;
+import com.himusharier.inventory.exception.InsufficientStockException;
+import com.himusharier.inventory.exception.ProductSubmissionException;
+import com.himusharier.inventory.exception.ResourceNotFoundException;
+import com.himusharier.inventory.exception.StockReservationException;
+import com.himusharier.inventory.repository.ProductRepository;
+import com.himusharier.inventory.repository.ProductStockView;
+import com.himusharier.inventory.util.ProductLockOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.UUID;
+
+@Service
+public class StockService {
+
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockThresholdService stockThresholdService;
+    private final StockLedgerService stockLedgerService;
+    private final StockStripeService stockStripeService;
+
+    @Autowired
+    public StockService(ProductRepository productRepository,
+                        ApplicationEventPublisher eventPublisher,
+                        StockThresholdService stockThresholdService,
+                        StockLedgerService stockLedgerService,
+                        StockStripeService stockStripeService) {
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.stockThresholdService = stockThresholdService;
+        this.stockLedgerService = stockLedgerService;
+        this.stockStripeService = stockStripeService;
+    }
+
+    @Transactional
+    public StockAdjustmentResponseDto decrementStock(UUID id, int quantity) {
+        return decrementStock(id, quantity, null);
+    }
+
+    // reference: optional caller id for the ledger entry (order number, ticket, ...).
+    @Transactional
+    public StockAdjustmentResponseDto decrementStock(UUID id, int quantity, String reference) {
+        int updated = productRepository.decrementQuantity(id, quantity, LocalDateTime.now());
+        // Only the failure path pays for the extra lookup: missing, striped, or out of stock.
+        if (updated == 0 && !decrementStriped(id, quantity)) {
+            if (productRepository.existsByProductIdAndFlashSaleSeqIsNotNull(id)) {
+                throw flashSaleConflict(id);
+            }
+            throw new InsufficientStockException("Insufficient stock for the product with the id: " + id);
+        }
+        stockLedgerService.record(id, -quantity, StockMovementReason.DECREMENTED, reference);
+        stockThresholdService.evaluate(id);
+        eventPublisher.publishEvent(new ProductChangedEvent(id, ProductChangeType.UPDATED, Set.of(ProductPatchField.QUANTITY)));
+        return buildResponse(id, -quantity);
+    }
+
+    @Transactional
+    public StockAdjustmentResponseDto incrementStock(UUID id, int quantity) {
+        return incrementStock(id, quantity, null);
+    }
+
+    @Transactional
+    public StockAdjustmentResponseDto incrementStock(UUID id, int quantity, String reference) {
+        if (!increment(id, quantity, StockMovementReason.INCREMENTED, reference)) {
+            throw new ResourceNotFoundException("Product not found with the id: " + id);
+        }
+        return buildResponse(id, quantity);
+    }
+
+    /**
+     * Puts the stock of a cancelled or expired hold back.
+     *
+     * @return false when the product no longer exists (nothing to give the stock back to)
+     */
+    @Transactional
+    public boolean releaseStock(UUID id, int quantity, String reference) {
+        return increment(id, quantity, StockMovementReason.RELEASED, reference);
+    }
+
+    /**
+     * Reserves every line or none. Lines for the same product are merged, all decrements are
+     * sent as one JDBC batch in {@link ProductLockOrder} (the global lock order, so two
+     * overlapping carts can not deadlock) and any failed line rolls the whole transaction back.
+     */
+    @Transactional
+    public StockReservationResponseDto reserveStock(List<StockReservationLineDto> lines) {
+        return reserveStock(lines, null);
+    }
+
+    @Transactional
+    public StockReservationResponseDto reserveStock(List<StockReservationLineDto> lines, String reference) {
+        SortedMap<UUID, Integer> quantities = ProductLockOrder.newMap();
+        for (StockReservationLineDto line : lines) {
+            quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+
+        int[] updateCounts = productRepository.batchDecrementQuantities(quantities, LocalDateTime.now());
+
+        // Striped products are skipped by the batch and decremented through their stripes
+        // afterwards, still in ascending id order.
+        List<UUID> failedIds = new ArrayList<>();
+        int index = 0;
+        for (Map.Entry<UUID, Integer> entry : quantities.entrySet()) {
+            if (updateCounts[index++] == 0) {
+                int stripes = productRepository.findStockStripesByProductId(entry.getKey()).orElse(0);
+                if (stripes == 0 || !stockStripeService.decrement(entry.getKey(), stripes, entry.getValue())) {
+                    failedIds.add(entry.getKey());
+                }
+            }
+        }
+
+        if (failedIds.isEmpty()) {
+            Map<UUID, Integer> deltas = new LinkedHashMap<>();
+            quantities.forEach((productId, quantity) -> deltas.put(productId, -quantity));
+            stockLedgerService.recordAll(deltas, StockMovementReason.RESERVED, reference);
+            quantities.keySet().forEach(productId -> {
+                stockThresholdService.evaluate(productId);
+                eventPublisher.publishEvent(new ProductChangedEvent(productId, ProductChangeType.UPDATED, Set.of(ProductPatchField.QUANTITY)));
+            });
+            return new StockReservationResponseDto(true, buildLineResults(lines, Map.of()));
+        }
+
+        // Failed rows were not touched by the batch, so their current stock is what blocked them.
+        Map<UUID, Integer> availableStock = new HashMap<>();
+        for (ProductStockView stock : productRepository.findStockByProductIdIn(failedIds)) {
+            availableStock.put(stock.getProductId(), stock.getQuantity());
+        }
+        Map<UUID, Integer> failures = new HashMap<>();
+        failedIds.forEach(productId -> failures.put(productId, availableStock.get(productId)));
+
+        throw new StockReservationException(
+                "Stock reservation failed for " + failedIds.size() + " product(s), nothing was reserved.",
+                new StockReservationResponseDto(false, buildLineResults(lines, failures))
+        );
+    }
+
+    private boolean increment(UUID id, int quantity, StockMovementReason reason, String reference) {
+        int updated = productRepository.incrementQuantity(id, quantity, LocalDateTime.now());
+        if (updated == 0) {
+            int stripes = productRepository.findStockStripesByProductId(id).orElse(-1);
+            // Striping switched off in between: the plain update applies now.
+            if ((stripes <= 0 || !stockStripeService.increment(id, stripes, quantity))
+                    && (stripes < 0 || productRepository.incrementQuantity(id, quantity, LocalDateTime.now()) == 0)) {
+                if (stripes >= 0 && productRepository.existsByProductIdAndFlashSaleSeqIsNotNull(id)) {
+                    throw flashSaleConflict(id);
+                }
+                return false;
+            }
+        }
+        stockLedgerService.record(id, quantity, reason, reference);
+        stockThresholdService.evaluate(id);
+        eventPublisher.publishEvent(new ProductChangedEvent(id, ProductChangeType.UPDATED, Set.of(ProductPatchField.QUANTITY)));
+        return true;
+    }
+
+    /**
+     * Decrement fallback once the plain conditional UPDATE matched nothing.
+     *
+     * @return false when there is not enough stock
+     * @throws ResourceNotFoundException when the product does not exist
+     */
+    private boolean decrementStriped(UUID id, int quantity) {
+        int stripes = findStockStripes(id);
+        if (stripes > 0 && stockStripeService.decrement(id, stripes, quantity)) {
+            return true;
+        }
+        // Striping was switched off in between (it locks the stripes, so this is rare): retry once plainly.
+        return stripes > 0
+                && findStockStripes(id) == 0
+                && productRepository.decrementQuantity(id, quantity, LocalDateTime.now()) == 1;
+    }
+
+    private int findStockStripes(UUID id) {
+        return productRepository.findStockStripesByProductId(id).orElseThrow(() ->
+                new ResourceNotFoundException("Product not found with the id: " + id));
+    }
+
+    // The flash sale started after the caller checked the engine, or its engine never took the stock.
+    private static ProductSubmissionException flashSaleConflict(UUID id) {
+        return new ProductSubmissionException("Product with the id: " + id
+                + " is in flash-sale mode; its stock is held by the flash sale until it ends.");
+    }
+
+    private List<StockReservationLineResultDto> buildLineResults(List<StockReservationLineDto> lines,
+                                                                 Map<UUID, Integer> failures) {
+        List<StockReservationLineResultDto> results = new ArrayList<>(lines.size());
+        for (StockReservationLineDto line : lines) {
+            StockReservationStatus status;
+            Integer availableQuantity = null;
+            if (!failures.containsKey(line.getProductId())) {
+                status = failures.isEmpty() ? StockReservationStatus.RESERVED : StockReservationStatus.ROLLED_BACK;
+            } else if (failures.get(line.getProductId()) == null) {
+                status = StockReservationStatus.NOT_FOUND;
+            } else {
+                status = StockReservationStatus.INSUFFICIENT_STOCK;
+                availableQuantity = failures.get(line.getProductId());
+            }
+            results.add(StockReservationLineResultDto.builder()
+                    .productId(line.getProductId())
+                    .quantity(line.getQuantity())
+                    .status(status)
+                    .availableQuantity(availableQuantity)
+                    .build());
+        }
+        return results;
+    }
+
+    private StockAdjustmentResponseDto buildResponse(UUID id, int adjustment) {
+        return StockAdjustmentResponseDto.builder()
+                .productId(id)
+                .adjustment(adjustment)
+                .build();
+    }
+}
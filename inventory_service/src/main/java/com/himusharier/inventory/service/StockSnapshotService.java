@@ -0,0 +1,156 @@
+package com.himusharier.inventory.service;
+
+import com.himusharier.inventory.constants.StockMovementReason;
+import com.himusharier.inventory.model.StockSnapshot;
+import com.himusharier.inventory.repository.ProductRepository;
+import com.himusharier.inventory.repository.ProductStockView;
+import com.himusharier.inventory.repository.StockDeltaView;
+import com.himusharier.inventory.repository.StockMovementRepository;
+import com.himusharier.inventory.repository.StockSnapshotRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Materializes stock ledger snapshots incrementally. Each run picks a watermark
+ * {@code now - snapshot-lag} and, for the products that moved since the previous watermark
+ * only, writes previous snapshot + net movements in between. The lag keeps the watermark behind
+ * any transaction still in flight, so a movement can not commit into an interval that was
+ * already summed; it must exceed the longest stock-changing transaction.
+ */
+@Slf4j
+@Service
+public class StockSnapshotService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final StockMovementRepository stockMovementRepository;
+    private final StockSnapshotRepository stockSnapshotRepository;
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.stock.ledger.snapshot-lag:PT1M}")
+    private Duration snapshotLag = Duration.ofMinutes(1);
+
+    @Autowired
+    public StockSnapshotService(StockMovementRepository stockMovementRepository,
+                                StockSnapshotRepository stockSnapshotRepository,
+                                ProductRepository productRepository,
+                                EntityManager entityManager,
+                                PlatformTransactionManager transactionManager) {
+        this.stockMovementRepository = stockMovementRepository;
+        this.stockSnapshotRepository = stockSnapshotRepository;
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Gives products that predate the ledger an OPENING movement for their current quantity,
+     * so as-of queries and reconciliation cover them too. A no-op once every product has moved.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recordOpeningBalances() {
+        Long recorded = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            long count = 0;
+            try (Stream<ProductStockView> products = productRepository.streamWithoutStockMovements()) {
+                Iterator<ProductStockView> iterator = products.iterator();
+                while (iterator.hasNext()) {
+                    ProductStockView product = iterator.next();
+                    entityManager.persist(StockLedgerService.movement(product.getProductId(), product.getQuantity(),
+                            StockMovementReason.OPENING, null, now));
+                    if (++count % CHUNK_SIZE == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+            }
+            return count;
+        });
+        if (recorded != null && recorded > 0) {
+            log.info("Stock ledger opening balances recorded for {} products", recorded);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock.ledger.snapshot-interval:PT5M}",
+            initialDelayString = "${app.stock.ledger.snapshot-interval:PT5M}")
+    public void takeSnapshots() {
+        takeSnapshots(LocalDateTime.now().minus(snapshotLag));
+    }
+
+    /**
+     * Snapshots every product that moved in (previous watermark, {@code watermark}]. Previous
+     * snapshots are read as of the previous watermark, so two overlapping runs still each write
+     * correct values (and the unique key rejects exact duplicates).
+     *
+     * @return number of snapshots written
+     */
+    public long takeSnapshots(LocalDateTime watermark) {
+        long start = System.nanoTime();
+        Long written = transactionTemplate.execute(status -> {
+            LocalDateTime previous = stockSnapshotRepository.findLatestWatermark().orElse(StockLedgerService.LEDGER_START);
+            if (!watermark.isAfter(previous)) {
+                return 0L;
+            }
+
+            long count = 0;
+            List<StockDeltaView> chunk = new ArrayList<>(CHUNK_SIZE);
+            try (Stream<StockDeltaView> deltas = stockMovementRepository.streamDeltasBetween(previous, watermark)) {
+                Iterator<StockDeltaView> iterator = deltas.iterator();
+                while (iterator.hasNext()) {
+                    chunk.add(iterator.next());
+                    if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                        count += writeSnapshots(chunk, previous, watermark);
+                        chunk.clear();
+                    }
+                }
+            }
+            return count;
+        });
+        if (written != null && written > 0) {
+            log.info("Stock snapshots up to {} written for {} products in {} ms",
+                    watermark, written, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        }
+        return written != null ? written : 0;
+    }
+
+    private int writeSnapshots(List<StockDeltaView> deltas, LocalDateTime previous, LocalDateTime watermark) {
+        Map<UUID, Long> previousQuantities = new HashMap<>();
+        for (StockSnapshot snapshot : stockSnapshotRepository.findLatestByProductIdIn(
+                deltas.stream().map(StockDeltaView::getProductId).toList(), previous)) {
+            previousQuantities.put(snapshot.getProductId(), snapshot.getQuantity());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (StockDeltaView delta : deltas) {
+            entityManager.persist(StockSnapshot.builder()
+                    .productId(delta.getProductId())
+                    .quantity(previousQuantities.getOrDefault(delta.getProductId(), 0L) + delta.getDelta())
+                    .coveredUntil(watermark)
+                    .createdAt(now)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return deltas.size();
+    }
+}
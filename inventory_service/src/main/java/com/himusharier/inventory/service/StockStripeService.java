@@ -0,0 +1,246 @@
+package com.himusharier.inventory.service;
+
+import com.himusharier.inventory.constants.ProductChangeType;
+import com.himusharier.inventory.constants.ProductPatchField;
+import com.himusharier.inventory.dto.response.StockStripesResponseDto;
+import com.himusharier.inventory.event.ProductChangedEvent;
+import com.himusharier.inventory.exception.ProductSubmissionException;
+import com.himusharier.inventory.exception.ResourceNotFoundException;
+import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.model.StockStripe;
+import com.himusharier.inventory.repository.ProductRepository;
+import com.himusharier.inventory.repository.StockStripeRepository;
+import com.himusharier.inventory.util.ProductLockOrder;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Striped stock for hot products. A striped product's stock is split over N
+ * {@code em_stock_stripes} rows; each decrement starts at a random stripe, so N checkouts of
+ * the same product can commit in parallel instead of queueing on its one row lock. Every
+ * stripe decrement keeps the {@code quantity >= :quantity} guard, so the total can never go
+ * below zero. A scheduled rebalance evens the stripes out again as they drain.
+ *
+ * <p>Lock order, everywhere: a product's stripes (ascending) before its product row. A
+ * single-stripe decrement holds no stripe but the one it took.
+ */
+@Slf4j
+@Service
+public class StockStripeService {
+
+    public static final int MAX_STRIPES = 64;
+
+    private final StockStripeRepository stockStripeRepository;
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public StockStripeService(StockStripeRepository stockStripeRepository,
+                              ProductRepository productRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              EntityManager entityManager,
+                              PlatformTransactionManager transactionManager) {
+        this.stockStripeRepository = stockStripeRepository;
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * @return false when the stripes together hold less than {@code quantity}
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean decrement(UUID productId, int stripes, int quantity) {
+        if (stockStripeRepository.decrementOneStripe(productId, ThreadLocalRandom.current().nextInt(stripes), stripes, quantity)) {
+            return true;
+        }
+
+        // No single stripe covers it (large order, or stock nearly gone): take it from several.
+        // The walk above has rolled back and holds no stripe, so this can lock them in order.
+        List<StockStripe> locked = relockStripes(productId);
+        if (total(locked) < quantity) {
+            return false;
+        }
+        int remaining = quantity;
+        for (StockStripe stripe : locked) {
+            int taken = Math.min(remaining, stripe.getQuantity());
+            stripe.setQuantity(stripe.getQuantity() - taken);
+            remaining -= taken;
+            if (remaining == 0) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return false when the product is no longer striped
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean increment(UUID productId, int stripes, int quantity) {
+        if (stockStripeRepository.incrementStripe(productId, ThreadLocalRandom.current().nextInt(stripes), quantity) == 1) {
+            return true;
+        }
+        // The stripe count changed since it was read.
+        List<StockStripe> locked = relockStripes(productId);
+        if (locked.isEmpty()) {
+            return false;
+        }
+        locked.get(0).setQuantity(locked.get(0).getQuantity() + quantity);
+        return true;
+    }
+
+    /**
+     * Sets a striped product's total stock (full update, merge patch).
+     *
+     * @return the total it replaced, or {@code null} when the product is not striped
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Long redistribute(UUID productId, int quantity) {
+        List<StockStripe> locked = relockStripes(productId);
+        if (locked.isEmpty()) {
+            return null;
+        }
+        long previous = total(locked);
+        spread(locked, quantity);
+        productRepository.refreshStripedQuantity(productId, quantity);
+        return previous;
+    }
+
+    // Stripes before product rows: call it before locking the products' rows.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockStripes(Collection<UUID> productIds) {
+        ProductLockOrder.sorted(productIds).forEach(stockStripeRepository::lockStripes);
+    }
+
+    // One DELETE for the stripes of all given products; lock them with lockStripes first.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeStripes(Collection<UUID> productIds) {
+        stockStripeRepository.deleteByProductIdIn(productIds);
+    }
+
+    @Transactional(readOnly = true)
+    public StockStripesResponseDto getStripes(UUID productId) {
+        Integer stripes = productRepository.findStockStripesByProductId(productId).orElseThrow(() ->
+                new ResourceNotFoundException("Product not found with the id: " + productId));
+        List<StockStripe> rows = stockStripeRepository.findStripes(productId);
+        return StockStripesResponseDto.builder()
+                .productId(productId)
+                .stripes(stripes)
+                .quantity(stripes > 0 ? total(rows) : productRepository.findStockByProductIdIn(List.of(productId)).get(0).getQuantity())
+                .stripeQuantities(rows.stream().map(StockStripe::getQuantity).toList())
+                .build();
+    }
+
+    /**
+     * Switches a product to {@code stripes} stripes (0: back to the single quantity column). The
+     * current stock, wherever it lives now, is spread evenly over the new stripes.
+     */
+    @Transactional
+    public StockStripesResponseDto configure(UUID productId, int stripes) {
+        List<StockStripe> current = relockStripes(productId);
+        Product product = productRepository.lockByProductId(productId).orElseThrow(() ->
+                new ResourceNotFoundException("Product not found with the id: " + productId));
+        if (product.getFlashSaleSeq() != null) {
+            throw new ProductSubmissionException("Product with the id: " + productId
+                    + " is in flash-sale mode; its stock can not be striped until the flash sale ends.");
+        }
+
+        int quantity = product.getStockStripes() > 0 ? Math.toIntExact(total(current)) : product.getQuantity();
+        stockStripeRepository.deleteAllInBatch(current);
+        stockStripeRepository.flush();
+
+        List<StockStripe> created = new ArrayList<>(stripes);
+        for (int i = 0; i < stripes; i++) {
+            created.add(StockStripe.builder().productId(productId).stripe(i).build());
+        }
+        spread(created, quantity);
+        stockStripeRepository.saveAll(created);
+
+        product.setStockStripes(stripes);
+        product.setQuantity(quantity);
+        eventPublisher.publishEvent(new ProductChangedEvent(productId, ProductChangeType.UPDATED, Set.of(ProductPatchField.QUANTITY)));
+        return toResponse(productId, stripes, created);
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock.stripes.rebalance-interval:PT1S}")
+    public void rebalanceAll() {
+        for (UUID productId : stockStripeRepository.findStripedProductIds()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> rebalance(productId));
+            } catch (RuntimeException e) {
+                // Usually a lock conflict with a concurrent write; the next run retries.
+                log.warn("Stock stripe rebalance failed for product {}", productId, e);
+            }
+        }
+    }
+
+    /**
+     * Evens out a product's stripes once one holds less than half its fair share, and refreshes
+     * the product's listing quantity. Holds the stripe locks for a few statements only.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void rebalance(UUID productId) {
+        List<StockStripe> locked = stockStripeRepository.lockStripes(productId);
+        if (locked.isEmpty()) {
+            return;
+        }
+        long total = total(locked);
+        long fairShare = total / locked.size();
+        if (locked.stream().anyMatch(stripe -> stripe.getQuantity() * 2L < fairShare)) {
+            spread(locked, total);
+        }
+        productRepository.refreshStripedQuantity(productId, Math.toIntExact(total));
+    }
+
+    // Locks the stripes where this transaction may already have updated some: the stripe updates
+    // go around the persistence context, so stripes loaded before them are read again. Not for
+    // rebalance, which runs in a transaction of its own.
+    private List<StockStripe> relockStripes(UUID productId) {
+        List<StockStripe> locked = stockStripeRepository.lockStripes(productId);
+        locked.forEach(entityManager::refresh);
+        return locked;
+    }
+
+    private static void spread(List<StockStripe> stripes, long quantity) {
+        if (stripes.isEmpty()) {
+            return;
+        }
+        long share = quantity / stripes.size();
+        long remainder = quantity % stripes.size();
+        for (int i = 0; i < stripes.size(); i++) {
+            stripes.get(i).setQuantity(Math.toIntExact(share + (i < remainder ? 1 : 0)));
+        }
+    }
+
+    private static long total(List<StockStripe> stripes) {
+        return stripes.stream().mapToLong(StockStripe::getQuantity).sum();
+    }
+
+    private static StockStripesResponseDto toResponse(UUID productId, int stripes, List<StockStripe> rows) {
+        return StockStripesResponseDto.builder()
+                .productId(productId)
+                .stripes(stripes)
+                .quantity(total(rows))
+                .stripeQuantities(rows.stream().map(StockStripe::getQuantity).toList())
+                .build();
+    }
+}
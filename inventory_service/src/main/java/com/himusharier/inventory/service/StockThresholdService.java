@@ -0,0 +1,84 @@
+package com.himusharier.inventory.service;
+
+import com.himusharier.inventory.constants.StockThresholdEventType;
+import com.himusharier.inventory.event.StockThresholdEvent;
+import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Detects reorder-threshold crossings as part of the write that changed the quantity: a
+ * constant amount of work per write, no catalog scans. The {@code lowStockAlerted} flag on the
+ * product makes each crossing fire once, and a LOW alert is only re-armed after stock is back
+ * at {@code threshold + restore-margin}, so stock hovering around the threshold does not flap.
+ * Events are published inside the transaction and delivered to sinks around its commit.
+ */
+@Service
+public class StockThresholdService {
+
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.stock.alerts.restore-margin:1}")
+    private int restoreMargin = 1;
+
+    @Autowired
+    public StockThresholdService(ProductRepository productRepository, ApplicationEventPublisher eventPublisher) {
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * For a product managed by the current persistence context (created or updated through
+     * the entity): the flag is changed on the entity and flushed with the rest of the write.
+     */
+    public void evaluate(Product product) {
+        StockThresholdEventType crossing = evaluate(product.getProductId(), product.getQuantity(),
+                product.getReorderThreshold(), product.isLowStockAlerted());
+        if (crossing != null) {
+            product.setLowStockAlerted(crossing == StockThresholdEventType.LOW);
+        }
+    }
+
+    /**
+     * After a statement-level quantity change (JPQL/JDBC update). That statement holds the row
+     * lock until commit, so the primary key read below sees exactly the state this transaction
+     * wrote and no concurrent writer can raise the same alert.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void evaluate(UUID productId) {
+        productRepository.findThresholdStateByProductId(productId).ifPresent(state -> {
+            StockThresholdEventType crossing = evaluate(productId, state.getQuantity(),
+                    state.getReorderThreshold(), state.getLowStockAlerted());
+            if (crossing != null) {
+                productRepository.updateLowStockAlerted(productId, crossing == StockThresholdEventType.LOW);
+            }
+        });
+    }
+
+    private StockThresholdEventType evaluate(UUID productId, int quantity, Integer reorderThreshold, boolean lowStockAlerted) {
+        if (reorderThreshold == null) {
+            return null;
+        }
+
+        StockThresholdEventType crossing = null;
+        if (!lowStockAlerted && quantity < reorderThreshold) {
+            crossing = StockThresholdEventType.LOW;
+        } else if (lowStockAlerted && quantity >= reorderThreshold + restoreMargin) {
+            crossing = StockThresholdEventType.RESTORED;
+        }
+
+        if (crossing != null) {
+            eventPublisher.publishEvent(new StockThresholdEvent(productId, crossing, quantity, reorderThreshold, Instant.now()));
+        }
+        return crossing;
+    }
+}
@@ -0,0 +1,38 @@
+package com.himusharier.inventory.util;
+
+public final class ETagUtils {
+
+    private ETagUtils() {
+    }
+
+    /**
+     * Strong ETag for a single product, derived from its {@code @Version}.
+     */
+    public static String productETag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Parses an {@code If-Match} header produced from {@link #productETag(long)}.
+     *
+     * @return the expected version, or {@code null} when no precondition was sent
+     * @throws IllegalArgumentException when the header is not a product ETag
+     */
+    public static Long parseProductVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            throw new IllegalArgumentException("Weak ETags can not be used as an update precondition.");
+        }
+        if (value.length() < 3 || !value.startsWith("\"") || !value.endsWith("\"")) {
+            throw new IllegalArgumentException("Invalid If-Match header: " + ifMatch);
+        }
+        try {
+            return Long.parseLong(value.substring(1, value.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid If-Match header: " + ifMatch);
+        }
+    }
+}
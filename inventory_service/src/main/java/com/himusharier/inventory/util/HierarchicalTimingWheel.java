@@ -0,0 +1,152 @@
+package com.himusharier.inventory.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel (the classic cascading timer wheel): a timer is linked into the slot
+ * of its expiry tick, so scheduling, cancelling and expiring one is O(1) however many are
+ * pending, and nothing is ever scanned. Four levels of 64 slots; a slot of level N spans one
+ * full turn of level N-1, and when a finer level wraps around, the matching slot of the next
+ * level is cascaded down into it. With one-second ticks the wheel covers 2^24 s (about 194
+ * days); timers further out are parked in the outermost level and re-placed as it turns.
+ *
+ * <p>Keys are unique: scheduling a key again moves its timer. Thread-safe (one monitor).
+ */
+public class HierarchicalTimingWheel<K> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_TICKS = 1L << (SLOT_BITS * LEVELS);
+
+    private static final class Timer<K> {
+        private final K key;
+        private final long expireTick;
+        private Timer<K> previous;
+        private Timer<K> next;
+        private int level;
+        private int slot;
+
+        private Timer(K key, long expireTick) {
+            this.key = key;
+            this.expireTick = expireTick;
+        }
+    }
+
+    private final long tickMillis;
+    @SuppressWarnings("unchecked")
+    private final Timer<K>[][] slots = new Timer[LEVELS][SLOTS];
+    private final Map<K, Timer<K>> timers = new HashMap<>();
+    // Next tick to process.
+    private long currentTick;
+
+    public HierarchicalTimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Fires {@code key} by the first {@link #advance} at or after {@code expiresAtMillis}; an
+     * expiry already in the past fires on the next advance.
+     */
+    public synchronized void schedule(K key, long expiresAtMillis) {
+        cancel(key);
+        Timer<K> timer = new Timer<>(key, Math.ceilDiv(expiresAtMillis, tickMillis));
+        timers.put(key, timer);
+        place(timer);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Timer<K> timer = timers.remove(key);
+        if (timer == null) {
+            return false;
+        }
+        unlink(timer);
+        return true;
+    }
+
+    /**
+     * Turns the wheel up to {@code nowMillis}.
+     *
+     * @return the keys that expired, in expiry order
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        List<K> expired = new ArrayList<>();
+        while (currentTick <= nowTick) {
+            int index = (int) (currentTick & SLOT_MASK);
+            // Level 0 wrapped around: bring the next turn's timers down, level by level.
+            for (int level = 1; level < LEVELS && index == 0; level++) {
+                index = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+                cascade(level, index);
+            }
+            Timer<K> timer = slots[0][(int) (currentTick & SLOT_MASK)];
+            slots[0][(int) (currentTick & SLOT_MASK)] = null;
+            currentTick++;
+            while (timer != null) {
+                Timer<K> next = timer.next;
+                timers.remove(timer.key);
+                expired.add(timer.key);
+                timer = next;
+            }
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return timers.size();
+    }
+
+    private void cascade(int level, int index) {
+        Timer<K> timer = slots[level][index];
+        slots[level][index] = null;
+        while (timer != null) {
+            Timer<K> next = timer.next;
+            place(timer);
+            timer = next;
+        }
+    }
+
+    private void place(Timer<K> timer) {
+        long ticks = timer.expireTick - currentTick;
+        int level;
+        long placementTick = timer.expireTick;
+        if (ticks < 0) {
+            // Already due: the slot processed next.
+            level = 0;
+            placementTick = currentTick;
+        } else if (ticks >= MAX_TICKS) {
+            level = LEVELS - 1;
+            placementTick = currentTick + MAX_TICKS - 1;
+        } else {
+            level = 0;
+            while (ticks >= 1L << (SLOT_BITS * (level + 1))) {
+                level++;
+            }
+        }
+        int slot = (int) ((placementTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        timer.level = level;
+        timer.slot = slot;
+        timer.previous = null;
+        timer.next = slots[level][slot];
+        if (timer.next != null) {
+            timer.next.previous = timer;
+        }
+        slots[level][slot] = timer;
+    }
+
+    private void unlink(Timer<K> timer) {
+        if (timer.previous != null) {
+            timer.previous.next = timer.next;
+        } else {
+            slots[timer.level][timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.previous = timer.previous;
+        }
+    }
+}
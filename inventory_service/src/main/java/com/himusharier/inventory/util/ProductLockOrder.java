@@ -0,0 +1,36 @@
+package com.himusharier.inventory.util;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * The one order in which multi-product writes lock rows: ascending product id as the database
+ * compares uuids, i.e. unsigned, most significant half first. {@link UUID#compareTo} compares
+ * signed longs and disagrees whenever a half has its top bit set, so it must not be used for
+ * locking: statements that lock through {@code ORDER BY product_id} would then take the rows
+ * in another order than the code sorting ids in Java, and the two could deadlock.
+ */
+public final class ProductLockOrder {
+
+    public static final Comparator<UUID> COMPARATOR = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    private ProductLockOrder() {
+    }
+
+    public static <V> SortedMap<UUID, V> newMap() {
+        return new TreeMap<>(COMPARATOR);
+    }
+
+    public static SortedSet<UUID> sorted(Collection<UUID> productIds) {
+        SortedSet<UUID> sorted = new TreeSet<>(COMPARATOR);
+        sorted.addAll(productIds);
+        return sorted;
+    }
+}
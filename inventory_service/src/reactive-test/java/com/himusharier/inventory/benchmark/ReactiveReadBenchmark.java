@@ -0,0 +1,157 @@
+package com.himusharier.inventory.benchmark;
+
+import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.reactive.ReactiveReadServer;
+import com.himusharier.inventory.repository.ProductRepository;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.regex.Pattern;
+
+/**
+ * Drives the servlet port and the reactive port with the same high-concurrency read load:
+ * single products by id and first pages of the listing. Reports throughput, latency
+ * percentiles and how many threads each server had serving requests by the end of the run
+ * (Tomcat's request workers, or Reactor Netty's event loops).
+ *
+ * Run with: {@code mvn test -Preactive,benchmark -Dtest=ReactiveReadBenchmark}
+ * Load: {@code -Dbenchmark.concurrency=512 -Dbenchmark.requests=20000}
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactive-benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.reactive.r2dbc.url=r2dbc:h2:mem:///reactive-benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.reactive.port=0",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.org.springframework.web=WARN"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReactiveReadBenchmark {
+
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 10_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 512);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 20_000);
+
+    private static final Pattern SERVLET_THREADS = Pattern.compile("http-nio-.*-exec-\\d+");
+    private static final Pattern REACTIVE_THREADS = Pattern.compile("reactor-http-(nio|epoll)-\\d+");
+
+    @LocalServerPort
+    private int servletPort;
+
+    @Autowired
+    private ReactiveReadServer reactiveReadServer;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final List<UUID> ids = new ArrayList<>();
+    private HttpClient client;
+
+    @BeforeAll
+    void seed() {
+        productRepository.deleteAll();
+        List<Product> batch = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            batch.add(Product.builder()
+                    .name("Product " + i)
+                    .description("Description for product " + i)
+                    .price(1.0 + i % 1000)
+                    .quantity(i % 500)
+                    .build());
+            if (batch.size() == 1000) {
+                productRepository.saveAll(batch).forEach(p -> ids.add(p.getProductId()));
+                batch.clear();
+            }
+        }
+        productRepository.saveAll(batch).forEach(p -> ids.add(p.getProductId()));
+
+        // Own event loops, so the client's threads are not counted as the reactive server's.
+        client = HttpClient.create(ConnectionProvider.builder("benchmark")
+                        .maxConnections(CONCURRENCY)
+                        .pendingAcquireMaxCount(-1)
+                        .build())
+                .runOn(LoopResources.create("benchmark-client"));
+    }
+
+    @Test
+    void productById() {
+        IntFunction<String> path = i -> "/api/v1/products/" + ids.get(i % ids.size());
+        run("byId/servlet (warm-up)", servletPort, SERVLET_THREADS, path);
+        run("byId/reactive (warm-up)", reactiveReadServer.getPort(), REACTIVE_THREADS, path);
+
+        report(run("byId/servlet", servletPort, SERVLET_THREADS, path));
+        report(run("byId/reactive", reactiveReadServer.getPort(), REACTIVE_THREADS, path));
+    }
+
+    @Test
+    void listingPage() {
+        IntFunction<String> path = i -> "/api/v1/products?sort=price&size=50&page=" + (i % 20);
+        run("page/servlet (warm-up)", servletPort, SERVLET_THREADS, path);
+        run("page/reactive (warm-up)", reactiveReadServer.getPort(), REACTIVE_THREADS, path);
+
+        report(run("page/servlet", servletPort, SERVLET_THREADS, path));
+        report(run("page/reactive", reactiveReadServer.getPort(), REACTIVE_THREADS, path));
+    }
+
+    private Result run(String name, int port, Pattern serverThreads, IntFunction<String> path) {
+        long[] latencies = new long[REQUESTS];
+        AtomicInteger failures = new AtomicInteger();
+        long start = System.nanoTime();
+        Flux.range(0, REQUESTS)
+                .flatMap(i -> {
+                    long sent = System.nanoTime();
+                    return client.get()
+                            .uri("http://localhost:" + port + path.apply(i))
+                            .responseSingle((response, body) -> body.then(Mono.just(response.status())))
+                            .doOnNext(status -> {
+                                latencies[i] = System.nanoTime() - sent;
+                                if (!status.equals(HttpResponseStatus.OK)) {
+                                    failures.incrementAndGet();
+                                }
+                            });
+                }, CONCURRENCY)
+                .blockLast();
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        return new Result(name, REQUESTS * 1_000_000_000L / elapsed,
+                latencies[REQUESTS / 2] / 1000, latencies[REQUESTS * 99 / 100] / 1000,
+                threads(serverThreads), failures.get());
+    }
+
+    private static int threads(Pattern names) {
+        return (int) Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> names.matcher(thread.getName()).matches())
+                .count();
+    }
+
+    private static void report(Result result) {
+        System.out.printf("[benchmark] %-14s concurrency=%-5d throughput=%,7d req/s  p50=%,8d us  p99=%,8d us  serverThreads=%-4d failures=%d%n",
+                result.name(), CONCURRENCY, result.requestsPerSecond(), result.p50Micros(), result.p99Micros(),
+                result.serverThreads(), result.failures());
+    }
+
+    private record Result(String name, long requestsPerSecond, long p50Micros, long p99Micros,
+                          int serverThreads, int failures) {
+    }
+}
@@ -0,0 +1,212 @@
+package com.himusharier.inventory.reactive;
+
+import com.himusharier.inventory.dto.request.ProductQuerySpec;
+import com.himusharier.inventory.dto.response.ProductResponseDto;
+import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.repository.ProductRepository;
+import com.himusharier.inventory.repository.ProductSpecifications;
+import com.himusharier.inventory.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.FluxExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+
+// The JDBC write path and the R2DBC read path share one named in-memory database.
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactive-reads;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.reactive.r2dbc.url=r2dbc:h2:mem:///reactive-reads;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.reactive.port=-1"
+})
+class ReactiveProductReadIntegrationTest {
+
+    @Autowired
+    private RouterFunction<ServerResponse> reactiveProductRoutes;
+
+    @Autowired
+    private HandlerStrategies reactiveHandlerStrategies;
+
+    @Autowired
+    private ReactiveProductRepository reactiveProductRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private WebTestClient webTestClient;
+    private Product cheap;
+    private Product pricey;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToRouterFunction(reactiveProductRoutes)
+                .handlerStrategies(reactiveHandlerStrategies)
+                .build();
+
+        productRepository.deleteAll();
+        cheap = productRepository.save(Product.builder().name("Reactive Bolt").description("Cheap").price(2.0).quantity(0).build());
+        pricey = productRepository.save(Product.builder().name("Reactive Drill").description("Pricey").price(90.0).quantity(7).build());
+    }
+
+    @Test
+    void listProducts_ShouldFilterSortAndWrapInEnvelope() {
+        webTestClient.get().uri("/api/v1/products?inStock=true&sort=-price")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(true)
+                .jsonPath("$.message").isEqualTo("Products retrieved successfully.")
+                .jsonPath("$.data").value(hasSize(1))
+                .jsonPath("$.data[0].productId").isEqualTo(pricey.getProductId().toString())
+                .jsonPath("$.data[0].quantity").isEqualTo(7);
+    }
+
+    @Test
+    void listProducts_ShouldStreamNdjson_AndAnswerNotModified() {
+        FluxExchangeResult<ProductResponseDto> result = webTestClient.get().uri("/api/v1/products?sort=name")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(ProductResponseDto.class);
+        StepVerifier.create(result.getResponseBody())
+                .expectNextMatches(product -> product.getName().equals("Reactive Bolt"))
+                .expectNextMatches(product -> product.getName().equals("Reactive Drill"))
+                .verifyComplete();
+        String eTag = result.getResponseHeaders().getETag();
+
+        webTestClient.get().uri("/api/v1/products?sort=name")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void listProducts_ShouldRejectUnknownSortField() {
+        webTestClient.get().uri("/api/v1/products?sort=colour")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(false);
+    }
+
+    @Test
+    void getProduct_ShouldReturnProductOrNotFound() {
+        webTestClient.get().uri("/api/v1/products/" + cheap.getProductId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .expectBody()
+                .jsonPath("$.data.name").isEqualTo("Reactive Bolt");
+
+        UUID missing = UUID.randomUUID();
+        webTestClient.get().uri("/api/v1/products/" + missing)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Product not found with the id: " + missing);
+
+        webTestClient.get().uri("/api/v1/products/not-a-uuid")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void lookupProducts_ShouldResolveInRequestOrder() {
+        UUID missing = UUID.randomUUID();
+        webTestClient.post().uri("/api/v1/products/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("productIds", List.of(pricey.getProductId(), missing, cheap.getProductId())))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Products found: 2, missing: 1.")
+                .jsonPath("$.data.items[0].product.name").isEqualTo("Reactive Drill")
+                .jsonPath("$.data.items[1].found").isEqualTo(false)
+                .jsonPath("$.data.items[2].product.name").isEqualTo("Reactive Bolt");
+
+        webTestClient.post().uri("/api/v1/products/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("productIds", List.of()))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void find_ShouldMatchTheJpaListing_ForFiltersSortsAndPages() {
+        // Given
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            products.add(Product.builder()
+                    .name((i % 3 == 0 ? "Parity_" : "Parity%") + (char) ('a' + i % 5) + i)
+                    .description("d" + i)
+                    .price((double) (i * 7 % 13))
+                    .quantity(i % 6 - 2)
+                    .build());
+        }
+        productRepository.saveAll(products);
+
+        // When / Then
+        assertSameListing(query(null, null, null, null, null, null, List.of("-price", "name")));
+        assertSameListing(query(3.0, 9.0, null, null, null, "Parity", List.of("quantity", "-name")));
+        assertSameListing(query(null, null, 0, 2, true, null, List.of("createdAt")));
+        assertSameListing(query(null, 10.0, null, null, false, "Parity_", List.of("-quantity")));
+        ProductQuerySpec paged = query(null, null, null, null, null, "Parity%", List.of("name"));
+        paged.setPage(1);
+        paged.setSize(4);
+        assertSameListing(paged);
+    }
+
+    @Test
+    void find_ShouldOnlyPullRowsAsTheSubscriberRequestsThem() {
+        ProductQuerySpec querySpec = new ProductQuerySpec();
+
+        StepVerifier.create(reactiveProductRepository.find(querySpec, ProductService.pageable(querySpec)), 1)
+                .expectNextCount(1)
+                .thenRequest(1)
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    private void assertSameListing(ProductQuerySpec querySpec) {
+        Pageable pageable = ProductService.pageable(querySpec);
+        List<UUID> expected = productRepository.findDtos(ProductSpecifications.matching(querySpec), pageable).stream()
+                .map(ProductResponseDto::getProductId)
+                .toList();
+        StepVerifier.create(reactiveProductRepository.find(querySpec, pageable).map(ProductResponseDto::getProductId).collectList())
+                .expectNext(expected)
+                .verifyComplete();
+    }
+
+    private static ProductQuerySpec query(Double minPrice, Double maxPrice, Integer minQuantity, Integer maxQuantity,
+                                          Boolean inStock, String name, List<String> sort) {
+        ProductQuerySpec querySpec = new ProductQuerySpec();
+        querySpec.setMinPrice(minPrice);
+        querySpec.setMaxPrice(maxPrice);
+        querySpec.setMinQuantity(minQuantity);
+        querySpec.setMaxQuantity(maxQuantity);
+        querySpec.setInStock(inStock);
+        querySpec.setName(name);
+        querySpec.setSort(sort);
+        return querySpec;
+    }
+}
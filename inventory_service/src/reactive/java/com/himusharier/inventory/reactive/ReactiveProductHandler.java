@@ -0,0 +1,146 @@
+package com.himusharier.inventory.reactive;
+
+import com.himusharier.inventory.dto.request.ProductLookupRequestDto;
+import com.himusharier.inventory.dto.request.ProductQuerySpec;
+import com.himusharier.inventory.dto.response.ProductResponseDto;
+import com.himusharier.inventory.exception.ProductSubmissionException;
+import com.himusharier.inventory.service.CatalogVersionService;
+import com.himusharier.inventory.service.ProductCacheService;
+import com.himusharier.inventory.service.ProductService;
+import com.himusharier.inventory.util.ApiResponse;
+import com.himusharier.inventory.util.ETagUtils;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BindException;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Reactive counterparts of {@code GET /products}, {@code GET /products/{id}} and
+ * {@code POST /products/lookup}, with the same responses, status codes and ETags as
+ * {@code ProductController}. Nothing here blocks: cache hits are answered in memory and every
+ * miss is an R2DBC query.
+ */
+@Component
+public class ReactiveProductHandler {
+
+    private final ReactiveProductRepository reactiveProductRepository;
+    private final ProductCacheService productCacheService;
+    private final CatalogVersionService catalogVersionService;
+    private final Validator validator;
+
+    @Autowired
+    public ReactiveProductHandler(ReactiveProductRepository reactiveProductRepository,
+                                  ProductCacheService productCacheService,
+                                  CatalogVersionService catalogVersionService,
+                                  Validator validator) {
+        this.reactiveProductRepository = reactiveProductRepository;
+        this.productCacheService = productCacheService;
+        this.catalogVersionService = catalogVersionService;
+        this.validator = validator;
+    }
+
+    /**
+     * With {@code Accept: application/x-ndjson} the products are streamed one per line, paced by
+     * the client; otherwise they are collected into the usual {@code ApiResponse} envelope.
+     */
+    public Mono<ServerResponse> listProducts(ServerRequest request) {
+        String eTag = catalogVersionService.currentETag();
+        return request.checkNotModified(eTag).switchIfEmpty(Mono.defer(() -> request.bind(ProductQuerySpec.class)
+                .flatMap(querySpec -> {
+                    validate(querySpec);
+                    var products = reactiveProductRepository.find(querySpec, ProductService.pageable(querySpec));
+                    if (request.headers().accept().contains(MediaType.APPLICATION_NDJSON)) {
+                        return ServerResponse.ok()
+                                .eTag(eTag)
+                                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .body(products, ProductResponseDto.class);
+                    }
+                    return products.collectList().flatMap(list -> ServerResponse.ok()
+                            .eTag(eTag)
+                            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .bodyValue(new ApiResponse<>(true, "Products retrieved successfully.", list)));
+                })
+                .onErrorResume(BindException.class, e -> badRequest(e.getFieldError() != null
+                        ? e.getFieldError().getDefaultMessage()
+                        : "Invalid request."))
+                .onErrorResume(ProductSubmissionException.class, e -> badRequest(e.getMessage()))));
+    }
+
+    public Mono<ServerResponse> getProduct(ServerRequest request) {
+        UUID id;
+        try {
+            id = UUID.fromString(request.pathVariable("id"));
+        } catch (IllegalArgumentException e) {
+            return badRequest("Invalid product id: " + request.pathVariable("id"));
+        }
+        Mono<ProductResponseDto> product = productCacheService.getIfPresent(id)
+                .map(Mono::just)
+                .orElseGet(() -> reactiveProductRepository.findById(id));
+        return product
+                .flatMap(found -> {
+                    // Striped stock changes without a version bump, so striped products carry no ETag.
+                    if (found.getStockStripes() > 0) {
+                        return ServerResponse.ok().bodyValue(new ApiResponse<>(true, "Product retrieved successfully.", found));
+                    }
+                    String eTag = ETagUtils.productETag(found.getVersion());
+                    return request.checkNotModified(eTag).switchIfEmpty(Mono.defer(() -> ServerResponse.ok()
+                            .eTag(eTag)
+                            .bodyValue(new ApiResponse<>(true, "Product retrieved successfully.", found))));
+                })
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.status(HttpStatus.NOT_FOUND)
+                        .bodyValue(new ApiResponse<String>(false, "Product not found with the id: " + id))));
+    }
+
+    // Cached products first, the rest in one IN query; results in request order like ProductService.lookupProducts.
+    public Mono<ServerResponse> lookupProducts(ServerRequest request) {
+        return request.bodyToMono(ProductLookupRequestDto.class)
+                .switchIfEmpty(Mono.error(() -> new ProductSubmissionException("At least one product id is required.")))
+                .flatMap(lookup -> {
+                    validate(lookup);
+                    List<UUID> productIds = lookup.getProductIds();
+                    Map<UUID, ProductResponseDto> products = new HashMap<>();
+                    Set<UUID> misses = new LinkedHashSet<>();
+                    for (UUID productId : productIds) {
+                        productCacheService.getIfPresent(productId).ifPresentOrElse(
+                                product -> products.put(productId, product), () -> misses.add(productId));
+                    }
+                    return reactiveProductRepository.findAllById(misses)
+                            .doOnNext(product -> products.put(product.getProductId(), product))
+                            .then(Mono.fromSupplier(() -> ProductService.lookupResult(productIds, products)));
+                })
+                .flatMap(result -> ServerResponse.ok().bodyValue(new ApiResponse<>(
+                        true,
+                        "Products found: " + result.getFound() + ", missing: " + result.getMissing() + ".",
+                        result)))
+                .onErrorResume(ServerWebInputException.class, e -> badRequest(e.getReason()))
+                .onErrorResume(ProductSubmissionException.class, e -> badRequest(e.getMessage()));
+    }
+
+    private void validate(Object request) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new ProductSubmissionException(violations.iterator().next().getMessage());
+        }
+    }
+
+    private static Mono<ServerResponse> badRequest(String message) {
+        return ServerResponse.badRequest().bodyValue(new ApiResponse<String>(false, message));
+    }
+}
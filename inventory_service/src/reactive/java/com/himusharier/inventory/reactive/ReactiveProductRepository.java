@@ -0,0 +1,158 @@
+package com.himusharier.inventory.reactive;
+
+import com.himusharier.inventory.dto.request.ProductQuerySpec;
+import com.himusharier.inventory.dto.response.ProductResponseDto;
+import com.himusharier.inventory.repository.ProductSpecifications;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Non-blocking product reads over R2DBC, returning the same fields and live stock as the JPA
+ * projections in {@code ProductRepository}. Listings are filtered and sorted from the same
+ * {@link ProductSpecifications#filter} and {@link ProductSpecifications#sort} as the JPA path.
+ * It owns its connection pool rather than publishing a {@code ConnectionFactory} bean: Boot
+ * backs off from the JDBC {@code DataSource} of the write path as soon as one exists.
+ */
+@Repository
+public class ReactiveProductRepository implements DisposableBean {
+
+    private static final String SELECT_PRODUCT = "select p.product_id, p.name, p.description, p.price, "
+            + "cast(case when p.stock_stripes > 0 then "
+            + "(select coalesce(sum(s.quantity), 0) from em_stock_stripes s where s.product_id = p.product_id) "
+            + "else p.quantity end as integer) as available_quantity, "
+            + "p.reorder_threshold, p.stock_stripes, p.version from em_products p";
+
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    @Autowired
+    public ReactiveProductRepository(@Value("${app.reactive.r2dbc.url:}") String url,
+                                     @Value("${spring.datasource.url:}") String jdbcUrl,
+                                     @Value("${app.reactive.r2dbc.username:${spring.datasource.username:}}") String username,
+                                     @Value("${app.reactive.r2dbc.password:${spring.datasource.password:}}") String password,
+                                     @Value("${app.reactive.r2dbc.pool-size:20}") int poolSize,
+                                     @Value("${app.reactive.r2dbc.fetch-size:256}") int fetchSize) {
+        String r2dbcUrl = url.isBlank() ? jdbcUrl.replaceFirst("^jdbc:", "r2dbc:") : url;
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(r2dbcUrl).mutate();
+        if (!username.isBlank()) {
+            options.option(ConnectionFactoryOptions.USER, username).option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .name("reactive-reads")
+                .initialSize(0)
+                .maxSize(poolSize)
+                .build());
+        this.databaseClient = DatabaseClient.create(connectionPool);
+        this.fetchSize = fetchSize;
+    }
+
+    public Mono<ProductResponseDto> findById(UUID productId) {
+        return databaseClient.sql(SELECT_PRODUCT + " where p.product_id = :productId")
+                .bind("productId", productId)
+                .map(ReactiveProductRepository::toDto)
+                .one();
+    }
+
+    public Flux<ProductResponseDto> findAllById(Collection<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.sql(SELECT_PRODUCT + " where p.product_id in (:productIds)")
+                .bind("productIds", productIds)
+                .map(ReactiveProductRepository::toDto)
+                .all();
+    }
+
+    /**
+     * Streams the matching products. Rows are fetched {@code fetch-size} at a time and only as
+     * fast as the subscriber requests them, so a slow client holds back the database cursor
+     * instead of buffering the result set.
+     */
+    public Flux<ProductResponseDto> find(ProductQuerySpec querySpec, Pageable pageable) {
+        ProductSpecifications.Filter filter = ProductSpecifications.filter(querySpec);
+        List<String> predicates = new ArrayList<>();
+        Map<String, Object> parameters = new LinkedHashMap<>();
+
+        if (filter.minPrice() != null) {
+            predicates.add("p.price >= :minPrice");
+            parameters.put("minPrice", filter.minPrice());
+        }
+        if (filter.maxPrice() != null) {
+            predicates.add("p.price <= :maxPrice");
+            parameters.put("maxPrice", filter.maxPrice());
+        }
+        if (filter.minQuantity() != null) {
+            predicates.add("p.quantity >= :minQuantity");
+            parameters.put("minQuantity", filter.minQuantity());
+        }
+        if (filter.maxQuantity() != null) {
+            predicates.add("p.quantity <= :maxQuantity");
+            parameters.put("maxQuantity", filter.maxQuantity());
+        }
+        if (filter.namePrefix() != null) {
+            predicates.add("p.name like :name escape '" + ProductSpecifications.LIKE_ESCAPE + "'");
+            parameters.put("name", filter.namePattern());
+        }
+
+        StringBuilder sql = new StringBuilder(SELECT_PRODUCT);
+        if (!predicates.isEmpty()) {
+            sql.append(" where ").append(String.join(" and ", predicates));
+        }
+        List<String> orders = new ArrayList<>();
+        for (Sort.Order order : pageable.getSort()) {
+            orders.add("p." + ProductSpecifications.sortColumn(order.getProperty()) + (order.isAscending() ? " asc" : " desc"));
+        }
+        if (!orders.isEmpty()) {
+            sql.append(" order by ").append(String.join(", ", orders));
+        }
+        if (pageable.isPaged()) {
+            sql.append(" limit :limit offset :offset");
+            parameters.put("limit", pageable.getPageSize());
+            parameters.put("offset", pageable.getOffset());
+        }
+
+        return databaseClient.sql(sql.toString())
+                .bindValues(parameters)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(ReactiveProductRepository::toDto)
+                .all();
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+
+    private static ProductResponseDto toDto(Readable row) {
+        return ProductResponseDto.builder()
+                .productId(row.get("product_id", UUID.class))
+                .name(row.get("name", String.class))
+                .description(row.get("description", String.class))
+                .price(row.get("price", Double.class))
+                .quantity(row.get("available_quantity", Integer.class))
+                .reorderThreshold(row.get("reorder_threshold", Integer.class))
+                .stockStripes(row.get("stock_stripes", Integer.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+}
@@ -0,0 +1,43 @@
+package com.himusharier.inventory.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Routes of the reactive read path. They mirror the servlet paths so a load balancer can send
+ * {@code GET /api/v1/products**} and {@code POST /api/v1/products/lookup} to
+ * {@code app.reactive.port} and everything else to the servlet port.
+ */
+@Configuration
+public class ReactiveReadConfig {
+
+    @Bean
+    public RouterFunction<ServerResponse> reactiveProductRoutes(ReactiveProductHandler handler) {
+        return route(GET("/api/v1/products"), handler::listProducts)
+                .andRoute(GET("/api/v1/products/{id}"), handler::getProduct)
+                .andRoute(POST("/api/v1/products/lookup"), handler::lookupProducts);
+    }
+
+    // The application's ObjectMapper, so dates and nulls serialize exactly as on the servlet port.
+    @Bean
+    public HandlerStrategies reactiveHandlerStrategies(ObjectMapper objectMapper) {
+        return HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(
+                            objectMapper, MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+    }
+}
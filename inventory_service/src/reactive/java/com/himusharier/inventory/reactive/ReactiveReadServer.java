@@ -0,0 +1,71 @@
+package com.himusharier.inventory.reactive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Serves {@link ReactiveReadConfig}'s routes from a Reactor Netty server on
+ * {@code app.reactive.port}, next to the servlet container rather than in place of it: the two
+ * web stacks cannot share one server, and the write path stays on Spring MVC and JPA.
+ * A port of -1 leaves it stopped, 0 picks a free port.
+ */
+@Slf4j
+@Component
+public class ReactiveReadServer implements SmartLifecycle {
+
+    private final RouterFunction<ServerResponse> reactiveProductRoutes;
+    private final HandlerStrategies reactiveHandlerStrategies;
+    private final int port;
+    private volatile DisposableServer server;
+
+    @Autowired
+    public ReactiveReadServer(RouterFunction<ServerResponse> reactiveProductRoutes,
+                              HandlerStrategies reactiveHandlerStrategies,
+                              @Value("${app.reactive.port:8092}") int port) {
+        this.reactiveProductRoutes = reactiveProductRoutes;
+        this.reactiveHandlerStrategies = reactiveHandlerStrategies;
+        this.port = port;
+    }
+
+    @Override
+    public void start() {
+        if (port < 0) {
+            return;
+        }
+        HttpHandler httpHandler = RouterFunctions.toHttpHandler(reactiveProductRoutes, reactiveHandlerStrategies);
+        server = HttpServer.create()
+                .port(port)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        log.info("Reactive read path listening on port {}", server.port());
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.disposeNow();
+            server = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    // The bound port, or -1 while stopped.
+    public int getPort() {
+        return server != null ? server.port() : -1;
+    }
+}
@@ -0,0 +1,75 @@
+package com.himusharier.inventory.benchmark;
+
+import com.himusharier.inventory.flashsale.FlashSaleEngine;
+import com.himusharier.inventory.flashsale.FlashSaleWal;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures acknowledged flash-sale reservations per second (engine + WAL only, no HTTP), with
+ * and without forcing each group commit to the device. The numbers in the README's flash-sale
+ * section come from this class.
+ *
+ * Run with: {@code mvn test -Pbenchmark -Dtest=FlashSaleEngineBenchmark}
+ * Load: {@code -Dbenchmark.clients=256 -Dbenchmark.reservations=2000000}
+ */
+@Tag("benchmark")
+class FlashSaleEngineBenchmark {
+
+    // Concurrent callers, each waiting for its acknowledgement like a request thread does.
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 256);
+    private static final int RESERVATIONS = Integer.getInteger("benchmark.reservations", 2_000_000);
+
+    @TempDir
+    Path walDirectory;
+
+    @Test
+    void reservationsPerSecond() throws Exception {
+        System.out.printf("%n%-34s %,d%n", "clients", CLIENTS);
+        for (boolean fsync : new boolean[]{false, true}) {
+            run(fsync);
+        }
+        System.out.println();
+    }
+
+    private void run(boolean fsync) throws Exception {
+        UUID productId = UUID.randomUUID();
+        Path directory = walDirectory.resolve(fsync ? "fsync" : "no-fsync");
+        FlashSaleEngine engine = new FlashSaleEngine(new FlashSaleWal(directory, 64L << 20, fsync), 1, 65536,
+                Map.of(productId, Integer.MAX_VALUE));
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        int perClient = RESERVATIONS / CLIENTS;
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> workers = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                workers.add(clients.submit(() -> {
+                    for (int i = 0; i < perClient; i++) {
+                        CompletableFuture<?> ack = engine.reserve(productId, 1, null);
+                        ack.join();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%-34s %,.0f /s%n", "reservations (fsync=" + fsync + ")", perClient * CLIENTS / seconds);
+        } finally {
+            clients.shutdown();
+            engine.close();
+        }
+    }
+}
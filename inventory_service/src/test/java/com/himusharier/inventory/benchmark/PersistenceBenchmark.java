@@ -0,0 +1,349 @@
+package com.himusharier.inventory.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.himusharier.inventory.dto.request.ProductQuerySpec;
+import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.repository.ProductRepository;
+import com.himusharier.inventory.service.ProductService;
+import com.himusharier.inventory.service.StockService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures {@link ProductRepository}, {@link ProductService} and {@link StockService} as the
+ * catalog grows. For every catalog size the embedded database is topped up (plain JDBC
+ * batches, so seeding does not dominate the run) and each scenario is warmed up, then
+ * measured: single lookups, listing pages, full updates, deletes and concurrent stock
+ * changes on a few hot products.
+ *
+ * Every scenario reports throughput, latency percentiles, JDBC statements and bytes allocated
+ * per operation. Results are also written as JSON to {@code benchmark.output}, one file per
+ * run, for comparing versions (see the README).
+ *
+ * Run with: {@code mvn test -Pbenchmark -Dtest=PersistenceBenchmark}
+ * Catalog sizes: {@code -Dbenchmark.sizes=10000,1000000,10000000 -DargLine=-Xmx12g}
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.org.springframework.web=WARN"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PersistenceBenchmark {
+
+    private static final int[] SIZES = Arrays.stream(System.getProperty("benchmark.sizes", "10000").split(","))
+            .map(String::trim)
+            .mapToInt(Integer::parseInt)
+            .sorted()
+            .toArray();
+    private static final int OPERATIONS = Integer.getInteger("benchmark.operations", 5_000);
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 16);
+    private static final int HOT_PRODUCTS = Integer.getInteger("benchmark.hotProducts", 16);
+    private static final Path OUTPUT = Path.of(System.getProperty("benchmark.output", "target/benchmark-results"));
+
+    private static final int SEED_BATCH = 10_000;
+    private static final int LIST_PAGES = 100;
+    // Seeded and victim ids are derived from a counter, so 10M products need no id list in memory.
+    private static final long SEEDED_ID_BITS = 0x5EED_0000_0000_0000L;
+    private static final long VICTIM_ID_BITS = 0xDE1E_7E00_0000_0000L;
+    private static final String INSERT_SQL = "INSERT INTO em_products "
+            + "(product_id, name, description, price, quantity, low_stock_alerted, stock_stripes, version, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, false, 0, 0, ?)";
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final AtomicLong STATEMENTS = new AtomicLong();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Result> results = new ArrayList<>();
+    private TransactionTemplate readOnly;
+    private int seeded;
+    private long victims;
+
+    @Test
+    void persistence() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        productRepository.deleteAll();
+
+        for (int size : SIZES) {
+            seed(size);
+
+            measure("lookup/repository", size, 1, i -> readOnly.execute(status ->
+                    productRepository.findDtoByProductId(randomProductId(size)).orElseThrow()));
+            measure("lookup/service", size, 1, i -> productService.getProductById(randomProductId(size)));
+            measure("list/page", size, 1, i -> productService.findProducts(page("price", null, null)));
+            measure("list/priceRange", size, 1, i -> {
+                double minPrice = ThreadLocalRandom.current().nextInt(1, 990);
+                return productService.findProducts(page("price", minPrice, minPrice + 10));
+            });
+            measure("update", size, 1, i -> {
+                int seq = HOT_PRODUCTS + ThreadLocalRandom.current().nextInt(size - HOT_PRODUCTS);
+                return productService.updateProduct(seededId(seq), Product.builder()
+                        .name("Product " + seq)
+                        .description("Updated description for product " + seq)
+                        .price(1.0 + ThreadLocalRandom.current().nextInt(1000))
+                        .quantity(seq % 500)
+                        .build());
+            });
+
+            long firstVictim = insertVictims(OPERATIONS + OPERATIONS / 10);
+            AtomicLong nextVictim = new AtomicLong(firstVictim);
+            measure("delete", size, 1, i -> productService.deleteProduct(victimId(nextVictim.getAndIncrement())));
+
+            // Each worker alternates between taking one unit of a hot product and putting one back.
+            measure("stock/concurrent", size, THREADS, i -> {
+                UUID productId = seededId(i % HOT_PRODUCTS);
+                return (i / THREADS) % 2 == 0
+                        ? stockService.decrementStock(productId, 1)
+                        : stockService.incrementStock(productId, 1);
+            });
+        }
+    }
+
+    @AfterAll
+    void writeResults() throws IOException {
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("benchmark", "persistence");
+        run.put("label", System.getProperty("benchmark.label", ""));
+        run.put("timestamp", Instant.now().toString());
+        run.put("javaVersion", System.getProperty("java.version"));
+        run.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        run.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+        run.put("results", results);
+
+        Files.createDirectories(OUTPUT);
+        Path file = OUTPUT.resolve("persistence-" + System.currentTimeMillis() + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), run);
+        System.out.println("[benchmark] results written to " + file.toAbsolutePath());
+    }
+
+    // Tops the catalog up to size products; the first HOT_PRODUCTS get enough stock for the stock scenario.
+    private void seed(int size) {
+        LocalDateTime now = LocalDateTime.now();
+        while (seeded < size) {
+            int from = seeded;
+            int to = Math.min(size, from + SEED_BATCH);
+            List<Object[]> batchArgs = new ArrayList<>(to - from);
+            for (int seq = from; seq < to; seq++) {
+                batchArgs.add(new Object[]{seededId(seq), "Product " + seq, "Description for product " + seq,
+                        1.0 + seq % 1000, seq < HOT_PRODUCTS ? 1_000_000_000 : seq % 500, Timestamp.valueOf(now)});
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs);
+            seeded = to;
+        }
+    }
+
+    private long insertVictims(int count) {
+        long first = victims;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long seq = victims++;
+            batchArgs.add(new Object[]{victimId(seq), "Victim " + seq, "Deleted by the benchmark", 1.0, 0, now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs);
+        return first;
+    }
+
+    private static UUID seededId(int seq) {
+        return new UUID(SEEDED_ID_BITS, seq);
+    }
+
+    private static UUID victimId(long seq) {
+        return new UUID(VICTIM_ID_BITS, seq);
+    }
+
+    private static UUID randomProductId(int size) {
+        return seededId(ThreadLocalRandom.current().nextInt(size));
+    }
+
+    private static ProductQuerySpec page(String sort, Double minPrice, Double maxPrice) {
+        ProductQuerySpec querySpec = new ProductQuerySpec();
+        querySpec.setSort(List.of(sort));
+        querySpec.setMinPrice(minPrice);
+        querySpec.setMaxPrice(maxPrice);
+        querySpec.setPage(ThreadLocalRandom.current().nextInt(LIST_PAGES));
+        querySpec.setSize(ProductService.DEFAULT_PAGE_SIZE);
+        return querySpec;
+    }
+
+    private void measure(String scenario, int size, int threads, Operation operation) {
+        run(scenario, size, threads, OPERATIONS / 10, operation);
+        Result result = run(scenario, size, threads, OPERATIONS, operation);
+        results.add(result);
+        System.out.printf("[benchmark] %-18s products=%-9d threads=%-3d throughput=%,9.0f ops/s  "
+                        + "p50=%,7d us  p99=%,8d us  statements=%5.2f/op  allocated=%,11d B/op  errors=%d%n",
+                result.scenario(), result.products(), result.threads(), result.opsPerSecond(),
+                result.p50Micros(), result.p99Micros(), result.statementsPerOp(), result.bytesPerOp(),
+                result.errors());
+    }
+
+    // Operation i runs on worker i % threads; allocation is summed over the workers' own counters.
+    private static Result run(String scenario, int size, int threads, int operations, Operation operation) {
+        long[] latencies = new long[operations];
+        LongAdder allocated = new LongAdder();
+        AtomicInteger errors = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long statementsBefore = STATEMENTS.get();
+            long start = System.nanoTime();
+            List<Future<?>> workers = new ArrayList<>(threads);
+            for (int worker = 0; worker < threads; worker++) {
+                int first = worker;
+                workers.add(executor.submit(() -> {
+                    long allocatedBefore = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+                    for (int i = first; i < operations; i += threads) {
+                        long sent = System.nanoTime();
+                        try {
+                            if (operation.run(i) == null) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (RuntimeException e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - sent;
+                    }
+                    allocated.add(THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() - allocatedBefore);
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            long statements = STATEMENTS.get() - statementsBefore;
+
+            Arrays.sort(latencies);
+            return new Result(scenario, size, threads, operations,
+                    operations * 1_000_000_000.0 / elapsed,
+                    percentile(latencies, 50), percentile(latencies, 90), percentile(latencies, 99),
+                    latencies[operations - 1] / 1000,
+                    (double) statements / operations, allocated.sum() / operations, errors.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Benchmark scenario " + scenario + " failed", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long percentile(long[] sortedLatencies, int percentile) {
+        return sortedLatencies[sortedLatencies.length * percentile / 100] / 1000;
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        Object run(int i);
+    }
+
+    private record Result(String scenario, int products, int threads, int operations, double opsPerSecond,
+                          long p50Micros, long p90Micros, long p99Micros, long maxMicros,
+                          double statementsPerOp, long bytesPerOp, int errors) {
+    }
+
+    /**
+     * Counts every statement the application prepares, whether it comes from Hibernate,
+     * Spring Data or a {@code JdbcTemplate}. A JDBC batch counts once.
+     */
+    @TestConfiguration
+    static class StatementCountingConfig {
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                        return new DelegatingDataSource(dataSource) {
+                            @Override
+                            public Connection getConnection() throws SQLException {
+                                return counting(super.getConnection());
+                            }
+
+                            @Override
+                            public Connection getConnection(String username, String password) throws SQLException {
+                                return counting(super.getConnection(username, password));
+                            }
+                        };
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        private static Connection counting(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.equals("prepareStatement") || name.equals("prepareCall") || name.equals("createStatement")) {
+                            STATEMENTS.incrementAndGet();
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.himusharier.inventory.benchmark;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.himusharier.inventory.config.ProductProtobufHttpMessageConverter;
+import com.himusharier.inventory.dto.response.ProductResponseDto;
+import com.himusharier.inventory.util.ApiResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Payload size and serialization CPU per product of a {@code GET /products} listing in each
+ * negotiable encoding, through the same converters the application registers.
+ *
+ * Run with: {@code mvn test -Pbenchmark -Dtest=ProductEncodingBenchmark}
+ * Listing size: {@code -Dbenchmark.products=1000}
+ */
+@Tag("benchmark")
+class ProductEncodingBenchmark {
+
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 1_000);
+    private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 2_000);
+
+    private static final Type LISTING_TYPE =
+            new ParameterizedTypeReference<ApiResponse<List<ProductResponseDto>>>() { }.getType();
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void listing() throws IOException {
+        List<ProductResponseDto> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(ProductResponseDto.builder()
+                    .productId(UUID.randomUUID())
+                    .name("Product " + i)
+                    .description("Description for product " + i)
+                    .price(1.99 + i % 1000)
+                    .quantity(i % 500)
+                    .reorderThreshold(i % 3 == 0 ? 10 : null)
+                    .version(i % 7)
+                    .build());
+        }
+        ApiResponse<List<ProductResponseDto>> listing = new ApiResponse<>(true, "Products retrieved successfully.", products);
+
+        List<Encoding> encodings = List.of(
+                new Encoding("json", new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build()),
+                        MediaType.APPLICATION_JSON),
+                new Encoding("smile", new MappingJackson2SmileHttpMessageConverter(
+                        Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build()),
+                        MediaType.parseMediaType("application/x-jackson-smile")),
+                new Encoding("cbor", new MappingJackson2CborHttpMessageConverter(
+                        Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build()),
+                        MediaType.parseMediaType("application/cbor")),
+                new Encoding("protobuf", new ProductProtobufHttpMessageConverter(),
+                        ProductProtobufHttpMessageConverter.APPLICATION_PROTOBUF));
+
+        for (Encoding encoding : encodings) {
+            measure(encoding, listing, ROUNDS / 4);
+        }
+        for (Encoding encoding : encodings) {
+            Result result = measure(encoding, listing, ROUNDS);
+            System.out.printf("[benchmark] %-9s products=%-6d size=%,7.1f B/product  gzip=%,6.1f B/product  cpu=%,7d ns/product%n",
+                    encoding.name(), PRODUCTS, (double) result.bytes() / PRODUCTS, (double) result.gzipBytes() / PRODUCTS,
+                    result.cpuNanos() / ((long) ROUNDS * PRODUCTS));
+        }
+    }
+
+    private static Result measure(Encoding encoding, ApiResponse<List<ProductResponseDto>> listing, int rounds) throws IOException {
+        byte[] body = null;
+        long cpuBefore = THREAD_MX_BEAN.getCurrentThreadCpuTime();
+        for (int round = 0; round < rounds; round++) {
+            MockHttpOutputMessage output = new MockHttpOutputMessage();
+            encoding.converter().write(listing, LISTING_TYPE, encoding.mediaType(), output);
+            body = output.getBodyAsBytes();
+        }
+        long cpuNanos = THREAD_MX_BEAN.getCurrentThreadCpuTime() - cpuBefore;
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        }
+        return new Result(body.length, compressed.size(), cpuNanos);
+    }
+
+    private record Encoding(String name, GenericHttpMessageConverter<Object> converter, MediaType mediaType) {
+    }
+
+    private record Result(long bytes, long gzipBytes, long cpuNanos) {
+    }
+}
@@ -0,0 +1,157 @@
+package com.himusharier.inventory.benchmark;
+
+import com.himusharier.inventory.dto.response.ProductResponseDto;
+import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compares the old entity read path (managed {@link Product} + builder mapping in a
+ * read-write transaction) with the DTO projection path (constructor expression in a
+ * read-only transaction).
+ *
+ * Run with: {@code mvn test -Pbenchmark -Dtest=ProductReadPathBenchmark}
+ * Catalog size: {@code -Dbenchmark.products=10000}
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.org.springframework.web=WARN"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductReadPathBenchmark {
+
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 10_000);
+    private static final int LOOKUPS = Integer.getInteger("benchmark.lookups", 20_000);
+    private static final int LIST_ROUNDS = Integer.getInteger("benchmark.listRounds", 20);
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private final List<UUID> ids = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        productRepository.deleteAll();
+        List<Product> batch = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            batch.add(Product.builder()
+                    .name("Product " + i)
+                    .description("Description for product " + i)
+                    .price(1.0 + i % 1000)
+                    .quantity(i % 500)
+                    .build());
+            if (batch.size() == 1000) {
+                productRepository.saveAll(batch).forEach(p -> ids.add(p.getProductId()));
+                batch.clear();
+            }
+        }
+        productRepository.saveAll(batch).forEach(p -> ids.add(p.getProductId()));
+    }
+
+    @Test
+    void singleLookup() {
+        // Warm-up both paths before measuring.
+        measure("lookup/entity (warm-up)", LOOKUPS, this::entityLookup);
+        measure("lookup/dto (warm-up)", LOOKUPS, this::dtoLookup);
+
+        report(measure("lookup/entity", LOOKUPS, this::entityLookup));
+        report(measure("lookup/dto", LOOKUPS, this::dtoLookup));
+    }
+
+    @Test
+    void listing() {
+        measure("list/entity (warm-up)", LIST_ROUNDS, i -> entityList());
+        measure("list/dto (warm-up)", LIST_ROUNDS, i -> dtoList());
+
+        report(measure("list/entity", LIST_ROUNDS, i -> entityList()));
+        report(measure("list/dto", LIST_ROUNDS, i -> dtoList()));
+    }
+
+    private Object entityLookup(int i) {
+        return readWrite.execute(status -> productRepository.findByProductId(ids.get(i % ids.size()))
+                .map(ProductReadPathBenchmark::map)
+                .orElseThrow());
+    }
+
+    private Object dtoLookup(int i) {
+        return readOnly.execute(status -> productRepository.findDtoByProductId(ids.get(i % ids.size()))
+                .orElseThrow());
+    }
+
+    private Object entityList() {
+        return readWrite.execute(status -> productRepository.findAll().stream()
+                .map(ProductReadPathBenchmark::map)
+                .toList());
+    }
+
+    private Object dtoList() {
+        return readOnly.execute(status -> productRepository.findAllDtos());
+    }
+
+    private static ProductResponseDto map(Product product) {
+        return ProductResponseDto.builder()
+                .productId(product.getProductId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .quantity(product.getQuantity())
+                .build();
+    }
+
+    private static Result measure(String name, int operations, Operation operation) {
+        Object sink = null;
+        long allocatedBefore = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            sink = operation.run(i);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        if (sink == null) {
+            throw new IllegalStateException("Benchmark operation returned nothing");
+        }
+        return new Result(name, operations, elapsed / operations, allocated / operations);
+    }
+
+    private static void report(Result result) {
+        System.out.printf("[benchmark] %-14s ops=%-7d latency=%,10d ns/op  allocated=%,12d B/op%n",
+                result.name(), result.operations(), result.nanosPerOp(), result.bytesPerOp());
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        Object run(int i);
+    }
+
+    private record Result(String name, int operations, long nanosPerOp, long bytesPerOp) {
+    }
+}
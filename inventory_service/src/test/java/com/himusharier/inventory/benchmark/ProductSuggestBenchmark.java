@@ -0,0 +1,91 @@
+package com.himusharier.inventory.benchmark;
+
+import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.repository.ProductRepository;
+import com.himusharier.inventory.service.ProductSuggestService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures autocomplete build time, heap per product and lookup latency on a synthetic
+ * catalog. The numbers in the README's autocomplete section come from this class.
+ *
+ * Run with: {@code mvn test -Pbenchmark -Dtest=ProductSuggestBenchmark}
+ * Catalog size: {@code -Dbenchmark.products=1000000}
+ */
+@Tag("benchmark")
+class ProductSuggestBenchmark {
+
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 1_000_000);
+    private static final int LOOKUPS = Integer.getInteger("benchmark.lookups", 100_000);
+
+    private static final String[] BRANDS = {"Acme", "Contoso", "Globex", "Initech", "Umbrella", "Stark", "Wayne",
+            "Wonka", "Hooli", "Vandelay", "Soylent", "Tyrell", "Cyberdyne", "Aperture", "Gringotts", "Oscorp"};
+    private static final String[] ADJECTIVES = {"Wireless", "Mechanical", "Portable", "Ergonomic", "Compact", "Smart",
+            "Rechargeable", "Waterproof", "Premium", "Ultra", "Mini", "Pro", "Classic", "Digital", "Heavy Duty"};
+    private static final String[] NOUNS = {"Keyboard", "Mouse", "Monitor", "Headphones", "Speaker", "Charger",
+            "Cable", "Lamp", "Backpack", "Bottle", "Camera", "Tripod", "Router", "Drive", "Webcam", "Microphone",
+            "Stand", "Hub", "Adapter", "Case", "Watch", "Tablet", "Printer", "Scanner"};
+
+    @Test
+    void buildAndLookup() {
+        Random random = new Random(42);
+        String[] names = new String[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++) {
+            names[i] = BRANDS[random.nextInt(BRANDS.length)] + " "
+                    + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                    + NOUNS[random.nextInt(NOUNS.length)] + " "
+                    + (char) ('A' + random.nextInt(26)) + random.nextInt(10_000);
+        }
+
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(productRepository.streamAll()).thenAnswer(invocation -> IntStream.range(0, PRODUCTS)
+                .mapToObj(i -> Product.builder()
+                        .productId(UUID.randomUUID())
+                        .name(names[i])
+                        .quantity(i % 500)
+                        .build()));
+        ProductSuggestService service = new ProductSuggestService(
+                productRepository, mock(EntityManager.class), mock(PlatformTransactionManager.class));
+
+        long buildStart = System.nanoTime();
+        service.rebuild();
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+        long bytes = service.ramBytesUsed();
+
+        String[] prefixes = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            String name = names[random.nextInt(PRODUCTS)];
+            int start = random.nextBoolean() ? 0 : name.indexOf(' ') + 1;
+            prefixes[i] = name.substring(start, start + 1 + random.nextInt(Math.min(8, name.length() - start - 1)));
+        }
+        for (int i = 0; i < Math.min(LOOKUPS, 20_000); i++) {
+            service.suggest(prefixes[i], 10);
+        }
+        long[] latencies = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            long start = System.nanoTime();
+            service.suggest(prefixes[i], 10);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("%n%-34s %,d%n", "products", PRODUCTS);
+        System.out.printf("%-34s %,d ms%n", "build", buildMillis);
+        System.out.printf("%-34s %,d bytes (%,.1f MiB)%n", "suggester heap", bytes, bytes / 1048576.0);
+        System.out.printf("%-34s %,.1f%n", "bytes/product", (double) bytes / PRODUCTS);
+        System.out.printf("%-34s %,.1f us%n", "lookup p50 (limit 10)", latencies[LOOKUPS / 2] / 1000.0);
+        System.out.printf("%-34s %,.1f us%n", "lookup p99 (limit 10)", latencies[(int) (LOOKUPS * 0.99)] / 1000.0);
+        System.out.printf("%-34s %,.1f us%n%n", "lookup p99.9 (limit 10)", latencies[(int) (LOOKUPS * 0.999)] / 1000.0);
+    }
+}
@@ -0,0 +1,249 @@
+package com.himusharier.inventory.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.himusharier.inventory.changefeed.ProductChangeRelay;
+import com.himusharier.inventory.changefeed.ProductOutboxWriter;
+import com.himusharier.inventory.constants.ProductChangeType;
+import com.himusharier.inventory.dto.response.ProductChangeDto;
+import com.himusharier.inventory.dto.request.ProductQuerySpec;
+import com.himusharier.inventory.dto.response.ProductResponseDto;
+import com.himusharier.inventory.event.ProductChangedEvent;
+import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.repository.ProductOutboxRepository;
+import com.himusharier.inventory.repository.ProductRepository;
+import com.himusharier.inventory.repository.ProductSnapshotView;
+import com.himusharier.inventory.repository.ProductSpecifications;
+import com.himusharier.inventory.service.CatalogVersionService;
+import com.himusharier.inventory.service.ProductCacheService;
+import com.himusharier.inventory.service.ProductService;
+import com.himusharier.inventory.service.StockLedgerService;
+import com.himusharier.inventory.service.StockStripeService;
+import com.himusharier.inventory.service.StockThresholdService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// The snapshot follows committed changes only, so every test runs without the test-managed transaction.
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "app.catalog.snapshot.enabled=true")
+@Import({ProductCatalogSnapshot.class, ProductService.class, ProductCacheService.class, StockThresholdService.class,
+        StockLedgerService.class, StockStripeService.class, ProductOutboxWriter.class, ProductChangeRelay.class,
+        CatalogVersionService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductCatalogSnapshotTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private ProductCatalogSnapshot productCatalogSnapshot;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductOutboxRepository productOutboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        prefix = "Snap-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+    }
+
+    @Test
+    void find_ShouldMatchTheDatabaseListing_ForFiltersSortsAndPages() {
+        // Given: rows written behind the snapshot's back, then a full load
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            products.add(Product.builder()
+                    .name(prefix + (char) ('a' + i % 7) + i)
+                    .description("d" + i)
+                    .price((double) (i * 7 % 23))
+                    .quantity(i % 9 - 2)
+                    .build());
+        }
+        productRepository.saveAll(products);
+        productCatalogSnapshot.load();
+
+        // When / Then
+        assertSameListing(query(null, null, null, null, null, List.of("-price", "name")), null);
+        assertSameListing(query(5.0, 15.0, null, null, null, List.of("quantity", "-name")), null);
+        assertSameListing(query(null, null, 0, 4, true, List.of("createdAt")), null);
+        assertSameListing(query(null, 20.0, null, null, false, List.of("-quantity", "price")), null);
+        for (int page = 0; page < 4; page++) {
+            assertSameListing(query(null, null, null, null, null, List.of("name")), PageRequest.of(page, 17,
+                    ProductSpecifications.sort(List.of("name"))));
+        }
+        ProductQuerySpec namePrefix = query(null, null, null, null, null, List.of("-name"));
+        namePrefix.setName(prefix + "c");
+        assertSameListing(namePrefix, null);
+    }
+
+    @Test
+    void committedChanges_ShouldReachTheSnapshotRightAfterCommit() throws Exception {
+        // Given
+        productCatalogSnapshot.load();
+        ProductQuerySpec ownProducts = query(null, null, null, null, null, List.of("name"));
+        ownProducts.setName(prefix);
+
+        // When
+        UUID lampId = productService.createProduct(product(prefix + "Lamp", 4)).getProductId();
+        UUID deskId = productService.createProduct(product(prefix + "Desk", 2)).getProductId();
+        productService.patchProduct(lampId, objectMapper.readTree("{\"name\": \"" + prefix + "Arc lamp\", \"price\": 30}"), null);
+        productService.deleteProduct(deskId);
+
+        // Then
+        List<ProductResponseDto> listed = productCatalogSnapshot.find(ownProducts, unpaged(ownProducts)).orElseThrow();
+        assertEquals(1, listed.size());
+        ProductResponseDto lamp = listed.get(0);
+        assertEquals(lampId, lamp.getProductId());
+        assertEquals(prefix + "Arc lamp", lamp.getName());
+        assertEquals(30.0, lamp.getPrice());
+        assertEquals(1L, lamp.getVersion());
+        assertEquals(4, lamp.getQuantity());
+        assertTrue(productCatalogSnapshot.findAll().orElseThrow().stream()
+                .noneMatch(product -> product.getProductId().equals(deskId)));
+    }
+
+    @Test
+    void changesCommittedOnOtherNodes_ShouldReachTheSnapshotThroughTheOutbox() {
+        // Given: another node's writes, which publish no events here, sequenced by another node's relay
+        productCatalogSnapshot.load();
+        TransactionTemplate otherNode = new TransactionTemplate(transactionManager);
+        ProductChangeRelay otherRelay = new ProductChangeRelay(productOutboxRepository, List.of(), transactionManager);
+        UUID chairId = otherNode.execute(status -> {
+            UUID id = productRepository.save(product(prefix + "Chair", 3)).getProductId();
+            productOutboxRepository.appendChanges(List.of(new ProductChangedEvent(id, ProductChangeType.CREATED)));
+            return id;
+        });
+        UUID stoolId = otherNode.execute(status -> {
+            UUID id = productRepository.save(product(prefix + "Stool", 5)).getProductId();
+            productOutboxRepository.appendChanges(List.of(new ProductChangedEvent(id, ProductChangeType.CREATED)));
+            return id;
+        });
+        otherRelay.relay();
+        long latestOffset = productOutboxRepository.findLatestOffset();
+
+        // When: this node's relay starts after the first of them
+        productCatalogSnapshot.publish(List.of(ProductChangeDto.builder()
+                .offset(latestOffset).productId(stoolId).changeType(ProductChangeType.CREATED).build()));
+
+        // Then
+        ProductQuerySpec ownProducts = query(null, null, null, null, null, List.of("name"));
+        ownProducts.setName(prefix);
+        List<UUID> listed = productCatalogSnapshot.find(ownProducts, unpaged(ownProducts)).orElseThrow().stream()
+                .map(ProductResponseDto::getProductId)
+                .toList();
+        assertEquals(List.of(chairId, stoolId), listed);
+    }
+
+    @Test
+    void olderReread_ShouldNotReplaceANewerOne_WhenItFinishesLast() throws Exception {
+        // Given: the first re-read of the product sees it, the second one (after its deletion) does not
+        UUID productId = UUID.randomUUID();
+        ProductSnapshotView beforeDelete = mock(ProductSnapshotView.class);
+        when(beforeDelete.getProductId()).thenReturn(productId);
+        when(beforeDelete.getName()).thenReturn(prefix + "Vase");
+        when(beforeDelete.getVersion()).thenReturn(3L);
+        CountDownLatch firstReading = new CountDownLatch(1);
+        CountDownLatch firstMayReturn = new CountDownLatch(1);
+        AtomicInteger reads = new AtomicInteger();
+        ProductRepository repository = mock(ProductRepository.class);
+        when(repository.streamSnapshotViews()).thenReturn(Stream.empty());
+        when(repository.findSnapshotViewsByProductIdIn(any())).thenAnswer(invocation -> {
+            if (reads.getAndIncrement() == 0) {
+                firstReading.countDown();
+                // Bounded: a re-read waiting on this one would otherwise hang the test.
+                firstMayReturn.await(10, TimeUnit.SECONDS);
+                return List.of(beforeDelete);
+            }
+            return List.of();
+        });
+        ProductCatalogSnapshot snapshot = new ProductCatalogSnapshot(repository, mock(ProductOutboxRepository.class),
+                transactionManager, true);
+        snapshot.load();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // When: the newer re-read is applied while the older one is still querying
+        try {
+            Future<?> older = executor.submit(() ->
+                    snapshot.onProductChanged(new ProductChangedEvent(productId, ProductChangeType.UPDATED)));
+            assertTrue(firstReading.await(5, TimeUnit.SECONDS));
+            snapshot.onProductChanged(new ProductChangedEvent(productId, ProductChangeType.DELETED));
+            // It did not wait for the older re-read's query.
+            assertEquals(1, firstMayReturn.getCount());
+            firstMayReturn.countDown();
+            older.get(15, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+
+        // Then
+        assertTrue(snapshot.findAll().orElseThrow().isEmpty());
+    }
+
+    private void assertSameListing(ProductQuerySpec querySpec, Pageable pageable) {
+        querySpec.setName(querySpec.getName() != null ? querySpec.getName() : prefix);
+        Pageable effective = pageable != null ? pageable : unpaged(querySpec);
+        List<UUID> expected = productRepository.findDtos(ProductSpecifications.matching(querySpec), effective).stream()
+                .map(ProductResponseDto::getProductId)
+                .toList();
+        List<UUID> actual = productCatalogSnapshot.find(querySpec, effective).orElseThrow().stream()
+                .map(ProductResponseDto::getProductId)
+                .toList();
+        assertEquals(expected, actual);
+    }
+
+    private static Pageable unpaged(ProductQuerySpec querySpec) {
+        return Pageable.unpaged(ProductSpecifications.sort(querySpec.getSort()));
+    }
+
+    private static ProductQuerySpec query(Double minPrice, Double maxPrice, Integer minQuantity, Integer maxQuantity,
+                                          Boolean inStock, List<String> sort) {
+        ProductQuerySpec querySpec = new ProductQuerySpec();
+        querySpec.setMinPrice(minPrice);
+        querySpec.setMaxPrice(maxPrice);
+        querySpec.setMinQuantity(minQuantity);
+        querySpec.setMaxQuantity(maxQuantity);
+        querySpec.setInStock(inStock);
+        querySpec.setSort(sort);
+        return querySpec;
+    }
+
+    private static Product product(String name, int quantity) {
+        return Product.builder().name(name).description(name).price(10.0).quantity(quantity).build();
+    }
+}
@@ -0,0 +1,286 @@
+package com.himusharier.inventory.catalog;
+
+import com.himusharier.inventory.dto.request.ProductQuerySpec;
+import com.himusharier.inventory.dto.response.ProductResponseDto;
+import com.himusharier.inventory.repository.ProductSnapshotView;
+import com.himusharier.inventory.repository.ProductSpecifications;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductColumnsTest {
+
+    private static final List<String> SORT_KEYS = List.of("name", "-name", "price", "-price", "quantity", "-quantity",
+            "createdAt", "-createdAt", "updatedAt", "-updatedAt");
+
+    @Test
+    void select_ShouldMatchReferenceFilterAndOrder_ThroughUpsertsAndRemovals() {
+        // Given: a few thousand products over several chunks, churned by updates and removals
+        Random random = new Random(7);
+        ProductColumnsWriter writer = new ProductColumnsWriter();
+        Map<UUID, Row> reference = new LinkedHashMap<>();
+        for (int round = 0; round < 6; round++) {
+            for (int i = 0; i < 1500; i++) {
+                Row row = randomRow(random, UUID.randomUUID());
+                reference.put(row.productId(), row);
+                writer.upsert(row);
+            }
+            List<UUID> ids = new ArrayList<>(reference.keySet());
+            for (int i = 0; i < 700; i++) {
+                UUID productId = ids.get(random.nextInt(ids.size()));
+                if (!reference.containsKey(productId)) {
+                    assertFalse(writer.remove(productId));
+                } else if (random.nextBoolean()) {
+                    Row row = randomRow(random, productId).withVersion(reference.get(productId).version() + 1);
+                    reference.put(productId, row);
+                    writer.upsert(row);
+                } else {
+                    reference.remove(productId);
+                    assertTrue(writer.remove(productId));
+                }
+            }
+            ProductColumns columns = writer.publish();
+            assertEquals(reference.size(), columns.size());
+
+            // When / Then
+            for (int query = 0; query < 40; query++) {
+                ProductQuerySpec querySpec = randomQuery(random);
+                Sort sort = ProductSpecifications.sort(querySpec.getSort());
+                int limit = random.nextBoolean() ? columns.size() : 1 + random.nextInt(200);
+                List<UUID> expected = reference.values().stream()
+                        .filter(row -> matches(row, querySpec))
+                        .sorted(comparator(sort))
+                        .limit(limit)
+                        .map(Row::productId)
+                        .toList();
+                int[] rows = ProductColumnsScan.select(columns, ProductColumnsScan.Filter.of(querySpec),
+                        ProductColumnsScan.RowOrder.of(columns, sort), limit);
+                List<UUID> actual = new ArrayList<>();
+                for (int row : rows) {
+                    actual.add(columns.toDto(row).getProductId());
+                }
+                assertEquals(expected, actual, "query " + querySpec + " sorted by " + sort + " limit " + limit);
+            }
+        }
+    }
+
+    @Test
+    void publish_ShouldLeaveEarlierEpochsUnchanged() {
+        // Given
+        ProductColumnsWriter writer = new ProductColumnsWriter();
+        Random random = new Random(3);
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            Row row = randomRow(random, UUID.randomUUID());
+            rows.add(row);
+            writer.upsert(row);
+        }
+        ProductColumns before = writer.publish();
+        List<String> beforeRows = rows(before);
+
+        // When: a row in the first chunk changes, one is appended to the last, and the first row is removed
+        writer.upsert(rows.get(10).withVersion(9).withName("Renamed"));
+        writer.upsert(randomRow(random, UUID.randomUUID()));
+        writer.remove(rows.get(0).productId());
+        ProductColumns after = writer.publish();
+
+        // Then
+        assertEquals(beforeRows, rows(before));
+        assertEquals(3000, after.size());
+        assertTrue(after.getEpoch() > before.getEpoch());
+        assertTrue(rows(after).stream().anyMatch(row -> row.startsWith(rows.get(10).productId() + " Renamed 9 ")));
+        assertTrue(rows(after).stream().noneMatch(row -> row.startsWith(rows.get(0).productId().toString())));
+        // Untouched chunks are shared, not copied.
+        assertSame(before.quantity[1], after.quantity[1]);
+        assertNotSame(before.quantity[0], after.quantity[0]);
+    }
+
+    @Test
+    void upsert_ShouldIgnoreOlderVersions_AndCompactReplacedNames() {
+        // Given
+        ProductColumnsWriter writer = new ProductColumnsWriter();
+        UUID productId = UUID.randomUUID();
+        Row row = new Row(productId, "Lamp", null, 10.0, 3, null, 0, 5, LocalDateTime.now(), null);
+        writer.upsert(row);
+
+        // When
+        assertFalse(writer.upsert(row.withVersion(4).withName("Old lamp")));
+        for (int i = 0; i < 5000; i++) {
+            writer.upsert(row.withVersion(5 + i).withName("Lamp " + i));
+        }
+        ProductColumns columns = writer.publish();
+
+        // Then
+        ProductResponseDto dto = columns.toDto(0);
+        assertEquals("Lamp 4999", dto.getName());
+        assertNull(dto.getDescription());
+        assertNull(dto.getReorderThreshold());
+        assertTrue(columns.dictionary.length < 5000);
+    }
+
+    private static List<String> rows(ProductColumns columns) {
+        List<String> rows = new ArrayList<>();
+        for (int row = 0; row < columns.size(); row++) {
+            ProductResponseDto dto = columns.toDto(row);
+            rows.add(dto.getProductId() + " " + dto.getName() + " " + dto.getVersion() + " " + dto.getPrice() + " "
+                    + dto.getQuantity() + " " + dto.getDescription() + " " + dto.getReorderThreshold());
+        }
+        return rows.stream().sorted().toList();
+    }
+
+    private static Row randomRow(Random random, UUID productId) {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(random.nextInt(500));
+        return new Row(productId,
+                "P" + (char) ('a' + random.nextInt(6)) + (char) ('a' + random.nextInt(6)) + random.nextInt(5),
+                random.nextInt(4) == 0 ? null : "d" + random.nextInt(50),
+                random.nextInt(10) == 0 ? null : (double) random.nextInt(100),
+                random.nextInt(20) - 2,
+                random.nextBoolean() ? null : random.nextInt(10),
+                0,
+                random.nextInt(3),
+                createdAt,
+                random.nextBoolean() ? null : createdAt.plusSeconds(random.nextInt(1000)));
+    }
+
+    private static ProductQuerySpec randomQuery(Random random) {
+        ProductQuerySpec querySpec = new ProductQuerySpec();
+        if (random.nextInt(3) == 0) {
+            querySpec.setMinPrice((double) random.nextInt(60));
+        }
+        if (random.nextInt(3) == 0) {
+            querySpec.setMaxPrice(60.0 + random.nextInt(40));
+        }
+        if (random.nextInt(3) == 0) {
+            querySpec.setMinQuantity(random.nextInt(10) - 3);
+        }
+        if (random.nextInt(4) == 0) {
+            querySpec.setMaxQuantity(5 + random.nextInt(10));
+        }
+        if (random.nextInt(4) == 0) {
+            querySpec.setInStock(random.nextBoolean());
+        }
+        if (random.nextInt(3) == 0) {
+            querySpec.setName("P" + (char) ('a' + random.nextInt(6)));
+        }
+        List<String> sort = new ArrayList<>();
+        for (int keys = random.nextInt(3); keys > 0; keys--) {
+            sort.add(SORT_KEYS.get(random.nextInt(SORT_KEYS.size())));
+        }
+        querySpec.setSort(sort);
+        return querySpec;
+    }
+
+    private static boolean matches(Row row, ProductQuerySpec querySpec) {
+        if (querySpec.getMinPrice() != null && (row.price() == null || row.price() < querySpec.getMinPrice())) {
+            return false;
+        }
+        if (querySpec.getMaxPrice() != null && (row.price() == null || row.price() > querySpec.getMaxPrice())) {
+            return false;
+        }
+        if (querySpec.getMinQuantity() != null && row.quantity() < querySpec.getMinQuantity()) {
+            return false;
+        }
+        if (querySpec.getMaxQuantity() != null && row.quantity() > querySpec.getMaxQuantity()) {
+            return false;
+        }
+        if (querySpec.getInStock() != null && querySpec.getInStock() != row.quantity() > 0) {
+            return false;
+        }
+        return querySpec.getName() == null || row.name().startsWith(querySpec.getName());
+    }
+
+    // Nulls last ascending, first descending.
+    private static Comparator<Row> comparator(Sort sort) {
+        Comparator<Row> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<Row> key = switch (order.getProperty()) {
+                case "name" -> Comparator.comparing(Row::name);
+                case "price" -> Comparator.comparing(Row::price, Comparator.nullsLast(Comparator.naturalOrder()));
+                case "quantity" -> Comparator.comparingInt(Row::quantity);
+                case "createdAt" -> Comparator.comparing(Row::createdAt);
+                case "updatedAt" -> Comparator.comparing(Row::updatedAt, Comparator.nullsLast(Comparator.naturalOrder()));
+                default -> Comparator.comparing(Row::productId, (a, b) -> {
+                    int result = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+                    return result != 0 ? result : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+                });
+            };
+            comparator = comparator.thenComparing(order.isDescending() ? key.reversed() : key);
+        }
+        return comparator;
+    }
+
+    private record Row(UUID productId, String name, String description, Double price, int quantity,
+                       Integer reorderThreshold, int stockStripes, long version, LocalDateTime createdAt,
+                       LocalDateTime updatedAt) implements ProductSnapshotView {
+
+        Row withVersion(long version) {
+            return new Row(productId, name, description, price, quantity, reorderThreshold, stockStripes, version,
+                    createdAt, updatedAt);
+        }
+
+        Row withName(String name) {
+            return new Row(productId, name, description, price, quantity, reorderThreshold, stockStripes, version,
+                    createdAt, updatedAt);
+        }
+
+        @Override
+        public UUID getProductId() {
+            return productId;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        public Double getPrice() {
+            return price;
+        }
+
+        @Override
+        public int getQuantity() {
+            return quantity;
+        }
+
+        @Override
+        public Integer getReorderThreshold() {
+            return reorderThreshold;
+        }
+
+        @Override
+        public int getStockStripes() {
+            return stockStripes;
+        }
+
+        @Override
+        public long getVersion() {
+            return version;
+        }
+
+        @Override
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        @Override
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+    }
+}
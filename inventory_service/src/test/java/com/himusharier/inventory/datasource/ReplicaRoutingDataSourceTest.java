@@ -0,0 +1,201 @@
+package com.himusharier.inventory.datasource;
+
+import com.himusharier.inventory.constants.ReplicaSelection;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Three embedded databases, each holding only its own name, so every read shows where it was routed.
+class ReplicaRoutingDataSourceTest {
+
+    private final List<HikariDataSource> databases = new ArrayList<>();
+
+    private HikariDataSource primary;
+    private HikariDataSource replica1;
+    private HikariDataSource replica2;
+    private FailingDataSource failingReplica1;
+    private ReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWriteTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica1 = database("replica-1");
+        replica2 = database("replica-2");
+        failingReplica1 = new FailingDataSource(replica1);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ReadRouting.clear();
+        if (routingDataSource != null) {
+            routingDataSource.destroy();
+        }
+        databases.forEach(HikariDataSource::close);
+    }
+
+    @Test
+    void readOnlyTransactions_ShouldRotateOverReplicas_AndEverythingElseUsePrimary() {
+        // Given
+        route(ReplicaSelection.ROUND_ROBIN, Duration.ZERO);
+
+        // When / Then
+        assertEquals(List.of("replica-1", "replica-2", "replica-1", "replica-2"),
+                List.of(readOnly(), readOnly(), readOnly(), readOnly()));
+        assertEquals("primary", readWriteTransaction.execute(status -> node()));
+        assertEquals("primary", node());
+    }
+
+    @Test
+    void reads_ShouldStayOnPrimary_AfterThisThreadCommittedAWrite() {
+        // Given
+        route(ReplicaSelection.ROUND_ROBIN, Duration.ofMinutes(1));
+        AtomicLong pinnedUntil = new AtomicLong();
+        ReadRouting.setWriteListener(pinnedUntil::set);
+
+        // When: a rolled back write pins nothing
+        readWriteTransaction.executeWithoutResult(status -> {
+            write();
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertEquals("replica-1", readOnly());
+        assertEquals(0, pinnedUntil.get());
+
+        // When: a committed write does
+        readWriteTransaction.executeWithoutResult(status -> write());
+
+        // Then
+        assertEquals("primary", readOnly());
+        assertTrue(pinnedUntil.get() > System.currentTimeMillis() + 30_000);
+        ReadRouting.clear();
+        assertEquals("replica-2", readOnly());
+    }
+
+    @Test
+    void onPrimary_ShouldSendReadOnlyTransactionsToPrimary() {
+        // Given
+        route(ReplicaSelection.ROUND_ROBIN, Duration.ZERO);
+
+        // When / Then
+        assertEquals("primary", ReadRouting.onPrimary(this::readOnly));
+        assertEquals("replica-1", readOnly());
+    }
+
+    @Test
+    void replicaThatIsDown_ShouldBeSkipped_UntilTheHealthCheckSeesItBack() {
+        // Given
+        route(ReplicaSelection.ROUND_ROBIN, Duration.ZERO);
+        failingReplica1.down = true;
+
+        // When / Then: its reads fail over to the other replica
+        assertEquals(List.of("replica-2", "replica-2", "replica-2"), List.of(readOnly(), readOnly(), readOnly()));
+        assertEquals("DOWN", routingDataSource.describe().get("replica-1"));
+
+        // When / Then: with no replica left, reads go to the primary
+        replica2.close();
+        routingDataSource.checkReplicas();
+        assertEquals("primary", readOnly());
+
+        // When / Then: back in rotation after the next check
+        failingReplica1.down = false;
+        routingDataSource.checkReplicas();
+        assertEquals("UP", routingDataSource.describe().get("replica-1"));
+        assertEquals(List.of("replica-1", "replica-1"), List.of(readOnly(), readOnly()));
+    }
+
+    @Test
+    void leastLoaded_ShouldPreferTheReplicaWithFewestConnectionsInUse() throws SQLException {
+        // Given
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replica1);
+        replicas.put("replica-2", replica2);
+        route(replicas, ReplicaSelection.LEAST_LOADED, Duration.ZERO);
+        readOnly();
+        readOnly();
+
+        // When
+        try (Connection busy = replica1.getConnection()) {
+            // Then
+            assertEquals(List.of("replica-2", "replica-2", "replica-2"), List.of(readOnly(), readOnly(), readOnly()));
+        }
+    }
+
+    private void route(ReplicaSelection selection, Duration pinAfterWrite) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", failingReplica1);
+        replicas.put("replica-2", replica2);
+        route(replicas, selection, pinAfterWrite);
+    }
+
+    private void route(Map<String, DataSource> replicas, ReplicaSelection selection, Duration pinAfterWrite) {
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas, selection, pinAfterWrite);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    private String readOnly() {
+        return readOnlyTransaction.execute(status -> node());
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+
+    private void write() {
+        jdbcTemplate.update("update node set writes = writes + 1");
+    }
+
+    private HikariDataSource database(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setConnectionTimeout(250);
+        dataSource.setPoolName(name);
+        databases.add(dataSource);
+        new JdbcTemplate(dataSource).execute("create table node (name varchar(20), writes int)");
+        new JdbcTemplate(dataSource).update("insert into node values (?, 0)", name);
+        return dataSource;
+    }
+
+    private static class FailingDataSource extends DelegatingDataSource {
+        private volatile boolean down;
+
+        private FailingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+    }
+}
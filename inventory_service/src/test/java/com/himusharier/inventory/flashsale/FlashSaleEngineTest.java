@@ -0,0 +1,172 @@
+package com.himusharier.inventory.flashsale;
+
+import com.himusharier.inventory.constants.FlashSaleReservationStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlashSaleEngineTest {
+
+    private static final UUID PRODUCT_ID = UUID.randomUUID();
+
+    @TempDir
+    Path walDirectory;
+
+    @Test
+    void reserve_ShouldNeverOversell_WhenManyThreadsCompete() throws Exception {
+        // Given
+        FlashSaleEngine engine = new FlashSaleEngine(wal(1 << 20), 1, 1024, Map.of(PRODUCT_ID, 1000));
+        AtomicInteger applied = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        if (engine.reserve(PRODUCT_ID, 1, null).join().getStatus() == FlashSaleReservationStatus.APPLIED) {
+                            applied.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdown();
+            engine.close();
+        }
+
+        // Then
+        assertEquals(1000, applied.get());
+        assertEquals(0, engine.available(PRODUCT_ID).getAsInt());
+    }
+
+    @Test
+    void replay_ShouldReturnEveryAcknowledgedRecord_AcrossSegments() throws Exception {
+        // Given: 10 records per segment
+        FlashSaleEngine engine = new FlashSaleEngine(wal(FlashSaleWal.RECORD_SIZE * 10L), 1, 64, Map.of(PRODUCT_ID, 100));
+        List<CompletableFuture<FlashSaleReservation>> reservations = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            reservations.add(engine.reserve(PRODUCT_ID, 2, null));
+        }
+        CompletableFuture.allOf(reservations.toArray(CompletableFuture[]::new)).join();
+        engine.close();
+
+        // When
+        List<FlashSaleWalRecord> records = new ArrayList<>();
+        long lastSeq = wal(FlashSaleWal.RECORD_SIZE * 10L).replay(records::add);
+
+        // Then
+        assertEquals(25, records.size());
+        assertEquals(25, lastSeq);
+        assertEquals(-50, records.stream().mapToInt(FlashSaleWalRecord::getDelta).sum());
+        assertEquals(3, segmentCount());
+    }
+
+    @Test
+    void replay_ShouldReturnReferences_OfVariableLengthRecords() throws Exception {
+        // Given
+        FlashSaleEngine engine = new FlashSaleEngine(wal(1 << 20), 1, 64, Map.of(PRODUCT_ID, 100));
+        engine.reserve(PRODUCT_ID, 1, "ORDER-\u00e9").join();
+        engine.reserve(PRODUCT_ID, 2, null).join();
+        engine.restock(PRODUCT_ID, 3, "RETURN-2").join();
+        engine.close();
+
+        // When
+        List<FlashSaleWalRecord> records = new ArrayList<>();
+        wal(1 << 20).replay(records::add);
+
+        // Then
+        assertEquals(3, records.size());
+        assertEquals("ORDER-\u00e9", records.get(0).getReference());
+        assertNull(records.get(1).getReference());
+        assertEquals("RETURN-2", records.get(2).getReference());
+        assertEquals(List.of(-1, -2, 3), records.stream().map(FlashSaleWalRecord::getDelta).toList());
+    }
+
+    @Test
+    void replay_ShouldStopAtTornRecord() throws Exception {
+        // Given
+        FlashSaleEngine engine = new FlashSaleEngine(wal(1 << 20), 1, 64, Map.of(PRODUCT_ID, 100));
+        engine.reserve(PRODUCT_ID, 1, null).join();
+        engine.reserve(PRODUCT_ID, 1, null).join();
+        engine.reserve(PRODUCT_ID, 1, null).join();
+        engine.close();
+
+        // When: a crash tore the third record
+        try (FileChannel segment = FileChannel.open(onlySegment(), StandardOpenOption.WRITE)) {
+            segment.write(ByteBuffer.wrap(new byte[]{42}), FlashSaleWal.RECORD_SIZE * 2L + 12);
+        }
+        List<FlashSaleWalRecord> records = new ArrayList<>();
+        long lastSeq = wal(1 << 20).replay(records::add);
+
+        // Then
+        assertEquals(2, records.size());
+        assertEquals(2, lastSeq);
+    }
+
+    @Test
+    void drain_ShouldReturnNetChangesSincePreviousDrain_AndTruncateAppliedSegments() throws Exception {
+        // Given
+        UUID otherId = UUID.randomUUID();
+        FlashSaleEngine engine = new FlashSaleEngine(wal(FlashSaleWal.RECORD_SIZE * 2L), 1, 64, Map.of(PRODUCT_ID, 10));
+        try {
+            engine.reserve(PRODUCT_ID, 3, "ORDER-1").join();
+            engine.restock(PRODUCT_ID, 1, null).join();
+            assertEquals(FlashSaleReservationStatus.NOT_ACTIVE, engine.reserve(otherId, 1, null).join().getStatus());
+            assertEquals(FlashSaleReservationStatus.INSUFFICIENT_STOCK, engine.reserve(PRODUCT_ID, 9, null).join().getStatus());
+            assertEquals(3L, engine.open(otherId, 5).join());
+            engine.reserve(otherId, 5, null).join();
+
+            // When
+            FlashSaleDrain first = engine.drain().join();
+            FlashSaleDrain second = engine.drain().join();
+            engine.truncateThrough(first.getThroughSeq());
+
+            // Then
+            assertEquals(Map.of(PRODUCT_ID, -2, otherId, -5), first.getDeltas());
+            assertEquals(Map.of(PRODUCT_ID, Map.of("ORDER-1", -3)), first.getReferencedDeltas());
+            assertEquals(4, first.getThroughSeq());
+            assertTrue(second.getDeltas().isEmpty());
+            assertEquals(1, segmentCount());
+        } finally {
+            engine.close();
+        }
+    }
+
+    private FlashSaleWal wal(long segmentSize) throws Exception {
+        return new FlashSaleWal(walDirectory, segmentSize, true);
+    }
+
+    private long segmentCount() throws Exception {
+        try (var files = Files.list(walDirectory)) {
+            return files.count();
+        }
+    }
+
+    private Path onlySegment() throws Exception {
+        try (var files = Files.list(walDirectory)) {
+            return files.findFirst().orElseThrow();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.himusharier.inventory.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.himusharier.inventory.catalog.ProductCatalogSnapshot;
+import com.himusharier.inventory.dto.request.ProductRequestDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// GET /products answered from the catalog snapshot. Requests commit, as in production, so every
+// change goes through the snapshot's after-commit re-read; each test lists only its own products.
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:snapshot-listing;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.catalog.snapshot.enabled=true"
+})
+class CatalogSnapshotIntegrationTest {
+
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductCatalogSnapshot productCatalogSnapshot;
+
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        prefix = "Listed-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+        assertTrue(productCatalogSnapshot.isLoaded());
+    }
+
+    @Test
+    void getAllProducts_ShouldFilterSortAndPage_FromTheSnapshot() throws Exception {
+        createProduct(prefix + "Anvil", 40.0, 2);
+        createProduct(prefix + "Bolt", 5.0, 0);
+        createProduct(prefix + "Chisel", 12.5, 7);
+        createProduct(prefix + "Drill", 89.0, 1);
+        createProduct(prefix + "Easel", 12.5, 3);
+
+        mockMvc.perform(get("/api/v1/products")
+                        .param("name", prefix)
+                        .param("maxPrice", "50")
+                        .param("inStock", "true")
+                        .param("sort", "-price,name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[*].name", contains(prefix + "Anvil", prefix + "Chisel", prefix + "Easel")));
+
+        mockMvc.perform(get("/api/v1/products")
+                        .param("name", prefix)
+                        .param("minQuantity", "1")
+                        .param("sort", "quantity"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[*].quantity", contains(1, 2, 3, 7)));
+
+        mockMvc.perform(get("/api/v1/products")
+                        .param("name", prefix)
+                        .param("sort", "name")
+                        .param("page", "1")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[*].name", contains(prefix + "Chisel", prefix + "Drill")));
+
+        mockMvc.perform(get("/api/v1/products")
+                        .param("name", prefix)
+                        .param("sort", "name")
+                        .param("page", "3")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(0)));
+    }
+
+    @Test
+    void getAllProducts_ShouldReadItsOwnWrites_AndMoveTheETag() throws Exception {
+        // Given
+        UUID lampId = createProduct(prefix + "Lamp", 20.0, 5);
+        String eTag = mockMvc.perform(get("/api/v1/products").param("name", prefix))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].quantity", is(5)))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+        mockMvc.perform(get("/api/v1/products").param("name", prefix).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        // When: a stock change, then a patch
+        mockMvc.perform(post("/api/v1/products/{id}/stock/decrement", lampId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"quantity\": 2}"))
+                .andExpect(status().isOk());
+
+        // Then: the next listing has it and a new tag
+        String decrementedETag = mockMvc.perform(get("/api/v1/products")
+                        .param("name", prefix)
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].quantity", is(3)))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+        assertNotEquals(eTag, decrementedETag);
+
+        mockMvc.perform(patch("/api/v1/products/{id}", lampId)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"price\": 25}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/products")
+                        .param("name", prefix)
+                        .param("minPrice", "21")
+                        .header("If-None-Match", decrementedETag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[*].productId", contains(lampId.toString())))
+                .andExpect(jsonPath("$.data[0].price", is(25.0)));
+
+        // And a deletion leaves the listing at once
+        mockMvc.perform(delete("/api/v1/products/{id}", lampId))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/products").param("name", prefix))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(0)));
+    }
+
+    private UUID createProduct(String name, double price, int quantity) throws Exception {
+        ProductRequestDto requestDto = new ProductRequestDto();
+        requestDto.setName(name);
+        requestDto.setDescription(name);
+        requestDto.setPrice(price);
+        requestDto.setQuantity(quantity);
+        String response = mockMvc.perform(post("/api/v1/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return UUID.fromString(objectMapper.readTree(response).get("data").get("productId").asText());
+    }
+}
@@ -0,0 +1,231 @@
+package com.himusharier.inventory.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.himusharier.inventory.constants.IdempotencyStatus;
+import com.himusharier.inventory.dto.request.ProductRequestDto;
+import com.himusharier.inventory.idempotency.IdempotencyFilter;
+import com.himusharier.inventory.idempotency.IdempotencyStore;
+import com.himusharier.inventory.idempotency.IdempotentResponse;
+import com.himusharier.inventory.model.IdempotencyRecord;
+import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.repository.IdempotencyRecordRepository;
+import com.himusharier.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Not @Transactional: the filter stores keys outside the request's transaction, and duplicates run on their own threads.
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotencyIntegrationTest {
+
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .addFilters(webApplicationContext.getBean(IdempotencyFilter.class))
+                .build();
+        productRepository.deleteAll();
+        idempotencyRecordRepository.deleteAll();
+    }
+
+    @Test
+    void createProduct_ShouldReplayFirstResponseForSameKey() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String body = objectMapper.writeValueAsString(productRequest("Idempotent Widget"));
+
+        String first = mockMvc.perform(post("/api/v1/products")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.IDEMPOTENT_REPLAYED))
+                .andReturn().getResponse().getContentAsString();
+
+        String replayed = mockMvc.perform(post("/api/v1/products")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.IDEMPOTENT_REPLAYED, "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(first, replayed);
+        assertEquals(1, productRepository.count());
+        assertEquals(1, idempotencyRecordRepository.count());
+    }
+
+    @Test
+    void createProduct_ShouldRejectKeyReusedForDifferentRequest() throws Exception {
+        String key = UUID.randomUUID().toString();
+        mockMvc.perform(post("/api/v1/products")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(productRequest("First"))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/v1/products")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(productRequest("Second"))))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.success").value(false));
+
+        assertEquals(1, productRepository.count());
+    }
+
+    @Test
+    void decrementStock_ShouldDecrementOnceForRetries() throws Exception {
+        Product product = productRepository.save(Product.builder().name("Stocked").price(5.0).quantity(10).build());
+        String key = UUID.randomUUID().toString();
+
+        for (int attempt = 0; attempt < 3; attempt++) {
+            mockMvc.perform(post("/api/v1/products/" + product.getProductId() + "/stock/decrement")
+                            .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"quantity\": 4}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.adjustment").value(-4));
+        }
+
+        assertEquals(6, productRepository.findByProductId(product.getProductId()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void createProduct_ShouldRunConcurrentDuplicatesOnce() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String body = objectMapper.writeValueAsString(productRequest("Contended Widget"));
+        Callable<MvcResult> request = () -> mockMvc.perform(post("/api/v1/products")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andReturn();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<MvcResult>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(request));
+            }
+            List<String> bodies = new ArrayList<>();
+            for (Future<MvcResult> result : results) {
+                assertEquals(200, result.get().getResponse().getStatus());
+                bodies.add(result.get().getResponse().getContentAsString());
+            }
+            Set<String> productIds = bodies.stream()
+                    .map(content -> {
+                        try {
+                            return objectMapper.readTree(content).get("data").get("productId").asText();
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    })
+                    .collect(Collectors.toSet());
+            assertEquals(1, productIds.size());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, productRepository.count());
+    }
+
+    @Test
+    void request_ShouldRejectOverlongKey() throws Exception {
+        mockMvc.perform(post("/api/v1/products")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, "k".repeat(256))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(productRequest("Too Long"))))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(0, productRepository.count());
+    }
+
+    @Test
+    void complete_ShouldNotOverwriteClaimTakenOverAfterItExpired() {
+        String key = UUID.randomUUID().toString();
+        String firstClaim = idempotencyStore.claim(key);
+        expireClaim(key);
+        String secondClaim = idempotencyStore.claim(key);
+
+        idempotencyStore.complete(key, firstClaim, new IdempotentResponse("fingerprint", 200, null, null, null, new byte[0]));
+        idempotencyStore.release(key, firstClaim);
+
+        IdempotencyRecord record = idempotencyRecordRepository.findById(key).orElseThrow();
+        assertEquals(IdempotencyStatus.IN_PROGRESS, record.getStatus());
+        assertEquals(secondClaim, record.getClaimToken());
+        assertTrue(idempotencyStore.findCompleted(key).isEmpty());
+    }
+
+    @Test
+    void renewClaims_ShouldKeepRunningRequestsClaimFromBeingTakenOver() {
+        String key = UUID.randomUUID().toString();
+        String claim = idempotencyStore.claim(key);
+        expireClaim(key);
+
+        idempotencyStore.renewClaims();
+
+        assertNull(idempotencyStore.claim(key));
+        idempotencyStore.release(key, claim);
+        assertFalse(idempotencyRecordRepository.existsById(key));
+    }
+
+    private void expireClaim(String idempotencyKey) {
+        jdbcTemplate.update("UPDATE em_idempotency_keys SET expires_at = ? WHERE idempotency_key = ?",
+                Timestamp.from(Instant.now().minusSeconds(1)), idempotencyKey);
+    }
+
+    private static ProductRequestDto productRequest(String name) {
+        ProductRequestDto requestDto = new ProductRequestDto();
+        requestDto.setName(name);
+        requestDto.setDescription("Created with an idempotency key");
+        requestDto.setPrice(19.99);
+        requestDto.setQuantity(3);
+        return requestDto;
+    }
+}
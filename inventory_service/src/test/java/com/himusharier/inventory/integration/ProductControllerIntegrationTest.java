@@ -1,23 +1,39 @@
 package com.himusharier.inventory.integration;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
 import com.himusharier.inventory.dto.request.ProductRequestDto;
 import com.himusharier.inventory.repository.ProductRepository;
+import com.himusharier.inventory.service.ProductSearchService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -38,6 +54,12 @@ class ProductControllerIntegrationTest {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private UUID testProductId;
 
     @BeforeEach
@@ -162,6 +184,15 @@ class ProductControllerIntegrationTest {
                 .andExpect(jsonPath("$.success", is(false)));
     }
 
+    @Test
+    void createProduct_ShouldReturnBadRequest_WhenQuantityIsMissing() throws Exception {
+        mockMvc.perform(post("/api/v1/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Cable\", \"price\": 5.0}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Product quantity can not be blank.")));
+    }
+
     @Test
     void updateProduct_ShouldUpdateAndReturnProduct_WhenValidRequest() throws Exception {
         ProductRequestDto requestDto = new ProductRequestDto();
@@ -229,4 +260,753 @@ class ProductControllerIntegrationTest {
                 .andExpect(jsonPath("$.success", is(false)))
                 .andExpect(jsonPath("$.message", containsString("Product not found with the id: " + nonExistentId)));
     }
+
+    @Test
+    void exportProducts_ShouldStreamNdjson() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/products/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(header().doesNotExist("Content-Encoding"));
+    }
+
+    @Test
+    void exportProducts_ShouldGzipBody_WhenClientAcceptsGzip() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/products/export")
+                .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"));
+    }
+
+    @Test
+    void exportProducts_ShouldNotGzipBody_WhenClientRefusesGzip() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/products/export")
+                .header("Accept-Encoding", "gzip;q=0, identity"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"));
+    }
+
+    @Test
+    void exportProducts_ShouldGzipBody_WhenWildcardCoversGzip() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/products/export")
+                .header("Accept-Encoding", "br;q=1.0, *;q=0.5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"));
+    }
+
+    @Test
+    void exportProducts_ShouldUseTheExportTimeout() throws Exception {
+        MvcResult export = mockMvc.perform(get("/api/v1/products/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertEquals(Duration.ofHours(1).toMillis(), export.getRequest().getAsyncContext().getTimeout());
+        mockMvc.perform(asyncDispatch(export)).andExpect(status().isOk());
+    }
+
+    @Test
+    void getProductChanges_ShouldHoldThePollPastTheMaxWait() throws Exception {
+        MvcResult poll = mockMvc.perform(get("/api/v1/products/changes").param("waitSeconds", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertEquals(Duration.ofSeconds(35).toMillis(), poll.getRequest().getAsyncContext().getTimeout());
+    }
+
+    @Test
+    void getProductById_ShouldReturnETag_DerivedFromVersion() throws Exception {
+        mockMvc.perform(get("/api/v1/products/{id}", testProductId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andExpect(jsonPath("$.data.version", is(0)));
+    }
+
+    @Test
+    void getProductById_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        mockMvc.perform(get("/api/v1/products/{id}", testProductId)
+                .header("If-None-Match", "\"0\""))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getProductById_ShouldReturnProduct_WhenETagIsStale() throws Exception {
+        mockMvc.perform(get("/api/v1/products/{id}", testProductId)
+                .header("If-None-Match", "\"7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andExpect(jsonPath("$.data.name", is("Test Product")));
+    }
+
+    @Test
+    void getProductById_ShouldReturnNotFound_WhenConditionalRequestForUnknownProduct() throws Exception {
+        mockMvc.perform(get("/api/v1/products/{id}", UUID.randomUUID())
+                .header("If-None-Match", "\"0\""))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getAllProducts_ShouldReturnNotModified_WhenCatalogETagMatches() throws Exception {
+        String eTag = mockMvc.perform(get("/api/v1/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/products")
+                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void updateProduct_ShouldReturnPreconditionFailed_WhenIfMatchIsStale() throws Exception {
+        ProductRequestDto requestDto = new ProductRequestDto();
+        requestDto.setName("Updated Product");
+        requestDto.setPrice(299.99);
+        requestDto.setQuantity(25);
+
+        mockMvc.perform(put("/api/v1/products/{id}", testProductId)
+                .header("If-Match", "\"5\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDto)))
+                .andDo(print())
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.success", is(false)));
+    }
+
+    @Test
+    void updateProduct_ShouldUpdate_WhenIfMatchIsCurrent() throws Exception {
+        ProductRequestDto requestDto = new ProductRequestDto();
+        requestDto.setName("Updated Product");
+        requestDto.setPrice(299.99);
+        requestDto.setQuantity(25);
+
+        mockMvc.perform(put("/api/v1/products/{id}", testProductId)
+                .header("If-Match", "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.name", is("Updated Product")));
+    }
+
+    @Test
+    void decrementStock_ShouldDecrement_WhenEnoughStock() throws Exception {
+        mockMvc.perform(post("/api/v1/products/{id}/stock/decrement", testProductId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quantity\": 4}"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success", is(true)))
+                .andExpect(jsonPath("$.data.adjustment", is(-4)));
+
+        mockMvc.perform(get("/api/v1/products/{id}", testProductId))
+                .andExpect(jsonPath("$.data.quantity", is(6)))
+                .andExpect(jsonPath("$.data.version", is(1)));
+    }
+
+    @Test
+    void decrementStock_ShouldMarkLowStock_WhenCrossingReorderThreshold() throws Exception {
+        mockMvc.perform(patch("/api/v1/products/{id}", testProductId)
+                .contentType("application/merge-patch+json")
+                .content("{\"reorderThreshold\": 8}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.reorderThreshold", is(8)));
+        assertFalse(productRepository.findThresholdStateByProductId(testProductId).orElseThrow().getLowStockAlerted());
+
+        mockMvc.perform(post("/api/v1/products/{id}/stock/decrement", testProductId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quantity\": 3}"))
+                .andExpect(status().isOk());
+
+        assertTrue(productRepository.findThresholdStateByProductId(testProductId).orElseThrow().getLowStockAlerted());
+    }
+
+    @Test
+    void stockLedger_ShouldRecordMovementsAndReconcile() throws Exception {
+        mockMvc.perform(post("/api/v1/products/{id}/stock/decrement", testProductId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quantity\": 4, \"reference\": \"order-42\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/products/{id}/stock/movements", testProductId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.data[0].reason", is("CREATED")))
+                .andExpect(jsonPath("$.data[1].delta", is(-4)))
+                .andExpect(jsonPath("$.data[1].reference", is("order-42")));
+
+        mockMvc.perform(get("/api/v1/products/{id}/stock", testProductId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.quantity", is(6)));
+
+        mockMvc.perform(get("/api/v1/products/{id}/stock", testProductId)
+                        .param("asOf", "2000-01-01T00:00:00"))
+                .andExpect(jsonPath("$.data.quantity", is(0)));
+
+        mockMvc.perform(get("/api/v1/products/{id}/stock/reconciliation", testProductId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.consistent", is(true)));
+    }
+
+    @Test
+    void stripedStock_ShouldDecrementStripesAndReadBackSum() throws Exception {
+        mockMvc.perform(put("/api/v1/products/{id}/stock/stripes", testProductId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stripes\": 4}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.stripeQuantities", contains(3, 3, 2, 2)));
+
+        mockMvc.perform(post("/api/v1/products/{id}/stock/decrement", testProductId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quantity\": 4}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/products/{id}", testProductId))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(jsonPath("$.data.quantity", is(6)))
+                .andExpect(jsonPath("$.data.stockStripes", is(4)));
+
+        mockMvc.perform(post("/api/v1/products/{id}/stock/decrement", testProductId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quantity\": 7}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void decrementStock_ShouldReturnConflict_WhenNotEnoughStock() throws Exception {
+        mockMvc.perform(post("/api/v1/products/{id}/stock/decrement", testProductId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quantity\": 11}"))
+                .andDo(print())
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.success", is(false)))
+                .andExpect(jsonPath("$.message", containsString("Insufficient stock")));
+    }
+
+    @Test
+    void decrementStock_ShouldReturnNotFound_WhenProductDoesNotExist() throws Exception {
+        mockMvc.perform(post("/api/v1/products/{id}/stock/decrement", UUID.randomUUID())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quantity\": 1}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void decrementStock_ShouldReturnBadRequest_WhenQuantityIsNotPositive() throws Exception {
+        mockMvc.perform(post("/api/v1/products/{id}/stock/decrement", testProductId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quantity\": 0}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success", is(false)));
+    }
+
+    @Test
+    void incrementStock_ShouldIncrement_WhenProductExists() throws Exception {
+        mockMvc.perform(post("/api/v1/products/{id}/stock/increment", testProductId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quantity\": 5}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.adjustment", is(5)));
+    }
+
+    @Test
+    void reserveStock_ShouldReserveAllLines_WhenEnoughStock() throws Exception {
+        String body = "{\"lines\": [{\"productId\": \"" + testProductId + "\", \"quantity\": 3}]}";
+
+        mockMvc.perform(post("/api/v1/products/stock/reservations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success", is(true)))
+                .andExpect(jsonPath("$.data.reserved", is(true)))
+                .andExpect(jsonPath("$.data.lines[0].status", is("RESERVED")));
+
+        mockMvc.perform(get("/api/v1/products/{id}", testProductId))
+                .andExpect(jsonPath("$.data.quantity", is(7)));
+    }
+
+    @Test
+    void reserveStock_ShouldReturnConflictWithLineOutcomes_WhenAnyLineFails() throws Exception {
+        UUID missingId = UUID.randomUUID();
+        String body = "{\"lines\": ["
+                + "{\"productId\": \"" + testProductId + "\", \"quantity\": 11},"
+                + "{\"productId\": \"" + missingId + "\", \"quantity\": 1}]}";
+
+        mockMvc.perform(post("/api/v1/products/stock/reservations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andDo(print())
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.success", is(false)))
+                .andExpect(jsonPath("$.data.reserved", is(false)))
+                .andExpect(jsonPath("$.data.lines[0].status", is("INSUFFICIENT_STOCK")))
+                .andExpect(jsonPath("$.data.lines[0].availableQuantity", is(10)))
+                .andExpect(jsonPath("$.data.lines[1].status", is("NOT_FOUND")));
+    }
+
+    @Test
+    void reserveStock_ShouldReturnBadRequest_WhenNoLines() throws Exception {
+        mockMvc.perform(post("/api/v1/products/stock/reservations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"lines\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void importProducts_ShouldImportCsvAndReportInvalidRows() throws Exception {
+        String csv = "name,description,price,quantity\n"
+                + "Keyboard,\"Mechanical, 87 keys\",49.5,20\n"
+                + ",No name,1.0,1\n"
+                + "Mouse,,abc,5\n"
+                + "Monitor,27 inch,199.0,3\n";
+
+        mockMvc.perform(post("/api/v1/products/import")
+                .contentType("text/csv")
+                .content(csv))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success", is(true)))
+                .andExpect(jsonPath("$.data.processed", is(4)))
+                .andExpect(jsonPath("$.data.imported", is(2)))
+                .andExpect(jsonPath("$.data.failed", is(2)))
+                .andExpect(jsonPath("$.data.errors[0].line", is(3)))
+                .andExpect(jsonPath("$.data.errors[0].message", is("Product name can not be blank.")))
+                .andExpect(jsonPath("$.data.errors[1].line", is(4)))
+                .andExpect(jsonPath("$.data.errors[1].message", is("Invalid price: abc")))
+                .andExpect(jsonPath("$.data.errorsTruncated", is(false)));
+
+        mockMvc.perform(get("/api/v1/products"))
+                .andExpect(jsonPath("$.data", hasSize(3)))
+                .andExpect(jsonPath("$.data[*].description", hasItem("Mechanical, 87 keys")));
+    }
+
+    @Test
+    // Each chunk must be its own transaction for the rolled back one to be retried.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void importProducts_ShouldReportOnlyTheRejectedRow_WhenTheDatabaseRejectsItsChunk() throws Exception {
+        // Passes validation, but is longer than the name column.
+        String csv = "name,price,quantity\n"
+                + "Keyboard,49.5,20\n"
+                + "K".repeat(300) + ",1.0,1\n"
+                + "Monitor,199.0,3\n";
+
+        mockMvc.perform(post("/api/v1/products/import")
+                .contentType("text/csv")
+                .content(csv))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.processed", is(3)))
+                .andExpect(jsonPath("$.data.imported", is(2)))
+                .andExpect(jsonPath("$.data.failed", is(1)))
+                .andExpect(jsonPath("$.data.errors", hasSize(1)))
+                .andExpect(jsonPath("$.data.errors[0].line", is(3)));
+
+        mockMvc.perform(get("/api/v1/products"))
+                .andExpect(jsonPath("$.data", hasSize(3)))
+                .andExpect(jsonPath("$.data[*].name", hasItem("Monitor")));
+    }
+
+    @Test
+    void importProducts_ShouldImportCsv_WhenQuantityIsMissing() throws Exception {
+        mockMvc.perform(post("/api/v1/products/import")
+                .contentType("text/csv")
+                .content("name,price,quantity\nCable,5.0,\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.imported", is(0)))
+                .andExpect(jsonPath("$.data.errors[0].message", is("Product quantity can not be blank.")));
+    }
+
+    @Test
+    void importProducts_ShouldImportNdjson() throws Exception {
+        String ndjson = "{\"name\": \"Cable\", \"price\": 5.0, \"quantity\": 100}\n"
+                + "{\"name\": \"Charger\", \"description\": \"65W\", \"price\": 25.0, \"quantity\": 8}\n"
+                + "{\"name\": \"Broken\"\n";
+
+        mockMvc.perform(post("/api/v1/products/import")
+                .contentType("application/x-ndjson")
+                .content(ndjson))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.processed", is(3)))
+                .andExpect(jsonPath("$.data.imported", is(2)))
+                .andExpect(jsonPath("$.data.errors[0].line", is(3)));
+
+        mockMvc.perform(get("/api/v1/products"))
+                .andExpect(jsonPath("$.data", hasSize(3)));
+    }
+
+    @Test
+    void importProducts_ShouldReturnBadRequest_WhenCsvHeaderIsIncomplete() throws Exception {
+        mockMvc.perform(post("/api/v1/products/import")
+                .contentType("text/csv")
+                .content("name,description\nCable,USB-C\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success", is(false)));
+    }
+
+    @Test
+    void patchProduct_ShouldChangeOnlyPatchedFields() throws Exception {
+        mockMvc.perform(patch("/api/v1/products/" + testProductId)
+                .contentType("application/merge-patch+json")
+                .header("If-Match", "\"0\"")
+                .content("{\"price\": 79.99, \"description\": null}"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.success", is(true)))
+                .andExpect(jsonPath("$.data.name", is("Test Product")))
+                .andExpect(jsonPath("$.data.description", nullValue()))
+                .andExpect(jsonPath("$.data.price", is(79.99)))
+                .andExpect(jsonPath("$.data.quantity", is(10)))
+                .andExpect(jsonPath("$.data.version", is(1)));
+    }
+
+    @Test
+    void patchProduct_ShouldReturnPreconditionFailed_WhenIfMatchIsStale() throws Exception {
+        mockMvc.perform(patch("/api/v1/products/" + testProductId)
+                .contentType("application/merge-patch+json")
+                .header("If-Match", "\"7\"")
+                .content("{\"price\": 1.0}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void patchProduct_ShouldReturnNotFound_WhenProductDoesNotExist() throws Exception {
+        mockMvc.perform(patch("/api/v1/products/" + UUID.randomUUID())
+                .contentType("application/merge-patch+json")
+                .content("{\"price\": 1.0}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void patchProduct_ShouldReturnBadRequest_WhenFieldIsNotPatchable() throws Exception {
+        mockMvc.perform(patch("/api/v1/products/" + testProductId)
+                .contentType("application/merge-patch+json")
+                .content("{\"productId\": \"" + UUID.randomUUID() + "\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success", is(false)));
+    }
+
+    @Test
+    void patchProducts_ShouldReportOutcomePerItem() throws Exception {
+        UUID missingId = UUID.randomUUID();
+        String body = "{\"items\": ["
+                + "{\"productId\": \"" + testProductId + "\", \"version\": 0, \"patch\": {\"quantity\": 3}},"
+                + "{\"productId\": \"" + missingId + "\", \"patch\": {\"quantity\": 3}}]}";
+
+        mockMvc.perform(patch("/api/v1/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.patched", is(1)))
+                .andExpect(jsonPath("$.data.failed", is(1)))
+                .andExpect(jsonPath("$.data.items[0].status", is("PATCHED")))
+                .andExpect(jsonPath("$.data.items[1].status", is("NOT_FOUND")));
+
+        mockMvc.perform(get("/api/v1/products/" + testProductId))
+                .andExpect(jsonPath("$.data.quantity", is(3)));
+    }
+
+    @Test
+    void bulkDeleteProducts_ShouldDeleteByIds_AndCountMissingIds() throws Exception {
+        UUID missingId = UUID.randomUUID();
+        String body = "{\"productIds\": [\"" + testProductId + "\", \"" + missingId + "\"]}";
+
+        mockMvc.perform(post("/api/v1/products/bulk-delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.mode", is("DELETE")))
+                .andExpect(jsonPath("$.data.matched", is(1)))
+                .andExpect(jsonPath("$.data.deleted", is(1)))
+                .andExpect(jsonPath("$.data.archived", is(0)))
+                .andExpect(jsonPath("$.data.notFound", is(1)));
+
+        assertFalse(productRepository.existsByProductId(testProductId));
+    }
+
+    @Test
+    void bulkDeleteProducts_ShouldArchiveByFilter() throws Exception {
+        String body = "{\"filter\": {\"name\": \"Test\", \"minPrice\": 50}, \"mode\": \"ARCHIVE\"}";
+
+        mockMvc.perform(post("/api/v1/products/bulk-delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.deleted", is(1)))
+                .andExpect(jsonPath("$.data.archived", is(1)))
+                .andExpect(jsonPath("$.data.chunks", is(1)));
+
+        assertFalse(productRepository.existsByProductId(testProductId));
+        assertEquals(Integer.valueOf(10), jdbcTemplate.queryForObject(
+                "SELECT quantity FROM em_products_archive WHERE product_id = ?", Integer.class, testProductId));
+    }
+
+    @Test
+    void bulkDeleteProducts_ShouldReturnBadRequest_WhenIdsAndFilterAreBothGiven() throws Exception {
+        String body = "{\"productIds\": [\"" + testProductId + "\"], \"filter\": {\"inStock\": true}}";
+
+        mockMvc.perform(post("/api/v1/products/bulk-delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success", is(false)));
+
+        assertTrue(productRepository.existsByProductId(testProductId));
+    }
+
+    @Test
+    void lookupProducts_ShouldReturnProductsInRequestOrder_WithMissingIdsMarked() throws Exception {
+        UUID missingId = UUID.randomUUID();
+        String body = "{\"productIds\": [\"" + missingId + "\", \"" + testProductId + "\"]}";
+
+        mockMvc.perform(post("/api/v1/products/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.found", is(1)))
+                .andExpect(jsonPath("$.data.missing", is(1)))
+                .andExpect(jsonPath("$.data.items[0].productId", is(missingId.toString())))
+                .andExpect(jsonPath("$.data.items[0].found", is(false)))
+                .andExpect(jsonPath("$.data.items[0].product").doesNotExist())
+                .andExpect(jsonPath("$.data.items[1].found", is(true)))
+                .andExpect(jsonPath("$.data.items[1].product.name", is("Test Product")));
+    }
+
+    @Test
+    void lookupProducts_ShouldReturnBadRequest_WhenTooManyIds() throws Exception {
+        StringBuilder body = new StringBuilder("{\"productIds\": [");
+        for (int i = 0; i < 501; i++) {
+            body.append(i > 0 ? ",\"" : "\"").append(UUID.randomUUID()).append('"');
+        }
+        body.append("]}");
+
+        mockMvc.perform(post("/api/v1/products/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body.toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success", is(false)));
+    }
+
+    @Test
+    void searchProducts_ShouldReturnRankedHits() throws Exception {
+        // Index changes are applied after commit, which never happens inside this test transaction.
+        productSearchService.rebuild();
+
+        mockMvc.perform(get("/api/v1/products/search")
+                .param("q", "products")
+                .param("size", "5"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success", is(true)))
+                .andExpect(jsonPath("$.data.totalHits", is(1)))
+                .andExpect(jsonPath("$.data.items[0].productId", is(testProductId.toString())))
+                .andExpect(jsonPath("$.data.items[0].name", is("Test Product")));
+    }
+
+    @Test
+    void searchProducts_ShouldReturnBadRequest_WhenPageSizeTooLarge() throws Exception {
+        mockMvc.perform(get("/api/v1/products/search")
+                .param("q", "test")
+                .param("size", "1000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllProducts_ShouldFilterAndSort_WhenQueryParametersGiven() throws Exception {
+        ProductRequestDto requestDto = new ProductRequestDto();
+        requestDto.setName("Budget Product");
+        requestDto.setPrice(5.0);
+        requestDto.setQuantity(3);
+        mockMvc.perform(post("/api/v1/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/products")
+                .param("maxPrice", "50")
+                .param("inStock", "true")
+                .param("sort", "-price,name"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].name", is("Budget Product")));
+
+        mockMvc.perform(get("/api/v1/products")
+                .param("sort", "-price")
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].name", is("Test Product")));
+    }
+
+    @Test
+    void getAllProducts_ShouldReturnBadRequest_WhenQueryIsInvalid() throws Exception {
+        mockMvc.perform(get("/api/v1/products").param("sort", "description"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success", is(false)));
+
+        mockMvc.perform(get("/api/v1/products").param("minPrice", "20").param("maxPrice", "10"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("minPrice can not be greater than maxPrice.")));
+
+        mockMvc.perform(get("/api/v1/products").param("minPrice", "cheap"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void flashSale_ShouldBeRefused_WhenFlashSaleModeIsDisabled() throws Exception {
+        mockMvc.perform(post("/api/v1/products/" + testProductId + "/flash-sale"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success", is(false)));
+
+        mockMvc.perform(get("/api/v1/products/" + testProductId + "/flash-sale"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.active", is(false)))
+                .andExpect(jsonPath("$.data.available", is(10)));
+    }
+
+    @Test
+    void stockHold_ShouldHoldStock_UntilCancelled() throws Exception {
+        String body = "{\"lines\":[{\"productId\":\"" + testProductId + "\",\"quantity\":4}],\"ttlSeconds\":600}";
+        String created = mockMvc.perform(post("/api/v1/products/stock/holds")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status", is("HELD")))
+                .andReturn().getResponse().getContentAsString();
+        String holdId = objectMapper.readTree(created).path("data").path("holdId").asText();
+
+        mockMvc.perform(get("/api/v1/products/" + testProductId + "/stock/holds"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.heldQuantity", is(4)));
+        mockMvc.perform(get("/api/v1/products/" + testProductId))
+                .andExpect(jsonPath("$.data.quantity", is(6)));
+
+        mockMvc.perform(delete("/api/v1/products/stock/holds/" + holdId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status", is("RELEASED")));
+        mockMvc.perform(post("/api/v1/products/stock/holds/" + holdId + "/confirm"))
+                .andExpect(status().isNotFound());
+        // Cache evictions run after commit, which this rolled-back test never reaches: check the ledger.
+        mockMvc.perform(get("/api/v1/products/" + testProductId + "/stock"))
+                .andExpect(jsonPath("$.data.quantity", is(10)));
+    }
+
+    @Test
+    void productChanges_ShouldStartFromTheLatestOffset_AndTimeOutEmpty() throws Exception {
+        MvcResult head = mockMvc.perform(get("/api/v1/products/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(head))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.changes", hasSize(0)))
+                .andReturn().getResponse().getContentAsString();
+        long latestOffset = objectMapper.readTree(body).path("data").path("nextOffset").asLong();
+
+        // This test's writes are rolled back, so nothing new arrives while it waits.
+        MvcResult poll = mockMvc.perform(get("/api/v1/products/changes")
+                .param("after", String.valueOf(latestOffset))
+                .param("waitSeconds", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(poll))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.changes", hasSize(0)))
+                .andExpect(jsonPath("$.data.nextOffset", is((int) latestOffset)))
+                .andExpect(jsonPath("$.data.truncated", is(false)));
+    }
+
+    @Test
+    void getProductById_ShouldNegotiateCborAndSmile_WithBinaryProductIds() throws Exception {
+        for (ObjectMapper binaryMapper : List.of(new ObjectMapper(new CBORFactory()), new ObjectMapper(new SmileFactory()))) {
+            MediaType mediaType = binaryMapper.getFactory() instanceof CBORFactory
+                    ? MediaType.parseMediaType("application/cbor")
+                    : MediaType.parseMediaType("application/x-jackson-smile");
+            byte[] body = mockMvc.perform(get("/api/v1/products/{id}", testProductId).accept(mediaType))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(mediaType))
+                    .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            JsonNode response = binaryMapper.readTree(body);
+            assertTrue(response.get("success").asBoolean());
+            assertEquals("Test Product", response.get("data").get("name").asText());
+            assertEquals(10, response.get("data").get("quantity").asInt());
+            assertEquals(testProductId, binaryMapper.convertValue(response.get("data").get("productId"), UUID.class));
+            assertTrue(response.get("data").get("productId").isBinary());
+        }
+    }
+
+    @Test
+    void getAllProducts_ShouldEncodeProtobuf_WhenAskedFor_AndJsonByDefault() throws Exception {
+        mockMvc.perform(get("/api/v1/products"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+
+        byte[] body = mockMvc.perform(get("/api/v1/products").accept("application/x-protobuf"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-protobuf"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // ProductResponse { success = 1; message = 2; repeated Product products = 4; }
+        CodedInputStream response = CodedInputStream.newInstance(body);
+        assertEquals(tag(1, WireFormat.WIRETYPE_VARINT), response.readTag());
+        assertTrue(response.readBool());
+        assertEquals(tag(2, WireFormat.WIRETYPE_LENGTH_DELIMITED), response.readTag());
+        assertEquals("Products retrieved successfully.", response.readString());
+        assertEquals(tag(4, WireFormat.WIRETYPE_LENGTH_DELIMITED), response.readTag());
+        CodedInputStream product = CodedInputStream.newInstance(response.readByteArray());
+        assertEquals(0, response.readTag());
+
+        // Product { product_id = 1; name = 2; description = 3; price = 4; quantity = 5; }
+        assertEquals(tag(1, WireFormat.WIRETYPE_LENGTH_DELIMITED), product.readTag());
+        ByteBuffer productId = product.readByteBuffer();
+        assertEquals(testProductId, new UUID(productId.getLong(), productId.getLong()));
+        assertEquals(tag(2, WireFormat.WIRETYPE_LENGTH_DELIMITED), product.readTag());
+        assertEquals("Test Product", product.readString());
+        assertEquals(tag(3, WireFormat.WIRETYPE_LENGTH_DELIMITED), product.readTag());
+        assertEquals("Test Description", product.readString());
+        assertEquals(tag(4, WireFormat.WIRETYPE_FIXED64), product.readTag());
+        assertEquals(99.99, product.readDouble());
+        assertEquals(tag(5, WireFormat.WIRETYPE_VARINT), product.readTag());
+        assertEquals(10, product.readInt32());
+        assertEquals(0, product.readTag());
+    }
+
+    @Test
+    void searchProducts_ShouldReturnNotAcceptable_ForProtobuf() throws Exception {
+        mockMvc.perform(get("/api/v1/products/search").param("q", "test").accept("application/x-protobuf"))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    private static int tag(int fieldNumber, int wireType) {
+        return fieldNumber << 3 | wireType;
+    }
 }
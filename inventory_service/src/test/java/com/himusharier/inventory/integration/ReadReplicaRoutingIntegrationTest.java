@@ -0,0 +1,110 @@
+package com.himusharier.inventory.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.himusharier.inventory.datasource.ReadYourWritesFilter;
+import com.himusharier.inventory.datasource.ReplicaRoutingDataSource;
+import com.himusharier.inventory.dto.request.ProductRequestDto;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// The "replica" is a second embedded database with the primary's schema but none of its rows, so a
+// read shows which database answered it. Nothing replicates: writes only ever reach the primary.
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.datasource.replicas.urls=" + ReadReplicaRoutingIntegrationTest.REPLICA_URL,
+        "app.datasource.replicas.pin-after-write=PT1M"
+})
+class ReadReplicaRoutingIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ReadYourWritesFilter readYourWritesFilter;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .addFilters(readYourWritesFilter)
+                .build();
+
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        replica.execute("drop all objects");
+        List<String> schema = jdbcTemplate.queryForList("script nodata", String.class);
+        schema.stream()
+                .filter(statement -> !statement.startsWith("CREATE USER"))
+                .forEach(replica::execute);
+    }
+
+    @Test
+    void readOnlyReads_ShouldComeFromReplica_UnlessTheClientJustWrote() throws Exception {
+        // Given: a product written to the primary
+        ProductRequestDto requestDto = new ProductRequestDto();
+        requestDto.setName("Routed Product " + UUID.randomUUID());
+        requestDto.setDescription("Routed");
+        requestDto.setPrice(5.0);
+        requestDto.setQuantity(3);
+        MvcResult created = mockMvc.perform(post("/api/v1/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isOk())
+                .andReturn();
+        Cookie pin = created.getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertNotNull(pin);
+        String productId = objectMapper.readTree(created.getResponse().getContentAsString())
+                .get("data").get("productId").asText();
+
+        // When / Then: other clients list from the replica, which has not got it
+        mockMvc.perform(get("/api/v1/products"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(0)));
+
+        // When / Then: the writer reads its own write from the primary
+        mockMvc.perform(get("/api/v1/products").cookie(pin))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[*].productId", hasItem(productId)));
+
+        // When / Then: the product cache always loads from the primary
+        mockMvc.perform(get("/api/v1/products/" + productId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.name", is(requestDto.getName())));
+
+        assertEquals("UP", replicaRoutingDataSource.describe().get("replica-1"));
+    }
+}
@@ -0,0 +1,137 @@
+package com.himusharier.inventory.repository;
+
+import com.himusharier.inventory.dto.request.ProductQuerySpec;
+import com.himusharier.inventory.model.Product;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs EXPLAIN on the SQL Hibernate generates for the common product filters and checks
+ * that H2 answers them from the indexes declared on {@link Product}, not a table scan.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.himusharier.inventory.repository.ProductQueryPlanTest$CapturingStatementInspector"
+})
+@ActiveProfiles("test")
+class ProductQueryPlanTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            products.add(Product.builder()
+                    .name("Product " + i)
+                    .price(1.0 + i % 400)
+                    .quantity(i % 50)
+                    .build());
+        }
+        productRepository.saveAllAndFlush(products);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void priceRangeInStockSortedByPrice_ShouldUsePriceQuantityIndex() {
+        ProductQuerySpec querySpec = new ProductQuerySpec();
+        querySpec.setMinPrice(10.0);
+        querySpec.setMaxPrice(20.0);
+        querySpec.setInStock(true);
+
+        String plan = explain(querySpec, List.of("price"), 10.0, 20.0, 1);
+
+        assertTrue(plan.contains("IDX_EM_PRODUCTS_PRICE_QUANTITY"), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    void quantityRange_ShouldUseQuantityPriceIndex() {
+        ProductQuerySpec querySpec = new ProductQuerySpec();
+        querySpec.setMinQuantity(45);
+        querySpec.setMaxQuantity(48);
+
+        String plan = explain(querySpec, List.of("-quantity"), 45, 48);
+
+        assertTrue(plan.contains("IDX_EM_PRODUCTS_QUANTITY_PRICE"), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    void namePrefix_ShouldUseNameIndex() {
+        ProductQuerySpec querySpec = new ProductQuerySpec();
+        querySpec.setName("Product 19");
+
+        String plan = explain(querySpec, List.of("name"), "Product 19%");
+
+        assertTrue(plan.contains("IDX_EM_PRODUCTS_NAME"), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    /**
+     * @param filterValues values of the WHERE clause parameters, in order; paging (offset 0,
+     *                     20 rows) is bound after them
+     */
+    private String explain(ProductQuerySpec querySpec, List<String> sort, Object... filterValues) {
+        CapturingStatementInspector.STATEMENTS.clear();
+        productRepository.findDtos(ProductSpecifications.matching(querySpec),
+                PageRequest.of(0, 20, ProductSpecifications.sort(sort)));
+
+        String sql = CapturingStatementInspector.STATEMENTS.stream()
+                .filter(statement -> statement.toLowerCase().startsWith("select"))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < filterValues.length; i++) {
+                    statement.setObject(i + 1, filterValues[i]);
+                }
+                statement.setInt(filterValues.length + 1, 0);
+                statement.setInt(filterValues.length + 2, 20);
+                return readPlan(statement);
+            }
+        });
+    }
+
+    private static String readPlan(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            StringBuilder plan = new StringBuilder();
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1));
+            }
+            return plan.toString();
+        }
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
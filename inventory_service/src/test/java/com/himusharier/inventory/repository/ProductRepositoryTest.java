@@ -1,14 +1,31 @@
 package com.himusharier.inventory.repository;
 
+import com.himusharier.inventory.constants.ProductPatchField;
+import com.himusharier.inventory.dto.request.ProductQuerySpec;
+import com.himusharier.inventory.dto.response.ProductResponseDto;
 import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.model.StockStripe;
+import com.himusharier.inventory.util.ProductLockOrder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -19,6 +36,9 @@ class ProductRepositoryTest {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private Product testProduct;
     private UUID testProductId;
 
@@ -181,4 +201,331 @@ class ProductRepositoryTest {
         assertTrue(allProducts.stream().anyMatch(p -> p.getName().equals("Test Product")));
         assertTrue(allProducts.stream().anyMatch(p -> p.getName().equals("Second Product")));
     }
+
+    @Test
+    void streamAll_ShouldStreamAllProducts() {
+        // Given - testProduct is already saved
+        productRepository.save(Product.builder()
+                .name("Second Product")
+                .description("Second Description")
+                .price(149.99)
+                .quantity(5)
+                .build());
+
+        // When
+        List<String> names;
+        try (Stream<Product> products = productRepository.streamAll()) {
+            names = products.map(Product::getName).collect(Collectors.toList());
+        }
+
+        // Then
+        assertEquals(2, names.size());
+        assertTrue(names.contains("Test Product"));
+        assertTrue(names.contains("Second Product"));
+    }
+
+    @Test
+    void streamExportViews_ShouldReturnTheStripeSum_ForStripedProducts() {
+        // Given: a striped product whose stored quantity is stale
+        Product striped = productRepository.save(Product.builder()
+                .name("Striped Product")
+                .price(5.0)
+                .quantity(100)
+                .reorderThreshold(4)
+                .stockStripes(2)
+                .build());
+        entityManager.persist(new StockStripe(striped.getProductId(), 0, 3));
+        entityManager.persist(new StockStripe(striped.getProductId(), 1, 4));
+        entityManager.flush();
+
+        // When
+        Map<UUID, ProductExportView> views;
+        try (Stream<ProductExportView> products = productRepository.streamExportViews()) {
+            views = products.collect(Collectors.toMap(ProductExportView::getProductId, view -> view));
+        }
+
+        // Then
+        assertEquals(2, views.size());
+        assertEquals(10, views.get(testProductId).getQuantity());
+        assertEquals(7, views.get(striped.getProductId()).getQuantity());
+        assertEquals(4, views.get(striped.getProductId()).getReorderThreshold());
+    }
+
+    @Test
+    void findDtoByProductId_ShouldProjectProduct_WhenProductExists() {
+        // When
+        Optional<ProductResponseDto> result = productRepository.findDtoByProductId(testProductId);
+
+        // Then
+        assertTrue(result.isPresent());
+        ProductResponseDto dto = result.get();
+        assertEquals(testProductId, dto.getProductId());
+        assertEquals("Test Product", dto.getName());
+        assertEquals("Test Description", dto.getDescription());
+        assertEquals(99.99, dto.getPrice());
+        assertEquals(10, dto.getQuantity());
+    }
+
+    @Test
+    void findDtoByProductId_ShouldReturnEmpty_WhenProductDoesNotExist() {
+        // When
+        Optional<ProductResponseDto> result = productRepository.findDtoByProductId(UUID.randomUUID());
+
+        // Then
+        assertFalse(result.isPresent());
+    }
+
+    @Test
+    void findAllDtos_ShouldProjectAllProducts() {
+        // Given - testProduct is already saved
+        productRepository.save(Product.builder()
+                .name("Second Product")
+                .price(149.99)
+                .quantity(5)
+                .build());
+
+        // When
+        List<ProductResponseDto> result = productRepository.findAllDtos();
+
+        // Then
+        assertEquals(2, result.size());
+        assertTrue(result.stream().anyMatch(p -> p.getName().equals("Test Product")));
+        assertTrue(result.stream().anyMatch(p -> p.getName().equals("Second Product")));
+    }
+
+    @Test
+    void version_ShouldIncrement_WhenProductIsUpdated() {
+        // Given
+        Product existingProduct = productRepository.findByProductId(testProductId).orElseThrow();
+        long initialVersion = existingProduct.getVersion();
+
+        // When
+        existingProduct.setPrice(299.99);
+        productRepository.saveAndFlush(existingProduct);
+
+        // Then
+        assertEquals(initialVersion + 1, productRepository.findUnstripedVersionByProductId(testProductId).orElseThrow());
+    }
+
+    @Test
+    void findUnstripedVersionByProductId_ShouldReturnEmpty_WhenProductIsStripedOrMissing() {
+        // Given
+        testProduct.setStockStripes(4);
+        productRepository.saveAndFlush(testProduct);
+
+        // When / Then
+        assertFalse(productRepository.findUnstripedVersionByProductId(testProductId).isPresent());
+        assertFalse(productRepository.findUnstripedVersionByProductId(UUID.randomUUID()).isPresent());
+    }
+
+    @Test
+    void decrementQuantity_ShouldDecrementAndBumpVersion_WhenEnoughStock() {
+        // When
+        int updated = productRepository.decrementQuantity(testProductId, 4, LocalDateTime.now());
+
+        // Then
+        assertEquals(1, updated);
+        ProductResponseDto product = productRepository.findDtoByProductId(testProductId).orElseThrow();
+        assertEquals(6, product.getQuantity());
+        assertEquals(1, product.getVersion());
+    }
+
+    @Test
+    void decrementQuantity_ShouldNotUpdate_WhenNotEnoughStock() {
+        // When
+        int updated = productRepository.decrementQuantity(testProductId, 11, LocalDateTime.now());
+
+        // Then
+        assertEquals(0, updated);
+        ProductResponseDto product = productRepository.findDtoByProductId(testProductId).orElseThrow();
+        assertEquals(10, product.getQuantity());
+        assertEquals(0, product.getVersion());
+    }
+
+    @Test
+    void incrementQuantity_ShouldIncrement_WhenProductExists() {
+        // When
+        int updated = productRepository.incrementQuantity(testProductId, 5, LocalDateTime.now());
+
+        // Then
+        assertEquals(1, updated);
+        assertEquals(15, productRepository.findDtoByProductId(testProductId).orElseThrow().getQuantity());
+        assertEquals(0, productRepository.incrementQuantity(UUID.randomUUID(), 5, LocalDateTime.now()));
+    }
+
+    @Test
+    void updateLowStockAlerted_ShouldFlipFlagWithoutBumpingVersion() {
+        // Given
+        testProduct.setReorderThreshold(5);
+        productRepository.saveAndFlush(testProduct);
+        long version = productRepository.findDtoByProductId(testProductId).orElseThrow().getVersion();
+
+        // When
+        int updated = productRepository.updateLowStockAlerted(testProductId, true);
+
+        // Then
+        assertEquals(1, updated);
+        ProductThresholdView state = productRepository.findThresholdStateByProductId(testProductId).orElseThrow();
+        assertEquals(10, state.getQuantity());
+        assertEquals(5, state.getReorderThreshold());
+        assertTrue(state.getLowStockAlerted());
+        assertEquals(version, productRepository.findDtoByProductId(testProductId).orElseThrow().getVersion());
+    }
+
+    @Test
+    void batchDecrementQuantities_ShouldReportPerRowOutcome() {
+        // Given
+        TreeMap<UUID, Integer> quantities = new TreeMap<>();
+        quantities.put(testProductId, 3);
+        UUID missingId = UUID.randomUUID();
+        quantities.put(missingId, 1);
+
+        // When
+        int[] updateCounts = productRepository.batchDecrementQuantities(quantities, LocalDateTime.now());
+
+        // Then
+        int index = 0;
+        for (UUID productId : quantities.keySet()) {
+            assertEquals(productId.equals(testProductId) ? 1 : 0, updateCounts[index++]);
+        }
+        assertEquals(7, productRepository.findDtoByProductId(testProductId).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void lockForDelete_ShouldLockInTheDatabaseIdOrder_AndFlagFlashSaleProducts() {
+        // Given: random ids, about half of them with a negative (signed) high half
+        for (int i = 0; i < 20; i++) {
+            productRepository.save(Product.builder().name("Lockable " + i).price(1.0).quantity(1).build());
+        }
+        List<UUID> databaseOrder = productRepository.findIdsAfter((root, query, cb) -> null, null, 100);
+        testProduct.setFlashSaleSeq(0L);
+        productRepository.saveAndFlush(testProduct);
+
+        // When
+        SortedMap<UUID, Boolean> locked = productRepository.lockForDelete(databaseOrder);
+
+        // Then
+        assertEquals(databaseOrder, new ArrayList<>(locked.keySet()));
+        assertEquals(databaseOrder, new ArrayList<>(ProductLockOrder.sorted(databaseOrder)));
+        assertFalse(locked.get(testProductId));
+        assertEquals(20, locked.values().stream().filter(Boolean::booleanValue).count());
+    }
+
+    @Test
+    void patchProduct_ShouldWriteOnlyPatchedColumns() {
+        // Given
+        EnumMap<ProductPatchField, Object> values = new EnumMap<>(ProductPatchField.class);
+        values.put(ProductPatchField.PRICE, 79.99);
+        values.put(ProductPatchField.DESCRIPTION, null);
+
+        // When
+        int updated = productRepository.patchProduct(new ProductColumnPatch(testProductId, values, 0L), LocalDateTime.now());
+
+        // Then
+        assertEquals(1, updated);
+        ProductResponseDto product = productRepository.findDtoByProductId(testProductId).orElseThrow();
+        assertEquals("Test Product", product.getName());
+        assertNull(product.getDescription());
+        assertEquals(79.99, product.getPrice());
+        assertEquals(10, product.getQuantity());
+        assertEquals(1, product.getVersion());
+    }
+
+    @Test
+    void patchProduct_ShouldNotUpdate_WhenVersionDoesNotMatch() {
+        // Given
+        EnumMap<ProductPatchField, Object> values = new EnumMap<>(ProductPatchField.class);
+        values.put(ProductPatchField.NAME, "Renamed");
+
+        // When
+        int updated = productRepository.patchProduct(new ProductColumnPatch(testProductId, values, 5L), LocalDateTime.now());
+
+        // Then
+        assertEquals(0, updated);
+        assertEquals("Test Product", productRepository.findDtoByProductId(testProductId).orElseThrow().getName());
+    }
+
+    @Test
+    void batchPatchProducts_ShouldReportCountsInRequestOrder() {
+        // Given
+        Product second = productRepository.save(Product.builder()
+                .name("Second Product")
+                .price(10.0)
+                .quantity(1)
+                .build());
+        EnumMap<ProductPatchField, Object> price = new EnumMap<>(ProductPatchField.class);
+        price.put(ProductPatchField.PRICE, 1.5);
+        EnumMap<ProductPatchField, Object> name = new EnumMap<>(ProductPatchField.class);
+        name.put(ProductPatchField.NAME, "Renamed");
+
+        List<ProductColumnPatch> patches = List.of(
+                new ProductColumnPatch(testProductId, price, null),
+                new ProductColumnPatch(UUID.randomUUID(), price, null),
+                new ProductColumnPatch(second.getProductId(), name, null),
+                new ProductColumnPatch(second.getProductId(), price, 99L)
+        );
+
+        // When
+        int[] updateCounts = productRepository.batchPatchProducts(patches, LocalDateTime.now());
+
+        // Then
+        assertArrayEquals(new int[]{1, 0, 1, 0}, updateCounts);
+        assertEquals(1.5, productRepository.findDtoByProductId(testProductId).orElseThrow().getPrice());
+        ProductResponseDto renamed = productRepository.findDtoByProductId(second.getProductId()).orElseThrow();
+        assertEquals("Renamed", renamed.getName());
+        assertEquals(10.0, renamed.getPrice());
+    }
+
+    @Test
+    void findDtos_ShouldApplyRangeFiltersAndMultiKeySort() {
+        // Given
+        productRepository.save(Product.builder().name("Cable").price(10.0).quantity(0).build());
+        productRepository.save(Product.builder().name("Charger").price(25.0).quantity(5).build());
+        productRepository.save(Product.builder().name("Adapter").price(25.0).quantity(8).build());
+        ProductQuerySpec querySpec = new ProductQuerySpec();
+        querySpec.setMinPrice(5.0);
+        querySpec.setMaxPrice(50.0);
+        querySpec.setInStock(true);
+
+        // When
+        List<ProductResponseDto> result = productRepository.findDtos(
+                ProductSpecifications.matching(querySpec),
+                Pageable.unpaged(ProductSpecifications.sort(List.of("-price", "name"))));
+
+        // Then
+        assertEquals(List.of("Adapter", "Charger"), result.stream().map(ProductResponseDto::getName).toList());
+    }
+
+    @Test
+    void findDtos_ShouldMatchNamePrefixLiterally() {
+        // Given
+        productRepository.save(Product.builder().name("50% Off Lamp").price(10.0).quantity(1).build());
+        productRepository.save(Product.builder().name("500 Watt Lamp").price(10.0).quantity(1).build());
+        ProductQuerySpec querySpec = new ProductQuerySpec();
+        querySpec.setName("50%");
+
+        // When
+        List<ProductResponseDto> result = productRepository.findDtos(
+                ProductSpecifications.matching(querySpec), Pageable.unpaged(ProductSpecifications.sort(null)));
+
+        // Then
+        assertEquals(List.of("50% Off Lamp"), result.stream().map(ProductResponseDto::getName).toList());
+    }
+
+    @Test
+    void findDtos_ShouldReturnRequestedPage() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            productRepository.save(Product.builder().name("Item " + i).price(1.0 + i).quantity(1).build());
+        }
+
+        // When
+        List<ProductResponseDto> result = productRepository.findDtos(
+                ProductSpecifications.matching(new ProductQuerySpec()),
+                PageRequest.of(1, 2, ProductSpecifications.sort(List.of("price"))));
+
+        // Then
+        // "Test Product" (99.99) sorts last.
+        assertEquals(List.of("Item 2", "Item 3"), result.stream().map(ProductResponseDto::getName).toList());
+    }
 }
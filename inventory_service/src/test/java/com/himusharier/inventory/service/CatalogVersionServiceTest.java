@@ -0,0 +1,72 @@
+package com.himusharier.inventory.service;
+
+import com.himusharier.inventory.catalog.ProductCatalogSnapshot;
+import com.himusharier.inventory.changefeed.ProductChangeRelay;
+import com.himusharier.inventory.constants.ProductChangeType;
+import com.himusharier.inventory.event.ProductChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogVersionServiceTest {
+
+    @Mock
+    private ProductCatalogSnapshot productCatalogSnapshot;
+
+    @Mock
+    private ProductChangeRelay productChangeRelay;
+
+    @Test
+    void currentETag_ShouldBeTheSameOnEveryNode_ForTheSameOffset() {
+        // Given
+        when(productCatalogSnapshot.offset()).thenReturn(42L);
+        CatalogVersionService node = new CatalogVersionService(productCatalogSnapshot, productChangeRelay);
+        CatalogVersionService otherNode = new CatalogVersionService(productCatalogSnapshot, productChangeRelay);
+
+        // When / Then
+        assertEquals("\"c42\"", node.currentETag());
+        assertEquals(node.currentETag(), otherNode.currentETag());
+        verifyNoInteractions(productChangeRelay);
+    }
+
+    @Test
+    void currentETag_ShouldFollowTheRelay_WhenTheSnapshotIsNotLoaded() {
+        // Given
+        when(productCatalogSnapshot.offset()).thenReturn(-1L);
+        when(productChangeRelay.latestOffset()).thenReturn(7L, 8L);
+        CatalogVersionService catalogVersionService = new CatalogVersionService(productCatalogSnapshot, productChangeRelay);
+
+        // When / Then
+        assertEquals("\"c7\"", catalogVersionService.currentETag());
+        assertEquals("\"c8\"", catalogVersionService.currentETag());
+    }
+
+    @Test
+    void currentETag_ShouldMoveOnLocalChanges_UntilTheirOffsetArrives() {
+        // Given
+        when(productCatalogSnapshot.offset()).thenReturn(10L);
+        CatalogVersionService catalogVersionService = new CatalogVersionService(productCatalogSnapshot, productChangeRelay);
+        String before = catalogVersionService.currentETag();
+
+        // When
+        catalogVersionService.onProductChanged(new ProductChangedEvent(UUID.randomUUID(), ProductChangeType.UPDATED));
+        String afterOne = catalogVersionService.currentETag();
+        catalogVersionService.onProductChanged(new ProductChangedEvent(UUID.randomUUID(), ProductChangeType.CREATED));
+        String afterTwo = catalogVersionService.currentETag();
+        when(productCatalogSnapshot.offset()).thenReturn(12L);
+        String relayed = catalogVersionService.currentETag();
+
+        // Then
+        assertNotEquals(before, afterOne);
+        assertNotEquals(afterOne, afterTwo);
+        assertTrue(afterTwo.startsWith("\"c10-"));
+        assertEquals("\"c12\"", relayed);
+    }
+}
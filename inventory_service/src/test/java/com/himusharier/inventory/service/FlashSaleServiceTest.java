@@ -0,0 +1,206 @@
+package com.himusharier.inventory.service;
+
+import com.himusharier.inventory.constants.StockMovementReason;
+import com.himusharier.inventory.exception.FlashSaleUnavailableException;
+import com.himusharier.inventory.exception.InsufficientStockException;
+import com.himusharier.inventory.exception.ProductSubmissionException;
+import com.himusharier.inventory.flashsale.FlashSaleEngine;
+import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.model.StockMovement;
+import com.himusharier.inventory.repository.ProductRepository;
+import com.himusharier.inventory.repository.StockMovementRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({StockLedgerService.class, StockThresholdService.class})
+class FlashSaleServiceTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private StockThresholdService stockThresholdService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path walDirectory;
+
+    private final List<FlashSaleService> services = new ArrayList<>();
+    private UUID testProductId;
+
+    @BeforeEach
+    void setUp() {
+        stockMovementRepository.deleteAll();
+        productRepository.deleteAll();
+        testProductId = productRepository.save(Product.builder()
+                .name("Flash Sale Item")
+                .price(9.99)
+                .quantity(10)
+                .build()).getProductId();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (FlashSaleService service : services) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void decrement_ShouldServeFromEngine_AndFlushNetChangeToProductRow() {
+        // Given
+        FlashSaleService flashSaleService = startService();
+        flashSaleService.start(testProductId);
+
+        // When
+        flashSaleService.decrement(testProductId, 4, "ORDER-1").orElseThrow();
+        flashSaleService.decrement(testProductId, 4, null).orElseThrow();
+        flashSaleService.increment(testProductId, 1, null).orElseThrow();
+
+        // Then: live in the engine, not yet in the row
+        assertEquals(3, flashSaleService.getStatus(testProductId).getAvailable());
+        assertEquals(10, storedQuantity());
+        assertThrows(InsufficientStockException.class, () -> flashSaleService.decrement(testProductId, 4, null));
+
+        flashSaleService.flush();
+        assertEquals(3, storedQuantity());
+        // The referenced reservation keeps its own ledger entry; the rest is summed per flush.
+        Map<String, Integer> movements = movementsByReference();
+        assertEquals(2, movements.size());
+        assertEquals(-4, movements.get("ORDER-1"));
+        assertEquals(-3, movements.entrySet().stream()
+                .filter(movement -> movement.getKey().startsWith("flash-sale-wal:"))
+                .mapToInt(Map.Entry::getValue)
+                .sum());
+    }
+
+    @Test
+    void regularStockPath_ShouldRefuseProduct_WhileInFlashSale() {
+        // Given
+        FlashSaleService flashSaleService = startService();
+        flashSaleService.start(testProductId);
+
+        // When / Then
+        assertEquals(0, productRepository.decrementQuantity(testProductId, 1, LocalDateTime.now()));
+        assertEquals(0, productRepository.incrementQuantity(testProductId, 1, LocalDateTime.now()));
+        assertThrows(ProductSubmissionException.class, () -> flashSaleService.start(testProductId));
+    }
+
+    @Test
+    void start_ShouldLeaveFlashSaleMode_WhenTheEngineDoesNotTakeTheStock() {
+        // Given
+        FlashSaleService flashSaleService = startService();
+        FlashSaleEngine engine = (FlashSaleEngine) ReflectionTestUtils.getField(flashSaleService, "engine");
+        FlashSaleEngine refusingEngine = spy(engine);
+        doReturn(CompletableFuture.failedFuture(new FlashSaleUnavailableException("Flash-sale queue is full.")))
+                .when(refusingEngine).open(testProductId, 10);
+        ReflectionTestUtils.setField(flashSaleService, "engine", refusingEngine);
+
+        // When
+        try {
+            assertThrows(FlashSaleUnavailableException.class, () -> flashSaleService.start(testProductId));
+        } finally {
+            ReflectionTestUtils.setField(flashSaleService, "engine", engine);
+        }
+
+        // Then: back on the regular stock path, not stranded between the two
+        assertFalse(productRepository.existsByProductIdAndFlashSaleSeqIsNotNull(testProductId));
+        assertFalse(flashSaleService.isActive(testProductId));
+        assertEquals(10, storedQuantity());
+        assertEquals(1, productRepository.decrementQuantity(testProductId, 1, LocalDateTime.now()));
+    }
+
+    @Test
+    void stop_ShouldApplyPendingChanges_AndHandStockBackToProductRow() {
+        // Given
+        FlashSaleService flashSaleService = startService();
+        flashSaleService.start(testProductId);
+        flashSaleService.decrement(testProductId, 3, null).orElseThrow();
+
+        // When
+        flashSaleService.stop(testProductId);
+
+        // Then
+        assertEquals(7, storedQuantity());
+        assertFalse(flashSaleService.isActive(testProductId));
+        assertTrue(flashSaleService.decrement(testProductId, 1, null).isEmpty());
+        assertEquals(1, productRepository.decrementQuantity(testProductId, 1, LocalDateTime.now()));
+    }
+
+    @Test
+    void restart_ShouldReplayAcknowledgedReservations_ThatWereNeverFlushed() throws Exception {
+        // Given: reservations acknowledged, then the process dies before the flush
+        FlashSaleService crashed = startService();
+        crashed.start(testProductId);
+        crashed.decrement(testProductId, 2, "ORDER-7").orElseThrow();
+        crashed.decrement(testProductId, 5, null).orElseThrow();
+        ((FlashSaleEngine) ReflectionTestUtils.getField(crashed, "engine")).close();
+        services.remove(crashed);
+
+        // When
+        FlashSaleService restarted = startService();
+
+        // Then
+        assertEquals(3, storedQuantity());
+        assertEquals(-2, movementsByReference().get("ORDER-7"));
+        assertTrue(restarted.isActive(testProductId));
+        assertEquals(3, restarted.getStatus(testProductId).getAvailable());
+        assertThrows(InsufficientStockException.class, () -> restarted.decrement(testProductId, 4, null));
+    }
+
+    private FlashSaleService startService() {
+        FlashSaleService service = new FlashSaleService(productRepository, stockLedgerService, stockThresholdService,
+                eventPublisher, transactionManager);
+        ReflectionTestUtils.setField(service, "walPath", walDirectory.toString());
+        service.afterSingletonsInstantiated();
+        services.add(service);
+        return service;
+    }
+
+    private Map<String, Integer> movementsByReference() {
+        List<StockMovement> movements = stockMovementRepository.findMovements(testProductId,
+                LocalDateTime.of(1970, 1, 1, 0, 0), LocalDateTime.now().plusDays(1), Limit.of(10));
+        movements.forEach(movement -> assertEquals(StockMovementReason.FLASH_SALE, movement.getReason()));
+        return movements.stream().collect(Collectors.toMap(StockMovement::getReference, StockMovement::getDelta));
+    }
+
+    private int storedQuantity() {
+        return productRepository.findDtoByProductId(testProductId).orElseThrow().getQuantity();
+    }
+}
@@ -0,0 +1,93 @@
+package com.himusharier.inventory.service;
+
+import com.himusharier.inventory.constants.ProductDeleteMode;
+import com.himusharier.inventory.dto.request.ProductBulkDeleteRequestDto;
+import com.himusharier.inventory.dto.request.ProductQuerySpec;
+import com.himusharier.inventory.dto.response.ProductBulkDeleteResponseDto;
+import com.himusharier.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBulkDeleteServiceTest {
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductBulkDeleteService productBulkDeleteService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productBulkDeleteService, "chunkSize", 2);
+    }
+
+    @Test
+    void deleteProducts_ShouldSplitIdsIntoChunks_AndSumTheirCounts() {
+        // Given: five distinct ids, one of them twice
+        List<UUID> ids = Stream.generate(UUID::randomUUID).limit(5).toList();
+        ProductBulkDeleteRequestDto request = new ProductBulkDeleteRequestDto();
+        request.setProductIds(Stream.concat(ids.stream(), Stream.of(ids.get(0))).toList());
+        request.setMode(ProductDeleteMode.ARCHIVE);
+        when(productService.deleteProducts(anyList(), eq(ProductDeleteMode.ARCHIVE))).thenAnswer(invocation -> {
+            int size = invocation.<List<UUID>>getArgument(0).size();
+            return new ProductDeleteCounts(size, size - 1, size - 1, 1, 0);
+        });
+
+        // When
+        ProductBulkDeleteResponseDto result = productBulkDeleteService.deleteProducts(request);
+
+        // Then
+        verify(productService).deleteProducts(ids.subList(0, 2), ProductDeleteMode.ARCHIVE);
+        verify(productService).deleteProducts(ids.subList(2, 4), ProductDeleteMode.ARCHIVE);
+        verify(productService).deleteProducts(ids.subList(4, 5), ProductDeleteMode.ARCHIVE);
+        assertEquals(ProductDeleteMode.ARCHIVE, result.getMode());
+        assertEquals(3, result.getChunks());
+        assertEquals(5, result.getMatched());
+        assertEquals(2, result.getDeleted());
+        assertEquals(2, result.getArchived());
+        assertEquals(3, result.getSkipped());
+    }
+
+    @Test
+    void deleteProducts_ShouldCountOneChunkPerKeysetPage_WhenDeletingByFilter() {
+        // Given: a full page, then a partial one
+        List<UUID> ids = Stream.generate(UUID::randomUUID).limit(3).toList();
+        ProductQuerySpec filter = new ProductQuerySpec();
+        filter.setMaxPrice(10.0);
+        ProductBulkDeleteRequestDto request = new ProductBulkDeleteRequestDto();
+        request.setFilter(filter);
+        when(productRepository.findIdsAfter(any(), eq(null), eq(2))).thenReturn(ids.subList(0, 2));
+        when(productRepository.findIdsAfter(any(), eq(ids.get(1)), eq(2))).thenReturn(ids.subList(2, 3));
+        when(productService.deleteProducts(anyList(), eq(ProductDeleteMode.DELETE))).thenAnswer(invocation -> {
+            int size = invocation.<List<UUID>>getArgument(0).size();
+            return new ProductDeleteCounts(size, size, 0, 0, 0);
+        });
+
+        // When
+        ProductBulkDeleteResponseDto result = productBulkDeleteService.deleteProducts(request);
+
+        // Then
+        assertEquals(2, result.getChunks());
+        assertEquals(3, result.getDeleted());
+        assertEquals(0, result.getNotFound());
+    }
+}
@@ -0,0 +1,175 @@
+package com.himusharier.inventory.service;
+
+import com.himusharier.inventory.constants.ProductChangeType;
+import com.himusharier.inventory.dto.response.ProductResponseDto;
+import com.himusharier.inventory.event.ProductChangedEvent;
+import com.himusharier.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCacheServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductCacheService productCacheService;
+
+    private UUID testProductId;
+    private ProductResponseDto testProduct;
+
+    @BeforeEach
+    void setUp() {
+        testProductId = UUID.randomUUID();
+        testProduct = ProductResponseDto.builder()
+                .productId(testProductId)
+                .name("Test Product")
+                .description("Test Description")
+                .price(99.99)
+                .quantity(10)
+                .build();
+        productCacheService = new ProductCacheService(productRepository, 100, Duration.ofMinutes(10), List.of());
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndServeFromCache() {
+        // Given
+        when(productRepository.findDtoByProductId(testProductId)).thenReturn(Optional.of(testProduct));
+
+        // When
+        Optional<ProductResponseDto> first = productCacheService.get(testProductId);
+        Optional<ProductResponseDto> second = productCacheService.get(testProductId);
+
+        // Then
+        assertTrue(first.isPresent());
+        assertSame(first.get(), second.get());
+        verify(productRepository, times(1)).findDtoByProductId(testProductId);
+        assertEquals(1L, productCacheService.describe().get("hitCount"));
+    }
+
+    @Test
+    void get_ShouldNotCacheMissingProducts() {
+        // Given
+        UUID nonExistentId = UUID.randomUUID();
+        when(productRepository.findDtoByProductId(nonExistentId)).thenReturn(Optional.empty());
+
+        // When
+        assertTrue(productCacheService.get(nonExistentId).isEmpty());
+        assertTrue(productCacheService.get(nonExistentId).isEmpty());
+
+        // Then
+        verify(productRepository, times(2)).findDtoByProductId(nonExistentId);
+    }
+
+    @Test
+    void get_ShouldCoalesceConcurrentMissesIntoOneLoad() throws Exception {
+        // Given
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        when(productRepository.findDtoByProductId(testProductId)).thenAnswer(invocation -> {
+            loadStarted.countDown();
+            releaseLoad.await(5, TimeUnit.SECONDS);
+            return Optional.of(testProduct);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            // When
+            List<Future<Optional<ProductResponseDto>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> productCacheService.get(testProductId)));
+            }
+            assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+            Thread.sleep(50);
+            releaseLoad.countDown();
+
+            // Then
+            for (Future<Optional<ProductResponseDto>> result : results) {
+                assertEquals(testProductId, result.get(5, TimeUnit.SECONDS).orElseThrow().getProductId());
+            }
+            verify(productRepository, times(1)).findDtoByProductId(testProductId);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getAll_ShouldServeHitsFromCacheAndLoadMissesInOneQuery() {
+        // Given
+        UUID otherId = UUID.randomUUID();
+        UUID unknownId = UUID.randomUUID();
+        ProductResponseDto other = ProductResponseDto.builder().productId(otherId).name("Other").build();
+        when(productRepository.findDtoByProductId(testProductId)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findAllDtosByProductIdIn(anyCollection())).thenReturn(List.of(other));
+        productCacheService.get(testProductId);
+
+        // When
+        Map<UUID, ProductResponseDto> result = productCacheService.getAll(List.of(testProductId, otherId, unknownId));
+
+        // Then
+        assertEquals(Map.of(testProductId, testProduct, otherId, other), result);
+        verify(productRepository, times(1)).findAllDtosByProductIdIn(argThat(ids ->
+                ids.size() == 2 && ids.contains(otherId) && ids.contains(unknownId)));
+    }
+
+    @Test
+    void onProductChanged_ShouldInvalidateEntry() {
+        // Given
+        when(productRepository.findDtoByProductId(testProductId)).thenReturn(Optional.of(testProduct));
+        productCacheService.get(testProductId);
+
+        // When
+        productCacheService.onProductChanged(new ProductChangedEvent(testProductId, ProductChangeType.UPDATED));
+        productCacheService.get(testProductId);
+
+        // Then
+        verify(productRepository, times(2)).findDtoByProductId(testProductId);
+    }
+
+    @Test
+    void warmUp_ShouldBulkLoadConfiguredProducts() {
+        // Given
+        productCacheService = new ProductCacheService(productRepository, 100, Duration.ofMinutes(10), List.of(testProductId));
+        when(productRepository.findAllDtosByProductIdIn(anyCollection())).thenReturn(List.of(testProduct));
+
+        // When
+        productCacheService.warmUp();
+        Optional<ProductResponseDto> result = productCacheService.get(testProductId);
+
+        // Then
+        assertTrue(result.isPresent());
+        verify(productRepository, times(1)).findAllDtosByProductIdIn(anyCollection());
+        verify(productRepository, never()).findDtoByProductId(testProductId);
+    }
+
+    @Test
+    void resize_ShouldChangeLivePolicy() {
+        // When
+        productCacheService.resize(5L, Duration.ofSeconds(30));
+
+        // Then
+        Map<String, Object> description = productCacheService.describe();
+        assertEquals(5L, description.get("maximumSize"));
+        assertEquals("PT30S", description.get("expireAfterWrite"));
+    }
+}
@@ -0,0 +1,195 @@
+package com.himusharier.inventory.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.himusharier.inventory.catalog.ProductCatalogSnapshot;
+import com.himusharier.inventory.changefeed.InMemoryProductChangeSink;
+import com.himusharier.inventory.changefeed.ProductChangeRelay;
+import com.himusharier.inventory.changefeed.ProductOutboxWriter;
+import com.himusharier.inventory.constants.ProductChangeType;
+import com.himusharier.inventory.dto.response.ProductChangeDto;
+import com.himusharier.inventory.dto.response.ProductChangeFeedDto;
+import com.himusharier.inventory.dto.response.ProductResponseDto;
+import com.himusharier.inventory.exception.ProductVersionConflictException;
+import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.repository.ProductOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Outbox rows are only written on commit, so every test runs without the test-managed transaction.
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "app.products.changes.in-memory-sink.enabled=true")
+@Import({ProductService.class, ProductCacheService.class, StockThresholdService.class, StockLedgerService.class,
+        StockStripeService.class, ProductOutboxWriter.class, ProductChangeRelay.class, ProductChangeFeedService.class,
+        InMemoryProductChangeSink.class, ProductCatalogSnapshot.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductChangeFeedServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductChangeRelay productChangeRelay;
+
+    @Autowired
+    private ProductChangeFeedService productChangeFeedService;
+
+    @Autowired
+    private InMemoryProductChangeSink inMemoryProductChangeSink;
+
+    @Autowired
+    private ProductOutboxRepository productOutboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long startOffset;
+
+    @BeforeEach
+    void setUp() {
+        productChangeRelay.relay();
+        startOffset = productOutboxRepository.findLatestOffset();
+    }
+
+    @Test
+    void productWrites_ShouldBeFedInCommitOrder_WithVersionAndChangedFields() throws Exception {
+        // Given
+        UUID productId = productService.createProduct(product("Lamp", 10)).getProductId();
+        productService.patchProduct(productId, objectMapper.readTree("{\"price\": 12.5}"), null);
+        productService.deleteProduct(productId);
+
+        // When
+        productChangeRelay.relay();
+
+        // Then
+        ProductChangeFeedDto feed = productChangeFeedService.read(startOffset, 100);
+        List<ProductChangeDto> changes = feed.getChanges();
+        assertEquals(3, changes.size());
+        assertFalse(feed.isTruncated());
+        assertEquals(startOffset + 3, feed.getNextOffset());
+
+        assertEquals(startOffset + 1, changes.get(0).getOffset());
+        assertEquals(ProductChangeType.CREATED, changes.get(0).getChangeType());
+        assertEquals(0L, changes.get(0).getVersion());
+        assertEquals("Lamp", changes.get(0).getName());
+        assertEquals(10, changes.get(0).getQuantity());
+        assertEquals(5, changes.get(0).getChangedFields().size());
+
+        assertEquals(ProductChangeType.UPDATED, changes.get(1).getChangeType());
+        assertEquals(List.of("price"), changes.get(1).getChangedFields());
+        assertEquals(1L, changes.get(1).getVersion());
+        assertEquals(12.5, changes.get(1).getPrice());
+
+        assertEquals(ProductChangeType.DELETED, changes.get(2).getChangeType());
+        assertNull(changes.get(2).getVersion());
+        assertNull(changes.get(2).getName());
+
+        List<Long> delivered = inMemoryProductChangeSink.getChanges().stream()
+                .map(ProductChangeDto::getOffset)
+                .filter(offset -> offset > startOffset)
+                .toList();
+        assertEquals(List.of(startOffset + 1, startOffset + 2, startOffset + 3), delivered);
+    }
+
+    @Test
+    void rolledBackWrite_ShouldNotBeFed() throws Exception {
+        // Given
+        UUID productId = productService.createProduct(product("Desk", 1)).getProductId();
+
+        // When
+        assertThrows(ProductVersionConflictException.class, () ->
+                productService.patchProduct(productId, objectMapper.readTree("{\"name\": \"Table\"}"), 7L));
+        productChangeRelay.relay();
+
+        // Then
+        List<ProductChangeDto> changes = productChangeFeedService.read(startOffset, 100).getChanges();
+        assertEquals(1, changes.size());
+        assertEquals("Desk", changes.get(0).getName());
+    }
+
+    @Test
+    void writesInOneTransaction_ShouldCollapseIntoOneRecordOfTheCommittedState() {
+        // When
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            UUID productId = productService.createProduct(product("Chair", 4)).getProductId();
+            try {
+                productService.patchProduct(productId, objectMapper.readTree("{\"name\": \"Armchair\"}"), null);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        productChangeRelay.relay();
+
+        // Then
+        List<ProductChangeDto> changes = productChangeFeedService.read(startOffset, 100).getChanges();
+        assertEquals(1, changes.size());
+        assertEquals(ProductChangeType.CREATED, changes.get(0).getChangeType());
+        assertEquals("Armchair", changes.get(0).getName());
+        assertEquals(1L, changes.get(0).getVersion());
+    }
+
+    @Test
+    void longPoll_ShouldWaitForTheNextChange() throws Exception {
+        // Given
+        CompletableFuture<ProductChangeFeedDto> poll = productChangeFeedService.poll(startOffset, 10, Duration.ofSeconds(10));
+        assertFalse(poll.isDone());
+
+        // When
+        ProductResponseDto created = productService.createProduct(product("Sofa", 2));
+        productChangeRelay.relay();
+
+        // Then
+        ProductChangeFeedDto feed = poll.get(5, TimeUnit.SECONDS);
+        assertEquals(1, feed.getChanges().size());
+        assertEquals(created.getProductId(), feed.getChanges().get(0).getProductId());
+        assertEquals(startOffset + 1, feed.getNextOffset());
+
+        ProductChangeFeedDto timedOut = productChangeFeedService.poll(startOffset + 1, 10, Duration.ofMillis(50))
+                .get(5, TimeUnit.SECONDS);
+        assertTrue(timedOut.getChanges().isEmpty());
+        assertEquals(startOffset + 1, timedOut.getNextOffset());
+        assertEquals(startOffset + 1, productChangeFeedService.poll(null, 10, Duration.ZERO).get().getNextOffset());
+    }
+
+    @Test
+    void read_ShouldFlagPrunedChanges() {
+        // Given
+        productService.createProduct(product("Rug", 1));
+        productService.createProduct(product("Vase", 1));
+        productChangeRelay.relay();
+        productOutboxRepository.findByFeedOffsetGreaterThanOrderByFeedOffset(startOffset, Limit.of(1))
+                .forEach(productOutboxRepository::delete);
+
+        // When
+        ProductChangeFeedDto feed = productChangeFeedService.read(startOffset, 100);
+
+        // Then
+        assertTrue(feed.isTruncated());
+        assertEquals(1, feed.getChanges().size());
+        assertEquals(startOffset + 2, feed.getNextOffset());
+    }
+
+    private static Product product(String name, int quantity) {
+        return Product.builder().name(name).description(name).price(10.0).quantity(quantity).build();
+    }
+}
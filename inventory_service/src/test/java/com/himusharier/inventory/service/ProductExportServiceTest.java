@@ -0,0 +1,172 @@
+package com.himusharier.inventory.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.himusharier.inventory.repository.ProductExportView;
+import com.himusharier.inventory.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductExportServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private FlashSaleService flashSaleService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ProductExportService productExportService;
+
+    @BeforeEach
+    void setUp() {
+        productExportService = new ProductExportService(productRepository, flashSaleService, entityManager, objectMapper);
+    }
+
+    @Test
+    void exportProducts_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        // Given
+        UUID firstId = UUID.randomUUID();
+        Row first = new Row(firstId, "Test Product", "Test Description", 99.99, 10, 3, 2);
+        Row second = new Row(UUID.randomUUID(), "Product 2", null, 149.99, 5, null, 0);
+        when(productRepository.streamExportViews()).thenReturn(Stream.of(first, second));
+        when(flashSaleService.available(any())).thenReturn(OptionalInt.empty());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When
+        long exported = productExportService.exportProducts(outputStream);
+
+        // Then
+        assertEquals(2, exported);
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+
+        JsonNode firstLine = objectMapper.readTree(lines[0]);
+        assertEquals(firstId.toString(), firstLine.get("productId").asText());
+        assertEquals("Test Product", firstLine.get("name").asText());
+        assertEquals("Test Description", firstLine.get("description").asText());
+        assertEquals(99.99, firstLine.get("price").asDouble());
+        assertEquals(10, firstLine.get("quantity").asInt());
+        assertEquals(3, firstLine.get("reorderThreshold").asInt());
+        assertEquals(2, firstLine.get("version").asLong());
+
+        JsonNode secondLine = objectMapper.readTree(lines[1]);
+        assertEquals("Product 2", secondLine.get("name").asText());
+        assertTrue(secondLine.get("description").isNull());
+        assertTrue(secondLine.get("reorderThreshold").isNull());
+    }
+
+    @Test
+    void exportProducts_ShouldWriteTheEnginesQuantity_ForFlashSaleProducts() throws Exception {
+        // Given: the stored quantity lags the engine until the next flush
+        UUID flashSaleId = UUID.randomUUID();
+        when(productRepository.streamExportViews())
+                .thenReturn(Stream.of(new Row(flashSaleId, "Flash Sale Product", null, 9.99, 500, null, 1)));
+        when(flashSaleService.available(flashSaleId)).thenReturn(OptionalInt.of(120));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When
+        productExportService.exportProducts(outputStream);
+
+        // Then
+        JsonNode line = objectMapper.readTree(outputStream.toString(StandardCharsets.UTF_8).trim());
+        assertEquals(120, line.get("quantity").asInt());
+    }
+
+    @Test
+    void exportProducts_ShouldClearPersistenceContextPeriodically() throws Exception {
+        // Given
+        Stream<ProductExportView> products = IntStream.range(0, 1200)
+                .mapToObj(i -> new Row(UUID.randomUUID(), "Product " + i, null, 1.0, i, null, 0));
+        when(productRepository.streamExportViews()).thenReturn(products);
+        when(flashSaleService.available(any())).thenReturn(OptionalInt.empty());
+
+        // When
+        long exported = productExportService.exportProducts(new ByteArrayOutputStream());
+
+        // Then
+        assertEquals(1200, exported);
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void setClearInterval_ShouldRejectNonPositiveIntervals() {
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> productExportService.setClearInterval(0));
+        assertThrows(IllegalArgumentException.class, () -> productExportService.setClearInterval(-5));
+    }
+
+    @Test
+    void exportProducts_ShouldWriteNothing_WhenNoProductsExist() throws Exception {
+        // Given
+        when(productRepository.streamExportViews()).thenReturn(Stream.empty());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When
+        long exported = productExportService.exportProducts(outputStream);
+
+        // Then
+        assertEquals(0, exported);
+        assertEquals(0, outputStream.size());
+        verify(entityManager, never()).clear();
+    }
+
+    private record Row(UUID productId, String name, String description, Double price, int quantity,
+                       Integer reorderThreshold, long version) implements ProductExportView {
+
+        @Override
+        public UUID getProductId() {
+            return productId;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        public Double getPrice() {
+            return price;
+        }
+
+        @Override
+        public int getQuantity() {
+            return quantity;
+        }
+
+        @Override
+        public Integer getReorderThreshold() {
+            return reorderThreshold;
+        }
+
+        @Override
+        public long getVersion() {
+            return version;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.himusharier.inventory.service;
+
+import com.himusharier.inventory.constants.ProductChangeType;
+import com.himusharier.inventory.constants.ProductPatchField;
+import com.himusharier.inventory.dto.response.ProductResponseDto;
+import com.himusharier.inventory.dto.response.ProductSearchHitDto;
+import com.himusharier.inventory.dto.response.ProductSearchResponseDto;
+import com.himusharier.inventory.event.ProductChangedEvent;
+import com.himusharier.inventory.exception.ProductSubmissionException;
+import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductSearchService productSearchService;
+
+    private Product keyboard;
+    private Product cable;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        productSearchService = new ProductSearchService(productRepository, entityManager, transactionManager, "");
+        keyboard = Product.builder()
+                .productId(UUID.randomUUID())
+                .name("Mechanical Keyboard")
+                .description("Hot-swappable switches and a detachable cable")
+                .price(89.0)
+                .quantity(12)
+                .build();
+        cable = Product.builder()
+                .productId(UUID.randomUUID())
+                .name("USB-C Cable")
+                .description("Braided charging cable for keyboards and phones")
+                .price(9.5)
+                .quantity(300)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        productSearchService.close();
+    }
+
+    @Test
+    void search_ShouldMatchStemmedTermsFromIndexBuiltAtStartup() {
+        // Given
+        when(productRepository.streamAll()).thenReturn(Stream.of(keyboard, cable));
+        productSearchService.rebuild();
+
+        // When
+        ProductSearchResponseDto result = productSearchService.search("keyboards", 0, 10);
+
+        // Then
+        assertEquals(2, result.getTotalHits());
+        assertTrue(result.isTotalHitsExact());
+        // A name match outranks a description match.
+        assertEquals(keyboard.getProductId(), result.getItems().get(0).getProductId());
+        assertEquals(89.0, result.getItems().get(0).getPrice());
+        verify(productRepository, never()).findDtoByProductId(any());
+    }
+
+    @Test
+    void search_ShouldRequireAllTerms() {
+        // Given
+        when(productRepository.streamAll()).thenReturn(Stream.of(keyboard, cable));
+        productSearchService.rebuild();
+
+        // When
+        ProductSearchResponseDto result = productSearchService.search("braided cable", 0, 10);
+
+        // Then
+        assertEquals(1, result.getTotalHits());
+        assertEquals(cable.getProductId(), result.getItems().get(0).getProductId());
+    }
+
+    @Test
+    void search_ShouldPage() {
+        // Given
+        List<Product> lamps = IntStream.range(0, 25)
+                .mapToObj(i -> Product.builder()
+                        .productId(UUID.randomUUID())
+                        .name("Desk Lamp " + i)
+                        .price(20.0)
+                        .quantity(i)
+                        .build())
+                .toList();
+        when(productRepository.streamAll()).thenReturn(lamps.stream());
+        productSearchService.rebuild();
+
+        // When
+        ProductSearchResponseDto lastPage = productSearchService.search("lamp", 2, 10);
+
+        // Then
+        assertEquals(25, lastPage.getTotalHits());
+        assertEquals(5, lastPage.getItems().size());
+    }
+
+    @Test
+    void applyPendingChanges_ShouldUpdateAndRemoveDocuments() {
+        // Given
+        when(productRepository.streamAll()).thenReturn(Stream.of(keyboard));
+        productSearchService.rebuild();
+        when(productRepository.findAllDtosByProductIdIn(List.of(keyboard.getProductId()))).thenReturn(List.of(ProductResponseDto.builder()
+                .productId(keyboard.getProductId())
+                .name("Wireless Keyboard")
+                .price(99.0)
+                .quantity(4)
+                .version(1)
+                .build()));
+
+        // When
+        productSearchService.onProductChanged(new ProductChangedEvent(keyboard.getProductId(), ProductChangeType.UPDATED,
+                Set.of(ProductPatchField.NAME)));
+        productSearchService.onProductChanged(new ProductChangedEvent(keyboard.getProductId(), ProductChangeType.UPDATED,
+                Set.of(ProductPatchField.PRICE)));
+        assertEquals(1, productSearchService.search("mechanical", 0, 10).getTotalHits());
+        productSearchService.applyPendingChanges();
+
+        // Then: both changes, one read
+        ProductSearchHitDto hit = productSearchService.search("wireless", 0, 10).getItems().get(0);
+        assertEquals(99.0, hit.getPrice());
+        assertEquals(0, productSearchService.search("mechanical", 0, 10).getTotalHits());
+        verify(productRepository, times(1)).findAllDtosByProductIdIn(anyCollection());
+
+        // When
+        when(productRepository.findAllDtosByProductIdIn(List.of(keyboard.getProductId()))).thenReturn(List.of());
+        productSearchService.onProductChanged(new ProductChangedEvent(keyboard.getProductId(), ProductChangeType.DELETED));
+        productSearchService.applyPendingChanges();
+
+        // Then
+        assertEquals(0, productSearchService.search("keyboard", 0, 10).getTotalHits());
+    }
+
+    @Test
+    void onProductChanged_ShouldIgnoreStockOnlyChanges() {
+        // Given
+        when(productRepository.streamAll()).thenReturn(Stream.of(keyboard));
+        productSearchService.rebuild();
+
+        // When
+        productSearchService.onProductChanged(new ProductChangedEvent(keyboard.getProductId(), ProductChangeType.UPDATED,
+                Set.of(ProductPatchField.QUANTITY)));
+        productSearchService.onProductChanged(new ProductChangedEvent(keyboard.getProductId(), ProductChangeType.UPDATED));
+        productSearchService.applyPendingChanges();
+
+        // Then
+        verify(productRepository, never()).findAllDtosByProductIdIn(anyCollection());
+        assertEquals(1, productSearchService.search("keyboard", 0, 10).getTotalHits());
+    }
+
+    @Test
+    void search_ShouldRejectBlankQueryAndOversizedPages() {
+        assertThrows(ProductSubmissionException.class, () -> productSearchService.search(" ", 0, 10));
+        assertThrows(ProductSubmissionException.class, () -> productSearchService.search("lamp", 0, 101));
+        assertThrows(ProductSubmissionException.class, () -> productSearchService.search("lamp", 100, 100));
+    }
+}
@@ -1,24 +1,47 @@
 package com.himusharier.inventory.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.himusharier.inventory.catalog.ProductCatalogSnapshot;
+import com.himusharier.inventory.constants.ProductChangeType;
+import com.himusharier.inventory.constants.ProductPatchField;
+import com.himusharier.inventory.constants.ProductPatchStatus;
+import com.himusharier.inventory.dto.request.ProductPatchItemDto;
+import com.himusharier.inventory.dto.response.ProductBulkPatchResponseDto;
+import com.himusharier.inventory.dto.response.ProductLookupResponseDto;
+import com.himusharier.inventory.dto.response.ProductLookupResultDto;
 import com.himusharier.inventory.dto.response.ProductResponseDto;
+import com.himusharier.inventory.event.ProductChangedEvent;
+import com.himusharier.inventory.exception.ProductSubmissionException;
+import com.himusharier.inventory.exception.ProductVersionConflictException;
 import com.himusharier.inventory.exception.ResourceNotFoundException;
 import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.repository.ProductColumnPatch;
 import com.himusharier.inventory.repository.ProductRepository;
+import com.himusharier.inventory.repository.ProductStockView;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -28,6 +51,24 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductCacheService productCacheService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private StockThresholdService stockThresholdService;
+
+    @Mock
+    private StockLedgerService stockLedgerService;
+
+    @Mock
+    private StockStripeService stockStripeService;
+
+    @Mock
+    private ProductCatalogSnapshot productCatalogSnapshot;
+
     @InjectMocks
     private ProductService productService;
 
@@ -50,16 +91,23 @@ class ProductServiceTest {
     @Test
     void getAllProducts_ShouldReturnListOfProductResponseDto() {
         // Given
-        List<Product> products = Arrays.asList(testProduct, 
-            Product.builder()
+        List<ProductResponseDto> products = Arrays.asList(
+            ProductResponseDto.builder()
+                .productId(testProductId)
+                .name("Test Product")
+                .description("Test Description")
+                .price(99.99)
+                .quantity(10)
+                .build(),
+            ProductResponseDto.builder()
                 .productId(UUID.randomUUID())
                 .name("Product 2")
                 .description("Description 2")
                 .price(149.99)
                 .quantity(5)
                 .build());
-        
-        when(productRepository.findAll()).thenReturn(products);
+
+        when(productRepository.findAllDtos()).thenReturn(products);
 
         // When
         List<ProductResponseDto> result = productService.getAllProducts();
@@ -69,13 +117,14 @@ class ProductServiceTest {
         assertEquals(2, result.size());
         assertEquals("Test Product", result.get(0).getName());
         assertEquals("Product 2", result.get(1).getName());
-        verify(productRepository, times(1)).findAll();
+        verify(productRepository, times(1)).findAllDtos();
+        verify(productRepository, never()).findAll();
     }
 
     @Test
     void getAllProducts_ShouldReturnEmptyList_WhenNoProductsExist() {
         // Given
-        when(productRepository.findAll()).thenReturn(Arrays.asList());
+        when(productRepository.findAllDtos()).thenReturn(Arrays.asList());
 
         // When
         List<ProductResponseDto> result = productService.getAllProducts();
@@ -83,13 +132,20 @@ class ProductServiceTest {
         // Then
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(productRepository, times(1)).findAll();
+        verify(productRepository, times(1)).findAllDtos();
     }
 
     @Test
     void getProductById_ShouldReturnProductResponseDto_WhenProductExists() {
         // Given
-        when(productRepository.findByProductId(testProductId)).thenReturn(Optional.of(testProduct));
+        when(productCacheService.get(testProductId)).thenReturn(Optional.of(
+            ProductResponseDto.builder()
+                .productId(testProductId)
+                .name("Test Product")
+                .description("Test Description")
+                .price(99.99)
+                .quantity(10)
+                .build()));
 
         // When
         ProductResponseDto result = productService.getProductById(testProductId);
@@ -101,14 +157,15 @@ class ProductServiceTest {
         assertEquals("Test Description", result.getDescription());
         assertEquals(99.99, result.getPrice());
         assertEquals(10, result.getQuantity());
-        verify(productRepository, times(1)).findByProductId(testProductId);
+        verify(productCacheService, times(1)).get(testProductId);
+        verify(productRepository, never()).findByProductId(any(UUID.class));
     }
 
     @Test
     void getProductById_ShouldThrowResourceNotFoundException_WhenProductDoesNotExist() {
         // Given
         UUID nonExistentId = UUID.randomUUID();
-        when(productRepository.findByProductId(nonExistentId)).thenReturn(Optional.empty());
+        when(productCacheService.get(nonExistentId)).thenReturn(Optional.empty());
 
         // When & Then
         ResourceNotFoundException exception = assertThrows(
@@ -117,7 +174,65 @@ class ProductServiceTest {
         );
         
         assertTrue(exception.getMessage().contains("Product not found with the id: " + nonExistentId));
-        verify(productRepository, times(1)).findByProductId(nonExistentId);
+        verify(productCacheService, times(1)).get(nonExistentId);
+    }
+
+    @Test
+    void lookupProducts_ShouldReturnResultsInRequestOrder_WithMissingIdsMarked() {
+        // Given
+        UUID otherId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        when(productCacheService.getAll(anyCollection())).thenReturn(Map.of(
+                testProductId, ProductResponseDto.builder().productId(testProductId).name("Test Product").build(),
+                otherId, ProductResponseDto.builder().productId(otherId).name("Other Product").build()));
+
+        // When
+        ProductLookupResponseDto result = productService.lookupProducts(List.of(otherId, missingId, testProductId, otherId));
+
+        // Then
+        assertEquals(3, result.getFound());
+        assertEquals(1, result.getMissing());
+        assertEquals(List.of(otherId, missingId, testProductId, otherId), result.getItems().stream()
+                .map(ProductLookupResultDto::getProductId)
+                .toList());
+        assertEquals(List.of(true, false, true, true), result.getItems().stream()
+                .map(ProductLookupResultDto::isFound)
+                .toList());
+        assertNull(result.getItems().get(1).getProduct());
+        assertEquals("Test Product", result.getItems().get(2).getProduct().getName());
+        verify(productCacheService, times(1)).getAll(argThat(ids -> ids.size() == 3));
+        verify(productRepository, never()).findByProductId(any(UUID.class));
+    }
+
+    @Test
+    void findCurrentVersion_ShouldUseCachedProduct_WhenPresent() {
+        // Given
+        when(productCacheService.getIfPresent(testProductId)).thenReturn(Optional.of(
+            ProductResponseDto.builder()
+                .productId(testProductId)
+                .version(3)
+                .build()));
+
+        // When
+        Optional<Long> result = productService.findCurrentVersion(testProductId);
+
+        // Then
+        assertEquals(Optional.of(3L), result);
+        verify(productRepository, never()).findUnstripedVersionByProductId(any(UUID.class));
+    }
+
+    @Test
+    void findCurrentVersion_ShouldQueryVersionOnly_WhenNotCached() {
+        // Given
+        when(productCacheService.getIfPresent(testProductId)).thenReturn(Optional.empty());
+        when(productRepository.findUnstripedVersionByProductId(testProductId)).thenReturn(Optional.of(5L));
+
+        // When
+        Optional<Long> result = productService.findCurrentVersion(testProductId);
+
+        // Then
+        assertEquals(Optional.of(5L), result);
+        verify(productRepository, never()).findDtoByProductId(any(UUID.class));
     }
 
     @Test
@@ -152,6 +267,7 @@ class ProductServiceTest {
         assertEquals(199.99, result.getPrice());
         assertEquals(15, result.getQuantity());
         verify(productRepository, times(1)).save(newProduct);
+        assertPublished(testProductId, ProductChangeType.CREATED);
     }
 
     @Test
@@ -189,6 +305,7 @@ class ProductServiceTest {
         assertEquals(20, result.getQuantity());
         verify(productRepository, times(1)).findByProductId(testProductId);
         verify(productRepository, times(1)).save(any(Product.class));
+        assertPublished(testProductId, ProductChangeType.UPDATED);
     }
 
     @Test
@@ -213,28 +330,72 @@ class ProductServiceTest {
         assertTrue(exception.getMessage().contains("Product not found with the id: " + nonExistentId));
         verify(productRepository, times(1)).findByProductId(nonExistentId);
         verify(productRepository, never()).save(any(Product.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void updateProduct_ShouldThrowProductVersionConflictException_WhenVersionDoesNotMatch() {
+        // Given
+        testProduct.setVersion(4);
+        Product updateRequest = Product.builder()
+                .name("Updated Product")
+                .price(299.99)
+                .quantity(20)
+                .build();
+
+        when(productRepository.findByProductId(testProductId)).thenReturn(Optional.of(testProduct));
+
+        // When & Then
+        assertThrows(
+            ProductVersionConflictException.class,
+            () -> productService.updateProduct(testProductId, updateRequest, 3L)
+        );
+        verify(productRepository, never()).save(any(Product.class));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
     void deleteProduct_ShouldReturnTrue_WhenProductExists() {
         // Given
-        when(productRepository.existsByProductId(testProductId)).thenReturn(true);
-        doNothing().when(productRepository).deleteByProductId(testProductId);
+        when(productRepository.lockForDelete(List.of(testProductId))).thenReturn(new TreeMap<>(Map.of(testProductId, true)));
+        when(productRepository.deleteProducts(List.of(testProductId))).thenReturn(1);
 
         // When
         boolean result = productService.deleteProduct(testProductId);
 
         // Then
         assertTrue(result);
-        verify(productRepository, times(1)).existsByProductId(testProductId);
-        verify(productRepository, times(1)).deleteByProductId(testProductId);
+        verify(stockStripeService, never()).lockStripes(anyCollection());
+        verify(stockStripeService, times(1)).removeStripes(List.of(testProductId));
+        verify(productRepository, times(1)).deleteProducts(List.of(testProductId));
+        verify(productRepository, never()).archiveProducts(anyCollection(), any(LocalDateTime.class));
+        assertPublished(testProductId, ProductChangeType.DELETED);
+    }
+
+    @Test
+    void deleteProduct_ShouldLockStripesBeforeProductRow_WhenProductIsStriped() {
+        // Given
+        when(productRepository.findStripedProductIdsIn(List.of(testProductId))).thenReturn(List.of(testProductId));
+        when(productRepository.lockForDelete(List.of())).thenReturn(new TreeMap<>());
+        when(productRepository.lockForDelete(Set.of(testProductId))).thenReturn(new TreeMap<>(Map.of(testProductId, true)));
+        when(productRepository.deleteProducts(List.of(testProductId))).thenReturn(1);
+
+        // When
+        productService.deleteProduct(testProductId);
+
+        // Then
+        InOrder inOrder = inOrder(stockStripeService, productRepository);
+        inOrder.verify(stockStripeService).lockStripes(Set.of(testProductId));
+        inOrder.verify(productRepository).lockForDelete(Set.of(testProductId));
+        inOrder.verify(stockStripeService).removeStripes(List.of(testProductId));
+        inOrder.verify(productRepository).deleteProducts(List.of(testProductId));
     }
 
     @Test
     void deleteProduct_ShouldThrowResourceNotFoundException_WhenProductDoesNotExist() {
         // Given
         UUID nonExistentId = UUID.randomUUID();
-        when(productRepository.existsByProductId(nonExistentId)).thenReturn(false);
+        when(productRepository.lockForDelete(List.of(nonExistentId))).thenReturn(new TreeMap<>());
 
         // When & Then
         ResourceNotFoundException exception = assertThrows(
@@ -243,7 +404,130 @@ class ProductServiceTest {
         );
         
         assertTrue(exception.getMessage().contains("Product not found with the id: " + nonExistentId));
-        verify(productRepository, times(1)).existsByProductId(nonExistentId);
-        verify(productRepository, never()).deleteByProductId(any(UUID.class));
+        verify(stockStripeService, never()).removeStripes(anyCollection());
+        verify(productRepository, never()).deleteProducts(anyCollection());
+        verify(eventPublisher, never()).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    void deleteProduct_ShouldThrowProductSubmissionException_WhenProductIsInFlashSale() {
+        // Given
+        when(productRepository.lockForDelete(List.of(testProductId))).thenReturn(new TreeMap<>(Map.of(testProductId, false)));
+
+        // When & Then
+        assertThrows(ProductSubmissionException.class, () -> productService.deleteProduct(testProductId));
+        verify(productRepository, never()).deleteProducts(anyCollection());
+        verify(stockLedgerService, never()).recordQuantitiesSet(anyCollection(), anyInt(), any(), any());
+    }
+
+    @Test
+    void patchProduct_ShouldUpdateOnlyPatchedFieldsWithoutReadingFirst() throws Exception {
+        // Given
+        JsonNode patch = new ObjectMapper().readTree("{\"price\": 79.99, \"description\": null}");
+        ArgumentCaptor<ProductColumnPatch> captor = ArgumentCaptor.forClass(ProductColumnPatch.class);
+        when(productRepository.patchProduct(captor.capture(), any(LocalDateTime.class))).thenReturn(1);
+        when(productRepository.findDtoByProductId(testProductId)).thenReturn(Optional.of(ProductResponseDto.builder()
+                .productId(testProductId)
+                .name("Test Product")
+                .price(79.99)
+                .quantity(10)
+                .version(4)
+                .build()));
+
+        // When
+        ProductResponseDto result = productService.patchProduct(testProductId, patch, 3L);
+
+        // Then
+        assertEquals(4, result.getVersion());
+        ProductColumnPatch columnPatch = captor.getValue();
+        assertEquals(3L, columnPatch.getExpectedVersion());
+        assertEquals(List.of(ProductPatchField.DESCRIPTION, ProductPatchField.PRICE), List.copyOf(columnPatch.getValues().keySet()));
+        assertNull(columnPatch.getValues().get(ProductPatchField.DESCRIPTION));
+        verify(productRepository, never()).findByProductId(any());
+        assertPublished(testProductId, ProductChangeType.UPDATED);
+    }
+
+    @Test
+    void patchProduct_ShouldThrowVersionConflict_WhenNothingUpdatedButProductExists() throws Exception {
+        // Given
+        JsonNode patch = new ObjectMapper().readTree("{\"name\": \"Renamed\"}");
+        when(productRepository.patchProduct(any(ProductColumnPatch.class), any(LocalDateTime.class))).thenReturn(0);
+        when(productRepository.existsByProductId(testProductId)).thenReturn(true);
+
+        // When & Then
+        assertThrows(ProductVersionConflictException.class, () -> productService.patchProduct(testProductId, patch, 1L));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void patchProduct_ShouldThrowResourceNotFoundException_WhenProductDoesNotExist() throws Exception {
+        // Given
+        JsonNode patch = new ObjectMapper().readTree("{\"quantity\": 5}");
+        when(productRepository.patchProduct(any(ProductColumnPatch.class), any(LocalDateTime.class))).thenReturn(0);
+        when(productRepository.existsByProductId(testProductId)).thenReturn(false);
+
+        // When & Then
+        assertThrows(ResourceNotFoundException.class, () -> productService.patchProduct(testProductId, patch, null));
+    }
+
+    @Test
+    void patchProduct_ShouldRejectUnknownOrInvalidFields() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        assertThrows(ProductSubmissionException.class, () ->
+                productService.patchProduct(testProductId, objectMapper.readTree("{\"version\": 7}"), null));
+        assertThrows(ProductSubmissionException.class, () ->
+                productService.patchProduct(testProductId, objectMapper.readTree("{\"name\": null}"), null));
+        assertThrows(ProductSubmissionException.class, () ->
+                productService.patchProduct(testProductId, objectMapper.readTree("{\"quantity\": 1.5}"), null));
+        assertThrows(ProductSubmissionException.class, () ->
+                productService.patchProduct(testProductId, objectMapper.readTree("{}"), null));
+        verify(productRepository, never()).patchProduct(any(), any());
+    }
+
+    @Test
+    void patchProducts_ShouldReportOutcomePerItemInRequestOrder() throws Exception {
+        // Given
+        ObjectMapper objectMapper = new ObjectMapper();
+        UUID conflictId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        List<ProductPatchItemDto> items = List.of(
+                patchItem(testProductId, null, objectMapper.readTree("{\"price\": 1.0}")),
+                patchItem(conflictId, 9L, objectMapper.readTree("{\"price\": 2.0}")),
+                patchItem(missingId, null, objectMapper.readTree("{\"price\": 3.0}")),
+                patchItem(testProductId, null, objectMapper.readTree("{\"sku\": \"X\"}"))
+        );
+        when(productRepository.batchPatchProducts(anyList(), any(LocalDateTime.class))).thenReturn(new int[]{1, 0, 0});
+        ProductStockView conflictStock = mock(ProductStockView.class);
+        when(conflictStock.getProductId()).thenReturn(conflictId);
+        when(productRepository.findStockByProductIdIn(anyCollection())).thenReturn(List.of(conflictStock));
+
+        // When
+        ProductBulkPatchResponseDto result = productService.patchProducts(items);
+
+        // Then
+        assertEquals(1, result.getPatched());
+        assertEquals(3, result.getFailed());
+        assertEquals(ProductPatchStatus.PATCHED, result.getItems().get(0).getStatus());
+        assertEquals(ProductPatchStatus.VERSION_CONFLICT, result.getItems().get(1).getStatus());
+        assertEquals(ProductPatchStatus.NOT_FOUND, result.getItems().get(2).getStatus());
+        assertEquals(ProductPatchStatus.INVALID, result.getItems().get(3).getStatus());
+        assertEquals("Field 'sku' can not be patched.", result.getItems().get(3).getMessage());
+        assertPublished(testProductId, ProductChangeType.UPDATED);
+    }
+
+    private ProductPatchItemDto patchItem(UUID productId, Long version, JsonNode patch) {
+        ProductPatchItemDto item = new ProductPatchItemDto();
+        item.setProductId(productId);
+        item.setVersion(version);
+        item.setPatch(patch);
+        return item;
+    }
+
+    private void assertPublished(UUID productId, ProductChangeType changeType) {
+        ArgumentCaptor<ProductChangedEvent> captor = ArgumentCaptor.forClass(ProductChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(captor.capture());
+        assertEquals(productId, captor.getValue().getProductId());
+        assertEquals(changeType, captor.getValue().getChangeType());
     }
 }
@@ -0,0 +1,176 @@
+package com.himusharier.inventory.service;
+
+import com.himusharier.inventory.constants.ProductChangeType;
+import com.himusharier.inventory.constants.ProductPatchField;
+import com.himusharier.inventory.dto.response.ProductSuggestionDto;
+import com.himusharier.inventory.event.ProductChangedEvent;
+import com.himusharier.inventory.exception.ProductSubmissionException;
+import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.repository.ProductRepository;
+import com.himusharier.inventory.repository.ProductStockView;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSuggestServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductSuggestService productSuggestService;
+
+    private Product keyboard;
+    private Product keychain;
+    private Product soldOutKeypad;
+
+    @BeforeEach
+    void setUp() {
+        productSuggestService = new ProductSuggestService(productRepository, entityManager, transactionManager);
+        keyboard = product("Mechanical Keyboard", 12);
+        keychain = product("Key Chain", 40);
+        soldOutKeypad = product("Keypad", 0);
+    }
+
+    @Test
+    void suggest_ShouldReturnInStockCompletionsFirst() {
+        // Given
+        when(productRepository.streamAll()).thenReturn(Stream.of(keyboard, keychain, soldOutKeypad));
+        productSuggestService.rebuild();
+
+        // When
+        List<ProductSuggestionDto> suggestions = productSuggestService.suggest("KEY", 10);
+
+        // Then
+        assertEquals(List.of("Key Chain", "Mechanical Keyboard", "Keypad"),
+                suggestions.stream().map(ProductSuggestionDto::getName).toList());
+        assertEquals(keychain.getProductId(), suggestions.get(0).getProductId());
+    }
+
+    @Test
+    void suggest_ShouldMatchLaterWordsAndHonourLimit() {
+        // Given
+        when(productRepository.streamAll()).thenReturn(Stream.of(keyboard, keychain, soldOutKeypad));
+        productSuggestService.rebuild();
+
+        // Then
+        assertEquals(List.of("Mechanical Keyboard"),
+                productSuggestService.suggest("keyb", 10).stream().map(ProductSuggestionDto::getName).toList());
+        assertEquals(1, productSuggestService.suggest("ke", 1).size());
+        assertTrue(productSuggestService.suggest("mouse", 10).isEmpty());
+    }
+
+    @Test
+    void rebuildIfDirty_ShouldOnlyRebuildAfterCatalogChange() {
+        // Given
+        when(productRepository.streamAll()).thenReturn(Stream.of(keyboard), Stream.of(keyboard, keychain));
+        productSuggestService.rebuild();
+
+        // When
+        productSuggestService.rebuildIfDirty();
+
+        // Then
+        verify(productRepository, times(1)).streamAll();
+
+        // When
+        productSuggestService.onProductChanged(new ProductChangedEvent(keychain.getProductId(), ProductChangeType.CREATED));
+        productSuggestService.rebuildIfDirty();
+
+        // Then
+        verify(productRepository, times(2)).streamAll();
+        assertEquals("Key Chain", productSuggestService.suggest("key c", 10).get(0).getName());
+    }
+
+    @Test
+    void rebuildIfDirty_ShouldRebuildOnStockChanges_OnlyWhenAProductGoesInOrOutOfStock() {
+        // Given
+        when(productRepository.streamAll()).thenReturn(Stream.of(keyboard, soldOutKeypad), Stream.of(keyboard, soldOutKeypad));
+        productSuggestService.rebuild();
+        ProductChangedEvent keyboardSold = new ProductChangedEvent(keyboard.getProductId(), ProductChangeType.UPDATED,
+                Set.of(ProductPatchField.QUANTITY));
+        ProductChangedEvent keypadRestocked = new ProductChangedEvent(soldOutKeypad.getProductId(), ProductChangeType.UPDATED,
+                Set.of(ProductPatchField.QUANTITY));
+
+        List<ProductStockView> keyboardStock = List.of(stock(keyboard.getProductId(), 11));
+        List<ProductStockView> keypadStock = List.of(stock(soldOutKeypad.getProductId(), 5));
+        when(productRepository.findStockByProductIdIn(List.of(keyboard.getProductId()))).thenReturn(keyboardStock);
+        when(productRepository.findStockByProductIdIn(List.of(soldOutKeypad.getProductId()))).thenReturn(keypadStock);
+
+        // When: still in stock after the sale
+        productSuggestService.onProductChanged(keyboardSold);
+        productSuggestService.rebuildIfDirty();
+
+        // Then
+        verify(productRepository, times(1)).streamAll();
+
+        // When: back in stock
+        productSuggestService.onProductChanged(keypadRestocked);
+        productSuggestService.rebuildIfDirty();
+
+        // Then
+        verify(productRepository, times(2)).streamAll();
+    }
+
+    @Test
+    void onProductChanged_ShouldIgnoreFieldsSuggestionsDoNotShow() {
+        // Given
+        when(productRepository.streamAll()).thenReturn(Stream.of(keyboard));
+        productSuggestService.rebuild();
+
+        // When
+        productSuggestService.onProductChanged(new ProductChangedEvent(keyboard.getProductId(), ProductChangeType.UPDATED,
+                Set.of(ProductPatchField.PRICE, ProductPatchField.DESCRIPTION)));
+        productSuggestService.rebuildIfDirty();
+
+        // Then
+        verify(productRepository, times(1)).streamAll();
+        verify(productRepository, never()).findStockByProductIdIn(anyCollection());
+    }
+
+    @Test
+    void suggest_ShouldReturnEmptyList_BeforeFirstBuild() {
+        assertTrue(productSuggestService.suggest("key", 5).isEmpty());
+    }
+
+    @Test
+    void suggest_ShouldRejectBlankPrefixAndInvalidLimit() {
+        assertThrows(ProductSubmissionException.class, () -> productSuggestService.suggest(" ", 5));
+        assertThrows(ProductSubmissionException.class, () -> productSuggestService.suggest("key", 0));
+        assertThrows(ProductSubmissionException.class, () -> productSuggestService.suggest("key", 21));
+    }
+
+    private static ProductStockView stock(UUID productId, int quantity) {
+        ProductStockView stock = mock(ProductStockView.class);
+        when(stock.getProductId()).thenReturn(productId);
+        when(stock.getQuantity()).thenReturn(quantity);
+        return stock;
+    }
+
+    private Product product(String name, int quantity) {
+        return Product.builder()
+                .productId(UUID.randomUUID())
+                .name(name)
+                .price(1.0)
+                .quantity(quantity)
+                .build();
+    }
+}
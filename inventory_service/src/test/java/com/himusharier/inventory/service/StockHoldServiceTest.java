@@ -0,0 +1,185 @@
+package com.himusharier.inventory.service;
+
+import com.himusharier.inventory.constants.StockHoldStatus;
+import com.himusharier.inventory.dto.request.StockReservationLineDto;
+import com.himusharier.inventory.dto.response.StockHoldResponseDto;
+import com.himusharier.inventory.exception.ResourceNotFoundException;
+import com.himusharier.inventory.exception.StockReservationException;
+import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.model.StockHold;
+import com.himusharier.inventory.model.StockHoldLine;
+import com.himusharier.inventory.repository.ProductRepository;
+import com.himusharier.inventory.repository.StockHoldRepository;
+import com.himusharier.inventory.repository.StockMovementRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "app.stock.holds.tick=PT0.05S")
+@Import({StockHoldService.class, StockService.class, StockLedgerService.class, StockThresholdService.class,
+        StockStripeService.class, FlashSaleService.class})
+class StockHoldServiceTest {
+
+    @Autowired
+    private StockHoldService stockHoldService;
+
+    @Autowired
+    private FlashSaleService flashSaleService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    private UUID firstProductId;
+    private UUID secondProductId;
+
+    @BeforeEach
+    void setUp() {
+        stockHoldRepository.deleteAll();
+        stockMovementRepository.deleteAll();
+        productRepository.deleteAll();
+        firstProductId = productRepository.save(Product.builder().name("First").price(1.0).quantity(10).build()).getProductId();
+        secondProductId = productRepository.save(Product.builder().name("Second").price(2.0).quantity(5).build()).getProductId();
+    }
+
+    @Test
+    void createHold_ShouldTakeStockOut_AndConfirmShouldKeepItSold() {
+        // When
+        StockHoldResponseDto hold = stockHoldService.createHold(List.of(
+                new StockReservationLineDto(firstProductId, 3),
+                new StockReservationLineDto(secondProductId, 5),
+                new StockReservationLineDto(firstProductId, 1)), "order-1", null);
+
+        // Then
+        assertEquals(StockHoldStatus.HELD, hold.getStatus());
+        assertEquals(2, hold.getLines().size());
+        assertEquals(6, quantity(firstProductId));
+        assertEquals(0, quantity(secondProductId));
+        assertEquals(4, stockHoldService.getHeldStock(firstProductId).getHeldQuantity());
+
+        assertEquals(StockHoldStatus.CONFIRMED, stockHoldService.confirmHold(hold.getHoldId()).getStatus());
+        assertEquals(6, quantity(firstProductId));
+        assertEquals(0, stockHoldService.getHeldStock(firstProductId).getHolds());
+        assertThrows(ResourceNotFoundException.class, () -> stockHoldService.cancelHold(hold.getHoldId()));
+    }
+
+    @Test
+    void cancelHold_ShouldPutStockBack() {
+        // Given
+        StockHoldResponseDto hold = stockHoldService.createHold(List.of(new StockReservationLineDto(firstProductId, 7)), null, null);
+
+        // When
+        StockHoldResponseDto cancelled = stockHoldService.cancelHold(hold.getHoldId());
+
+        // Then
+        assertEquals(StockHoldStatus.RELEASED, cancelled.getStatus());
+        assertEquals(10, quantity(firstProductId));
+        assertThrows(ResourceNotFoundException.class, () -> stockHoldService.confirmHold(hold.getHoldId()));
+    }
+
+    @Test
+    void createHold_ShouldHoldNothing_WhenAnyLineIsShort() {
+        // When / Then
+        assertThrows(StockReservationException.class, () -> stockHoldService.createHold(List.of(
+                new StockReservationLineDto(firstProductId, 3),
+                new StockReservationLineDto(secondProductId, 6)), null, null));
+        assertEquals(0, stockHoldRepository.count());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void expireHolds_ShouldReleaseHold_OnceTheTimingWheelReachesItsExpiry() throws InterruptedException {
+        // Given
+        StockHoldResponseDto hold = stockHoldService.createHold(List.of(new StockReservationLineDto(firstProductId, 4)),
+                "order-2", Duration.ofMillis(200));
+        stockHoldService.expireHolds();
+        assertEquals(6, quantity(firstProductId));
+        assertEquals(1, stockHoldService.scheduledHolds());
+
+        // When
+        Thread.sleep(300);
+        stockHoldService.expireHolds();
+
+        // Then
+        assertEquals(10, quantity(firstProductId));
+        assertFalse(stockHoldRepository.existsById(hold.getHoldId()));
+        assertEquals(0, stockHoldService.scheduledHolds());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void rebuildExpiryWheel_ShouldScheduleStoredHolds_AndSweepShouldReleaseExpiredOnes() throws InterruptedException {
+        // Given: a hold written by another node, so not in this node's wheel
+        stockHoldRepository.save(StockHold.builder()
+                .lines(new ArrayList<>(List.of(new StockHoldLine(secondProductId, 2))))
+                .expiresAt(LocalDateTime.now().plus(Duration.ofMillis(100)))
+                .createdAt(LocalDateTime.now())
+                .build());
+        assertEquals(0, stockHoldService.scheduledHolds());
+
+        // When
+        stockHoldService.rebuildExpiryWheel();
+        assertEquals(1, stockHoldService.scheduledHolds());
+        Thread.sleep(200);
+        stockHoldService.sweepExpiredHolds();
+
+        // Then
+        assertEquals(7, quantity(secondProductId));
+        assertEquals(0, stockHoldRepository.count());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void cancelHold_ShouldHandStockBackToFlashSale_WhenSaleStartedAfterTheHold(@TempDir Path walDirectory) throws Exception {
+        // Given
+        StockHoldResponseDto hold = stockHoldService.createHold(List.of(new StockReservationLineDto(firstProductId, 4)), null, null);
+        ReflectionTestUtils.setField(flashSaleService, "walPath", walDirectory.toString());
+        flashSaleService.afterSingletonsInstantiated();
+        try {
+            flashSaleService.start(firstProductId);
+            assertEquals(6, flashSaleService.getStatus(firstProductId).getAvailable());
+
+            // When
+            StockHoldResponseDto cancelled = stockHoldService.cancelHold(hold.getHoldId());
+
+            // Then
+            assertEquals(StockHoldStatus.RELEASED, cancelled.getStatus());
+            assertEquals(10, flashSaleService.getStatus(firstProductId).getAvailable());
+            assertEquals(0, stockHoldService.pendingFlashSaleReturns());
+            flashSaleService.stop(firstProductId);
+            assertEquals(10, quantity(firstProductId));
+        } finally {
+            flashSaleService.shutdown();
+            ReflectionTestUtils.setField(flashSaleService, "engine", null);
+            ReflectionTestUtils.setField(flashSaleService, "walPath", "");
+        }
+    }
+
+    private int quantity(UUID productId) {
+        return productRepository.findDtoByProductId(productId).orElseThrow().getQuantity();
+    }
+}
@@ -0,0 +1,148 @@
+package com.himusharier.inventory.service;
+
+import com.himusharier.inventory.constants.StockMovementReason;
+import com.himusharier.inventory.dto.response.StockLevelResponseDto;
+import com.himusharier.inventory.dto.response.StockMovementDto;
+import com.himusharier.inventory.dto.response.StockReconciliationDto;
+import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.model.StockMovement;
+import com.himusharier.inventory.repository.ProductRepository;
+import com.himusharier.inventory.repository.StockMovementRepository;
+import com.himusharier.inventory.repository.StockSnapshotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs against the database: the ledger is mostly queries, so that is what needs testing.
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({StockLedgerService.class, StockSnapshotService.class})
+class StockLedgerServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private StockSnapshotService stockSnapshotService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private StockSnapshotRepository stockSnapshotRepository;
+
+    private UUID testProductId;
+
+    @BeforeEach
+    void setUp() {
+        stockSnapshotRepository.deleteAll();
+        stockMovementRepository.deleteAll();
+        productRepository.deleteAll();
+        testProductId = productRepository.save(Product.builder()
+                .name("Test Product")
+                .price(9.99)
+                .quantity(12)
+                .build()).getProductId();
+    }
+
+    @Test
+    void getStockLevel_ShouldAddMovementsAfterSnapshot() {
+        // Given
+        move(testProductId, 10, T0);
+        move(testProductId, -3, T0.plusMinutes(10));
+        stockSnapshotService.takeSnapshots(T0.plusMinutes(15));
+        move(testProductId, 5, T0.plusMinutes(20));
+
+        // When
+        StockLevelResponseDto beforeSnapshot = stockLedgerService.getStockLevel(testProductId, T0.plusMinutes(5));
+        StockLevelResponseDto afterSnapshot = stockLedgerService.getStockLevel(testProductId, T0.plusMinutes(30));
+
+        // Then
+        assertEquals(10, beforeSnapshot.getQuantity());
+        assertNull(beforeSnapshot.getSnapshotCoveredUntil());
+        assertEquals(12, afterSnapshot.getQuantity());
+        assertEquals(T0.plusMinutes(15), afterSnapshot.getSnapshotCoveredUntil());
+        assertEquals(1, afterSnapshot.getMovementsAfterSnapshot());
+    }
+
+    @Test
+    void takeSnapshots_ShouldOnlySnapshotProductsThatMoved() {
+        // Given
+        UUID otherProductId = productRepository.save(Product.builder().name("Other").price(1.0).quantity(0).build())
+                .getProductId();
+        move(testProductId, 10, T0);
+        move(otherProductId, 4, T0);
+        stockSnapshotService.takeSnapshots(T0.plusMinutes(5));
+        move(testProductId, -2, T0.plusMinutes(10));
+
+        // When
+        long written = stockSnapshotService.takeSnapshots(T0.plusMinutes(15));
+
+        // Then
+        assertEquals(1, written);
+        assertEquals(8, stockSnapshotRepository.findFirstByProductIdOrderByCoveredUntilDesc(testProductId)
+                .orElseThrow().getQuantity());
+        assertEquals(T0.plusMinutes(5), stockSnapshotRepository.findFirstByProductIdOrderByCoveredUntilDesc(otherProductId)
+                .orElseThrow().getCoveredUntil());
+        assertEquals(0, stockSnapshotService.takeSnapshots(T0.plusMinutes(15)));
+    }
+
+    @Test
+    void recordQuantitySet_ShouldRecordDifferenceToLedgerBalance() {
+        // Given
+        move(testProductId, 12, T0);
+
+        // When
+        stockLedgerService.recordQuantitySet(testProductId, 20, StockMovementReason.ADJUSTED, "count-7");
+
+        // Then
+        List<StockMovementDto> movements = stockLedgerService.getMovements(testProductId, null, null, 10);
+        assertEquals(2, movements.size());
+        assertEquals(8, movements.get(1).getDelta());
+        assertEquals("count-7", movements.get(1).getReference());
+    }
+
+    @Test
+    void reconcile_ShouldReportDifference() {
+        // Given
+        move(testProductId, 10, T0);
+
+        // When
+        StockReconciliationDto reconciliation = stockLedgerService.reconcile(testProductId);
+
+        // Then
+        assertFalse(reconciliation.isConsistent());
+        assertEquals(2, reconciliation.getDifference());
+    }
+
+    @Test
+    void recordOpeningBalances_ShouldCoverProductsWithoutMovements() {
+        // When
+        stockSnapshotService.recordOpeningBalances();
+        stockSnapshotService.recordOpeningBalances();
+
+        // Then
+        List<StockMovementDto> movements = stockLedgerService.getMovements(testProductId, null, null, 10);
+        assertEquals(1, movements.size());
+        assertEquals(StockMovementReason.OPENING, movements.get(0).getReason());
+        assertTrue(stockLedgerService.reconcile(testProductId).isConsistent());
+    }
+
+    private void move(UUID productId, int delta, LocalDateTime occurredAt) {
+        stockMovementRepository.save(StockLedgerService.movement(productId, delta, StockMovementReason.ADJUSTED, null, occurredAt));
+    }
+}
@@ -0,0 +1,242 @@
+package com.himusharier.inventory.service;
+
+import com.himusharier.inventory.constants.StockMovementReason;
+import com.himusharier.inventory.constants.StockReservationStatus;
+import com.himusharier.inventory.dto.request.StockReservationLineDto;
+import com.himusharier.inventory.dto.response.StockAdjustmentResponseDto;
+import com.himusharier.inventory.dto.response.StockReservationResponseDto;
+import com.himusharier.inventory.event.ProductChangedEvent;
+import com.himusharier.inventory.exception.InsufficientStockException;
+import com.himusharier.inventory.exception.ProductSubmissionException;
+import com.himusharier.inventory.exception.ResourceNotFoundException;
+import com.himusharier.inventory.exception.StockReservationException;
+import com.himusharier.inventory.repository.ProductRepository;
+import com.himusharier.inventory.repository.ProductStockView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private StockThresholdService stockThresholdService;
+
+    @Mock
+    private StockLedgerService stockLedgerService;
+
+    @Mock
+    private StockStripeService stockStripeService;
+
+    @InjectMocks
+    private StockService stockService;
+
+    private UUID testProductId;
+
+    @BeforeEach
+    void setUp() {
+        testProductId = UUID.randomUUID();
+    }
+
+    @Test
+    void decrementStock_ShouldApply_WhenEnoughStock() {
+        // Given
+        when(productRepository.decrementQuantity(eq(testProductId), eq(3), any(LocalDateTime.class))).thenReturn(1);
+
+        // When
+        StockAdjustmentResponseDto result = stockService.decrementStock(testProductId, 3);
+
+        // Then
+        assertEquals(-3, result.getAdjustment());
+        assertEquals(testProductId, result.getProductId());
+        verify(productRepository, never()).findStockStripesByProductId(any(UUID.class));
+        verify(stockLedgerService, times(1)).record(testProductId, -3, StockMovementReason.DECREMENTED, null);
+        verify(stockThresholdService, times(1)).evaluate(testProductId);
+        verify(eventPublisher, times(1)).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    void decrementStock_ShouldThrowInsufficientStockException_WhenNotEnoughStock() {
+        // Given
+        when(productRepository.decrementQuantity(eq(testProductId), eq(30), any(LocalDateTime.class))).thenReturn(0);
+        when(productRepository.findStockStripesByProductId(testProductId)).thenReturn(Optional.of(0));
+
+        // When & Then
+        assertThrows(InsufficientStockException.class, () -> stockService.decrementStock(testProductId, 30));
+        verifyNoInteractions(eventPublisher, stockThresholdService, stockLedgerService);
+    }
+
+    @Test
+    void decrementStock_ShouldThrowResourceNotFoundException_WhenProductDoesNotExist() {
+        // Given
+        when(productRepository.decrementQuantity(eq(testProductId), eq(1), any(LocalDateTime.class))).thenReturn(0);
+        when(productRepository.findStockStripesByProductId(testProductId)).thenReturn(Optional.empty());
+
+        // When & Then
+        ResourceNotFoundException exception = assertThrows(
+            ResourceNotFoundException.class,
+            () -> stockService.decrementStock(testProductId, 1)
+        );
+        assertTrue(exception.getMessage().contains("Product not found with the id: " + testProductId));
+    }
+
+    @Test
+    void decrementStock_ShouldUseStripes_WhenProductIsStriped() {
+        // Given
+        when(productRepository.decrementQuantity(eq(testProductId), eq(2), any(LocalDateTime.class))).thenReturn(0);
+        when(productRepository.findStockStripesByProductId(testProductId)).thenReturn(Optional.of(8));
+        when(stockStripeService.decrement(testProductId, 8, 2)).thenReturn(true);
+
+        // When
+        StockAdjustmentResponseDto result = stockService.decrementStock(testProductId, 2);
+
+        // Then
+        assertEquals(-2, result.getAdjustment());
+        verify(stockLedgerService, times(1)).record(testProductId, -2, StockMovementReason.DECREMENTED, null);
+    }
+
+    @Test
+    void decrementStock_ShouldThrowInsufficientStockException_WhenStripesRunOut() {
+        // Given
+        when(productRepository.decrementQuantity(eq(testProductId), eq(2), any(LocalDateTime.class))).thenReturn(0);
+        when(productRepository.findStockStripesByProductId(testProductId)).thenReturn(Optional.of(8));
+        when(stockStripeService.decrement(testProductId, 8, 2)).thenReturn(false);
+
+        // When & Then
+        assertThrows(InsufficientStockException.class, () -> stockService.decrementStock(testProductId, 2));
+        verifyNoInteractions(eventPublisher, stockLedgerService);
+    }
+
+    @Test
+    void decrementStock_ShouldReportFlashSale_WhenProductIsInFlashSaleMode() {
+        // Given
+        when(productRepository.decrementQuantity(eq(testProductId), eq(2), any(LocalDateTime.class))).thenReturn(0);
+        when(productRepository.findStockStripesByProductId(testProductId)).thenReturn(Optional.of(0));
+        when(productRepository.existsByProductIdAndFlashSaleSeqIsNotNull(testProductId)).thenReturn(true);
+
+        // When & Then
+        ProductSubmissionException exception = assertThrows(ProductSubmissionException.class,
+                () -> stockService.decrementStock(testProductId, 2));
+        assertTrue(exception.getMessage().contains("flash-sale mode"));
+        verifyNoInteractions(eventPublisher, stockLedgerService);
+    }
+
+    @Test
+    void incrementStock_ShouldApply_WhenProductExists() {
+        // Given
+        when(productRepository.incrementQuantity(eq(testProductId), eq(5), any(LocalDateTime.class))).thenReturn(1);
+
+        // When
+        StockAdjustmentResponseDto result = stockService.incrementStock(testProductId, 5);
+
+        // Then
+        assertEquals(5, result.getAdjustment());
+        verify(eventPublisher, times(1)).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    void incrementStock_ShouldThrowResourceNotFoundException_WhenProductDoesNotExist() {
+        // Given
+        when(productRepository.incrementQuantity(eq(testProductId), eq(5), any(LocalDateTime.class))).thenReturn(0);
+
+        // When & Then
+        assertThrows(ResourceNotFoundException.class, () -> stockService.incrementStock(testProductId, 5));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void incrementStock_ShouldReportFlashSale_WhenProductIsInFlashSaleMode() {
+        // Given
+        when(productRepository.incrementQuantity(eq(testProductId), eq(5), any(LocalDateTime.class))).thenReturn(0);
+        when(productRepository.findStockStripesByProductId(testProductId)).thenReturn(Optional.of(0));
+        when(productRepository.existsByProductIdAndFlashSaleSeqIsNotNull(testProductId)).thenReturn(true);
+
+        // When & Then
+        assertThrows(ProductSubmissionException.class, () -> stockService.incrementStock(testProductId, 5));
+        verifyNoInteractions(eventPublisher, stockLedgerService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reserveStock_ShouldMergeLinesAndDecrementInIdOrder() {
+        // Given
+        UUID first = new UUID(0, 1);
+        UUID second = new UUID(0, 2);
+        List<StockReservationLineDto> lines = List.of(
+            new StockReservationLineDto(second, 2),
+            new StockReservationLineDto(first, 1),
+            new StockReservationLineDto(second, 3));
+        ArgumentCaptor<SortedMap<UUID, Integer>> captor = ArgumentCaptor.forClass(SortedMap.class);
+        when(productRepository.batchDecrementQuantities(captor.capture(), any(LocalDateTime.class)))
+            .thenReturn(new int[]{1, 1});
+
+        // When
+        StockReservationResponseDto result = stockService.reserveStock(lines);
+
+        // Then
+        assertTrue(result.isReserved());
+        assertEquals(List.of(first, second), new ArrayList<>(captor.getValue().keySet()));
+        assertEquals(5, captor.getValue().get(second));
+        assertEquals(3, result.getLines().size());
+        assertEquals(second, result.getLines().get(0).getProductId());
+        assertTrue(result.getLines().stream().allMatch(line -> line.getStatus() == StockReservationStatus.RESERVED));
+        verify(eventPublisher, times(2)).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    void reserveStock_ShouldFailWholeReservation_WhenAnyLineFails() {
+        // Given
+        UUID available = new UUID(0, 1);
+        UUID lowStock = new UUID(0, 2);
+        UUID missing = new UUID(0, 3);
+        List<StockReservationLineDto> lines = List.of(
+            new StockReservationLineDto(available, 1),
+            new StockReservationLineDto(lowStock, 10),
+            new StockReservationLineDto(missing, 1));
+        when(productRepository.batchDecrementQuantities(any(), any(LocalDateTime.class)))
+            .thenReturn(new int[]{1, 0, 0});
+        ProductStockView lowStockView = mock(ProductStockView.class);
+        when(lowStockView.getProductId()).thenReturn(lowStock);
+        when(lowStockView.getQuantity()).thenReturn(4);
+        when(productRepository.findStockByProductIdIn(anyCollection())).thenReturn(List.of(lowStockView));
+
+        // When
+        StockReservationException exception = assertThrows(
+            StockReservationException.class,
+            () -> stockService.reserveStock(lines)
+        );
+
+        // Then
+        StockReservationResponseDto result = exception.getResult();
+        assertFalse(result.isReserved());
+        assertEquals(StockReservationStatus.ROLLED_BACK, result.getLines().get(0).getStatus());
+        assertEquals(StockReservationStatus.INSUFFICIENT_STOCK, result.getLines().get(1).getStatus());
+        assertEquals(4, result.getLines().get(1).getAvailableQuantity());
+        assertEquals(StockReservationStatus.NOT_FOUND, result.getLines().get(2).getStatus());
+        verifyNoInteractions(eventPublisher);
+    }
+}
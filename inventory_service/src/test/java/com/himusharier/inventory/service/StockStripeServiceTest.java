@@ -0,0 +1,193 @@
+package com.himusharier.inventory.service;
+
+import com.himusharier.inventory.dto.response.StockStripesResponseDto;
+import com.himusharier.inventory.exception.InsufficientStockException;
+import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.model.StockStripe;
+import com.himusharier.inventory.repository.ProductRepository;
+import com.himusharier.inventory.repository.StockMovementRepository;
+import com.himusharier.inventory.repository.StockStripeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({StockStripeService.class, StockService.class, StockLedgerService.class, StockThresholdService.class})
+class StockStripeServiceTest {
+
+    @Autowired
+    private StockStripeService stockStripeService;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockStripeRepository stockStripeRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private UUID testProductId;
+
+    @BeforeEach
+    void setUp() {
+        stockStripeRepository.deleteAll();
+        stockMovementRepository.deleteAll();
+        productRepository.deleteAll();
+        testProductId = productRepository.save(Product.builder()
+                .name("Flash Sale Item")
+                .price(9.99)
+                .quantity(10)
+                .build()).getProductId();
+    }
+
+    @Test
+    void configure_ShouldSpreadStockAndReadBackAsSum() {
+        // When
+        StockStripesResponseDto stripes = stockStripeService.configure(testProductId, 4);
+
+        // Then
+        assertEquals(List.of(3, 3, 2, 2), stripes.getStripeQuantities());
+        assertEquals(10, productRepository.findDtoByProductId(testProductId).orElseThrow().getQuantity());
+        assertEquals(4, productRepository.findDtoByProductId(testProductId).orElseThrow().getStockStripes());
+    }
+
+    @Test
+    void decrementStock_ShouldTakeFromSeveralStripes_WhenNoSingleStripeHasEnough() {
+        // Given
+        stockStripeService.configure(testProductId, 4);
+
+        // When
+        stockService.decrementStock(testProductId, 7);
+
+        // Then
+        assertEquals(3, productRepository.findDtoByProductId(testProductId).orElseThrow().getQuantity());
+        assertThrows(InsufficientStockException.class, () -> stockService.decrementStock(testProductId, 4));
+    }
+
+    @Test
+    void decrementStock_ShouldLeaveTheCallersEntitiesManaged() {
+        // Given
+        stockStripeService.configure(testProductId, 4);
+        Product product = productRepository.findByProductId(testProductId).orElseThrow();
+
+        // When
+        stockService.decrementStock(testProductId, 1);
+
+        // Then
+        assertTrue(entityManager.getEntityManager().contains(product));
+    }
+
+    @Test
+    void configure_ShouldMergeStripesBack_WhenSetToZero() {
+        // Given
+        stockStripeService.configure(testProductId, 4);
+        stockService.decrementStock(testProductId, 1);
+
+        // When
+        stockStripeService.configure(testProductId, 0);
+
+        // Then
+        assertTrue(stockStripeRepository.findStripes(testProductId).isEmpty());
+        assertEquals(9, productRepository.findByProductId(testProductId).orElseThrow().getQuantity());
+        assertEquals(1, stockService.decrementStock(testProductId, 1).getAdjustment() * -1);
+    }
+
+    @Test
+    void rebalance_ShouldEvenOutDrainedStripes() {
+        // Given
+        stockStripeService.configure(testProductId, 2);
+        stockStripeRepository.decrementOneStripe(testProductId, 0, 2, 5);
+        // rebalanceAll runs it in a transaction of its own
+        entityManager.clear();
+
+        // When
+        stockStripeService.rebalance(testProductId);
+
+        // Then
+        assertEquals(List.of(3, 2), stockStripeRepository.findStripes(testProductId).stream()
+                .map(StockStripe::getQuantity).toList());
+        assertEquals(5, productRepository.findStockByProductIdIn(List.of(testProductId)).get(0).getQuantity());
+    }
+
+    // Real commits from many threads: every unit is sold exactly once and stock never goes negative.
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void decrementStock_ShouldNeverOversell_UnderConcurrency() throws Exception {
+        // Given
+        Product product = productRepository.findByProductId(testProductId).orElseThrow();
+        product.setQuantity(200);
+        productRepository.save(product);
+        stockStripeService.configure(testProductId, 8);
+
+        AtomicInteger sold = new AtomicInteger();
+        List<PessimisticLockingFailureException> lockFailures = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            // When
+            List<Future<?>> buyers = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                buyers.add(executor.submit(() -> {
+                    while (true) {
+                        try {
+                            stockService.decrementStock(testProductId, 3);
+                            sold.addAndGet(3);
+                        } catch (InsufficientStockException e) {
+                            return;
+                        } catch (PessimisticLockingFailureException e) {
+                            // Lock timeout under contention: try again.
+                            lockFailures.add(e);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> buyer : buyers) {
+                buyer.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        int remaining = productRepository.findDtoByProductId(testProductId).orElseThrow().getQuantity();
+        assertEquals(200, sold.get() + remaining);
+        assertTrue(remaining < 3);
+        assertTrue(stockStripeRepository.findStripes(testProductId).stream().allMatch(stripe -> stripe.getQuantity() >= 0));
+        assertTrue(lockFailures.stream().noneMatch(StockStripeServiceTest::isDeadlock), "deadlock between stripe decrements");
+    }
+
+    private static boolean isDeadlock(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && "40001".equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
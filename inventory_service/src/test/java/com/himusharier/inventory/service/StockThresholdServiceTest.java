@@ -0,0 +1,171 @@
+package com.himusharier.inventory.service;
+
+import com.himusharier.inventory.constants.StockThresholdEventType;
+import com.himusharier.inventory.event.StockThresholdEvent;
+import com.himusharier.inventory.model.Product;
+import com.himusharier.inventory.repository.ProductRepository;
+import com.himusharier.inventory.repository.ProductThresholdView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockThresholdServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private StockThresholdService stockThresholdService;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        stockThresholdService = new StockThresholdService(productRepository, eventPublisher);
+        ReflectionTestUtils.setField(stockThresholdService, "restoreMargin", 2);
+        testProduct = Product.builder()
+                .productId(UUID.randomUUID())
+                .name("Test Product")
+                .price(9.99)
+                .quantity(10)
+                .reorderThreshold(5)
+                .build();
+    }
+
+    @Test
+    void evaluate_ShouldRaiseLowOnce_WhenQuantityDropsBelowThreshold() {
+        // When
+        testProduct.setQuantity(4);
+        stockThresholdService.evaluate(testProduct);
+        testProduct.setQuantity(3);
+        stockThresholdService.evaluate(testProduct);
+
+        // Then
+        ArgumentCaptor<StockThresholdEvent> captor = ArgumentCaptor.forClass(StockThresholdEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(captor.capture());
+        assertEquals(StockThresholdEventType.LOW, captor.getValue().getType());
+        assertEquals(4, captor.getValue().getQuantity());
+        assertTrue(testProduct.isLowStockAlerted());
+    }
+
+    @Test
+    void evaluate_ShouldRaiseRestoredOnlyPastMargin() {
+        // Given
+        testProduct.setQuantity(4);
+        stockThresholdService.evaluate(testProduct);
+
+        // When - back at the threshold, but still inside the margin
+        testProduct.setQuantity(6);
+        stockThresholdService.evaluate(testProduct);
+        testProduct.setQuantity(4);
+        stockThresholdService.evaluate(testProduct);
+        testProduct.setQuantity(7);
+        stockThresholdService.evaluate(testProduct);
+
+        // Then
+        ArgumentCaptor<StockThresholdEvent> captor = ArgumentCaptor.forClass(StockThresholdEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(captor.capture());
+        assertEquals(StockThresholdEventType.LOW, captor.getAllValues().get(0).getType());
+        assertEquals(StockThresholdEventType.RESTORED, captor.getAllValues().get(1).getType());
+        assertFalse(testProduct.isLowStockAlerted());
+    }
+
+    @Test
+    void evaluate_ShouldNotFlapAtThreshold_AndReArmAtThresholdPlusOne_WithDefaultMargin() {
+        // Given
+        StockThresholdService defaultMarginService = new StockThresholdService(productRepository, eventPublisher);
+
+        // When - hovering between the threshold and one below it, then one above it, then below again
+        for (int quantity : new int[]{4, 5, 4, 5, 4, 6, 4}) {
+            testProduct.setQuantity(quantity);
+            defaultMarginService.evaluate(testProduct);
+        }
+
+        // Then
+        ArgumentCaptor<StockThresholdEvent> captor = ArgumentCaptor.forClass(StockThresholdEvent.class);
+        verify(eventPublisher, times(3)).publishEvent(captor.capture());
+        assertEquals(List.of(StockThresholdEventType.LOW, StockThresholdEventType.RESTORED, StockThresholdEventType.LOW),
+                captor.getAllValues().stream().map(StockThresholdEvent::getType).toList());
+        assertEquals(List.of(4, 6, 4),
+                captor.getAllValues().stream().map(StockThresholdEvent::getQuantity).toList());
+        assertTrue(testProduct.isLowStockAlerted());
+    }
+
+    @Test
+    void evaluate_ShouldDoNothing_WhenNoThreshold() {
+        // Given
+        testProduct.setReorderThreshold(null);
+        testProduct.setQuantity(0);
+
+        // When
+        stockThresholdService.evaluate(testProduct);
+
+        // Then
+        verifyNoInteractions(eventPublisher);
+        assertFalse(testProduct.isLowStockAlerted());
+    }
+
+    @Test
+    void evaluateById_ShouldFlipStoredFlag_WhenCrossed() {
+        // Given
+        UUID productId = testProduct.getProductId();
+        when(productRepository.findThresholdStateByProductId(productId)).thenReturn(Optional.of(state(2, 5, false)));
+
+        // When
+        stockThresholdService.evaluate(productId);
+
+        // Then
+        verify(productRepository, times(1)).updateLowStockAlerted(productId, true);
+        verify(eventPublisher, times(1)).publishEvent(any(StockThresholdEvent.class));
+    }
+
+    @Test
+    void evaluateById_ShouldNotWrite_WhenAlreadyAlerted() {
+        // Given
+        UUID productId = testProduct.getProductId();
+        when(productRepository.findThresholdStateByProductId(productId)).thenReturn(Optional.of(state(1, 5, true)));
+
+        // When
+        stockThresholdService.evaluate(productId);
+
+        // Then
+        verify(productRepository, never()).updateLowStockAlerted(any(UUID.class), anyBoolean());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private static ProductThresholdView state(int quantity, Integer reorderThreshold, boolean lowStockAlerted) {
+        return new ProductThresholdView() {
+            @Override
+            public int getQuantity() {
+                return quantity;
+            }
+
+            @Override
+            public Integer getReorderThreshold() {
+                return reorderThreshold;
+            }
+
+            @Override
+            public boolean getLowStockAlerted() {
+                return lowStockAlerted;
+            }
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package com.himusharier.inventory.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvLineParserTest {
+
+    @Test
+    void parse_ShouldSplitPlainFields() {
+        assertEquals(List.of("a", "b", "", "d"), CsvLineParser.parse("a,b,,d"));
+    }
+
+    @Test
+    void parse_ShouldHandleQuotedCommasAndEscapedQuotes() {
+        assertEquals(
+                List.of("Keyboard", "Mechanical, \"87\" keys", "49.5"),
+                CsvLineParser.parse("Keyboard,\"Mechanical, \"\"87\"\" keys\",49.5")
+        );
+    }
+
+    @Test
+    void parse_ShouldRejectUnterminatedQuote() {
+        assertThrows(IllegalArgumentException.class, () -> CsvLineParser.parse("a,\"b"));
+    }
+}
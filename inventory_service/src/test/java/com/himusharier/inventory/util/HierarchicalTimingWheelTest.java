@@ -0,0 +1,83 @@
+package com.himusharier.inventory.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void advance_ShouldFireEveryTimerAtItsExpiry_AcrossAllLevels() {
+        // Given: 1 ms ticks, expiries spread over every level and beyond the wheel's range
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(1, 0);
+        Random random = new Random(42);
+        Map<Integer, Long> expiries = new HashMap<>();
+        for (int key = 0; key < 20_000; key++) {
+            long expiry = switch (key % 4) {
+                case 0 -> random.nextInt(64);
+                case 1 -> random.nextInt(1 << 12);
+                case 2 -> random.nextInt(1 << 20);
+                default -> (1L << 24) + random.nextInt(1 << 16);
+            };
+            expiries.put(key, expiry);
+            wheel.schedule(key, expiry);
+        }
+
+        // When: the clock moves in uneven jumps
+        long now = 0;
+        long previous = -1;
+        while (!expiries.isEmpty()) {
+            List<Integer> fired = wheel.advance(now);
+
+            // Then: due since the previous advance, and never early
+            for (Integer key : fired) {
+                long expiry = expiries.remove(key);
+                assertTrue(expiry <= now && expiry > previous, "key " + key + " expiring at " + expiry + " fired at " + now);
+            }
+            for (Map.Entry<Integer, Long> pending : expiries.entrySet()) {
+                if (pending.getValue() <= now) {
+                    fail("key " + pending.getKey() + " expiring at " + pending.getValue() + " not fired at " + now);
+                }
+            }
+            previous = now;
+            now += 1 + random.nextInt(now < 5000 ? 50 : 200_000);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancel_ShouldRemoveTimer_AndRescheduleShouldMoveIt() {
+        // Given
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 0);
+        wheel.schedule("cancelled", 5_000);
+        wheel.schedule("moved", 5_000);
+        wheel.schedule("kept", 5_000);
+
+        // When
+        assertTrue(wheel.cancel("cancelled"));
+        wheel.schedule("moved", 120_000);
+
+        // Then
+        assertEquals(List.of("kept"), wheel.advance(10_000));
+        assertTrue(wheel.advance(119_999).isEmpty());
+        assertEquals(List.of("moved"), wheel.advance(120_000));
+        assertFalse(wheel.cancel("moved"));
+    }
+
+    @Test
+    void schedule_ShouldFireOnNextAdvance_WhenExpiryIsAlreadyPast() {
+        // Given
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 60_000);
+
+        // When
+        wheel.schedule("late", 1_000);
+
+        // Then
+        assertEquals(List.of("late"), wheel.advance(60_000));
+    }
+}